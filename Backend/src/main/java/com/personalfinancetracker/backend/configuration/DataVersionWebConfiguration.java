@@ -0,0 +1,32 @@
+package com.personalfinancetracker.backend.configuration;
+
+import com.personalfinancetracker.backend.filters.DataVersionInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Applies {@link DataVersionInterceptor} to the read endpoints whose responses depend only on
+ * the user's expenses, incomes, budgets and goals.
+ */
+@Configuration
+public class DataVersionWebConfiguration implements WebMvcConfigurer {
+
+    private final DataVersionInterceptor dataVersionInterceptor;
+
+    public DataVersionWebConfiguration(DataVersionInterceptor dataVersionInterceptor) {
+        this.dataVersionInterceptor = dataVersionInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(dataVersionInterceptor)
+                .addPathPatterns(
+                        "/api/expenses", "/api/expenses/**",
+                        "/api/incomes", "/api/incomes/**",
+                        "/api/transactions", "/api/transactions/**",
+                        "/api/budget", "/api/budget/**",
+                        "/api/financial-goals", "/api/financial-goals/**",
+                        "/api/analytics/**");
+    }
+}
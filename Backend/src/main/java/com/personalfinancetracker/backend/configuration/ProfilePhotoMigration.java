@@ -0,0 +1,51 @@
+package com.personalfinancetracker.backend.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Moves photos still stored in the legacy customer.profile_photo column into
+ * customer_profile_photo, then clears the old column so customer rows stay small.
+ */
+@Component
+public class ProfilePhotoMigration {
+    private static final Logger logger = LoggerFactory.getLogger(ProfilePhotoMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProfilePhotoMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void migrateLegacyPhotos() {
+        try {
+            Integer legacyColumn = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.columns " +
+                            "WHERE table_schema = DATABASE() AND table_name = 'customer' AND column_name = 'profile_photo'",
+                    Integer.class);
+            if (legacyColumn == null || legacyColumn == 0) {
+                return;
+            }
+
+            int copied = jdbcTemplate.update(
+                    "INSERT INTO customer_profile_photo (customer_email, data, content_hash, updated_at) " +
+                            "SELECT c.email, c.profile_photo, SHA2(c.profile_photo, 256), NOW() FROM customer c " +
+                            "WHERE c.profile_photo IS NOT NULL AND c.email IS NOT NULL AND NOT EXISTS " +
+                            "(SELECT 1 FROM customer_profile_photo p WHERE p.customer_email = c.email)");
+            int cleared = jdbcTemplate.update("UPDATE customer SET profile_photo = NULL WHERE profile_photo IS NOT NULL");
+
+            if (copied > 0 || cleared > 0) {
+                logger.info("Migrated {} legacy profile photo(s), cleared {} customer row(s)", copied, cleared);
+            }
+        } catch (Exception e) {
+            logger.error("Error migrating legacy profile photos: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.personalfinancetracker.backend.configuration;
+
+import com.personalfinancetracker.backend.services.DataVersionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the read replica and everything else to the
+ * primary. Reads stay on the primary while the replica is out of rotation (see
+ * {@link ReplicaLagMonitor}), when it refuses a connection, and for a user whose data changed
+ * within the last {@code pinAfterWrite}, so users always read their own writes. The time of a
+ * user's last change is read from the primary ({@link DataVersionService#changedWithin}), so the
+ * pin holds whichever instance took the write.
+ * <p>
+ * The routing decision is made when a connection is first used, so this has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: a transaction's
+ * connection is otherwise fetched before the read-only flag is visible.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    // Straight to the primary pool: going through the routing proxy would recurse into it
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final Duration pinAfterWrite;
+
+    public ReadReplicaRoutingDataSource(DataSource primary,
+                                        DataSource replica,
+                                        ReplicaLagMonitor lagMonitor,
+                                        Duration pinAfterWrite) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.primaryJdbcTemplate = new JdbcTemplate(primary);
+        this.pinAfterWrite = pinAfterWrite;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !lagMonitor.isAvailable()) {
+            return Route.PRIMARY;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && DataVersionService.changedWithin(primaryJdbcTemplate, authentication.getName(), pinAfterWrite)) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineTargetDataSource() != replica) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            lagMonitor.markUnavailable(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Per-call credentials belong to one server, so they bypass routing
+        return primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,122 @@
+package com.personalfinancetracker.backend.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.time.Duration;
+
+/**
+ * Decides whether the read replica may serve reads. Replication lag is polled from the replica
+ * itself; the replica is taken out of rotation while it lags by more than the allowed maximum,
+ * has replication stopped, or cannot be reached, and put back once a check passes again.
+ * <p>
+ * Starts out of rotation, so nothing is read from the replica before its first check.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private final boolean checkReplication;
+    private volatile boolean available;
+    // SHOW REPLICA STATUS needs MySQL 8.0.22+, older servers only know the SLAVE spelling
+    private volatile boolean legacyStatusSyntax;
+
+    /**
+     * @param checkReplication false to only check that the replica answers, for replicas that are
+     *                         not MySQL replicas of the primary (e.g. a second local instance)
+     */
+    public ReplicaLagMonitor(DataSource replicaDataSource, Duration maxLag, boolean checkReplication) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replica.setQueryTimeout(5);
+        this.maxLag = maxLag;
+        this.checkReplication = checkReplication;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Take the replica out of rotation until the next successful check, e.g. after it refused
+     * a connection.
+     */
+    public void markUnavailable(Exception cause) {
+        if (available) {
+            available = false;
+            logger.warn("Read replica unavailable, reading from primary: {}", cause.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        String problem;
+        try {
+            problem = checkReplication ? checkLag() : checkConnection();
+        } catch (Exception e) {
+            problem = "check failed: " + e.getMessage();
+        }
+
+        if (problem == null && !available) {
+            available = true;
+            logger.info("Read replica in rotation");
+        } else if (problem != null && available) {
+            available = false;
+            logger.warn("Read replica out of rotation, reading from primary: {}", problem);
+        } else if (problem != null) {
+            logger.debug("Read replica still out of rotation: {}", problem);
+        }
+    }
+
+    private String checkConnection() {
+        replica.queryForObject("SELECT 1", Integer.class);
+        return null;
+    }
+
+    // Null when the replica is within the allowed lag, otherwise why it is not
+    private String checkLag() {
+        Long lagSeconds;
+        try {
+            lagSeconds = legacyStatusSyntax
+                    ? replica.query("SHOW SLAVE STATUS", secondsBehind("Seconds_Behind_Master"))
+                    : replica.query("SHOW REPLICA STATUS", secondsBehind("Seconds_Behind_Source"));
+        } catch (BadSqlGrammarException e) {
+            if (legacyStatusSyntax) {
+                throw e;
+            }
+            legacyStatusSyntax = true;
+            return checkLag();
+        }
+
+        if (lagSeconds == null) {
+            return "replication is not running";
+        }
+        if (lagSeconds * 1000 > maxLag.toMillis()) {
+            return "lagging " + lagSeconds + "s behind primary";
+        }
+        return null;
+    }
+
+    // Null for "not a replica" (no row) as well as "replication stopped" (NULL column)
+    private static ResultSetExtractor<Long> secondsBehind(String column) {
+        return resultSet -> {
+            if (!resultSet.next()) {
+                return null;
+            }
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if (column.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                    long seconds = resultSet.getLong(i);
+                    return resultSet.wasNull() ? null : seconds;
+                }
+            }
+            return null;
+        };
+    }
+}
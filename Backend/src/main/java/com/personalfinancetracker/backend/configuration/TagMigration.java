@@ -0,0 +1,72 @@
+package com.personalfinancetracker.backend.configuration;
+
+import com.personalfinancetracker.backend.utils.TagUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the expense_tag and income_tag tables from the comma-separated tags column
+ * for rows written before tags were normalized. Rows that already have tag rows are skipped,
+ * so the migration is a no-op once everything has been copied.
+ */
+@Component
+public class TagMigration {
+    private static final Logger logger = LoggerFactory.getLogger(TagMigration.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TagMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateCsvTags() {
+        try {
+            int expenses = migrate("expense", "expense_tag", "expense_id");
+            int incomes = migrate("income", "income_tag", "income_id");
+            if (expenses > 0 || incomes > 0) {
+                logger.info("Normalized tags for {} expense(s) and {} income(s)", expenses, incomes);
+            }
+        } catch (Exception e) {
+            logger.error("Error migrating comma-separated tags: {}", e.getMessage(), e);
+        }
+    }
+
+    private int migrate(String table, String tagTable, String idColumn) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT t.id, t.tags FROM " + table + " t " +
+                        "WHERE t.tags IS NOT NULL AND t.tags <> '' AND NOT EXISTS " +
+                        "(SELECT 1 FROM " + tagTable + " g WHERE g." + idColumn + " = t.id)");
+
+        List<Object[]> batch = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            for (String tag : TagUtils.parse((String) row.get("tags"))) {
+                batch.add(new Object[]{id, tag});
+                if (batch.size() >= BATCH_SIZE) {
+                    insert(tagTable, idColumn, batch);
+                }
+            }
+        }
+        insert(tagTable, idColumn, batch);
+        return rows.size();
+    }
+
+    private void insert(String tagTable, String idColumn, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + tagTable + " (" + idColumn + ", tag) VALUES (?, ?)", batch);
+        batch.clear();
+    }
+}
@@ -91,8 +91,10 @@ public class WebSecurityConfiguration {
                             "Authorization",
                             "Content-Type",
                             "X-XSRF-TOKEN",
-                            "x-csrf-token"  // Added to allow Angular's header
+                            "x-csrf-token",  // Added to allow Angular's header
+                            "If-None-Match"
                     ));
+                    corsConfig.setExposedHeaders(List.of("X-Next-Cursor", "ETag"));
                     corsConfig.setAllowCredentials(true);
                     corsConfig.setMaxAge(3600L);
                     return corsConfig;
@@ -144,6 +146,7 @@ public class WebSecurityConfiguration {
                 .logout(logout -> logout
                         .logoutUrl("/logout")
                         .logoutSuccessHandler((request, response, authentication) -> {
+                            authenticationService.revokeToken(request);
                             jwtUtil.clearJwtCookie(response);
                             response.setStatus(HttpServletResponse.SC_OK);
                             response.setContentType("application/json");
@@ -1,9 +1,17 @@
 package com.personalfinancetracker.backend.controllers;
 
+import com.personalfinancetracker.backend.dto.CategoryMonthTotal;
+import com.personalfinancetracker.backend.dto.SpendingBucket;
 import com.personalfinancetracker.backend.entities.Expense;
 import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
 import com.personalfinancetracker.backend.repository.ExpenseRepository;
 import com.personalfinancetracker.backend.repository.IncomeRepository;
+import com.personalfinancetracker.backend.services.MonthlyRollupService;
+import com.personalfinancetracker.backend.services.QueryFanOut;
+import com.personalfinancetracker.backend.services.forecast.ForecastService;
+import com.personalfinancetracker.backend.utils.AmountGrid;
+import com.personalfinancetracker.backend.utils.Money;
 import com.personalfinancetracker.backend.utils.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -18,6 +26,7 @@ import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 
@@ -30,17 +39,26 @@ public class AnalyticsController {
     private final IncomeRepository incomeRepository;
     private final JwtUtil jwtUtil;
     private final HttpServletRequest request;
+    private final MonthlyRollupService monthlyRollupService;
+    private final QueryFanOut queryFanOut;
+    private final ForecastService forecastService;
 
     @Autowired
     public AnalyticsController(
             ExpenseRepository expenseRepository,
             IncomeRepository incomeRepository,
             JwtUtil jwtUtil,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            MonthlyRollupService monthlyRollupService,
+            QueryFanOut queryFanOut,
+            ForecastService forecastService) {
         this.expenseRepository = expenseRepository;
         this.incomeRepository = incomeRepository;
         this.jwtUtil = jwtUtil;
         this.request = request;
+        this.monthlyRollupService = monthlyRollupService;
+        this.queryFanOut = queryFanOut;
+        this.forecastService = forecastService;
     }
 
     @GetMapping("/spending-patterns")
@@ -65,48 +83,38 @@ public class AnalyticsController {
                 endDate = LocalDate.now();
             }
 
-            List<Expense> expenses = expenseRepository.findByCustomerEmailAndDateBetween(email, startDate, endDate);
+            LocalDateTime rangeStart = startDate.atStartOfDay();
+            LocalDateTime rangeEnd = endDate.plusDays(1).atStartOfDay();
 
-            // Calculate spending by category
-            Map<String, Double> categoryTotals = new HashMap<>();
-            for (Expense expense : expenses) {
-                String category = expense.getCategory();
-                categoryTotals.put(category, categoryTotals.getOrDefault(category, 0.0) + expense.getAmount());
-            }
-
-            // Sort categories by total amount (descending)
-            List<Map.Entry<String, Double>> sortedCategories = categoryTotals.entrySet()
+            // Spending by category, already sorted by total amount (descending)
+            List<Map.Entry<String, Double>> sortedCategories = expenseRepository
+                    .sumByCategory(email, rangeStart, rangeEnd)
                     .stream()
-                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                    .map(summary -> Map.entry(summary.getCategory(), summary.getTotalAmount()))
                     .collect(Collectors.toList());
 
             // Monthly spending trends
             Map<String, Map<String, Double>> monthlyTrends = new HashMap<>();
 
             // Initialize months
-            LocalDate current = startDate;
-            while (!current.isAfter(endDate)) {
-                String monthKey = current.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-                monthlyTrends.put(monthKey, new HashMap<>());
-                current = current.plusMonths(1);
+            YearMonth lastMonth = YearMonth.from(endDate);
+            for (YearMonth month = YearMonth.from(startDate); !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+                monthlyTrends.put(month.toString(), new HashMap<>());
             }
 
             // Fill in monthly trends data
-            for (Expense expense : expenses) {
-                String monthKey = expense.getDate().format(DateTimeFormatter.ofPattern("yyyy-MM"));
-                String category = expense.getCategory();
-
+            for (CategoryMonthTotal row : expenseRepository.sumByMonthAndCategory(email, rangeStart, rangeEnd)) {
+                String monthKey = YearMonth.of(row.getYear(), row.getMonth()).toString();
                 Map<String, Double> monthData = monthlyTrends.get(monthKey);
                 if (monthData != null) {
-                    monthData.put(category, monthData.getOrDefault(category, 0.0) + expense.getAmount());
+                    monthData.merge(row.getCategory(), row.getTotal(), Double::sum);
                 }
             }
 
             // Daily spending patterns
             Map<String, Double> dailyPatterns = new HashMap<>();
-            for (Expense expense : expenses) {
-                String dayOfWeek = expense.getDate().getDayOfWeek().toString();
-                dailyPatterns.put(dayOfWeek, dailyPatterns.getOrDefault(dayOfWeek, 0.0) + expense.getAmount());
+            for (SpendingBucket bucket : expenseRepository.sumByDayOfWeek(email, rangeStart, rangeEnd)) {
+                dailyPatterns.put(toDayOfWeek(bucket.getBucket()).toString(), bucket.getTotal());
             }
 
             // Prepare response
@@ -145,32 +153,42 @@ public class AnalyticsController {
             LocalDate startOfPrevMonth = YearMonth.from(today).minusMonths(1).atDay(1);
             LocalDate endOfPrevMonth = YearMonth.from(today).minusMonths(1).atEndOfMonth();
 
-            // Get expenses
-            List<Expense> currentMonthExpenses = expenseRepository.findByCustomerEmailAndDateBetween(
-                    email, startOfMonth, today);
-            List<Expense> prevMonthExpenses = expenseRepository.findByCustomerEmailAndDateBetween(
-                    email, startOfPrevMonth, endOfPrevMonth);
-
-            // Get incomes
-            List<Income> currentMonthIncomes = incomeRepository.findByCustomerEmailAndDateBetween(
-                    email, startOfMonth, today);
-            List<Income> prevMonthIncomes = incomeRepository.findByCustomerEmailAndDateBetween(
-                    email, startOfPrevMonth, endOfPrevMonth);
+            // The four reads are independent, so they run in parallel
+            List<Expense> currentMonthExpenses;
+            List<Expense> prevMonthExpenses;
+            List<Income> currentMonthIncomes;
+            List<Income> prevMonthIncomes;
+            try (QueryFanOut.Scope scope = queryFanOut.open()) {
+                Future<List<Expense>> currentMonthExpensesQuery = scope.fork(() ->
+                        expenseRepository.findByCustomerEmailAndDateBetween(email, startOfMonth, today));
+                Future<List<Expense>> prevMonthExpensesQuery = scope.fork(() ->
+                        expenseRepository.findByCustomerEmailAndDateBetween(email, startOfPrevMonth, endOfPrevMonth));
+                Future<List<Income>> currentMonthIncomesQuery = scope.fork(() ->
+                        incomeRepository.findByCustomerEmailAndDateBetween(email, startOfMonth, today));
+                Future<List<Income>> prevMonthIncomesQuery = scope.fork(() ->
+                        incomeRepository.findByCustomerEmailAndDateBetween(email, startOfPrevMonth, endOfPrevMonth));
+                scope.join();
+
+                currentMonthExpenses = currentMonthExpensesQuery.resultNow();
+                prevMonthExpenses = prevMonthExpensesQuery.resultNow();
+                currentMonthIncomes = currentMonthIncomesQuery.resultNow();
+                prevMonthIncomes = prevMonthIncomesQuery.resultNow();
+            }
 
             // Calculate totals
-            double currentExpenseTotal = currentMonthExpenses.stream()
-                    .mapToDouble(Expense::getAmount)
-                    .sum();
-            double prevExpenseTotal = prevMonthExpenses.stream()
-                    .mapToDouble(Expense::getAmount)
-                    .sum();
-
-            double currentIncomeTotal = currentMonthIncomes.stream()
-                    .mapToDouble(Income::getAmount)
-                    .sum();
-            double prevIncomeTotal = prevMonthIncomes.stream()
-                    .mapToDouble(Income::getAmount)
-                    .sum();
+            double currentExpenseTotal = Money.toMajor(currentMonthExpenses.stream()
+                    .mapToLong(Expense::getAmountMinor)
+                    .sum());
+            double prevExpenseTotal = Money.toMajor(prevMonthExpenses.stream()
+                    .mapToLong(Expense::getAmountMinor)
+                    .sum());
+
+            double currentIncomeTotal = Money.toMajor(currentMonthIncomes.stream()
+                    .mapToLong(Income::getAmountMinor)
+                    .sum());
+            double prevIncomeTotal = Money.toMajor(prevMonthIncomes.stream()
+                    .mapToLong(Income::getAmountMinor)
+                    .sum());
 
             // Insight 1: Spending trend
             if (prevExpenseTotal > 0) {
@@ -226,18 +244,14 @@ public class AnalyticsController {
 
             // Insight 3: Top spending category
             if (!currentMonthExpenses.isEmpty()) {
-                Map<String, Double> categoryTotals = new HashMap<>();
+                AmountGrid categoryTotals = new AmountGrid(1);
                 for (Expense expense : currentMonthExpenses) {
-                    String category = expense.getCategory();
-                    categoryTotals.put(category, categoryTotals.getOrDefault(category, 0.0) + expense.getAmount());
+                    categoryTotals.add(expense.getCategory(), 0, expense.getAmountMinor());
                 }
 
-                String topCategory = categoryTotals.entrySet().stream()
-                        .max(Map.Entry.comparingByValue())
-                        .map(Map.Entry::getKey)
-                        .orElse("");
-
-                double topCategoryAmount = categoryTotals.getOrDefault(topCategory, 0.0);
+                int topRow = categoryTotals.maxRow(0);
+                String topCategory = categoryTotals.key(topRow);
+                double topCategoryAmount = categoryTotals.sum(topRow, 0);
                 double topCategoryPercentage = (topCategoryAmount / currentExpenseTotal) * 100;
 
                 Map<String, Object> categoryInsight = new HashMap<>();
@@ -265,10 +279,10 @@ public class AnalyticsController {
                     .filter(e -> Boolean.TRUE.equals(e.getIsRecurring()))
                     .count();
 
-            double recurringTotal = currentMonthExpenses.stream()
+            double recurringTotal = Money.toMajor(currentMonthExpenses.stream()
                     .filter(e -> Boolean.TRUE.equals(e.getIsRecurring()))
-                    .mapToDouble(Expense::getAmount)
-                    .sum();
+                    .mapToLong(Expense::getAmountMinor)
+                    .sum());
 
             if (currentExpenseTotal > 0) {
                 double recurringPercentage = (recurringTotal / currentExpenseTotal) * 100;
@@ -315,65 +329,27 @@ public class AnalyticsController {
             Double savingsGoal = request.get("savingsGoal") != null ?
                     Double.parseDouble(request.get("savingsGoal").toString()) : null;
 
-            // Set date range for historical data (last 6 months)
-            LocalDate today = LocalDate.now();
-            LocalDate sixMonthsAgo = today.minusMonths(6);
-
-            // Get historical expenses and incomes
-            List<Expense> expenses = expenseRepository.findByCustomerEmailAndDateBetween(
-                    email, sixMonthsAgo, today);
-            List<Income> incomes = incomeRepository.findByCustomerEmailAndDateBetween(
-                    email, sixMonthsAgo, today);
-
-            // Calculate monthly averages
-            Map<YearMonth, Double> monthlyExpenses = new HashMap<>();
-            Map<YearMonth, Double> monthlyIncomes = new HashMap<>();
-
-            // Group expenses by month
-            for (Expense expense : expenses) {
-                YearMonth yearMonth = YearMonth.from(expense.getDate());
-                monthlyExpenses.put(yearMonth, monthlyExpenses.getOrDefault(yearMonth, 0.0) + expense.getAmount());
-            }
-
-            // Group incomes by month
-            for (Income income : incomes) {
-                YearMonth yearMonth = YearMonth.from(income.getDate());
-                monthlyIncomes.put(yearMonth, monthlyIncomes.getOrDefault(yearMonth, 0.0) + income.getAmount());
-            }
-
-            // Calculate averages
-            double avgMonthlyIncome = monthlyIncomes.values().stream()
-                    .mapToDouble(Double::doubleValue)
-                    .average()
-                    .orElse(0.0);
-
-            double avgMonthlyExpense = monthlyExpenses.values().stream()
-                    .mapToDouble(Double::doubleValue)
-                    .average()
-                    .orElse(0.0);
-
-            // Calculate recurring expenses if needed
-            double recurringExpenses = 0.0;
-            if (includeRecurring) {
-                // Only count most recent month's recurring expenses to avoid duplicates
-                LocalDate startOfCurrentMonth = YearMonth.from(today).atDay(1);
-                recurringExpenses = expenses.stream()
-                        .filter(e -> e.getDate().isAfter(startOfCurrentMonth.atStartOfDay())
-                                && Boolean.TRUE.equals(e.getIsRecurring()))
-                        .mapToDouble(Expense::getAmount)
-                        .sum();
-            }
+            // Fitted models are cached until the user's data changes
+            ForecastService.Forecast forecast = forecastService.getForecast(email);
+            double avgMonthlyIncome = forecast.avgMonthlyIncome();
+            double avgMonthlyExpense = forecast.avgMonthlyExpense();
+            double recurringExpenses = forecast.recurringExpenses();
 
             // Generate forecast
             List<Map<String, Object>> forecastMonths = new ArrayList<>();
-            double cumulativeSavings = monthlyIncomes.getOrDefault(YearMonth.from(today), 0.0) -
-                    monthlyExpenses.getOrDefault(YearMonth.from(today), 0.0);
+            YearMonth currentMonth = YearMonth.now();
+            double cumulativeSavings = forecast.currentMonthSavings();
 
             double monthlySavings = 0;
             for (int i = 1; i <= months; i++) {
-                YearMonth forecastMonth = YearMonth.from(today).plusMonths(i);
-                double projectedIncome = avgMonthlyIncome;
-                double projectedExpense = includeRecurring ? recurringExpenses : avgMonthlyExpense;
+                YearMonth forecastMonth = currentMonth.plusMonths(i);
+                // Models end at the last completed month, so the current month is horizon 1
+                double projectedIncome = Math.max(0, forecast.income().forecast(i + 1));
+                double projectedExpense = Math.max(0, forecast.expense().forecast(i + 1));
+                if (includeRecurring) {
+                    // Recurring expenses already booked this month will come back
+                    projectedExpense = Math.max(projectedExpense, recurringExpenses);
+                }
                 monthlySavings = projectedIncome - projectedExpense;
 
                 cumulativeSavings += monthlySavings;
@@ -405,8 +381,10 @@ public class AnalyticsController {
             response.put("avgMonthlyIncome", avgMonthlyIncome);
             response.put("avgMonthlyExpense", avgMonthlyExpense);
             response.put("recurringExpenses", recurringExpenses);
-            response.put("monthlySavings", avgMonthlyIncome - (includeRecurring ? recurringExpenses : avgMonthlyExpense));
+            response.put("monthlySavings", monthlySavings);
             response.put("monthsToGoal", monthsToGoal);
+            response.put("incomeModel", forecast.income().method());
+            response.put("expenseModel", forecast.expense().method());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -432,16 +410,9 @@ public class AnalyticsController {
             LocalDate startOfMonth = YearMonth.from(today).atDay(1);
             LocalDate endOfMonth = YearMonth.from(today).atEndOfMonth();
 
-            // Get current month expenses
-            List<Expense> expenses = expenseRepository.findByCustomerEmailAndDateBetween(
-                    email, startOfMonth, today);
-
-            // Group expenses by category
-            Map<String, Double> categoryExpenses = new HashMap<>();
-            for (Expense expense : expenses) {
-                String category = expense.getCategory();
-                categoryExpenses.put(category, categoryExpenses.getOrDefault(category, 0.0) + expense.getAmount());
-            }
+            // Month-to-date spending per category, maintained by the monthly rollup
+            Map<String, Double> categoryExpenses = monthlyRollupService.getCurrentMonthCategoryTotals(
+                    email, LedgerEntryType.EXPENSE);
 
             // Calculate days elapsed and remaining in month
             long daysInMonth = startOfMonth.until(endOfMonth.plusDays(1), ChronoUnit.DAYS);
@@ -449,8 +420,8 @@ public class AnalyticsController {
             long daysRemaining = daysInMonth - daysElapsed;
 
             // Calculate daily spending rate
-            double totalSpent = expenses.stream()
-                    .mapToDouble(Expense::getAmount)
+            double totalSpent = categoryExpenses.values().stream()
+                    .mapToDouble(Double::doubleValue)
                     .sum();
 
             double dailySpendingRate = daysElapsed > 0 ? totalSpent / daysElapsed : 0;
@@ -516,38 +487,45 @@ public class AnalyticsController {
                     break;
             }
 
-            // Get expenses for both periods
-            List<Expense> expenses1 = expenseRepository.findByCustomerEmailAndDateBetween(
-                    email, startDate1, endDate1);
-            List<Expense> expenses2 = expenseRepository.findByCustomerEmailAndDateBetween(
-                    email, startDate2, endDate2);
-
-            // Get incomes for both periods
-            List<Income> incomes1 = incomeRepository.findByCustomerEmailAndDateBetween(
-                    email, startDate1, endDate1);
-            List<Income> incomes2 = incomeRepository.findByCustomerEmailAndDateBetween(
-                    email, startDate2, endDate2);
+            // The four reads are independent, so they run in parallel
+            LocalDate from1 = startDate1, to1 = endDate1, from2 = startDate2, to2 = endDate2;
+            List<Expense> expenses1;
+            List<Expense> expenses2;
+            List<Income> incomes1;
+            List<Income> incomes2;
+            try (QueryFanOut.Scope scope = queryFanOut.open()) {
+                Future<List<Expense>> expenses1Query = scope.fork(() ->
+                        expenseRepository.findByCustomerEmailAndDateBetween(email, from1, to1));
+                Future<List<Expense>> expenses2Query = scope.fork(() ->
+                        expenseRepository.findByCustomerEmailAndDateBetween(email, from2, to2));
+                Future<List<Income>> incomes1Query = scope.fork(() ->
+                        incomeRepository.findByCustomerEmailAndDateBetween(email, from1, to1));
+                Future<List<Income>> incomes2Query = scope.fork(() ->
+                        incomeRepository.findByCustomerEmailAndDateBetween(email, from2, to2));
+                scope.join();
+
+                // Expenses and incomes for both periods
+                expenses1 = expenses1Query.resultNow();
+                expenses2 = expenses2Query.resultNow();
+                incomes1 = incomes1Query.resultNow();
+                incomes2 = incomes2Query.resultNow();
+            }
 
             // Calculate totals
-            double totalExpenses1 = expenses1.stream().mapToDouble(Expense::getAmount).sum();
-            double totalExpenses2 = expenses2.stream().mapToDouble(Expense::getAmount).sum();
-            double totalIncomes1 = incomes1.stream().mapToDouble(Income::getAmount).sum();
-            double totalIncomes2 = incomes2.stream().mapToDouble(Income::getAmount).sum();
+            double totalExpenses1 = Money.toMajor(expenses1.stream().mapToLong(Expense::getAmountMinor).sum());
+            double totalExpenses2 = Money.toMajor(expenses2.stream().mapToLong(Expense::getAmountMinor).sum());
+            double totalIncomes1 = Money.toMajor(incomes1.stream().mapToLong(Income::getAmountMinor).sum());
+            double totalIncomes2 = Money.toMajor(incomes2.stream().mapToLong(Income::getAmountMinor).sum());
             double savings1 = totalIncomes1 - totalExpenses1;
             double savings2 = totalIncomes2 - totalExpenses2;
 
-            // Group expenses by category for both periods
-            Map<String, Double> categoryExpenses1 = new HashMap<>();
-            Map<String, Double> categoryExpenses2 = new HashMap<>();
-
+            // Group expenses by category, one column per period
+            AmountGrid categoryExpenses = new AmountGrid(2);
             for (Expense expense : expenses1) {
-                String category = expense.getCategory();
-                categoryExpenses1.put(category, categoryExpenses1.getOrDefault(category, 0.0) + expense.getAmount());
+                categoryExpenses.add(expense.getCategory(), 0, expense.getAmountMinor());
             }
-
             for (Expense expense : expenses2) {
-                String category = expense.getCategory();
-                categoryExpenses2.put(category, categoryExpenses2.getOrDefault(category, 0.0) + expense.getAmount());
+                categoryExpenses.add(expense.getCategory(), 1, expense.getAmountMinor());
             }
 
             // Calculate changes
@@ -563,13 +541,10 @@ public class AnalyticsController {
 
             // Prepare category comparison
             List<Map<String, Object>> categoryComparison = new ArrayList<>();
-            Set<String> allCategories = new HashSet<>();
-            allCategories.addAll(categoryExpenses1.keySet());
-            allCategories.addAll(categoryExpenses2.keySet());
-
-            for (String category : allCategories) {
-                double amount1 = categoryExpenses1.getOrDefault(category, 0.0);
-                double amount2 = categoryExpenses2.getOrDefault(category, 0.0);
+            for (int row = 0; row < categoryExpenses.rows(); row++) {
+                String category = categoryExpenses.key(row);
+                double amount1 = categoryExpenses.sum(row, 0);
+                double amount2 = categoryExpenses.sum(row, 1);
                 double change = amount2 > 0 ? ((amount1 - amount2) / amount2) * 100 : 0;
 
                 Map<String, Object> categoryData = new HashMap<>();
@@ -639,18 +614,20 @@ public class AnalyticsController {
                 endDate = LocalDate.now();
             }
 
-            List<Expense> expenses = expenseRepository.findByCustomerEmailAndDateBetween(
-                    email, startDate, endDate);
+            LocalDateTime rangeStart = startDate.atStartOfDay();
+            LocalDateTime rangeEnd = endDate.plusDays(1).atStartOfDay();
 
             // Group by day of week
             Map<String, Double> dayOfWeekTotals = new HashMap<>();
+            Map<String, Long> dayOfWeekCounts = new HashMap<>();
             for (DayOfWeek day : DayOfWeek.values()) {
                 dayOfWeekTotals.put(day.toString(), 0.0);
+                dayOfWeekCounts.put(day.toString(), 0L);
             }
-
-            Map<String, Integer> dayOfWeekCounts = new HashMap<>();
-            for (DayOfWeek day : DayOfWeek.values()) {
-                dayOfWeekCounts.put(day.toString(), 0);
+            for (SpendingBucket bucket : expenseRepository.sumByDayOfWeek(email, rangeStart, rangeEnd)) {
+                String dayOfWeek = toDayOfWeek(bucket.getBucket()).toString();
+                dayOfWeekTotals.put(dayOfWeek, bucket.getTotal());
+                dayOfWeekCounts.put(dayOfWeek, bucket.getCount());
             }
 
             // Group by day of month (1-31)
@@ -658,32 +635,24 @@ public class AnalyticsController {
             for (int day = 1; day <= 31; day++) {
                 dayOfMonthTotals.put(day, 0.0);
             }
+            for (SpendingBucket bucket : expenseRepository.sumByDayOfMonth(email, rangeStart, rangeEnd)) {
+                dayOfMonthTotals.put(bucket.getBucket(), bucket.getTotal());
+            }
 
             // Group by hour of day (0-23)
             Map<Integer, Double> hourlyTotals = new HashMap<>();
             for (int hour = 0; hour < 24; hour++) {
                 hourlyTotals.put(hour, 0.0);
             }
-
-            // Calculate totals
-            for (Expense expense : expenses) {
-                String dayOfWeek = expense.getDate().getDayOfWeek().toString();
-                dayOfWeekTotals.put(dayOfWeek, dayOfWeekTotals.get(dayOfWeek) + expense.getAmount());
-                dayOfWeekCounts.put(dayOfWeek, dayOfWeekCounts.get(dayOfWeek) + 1);
-
-                int dayOfMonth = expense.getDate().getDayOfMonth();
-                dayOfMonthTotals.put(dayOfMonth, dayOfMonthTotals.getOrDefault(dayOfMonth, 0.0) + expense.getAmount());
-
-                LocalDateTime dateTime = expense.getDate().toLocalDate().atStartOfDay();
-                int hour = dateTime.getHour();
-                hourlyTotals.put(hour, hourlyTotals.getOrDefault(hour, 0.0) + expense.getAmount());
+            for (SpendingBucket bucket : expenseRepository.sumByHour(email, rangeStart, rangeEnd)) {
+                hourlyTotals.put(bucket.getBucket(), bucket.getTotal());
             }
 
             // Calculate average daily spending by day of week
             Map<String, Double> avgDayOfWeekTotals = new HashMap<>();
             for (DayOfWeek day : DayOfWeek.values()) {
                 String dayName = day.toString();
-                int count = dayOfWeekCounts.get(dayName);
+                long count = dayOfWeekCounts.get(dayName);
                 double total = dayOfWeekTotals.get(dayName);
                 avgDayOfWeekTotals.put(dayName, count > 0 ? total / count : 0.0);
             }
@@ -717,6 +686,11 @@ public class AnalyticsController {
         }
     }
 
+    // SQL DAYOFWEEK numbers the days from 1 = Sunday to 7 = Saturday
+    private DayOfWeek toDayOfWeek(int sqlDayOfWeek) {
+        return DayOfWeek.SUNDAY.plus(sqlDayOfWeek - 1);
+    }
+
     private String getEmailFromJwtCookie() {
         String jwt = jwtUtil.getJwtFromCookies(request);
         if (jwt != null) {
@@ -8,6 +8,7 @@ import com.personalfinancetracker.backend.entities.SavingsGoal;
 import com.personalfinancetracker.backend.repository.BudgetRepository;
 import com.personalfinancetracker.backend.repository.CustomerRepository;
 import com.personalfinancetracker.backend.repository.SavingsGoalRepository;
+import com.personalfinancetracker.backend.services.DataVersionService;
 import com.personalfinancetracker.backend.utils.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -29,6 +30,7 @@ public class BudgetController {
     private final BudgetRepository budgetRepository;
     private final SavingsGoalRepository savingsGoalRepository;
     private final CustomerRepository customerRepository;
+    private final DataVersionService dataVersionService;
     private final JwtUtil jwtUtil;
     private final HttpServletRequest request;
 
@@ -36,11 +38,13 @@ public class BudgetController {
     public BudgetController(BudgetRepository budgetRepository,
                             SavingsGoalRepository savingsGoalRepository,
                             CustomerRepository customerRepository,
+                            DataVersionService dataVersionService,
                             JwtUtil jwtUtil,
                             HttpServletRequest request) {
         this.budgetRepository = budgetRepository;
         this.savingsGoalRepository = savingsGoalRepository;
         this.customerRepository = customerRepository;
+        this.dataVersionService = dataVersionService;
         this.jwtUtil = jwtUtil;
         this.request = request;
     }
@@ -101,6 +105,7 @@ public class BudgetController {
             }
 
             budgetRepository.save(budget);
+            dataVersionService.bump(email);
             logger.info("Budget item saved successfully for email: {}", email);
 
             return ResponseEntity.ok(Collections.singletonMap("message", "Budget item saved successfully"));
@@ -124,6 +129,7 @@ public class BudgetController {
         try {
             // Delete the budget item
             budgetRepository.deleteByCustomerEmailAndCategory(email, category);
+            dataVersionService.bump(email);
             logger.info("Budget item deleted successfully for email: {} and category: {}", email, category);
 
             return ResponseEntity.ok(Collections.singletonMap("message", "Budget item deleted successfully"));
@@ -192,6 +198,7 @@ public class BudgetController {
             }
 
             savingsGoalRepository.save(savingsGoal);
+            dataVersionService.bump(email);
             logger.info("Savings goal saved successfully for email: {}", email);
 
             return ResponseEntity.ok(Collections.singletonMap("message", "Savings goal saved successfully"));
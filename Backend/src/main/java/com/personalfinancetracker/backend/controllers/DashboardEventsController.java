@@ -0,0 +1,71 @@
+package com.personalfinancetracker.backend.controllers;
+
+import com.personalfinancetracker.backend.services.DashboardEventService;
+import com.personalfinancetracker.backend.utils.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardEventsController {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardEventsController.class);
+
+    private final DashboardEventService dashboardEventService;
+    private final JwtUtil jwtUtil;
+    private final HttpServletRequest request;
+
+    @Autowired
+    public DashboardEventsController(DashboardEventService dashboardEventService,
+                                     JwtUtil jwtUtil,
+                                     HttpServletRequest request) {
+        this.dashboardEventService = dashboardEventService;
+        this.jwtUtil = jwtUtil;
+        this.request = request;
+    }
+
+    /**
+     * Server-sent events for the user's open dashboard: {@code transaction}, {@code budget-threshold},
+     * {@code goal-milestone}, and {@code resync} when the client fell behind and should reload.
+     * The browser's EventSource reconnects by itself when the stream times out.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDashboardEvents() {
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for dashboard events");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        // Limit violations surface as ResponseStatusException (429 or 503)
+        return ResponseEntity.ok(dashboardEventService.subscribe(email));
+    }
+
+    private String getEmailFromJwtCookie() {
+        String jwt = jwtUtil.getJwtFromCookies(request);
+        if (jwt != null) {
+            try {
+                String email = jwtUtil.extractUsername(jwt);
+                if (email != null && !email.isEmpty()) {
+                    logger.debug("Extracted email from JWT: {}", email);
+                    return email;
+                } else {
+                    logger.warn("JWT token contains no valid username");
+                }
+            } catch (Exception e) {
+                logger.error("Error extracting email from JWT: {}", e.getMessage());
+            }
+        } else {
+            logger.warn("No JWT token found in cookies");
+        }
+        return null;
+    }
+}
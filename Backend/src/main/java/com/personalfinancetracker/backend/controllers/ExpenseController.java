@@ -5,22 +5,37 @@ import com.personalfinancetracker.backend.entities.Budget;
 import com.personalfinancetracker.backend.entities.Customer;
 import com.personalfinancetracker.backend.entities.Expense;
 import com.personalfinancetracker.backend.entities.ExpenseCategoryEnum;
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
 import com.personalfinancetracker.backend.repository.BudgetRepository;
 import com.personalfinancetracker.backend.repository.CustomerRepository;
 import com.personalfinancetracker.backend.repository.ExpenseRepository;
+import com.personalfinancetracker.backend.repository.ExpenseSpecifications;
+import com.personalfinancetracker.backend.services.ExpenseListingService;
+import com.personalfinancetracker.backend.services.DataVersionService;
+import com.personalfinancetracker.backend.services.LedgerBatchService;
+import com.personalfinancetracker.backend.services.MonthlyRollupService;
 import com.personalfinancetracker.backend.utils.JwtUtil;
+import com.personalfinancetracker.backend.utils.KeysetCursor;
+import com.personalfinancetracker.backend.utils.TagUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -29,20 +44,36 @@ import java.util.stream.Collectors;
 public class ExpenseController {
     private static final Logger logger = LoggerFactory.getLogger(ExpenseController.class);
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final ExpenseRepository expenseRepository;
     private final CustomerRepository customerRepository;
     private final BudgetRepository budgetRepository;
     private final JwtUtil jwtUtil;
     private final HttpServletRequest request;
+    private final MonthlyRollupService monthlyRollupService;
+    private final ExpenseListingService expenseListingService;
+    private final LedgerBatchService ledgerBatchService;
+    private final DataVersionService dataVersionService;
 
     @Autowired
     public ExpenseController(ExpenseRepository expenseRepository, CustomerRepository customerRepository,
-                             BudgetRepository budgetRepository, JwtUtil jwtUtil, HttpServletRequest request) {
+                             BudgetRepository budgetRepository, JwtUtil jwtUtil, HttpServletRequest request,
+                             MonthlyRollupService monthlyRollupService,
+                             ExpenseListingService expenseListingService,
+                             LedgerBatchService ledgerBatchService,
+                             DataVersionService dataVersionService) {
         this.expenseRepository = expenseRepository;
         this.customerRepository = customerRepository;
         this.budgetRepository = budgetRepository;
         this.jwtUtil = jwtUtil;
         this.request = request;
+        this.monthlyRollupService = monthlyRollupService;
+        this.expenseListingService = expenseListingService;
+        this.ledgerBatchService = ledgerBatchService;
+        this.dataVersionService = dataVersionService;
     }
 
     @PostMapping
@@ -97,6 +128,7 @@ public class ExpenseController {
             }
 
             expenseRepository.save(expense);
+            dataVersionService.bump(email);
             logger.info("Expense added successfully for email: {}", email);
 
             return ResponseEntity.ok(Collections.singletonMap("message", "Expense added successfully"));
@@ -107,8 +139,46 @@ public class ExpenseController {
         }
     }
 
+    /**
+     * Applies creates, updates and deletes in one transaction and reports each item's
+     * outcome. Invalid or unknown items are skipped; they do not roll back the others.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyExpenseBatch(@RequestBody ExpenseBatchRequest batchRequest) {
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for expense batch");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Collections.singletonMap("message", "User is not authenticated"));
+        }
+
+        if (batchRequest.size() > LedgerBatchService.MAX_BATCH_ITEMS) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("message",
+                            "A batch may contain at most " + LedgerBatchService.MAX_BATCH_ITEMS + " items"));
+        }
+
+        logger.info("Applying expense batch of {} items for email: {}", batchRequest.size(), email);
+
+        try {
+            List<BatchItemResult> results = ledgerBatchService.applyExpenseBatch(email, batchRequest);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            logger.error("Error applying expense batch: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Collections.singletonMap("message", "Failed to apply expense batch"));
+        }
+    }
+
+    /**
+     * All expenses of the user, newest first. With {@code limit} (or a {@code cursor}) the
+     * listing is paged the same way as {@code /filter}, with the next page's cursor in
+     * {@value #NEXT_CURSOR_HEADER}. Either way the rows are projected and streamed as JSON.
+     */
     @GetMapping
-    public ResponseEntity<List<ExpenseResponse>> getExpenses() {
+    public ResponseEntity<StreamingResponseBody> getExpenses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         String email = getEmailFromJwtCookie();
         if (email == null) {
             logger.warn("No valid JWT token found in cookie for getExpenses");
@@ -118,32 +188,43 @@ public class ExpenseController {
         logger.info("Fetching expenses for email: {}", email);
 
         try {
-            List<Expense> expenses = expenseRepository.findByCustomerEmail(email);
-            List<ExpenseResponse> expenseResponses = expenses.stream()
-                    .map(expense -> {
-                        ExpenseResponse response = new ExpenseResponse(
-                                expense.getId(),
-                                expense.getAmount(),
-                                expense.getCategory(),
-                                expense.getDate(),
-                                expense.getCustomer().getEmail()
-                        );
-                        // Set additional fields if they exist
-                        if (expense.getTags() != null && !expense.getTags().isEmpty()) {
-                            response.setTags(Arrays.asList(expense.getTags().split(",")));
-                        }
-                        if (expense.getNote() != null) {
-                            response.setNote(expense.getNote());
-                        }
-                        if (expense.getIsRecurring() != null) {
-                            response.setIsRecurring(expense.getIsRecurring());
-                            response.setRecurringFrequency(expense.getRecurringFrequency());
-                        }
-                        return response;
-                    })
-                    .collect(Collectors.toList());
+            if (limit == null && (cursor == null || cursor.isEmpty())) {
+                StreamingResponseBody body = outputStream -> {
+                    try {
+                        expenseListingService.writeAll(email, outputStream);
+                    } catch (IOException | RuntimeException e) {
+                        logger.error("Error streaming expenses: {}", e.getMessage(), e);
+                        throw e;
+                    }
+                };
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+            }
+
+            KeysetCursor position = null;
+            if (cursor != null && !cursor.isEmpty()) {
+                try {
+                    position = KeysetCursor.decode(cursor);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Invalid expense listing cursor: {}", cursor);
+                    return ResponseEntity.badRequest().build();
+                }
+            }
+
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+            // Fetch one extra row to learn whether another page exists
+            List<ExpenseResponse> rows = expenseListingService.loadPage(email, position, pageSize + 1);
+
+            HttpHeaders headers = new HttpHeaders();
+            if (rows.size() > pageSize) {
+                rows = rows.subList(0, pageSize);
+                ExpenseResponse last = rows.get(pageSize - 1);
+                headers.add(NEXT_CURSOR_HEADER, KeysetCursor.of(last.getDate(), last.getId()).encode());
+            }
 
-            return ResponseEntity.ok(expenseResponses);
+            List<ExpenseResponse> page = rows;
+            StreamingResponseBody body = outputStream -> expenseListingService.writeRows(page, outputStream);
+            return ResponseEntity.ok().headers(headers).contentType(MediaType.APPLICATION_JSON).body(body);
         } catch (Exception e) {
             logger.error("Error fetching expenses: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -176,6 +257,11 @@ public class ExpenseController {
         return ResponseEntity.ok(summary);
     }
 
+    /**
+     * Expenses matching the filters, newest first. Unbounded unless {@code limit} or a
+     * {@code cursor} is given; then it is paged by keyset with the next page's cursor in
+     * {@value #NEXT_CURSOR_HEADER}.
+     */
     @GetMapping("/filter")
     public ResponseEntity<List<ExpenseResponse>> filterExpenses(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -183,7 +269,9 @@ public class ExpenseController {
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Double minAmount,
             @RequestParam(required = false) Double maxAmount,
-            @RequestParam(required = false) String tags) {
+            @RequestParam(required = false) String tags,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
         String email = getEmailFromJwtCookie();
         if (email == null) {
@@ -192,82 +280,69 @@ public class ExpenseController {
         }
 
         try {
-            List<Expense> expenses = expenseRepository.findByCustomerEmail(email);
+            Specification<Expense> spec = ExpenseSpecifications.belongsTo(email);
 
-            // Apply filters
             if (startDate != null) {
-                LocalDateTime startDateTime = startDate.atStartOfDay();
-                expenses = expenses.stream()
-                        .filter(expense -> expense.getDate().isAfter(startDateTime) || expense.getDate().isEqual(startDateTime))
-                        .collect(Collectors.toList());
+                spec = spec.and(ExpenseSpecifications.dateOnOrAfter(startDate.atStartOfDay()));
             }
-
             if (endDate != null) {
-                LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
-                expenses = expenses.stream()
-                        .filter(expense -> expense.getDate().isBefore(endDateTime))
-                        .collect(Collectors.toList());
+                spec = spec.and(ExpenseSpecifications.dateBefore(endDate.plusDays(1).atStartOfDay()));
             }
-
             if (category != null && !category.isEmpty()) {
-                expenses = expenses.stream()
-                        .filter(expense -> expense.getCategory().equalsIgnoreCase(category))
-                        .collect(Collectors.toList());
+                // Categories are stored as upper-case enum names
+                spec = spec.and(ExpenseSpecifications.hasCategory(category.toUpperCase()));
             }
-
             if (minAmount != null) {
-                expenses = expenses.stream()
-                        .filter(expense -> expense.getAmount() >= minAmount)
-                        .collect(Collectors.toList());
+                spec = spec.and(ExpenseSpecifications.amountAtLeast(minAmount));
             }
-
             if (maxAmount != null) {
-                expenses = expenses.stream()
-                        .filter(expense -> expense.getAmount() <= maxAmount)
-                        .collect(Collectors.toList());
+                spec = spec.and(ExpenseSpecifications.amountAtMost(maxAmount));
+            }
+            Set<String> tagSet = TagUtils.parse(tags);
+            if (!tagSet.isEmpty()) {
+                spec = spec.and(ExpenseSpecifications.hasAnyTag(tagSet));
+            }
+            if (cursor != null && !cursor.isEmpty()) {
+                KeysetCursor position;
+                try {
+                    position = KeysetCursor.decode(cursor);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Invalid expense filter cursor: {}", cursor);
+                    return ResponseEntity.badRequest().build();
+                }
+                spec = spec.and(ExpenseSpecifications.after(position.date(), position.id()));
             }
 
-            if (tags != null && !tags.isEmpty()) {
-                String[] tagArray = tags.split(",");
-                expenses = expenses.stream()
-                        .filter(expense -> {
-                            if (expense.getTags() == null) return false;
-                            for (String tag : tagArray) {
-                                if (expense.getTags().contains(tag.trim())) {
-                                    return true;
-                                }
-                            }
-                            return false;
-                        })
+            Sort newestFirst = Sort.by(Sort.Direction.DESC, "date").and(Sort.by(Sort.Direction.DESC, "id"));
+
+            // Without limit or cursor every match is returned, as before paging existed
+            if (limit == null && (cursor == null || cursor.isEmpty())) {
+                List<ExpenseResponse> expenseResponses = expenseRepository.findAll(spec, newestFirst).stream()
+                        .map(this::toResponse)
                         .collect(Collectors.toList());
+                return ResponseEntity.ok(expenseResponses);
+            }
+
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+            // Fetch one extra row to learn whether another page exists
+            List<Expense> expenses = expenseRepository.findBy(spec, query -> query
+                    .sortBy(newestFirst)
+                    .limit(pageSize + 1)
+                    .all());
+
+            HttpHeaders headers = new HttpHeaders();
+            if (expenses.size() > pageSize) {
+                expenses = expenses.subList(0, pageSize);
+                Expense last = expenses.get(pageSize - 1);
+                headers.add(NEXT_CURSOR_HEADER, KeysetCursor.of(last.getDate(), last.getId()).encode());
             }
 
-            // Convert to response objects
             List<ExpenseResponse> expenseResponses = expenses.stream()
-                    .map(expense -> {
-                        ExpenseResponse response = new ExpenseResponse(
-                                expense.getId(),
-                                expense.getAmount(),
-                                expense.getCategory(),
-                                expense.getDate(),
-                                expense.getCustomer().getEmail()
-                        );
-                        // Set additional fields if they exist
-                        if (expense.getTags() != null && !expense.getTags().isEmpty()) {
-                            response.setTags(Arrays.asList(expense.getTags().split(",")));
-                        }
-                        if (expense.getNote() != null) {
-                            response.setNote(expense.getNote());
-                        }
-                        if (expense.getIsRecurring() != null) {
-                            response.setIsRecurring(expense.getIsRecurring());
-                            response.setRecurringFrequency(expense.getRecurringFrequency());
-                        }
-                        return response;
-                    })
+                    .map(this::toResponse)
                     .collect(Collectors.toList());
 
-            return ResponseEntity.ok(expenseResponses);
+            return ResponseEntity.ok().headers(headers).body(expenseResponses);
         } catch (Exception e) {
             logger.error("Error filtering expenses: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -283,37 +358,15 @@ public class ExpenseController {
         }
 
         try {
-            // Get past 6 months of data
-            LocalDateTime sixMonthsAgo = LocalDateTime.now().minusMonths(6);
-            List<Expense> expenses = expenseRepository.findByCustomerEmailAndDateAfter(email, sixMonthsAgo);
-
-            // Group by month and category
-            Map<String, Map<String, Double>> monthCategoryTotals = new HashMap<>();
-
-            for (Expense expense : expenses) {
-                String monthKey = expense.getDate().getYear() + "-" + String.format("%02d", expense.getDate().getMonthValue());
-                String category = expense.getCategory();
-
-                monthCategoryTotals.putIfAbsent(monthKey, new HashMap<>());
-                Map<String, Double> categoryTotals = monthCategoryTotals.get(monthKey);
-
-                double currentTotal = categoryTotals.getOrDefault(category, 0.0);
-                categoryTotals.put(category, currentTotal + expense.getAmount());
-            }
+            // Past 6 months of data, read from the monthly rollup (oldest month first)
+            YearMonth currentMonth = YearMonth.now();
+            Map<YearMonth, Map<String, Double>> monthCategoryTotals = monthlyRollupService.getMonthlyCategoryTotals(
+                    email, LedgerEntryType.EXPENSE, currentMonth.minusMonths(6), currentMonth);
 
             // Convert to response objects
             List<ExpenseTrend> trends = new ArrayList<>();
-            for (Map.Entry<String, Map<String, Double>> entry : monthCategoryTotals.entrySet()) {
-                String month = entry.getKey();
-                Map<String, Double> categoryTotals = entry.getValue();
-
-                for (Map.Entry<String, Double> categoryEntry : categoryTotals.entrySet()) {
-                    trends.add(new ExpenseTrend(month, categoryEntry.getKey(), categoryEntry.getValue()));
-                }
-            }
-
-            // Sort by month
-            trends.sort(Comparator.comparing(ExpenseTrend::getMonth));
+            monthCategoryTotals.forEach((month, categoryTotals) -> categoryTotals.forEach(
+                    (category, total) -> trends.add(new ExpenseTrend(month.toString(), category, total))));
 
             return ResponseEntity.ok(trends);
         } catch (Exception e) {
@@ -332,16 +385,12 @@ public class ExpenseController {
         }
 
         try {
-            // Verify the expense belongs to the authenticated user
-            Expense expense = expenseRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Expense not found"));
-
-            if (!expense.getCustomer().getEmail().equals(email)) {
+            // Loaded and deleted in one read-write transaction, so the row comes from the primary
+            BatchItemResult result = ledgerBatchService.deleteExpense(email, id);
+            if (BatchItemResult.FORBIDDEN.equals(result.getStatus())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Collections.singletonMap("message", "Not authorized to delete this expense"));
+                        .body(Collections.singletonMap("message", result.getMessage()));
             }
-
-            expenseRepository.deleteById(id);
             return ResponseEntity.ok(Collections.singletonMap("message", "Expense deleted successfully"));
         } catch (Exception e) {
             logger.error("Error deleting expense: {}", e.getMessage(), e);
@@ -360,46 +409,16 @@ public class ExpenseController {
         }
 
         try {
-            // Verify the expense belongs to the authenticated user
-            Expense expense = expenseRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Expense not found"));
-
-            if (!expense.getCustomer().getEmail().equals(email)) {
+            // Loaded and updated in one read-write transaction, so the row comes from the primary
+            BatchItemResult result = ledgerBatchService.updateExpense(email, id, expenseRequest);
+            if (BatchItemResult.FORBIDDEN.equals(result.getStatus())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Collections.singletonMap("message", "Not authorized to update this expense"));
-            }
-
-            // Update the expense
-            if (expenseRequest.getAmount() != null) {
-                expense.setAmount(expenseRequest.getAmount());
-            }
-
-            if (expenseRequest.getCategory() != null && !expenseRequest.getCategory().isEmpty()) {
-                try {
-                    ExpenseCategoryEnum category = ExpenseCategoryEnum.valueOf(expenseRequest.getCategory().toUpperCase());
-                    expense.setCategory(category.name());
-                } catch (IllegalArgumentException e) {
-                    return ResponseEntity.badRequest()
-                            .body(Collections.singletonMap("message", "Invalid expense category"));
-                }
-            }
-
-            if (expenseRequest.getTags() != null) {
-                expense.setTags(String.join(",", expenseRequest.getTags()));
+                        .body(Collections.singletonMap("message", result.getMessage()));
             }
-
-            if (expenseRequest.getNote() != null) {
-                expense.setNote(expenseRequest.getNote());
-            }
-
-            if (expenseRequest.getIsRecurring() != null) {
-                expense.setIsRecurring(expenseRequest.getIsRecurring());
-                if (expenseRequest.getRecurringFrequency() != null) {
-                    expense.setRecurringFrequency(expenseRequest.getRecurringFrequency());
-                }
+            if (BatchItemResult.INVALID.equals(result.getStatus())) {
+                return ResponseEntity.badRequest()
+                        .body(Collections.singletonMap("message", result.getMessage()));
             }
-
-            expenseRepository.save(expense);
             return ResponseEntity.ok(Collections.singletonMap("message", "Expense updated successfully"));
         } catch (Exception e) {
             logger.error("Error updating expense: {}", e.getMessage(), e);
@@ -417,9 +436,9 @@ public class ExpenseController {
         }
 
         try {
-            // Get current month expenses
-            LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-            List<Expense> expenses = expenseRepository.findByCustomerEmailAndDateAfter(email, startOfMonth);
+            // Month-to-date spending per category, maintained by the monthly rollup
+            Map<String, Double> categorySpending = monthlyRollupService.getCurrentMonthCategoryTotals(
+                    email, LedgerEntryType.EXPENSE);
 
             // Get budget data from database
             List<Budget> budgets = budgetRepository.findByCustomerEmail(email);
@@ -437,14 +456,6 @@ public class ExpenseController {
                 }
             }
 
-            // Calculate current spending by category
-            Map<String, Double> categorySpending = new HashMap<>();
-            for (Expense expense : expenses) {
-                String category = expense.getCategory();
-                double currentAmount = categorySpending.getOrDefault(category, 0.0);
-                categorySpending.put(category, currentAmount + expense.getAmount());
-            }
-
             // Create budget status response
             List<BudgetStatus> budgetStatusList = new ArrayList<>();
             for (Map.Entry<String, Double> entry : categoryBudgets.entrySet()) {
@@ -472,6 +483,28 @@ public class ExpenseController {
         }
     }
 
+    private ExpenseResponse toResponse(Expense expense) {
+        ExpenseResponse response = new ExpenseResponse(
+                expense.getId(),
+                expense.getAmount(),
+                expense.getCategory(),
+                expense.getDate(),
+                expense.getCustomer().getEmail()
+        );
+        // Set additional fields if they exist
+        if (expense.getTags() != null && !expense.getTags().isEmpty()) {
+            response.setTags(Arrays.asList(expense.getTags().split(",")));
+        }
+        if (expense.getNote() != null) {
+            response.setNote(expense.getNote());
+        }
+        if (expense.getIsRecurring() != null) {
+            response.setIsRecurring(expense.getIsRecurring());
+            response.setRecurringFrequency(expense.getRecurringFrequency());
+        }
+        return response;
+    }
+
     private String getEmailFromJwtCookie() {
         String jwt = jwtUtil.getJwtFromCookies(request);
         if (jwt != null) {
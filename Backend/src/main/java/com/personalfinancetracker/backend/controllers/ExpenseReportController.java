@@ -10,20 +10,38 @@ import com.personalfinancetracker.backend.repository.ExpenseRepository;
 import com.personalfinancetracker.backend.repository.IncomeRepository;
 import com.personalfinancetracker.backend.repository.SavedReportRepository;
 import com.personalfinancetracker.backend.services.ReportGenerationService;
+import com.personalfinancetracker.backend.services.ReportJob;
+import com.personalfinancetracker.backend.services.ReportJobService;
+import com.personalfinancetracker.backend.services.ReportOutputCache;
+import com.personalfinancetracker.backend.services.SavedReportScheduler;
 import com.personalfinancetracker.backend.utils.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -37,6 +55,9 @@ public class ExpenseReportController {
     private final CustomerRepository customerRepository;
     private final SavedReportRepository savedReportRepository;
     private final ReportGenerationService reportGenerationService;
+    private final ReportJobService reportJobService;
+    private final SavedReportScheduler savedReportScheduler;
+    private final ReportOutputCache reportOutputCache;
     private final JwtUtil jwtUtil;
     private final HttpServletRequest request;
 
@@ -47,6 +68,9 @@ public class ExpenseReportController {
             CustomerRepository customerRepository,
             SavedReportRepository savedReportRepository,
             ReportGenerationService reportGenerationService,
+            ReportJobService reportJobService,
+            SavedReportScheduler savedReportScheduler,
+            ReportOutputCache reportOutputCache,
             JwtUtil jwtUtil,
             HttpServletRequest request) {
         this.expenseRepository = expenseRepository;
@@ -54,47 +78,199 @@ public class ExpenseReportController {
         this.customerRepository = customerRepository;
         this.savedReportRepository = savedReportRepository;
         this.reportGenerationService = reportGenerationService;
+        this.reportJobService = reportJobService;
+        this.savedReportScheduler = savedReportScheduler;
+        this.reportOutputCache = reportOutputCache;
         this.jwtUtil = jwtUtil;
         this.request = request;
     }
 
+    /**
+     * Excel report for the period. Results are cached per request and data version: the response
+     * carries an ETag, and a request whose If-None-Match still matches gets 304 without the
+     * report being rebuilt or resent.
+     */
     @PostMapping(value = "/export-excel", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public ResponseEntity<byte[]> exportExpensesToExcel(@RequestBody ReportRequest reportRequest) {
+    public ResponseEntity<StreamingResponseBody> exportExpensesToExcel(@RequestBody ReportRequest reportRequest) {
         String email = getEmailFromJwtCookie();
         if (email == null) {
             logger.warn("No valid JWT token found in cookie for Excel export");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
         }
 
+        Path tempFile = null;
         try {
-            // Parse dates as LocalDate and convert to LocalDateTime
-            LocalDate startDateLocal = LocalDate.parse(reportRequest.getStartDate());
-            LocalDate endDateLocal = LocalDate.parse(reportRequest.getEndDate());
-            LocalDate startDate = LocalDate.from(startDateLocal.atStartOfDay());
-            LocalDateTime endDate = endDateLocal.atTime(23, 59, 59, 999_999_999);
+            LocalDate startDate = LocalDate.parse(reportRequest.getStartDate());
+            LocalDate endDate = LocalDate.parse(reportRequest.getEndDate());
 
-            // Generate the Excel file
-            byte[] excelBytes = reportGenerationService.generateExcelReport(
+            String key = reportOutputCache.key(
                     email,
                     startDate,
-                    LocalDate.from(endDate),
+                    endDate,
                     reportRequest.getReportTitle(),
                     reportRequest.getIncludeExpenses(),
                     reportRequest.getIncludeIncomes(),
-                    reportRequest.getIncludeBudgets()
-            );
+                    reportRequest.getIncludeBudgets());
+            String etag = "\"" + key + "\"";
+            if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+
+            ReportOutputCache.Entry entry = reportOutputCache.get(key);
+            if (entry == null) {
+                // The workbook is written to a file instead of a byte[], then kept for identical requests
+                tempFile = reportOutputCache.newTempFile();
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                    reportGenerationService.writeExcelReport(
+                            email,
+                            startDate,
+                            endDate,
+                            reportRequest.getReportTitle(),
+                            reportRequest.getIncludeExpenses(),
+                            reportRequest.getIncludeIncomes(),
+                            reportRequest.getIncludeBudgets(),
+                            out
+                    );
+                }
+                entry = reportOutputCache.put(key, tempFile);
+                // Owned by the cache now, or by the response body below if it was too large to cache
+                tempFile = null;
+            }
 
             // Prepare response
             HttpHeaders headers = new HttpHeaders();
             headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=financial_report_" +
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx");
             headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-
-            return new ResponseEntity<>(excelBytes, headers, HttpStatus.OK);
+            headers.setETag(etag);
+            headers.setCacheControl(CacheControl.noCache().cachePrivate());
+
+            ReportOutputCache.Entry report = entry;
+            StreamingResponseBody body;
+            if (report.bytes() != null) {
+                headers.setContentLength(report.bytes().length);
+                body = outputStream -> outputStream.write(report.bytes());
+            } else {
+                headers.setContentLength(Files.size(report.file()));
+                // Runs after this method returns, so an uncached file is deleted only once it has been sent
+                body = outputStream -> {
+                    try {
+                        Files.copy(report.file(), outputStream);
+                    } finally {
+                        if (report.temporary()) {
+                            Files.deleteIfExists(report.file());
+                        }
+                    }
+                };
+            }
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
         } catch (Exception e) {
             logger.error("Error generating Excel report: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    logger.warn("Could not delete temporary report file: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue an Excel report to be built in the background. Poll {@code /jobs/{jobId}} or
+     * follow {@code /jobs/{jobId}/events}, then fetch the file from {@code /jobs/{jobId}/download}.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitReportJob(@RequestBody ReportRequest reportRequest) {
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for report job");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Collections.singletonMap("message", "User is not authenticated"));
         }
+
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = LocalDate.parse(reportRequest.getStartDate());
+            endDate = LocalDate.parse(reportRequest.getEndDate());
+        } catch (DateTimeParseException | NullPointerException e) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("message", "Invalid report period"));
+        }
+
+        // Limit violations surface as ResponseStatusException (429 or 503)
+        ReportJob job = reportJobService.submit(
+                email,
+                startDate,
+                endDate,
+                reportRequest.getReportTitle(),
+                reportRequest.getIncludeExpenses(),
+                reportRequest.getIncludeIncomes(),
+                reportRequest.getIncludeBudgets());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/reports/jobs/" + job.getId())
+                .body(reportJobService.status(job));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportJobStatus> getReportJob(@PathVariable String jobId) {
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for report job status");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        ReportJob job = reportJobService.find(email, jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(reportJobService.status(job));
+    }
+
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> followReportJob(@PathVariable String jobId) {
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for report job events");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        ReportJob job = reportJobService.find(email, jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(reportJobService.subscribe(job));
+    }
+
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<?> downloadReportJob(@PathVariable String jobId) {
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for report download");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Collections.singletonMap("message", "User is not authenticated"));
+        }
+
+        ReportJob job = reportJobService.find(email, jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Collections.singletonMap("message", "Report not found or expired"));
+        }
+        if (job.getState() != ReportJob.State.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Collections.singletonMap("message", "Report is not ready"));
+        }
+
+        Resource file = new FileSystemResource(job.getFile());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(job.getFileName()).build().toString())
+                .body(file);
     }
 
     @PostMapping("/save-configuration")
@@ -115,6 +291,7 @@ public class ExpenseReportController {
             savedReport.setReportType(saveRequest.getReportType());
             savedReport.setConfiguration(saveRequest.getConfiguration());
             savedReport.setCreatedDate(LocalDateTime.now());
+            savedReportScheduler.applySchedule(savedReport, saveRequest.getSchedule());
 
             SavedReport result = savedReportRepository.save(savedReport);
 
@@ -123,6 +300,9 @@ public class ExpenseReportController {
             response.put("message", "Report configuration saved successfully");
 
             return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .body(Collections.singletonMap("message", e.getReason()));
         } catch (Exception e) {
             logger.error("Error saving report configuration: {}", e.getMessage(), e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -143,13 +323,7 @@ public class ExpenseReportController {
             List<SavedReport> savedReports = savedReportRepository.findByCustomerEmailOrderByCreatedDateDesc(email);
 
             List<SavedReportDTO> result = savedReports.stream()
-                    .map(report -> new SavedReportDTO(
-                            report.getId(),
-                            report.getReportTitle(),
-                            report.getReportType(),
-                            report.getConfiguration(),
-                            report.getCreatedDate()
-                    ))
+                    .map(this::toSavedReportDTO)
                     .collect(Collectors.toList());
 
             return ResponseEntity.ok(result);
@@ -177,6 +351,7 @@ public class ExpenseReportController {
             }
 
             savedReportRepository.delete(savedReport);
+            savedReportScheduler.deleteOutput(savedReport.getId());
 
             return ResponseEntity.ok(Collections.singletonMap("message", "Report configuration deleted successfully"));
         } catch (Exception e) {
@@ -186,6 +361,107 @@ public class ExpenseReportController {
         }
     }
 
+    /**
+     * Set or clear the cron schedule of a saved configuration. Body: {"cron": "0 0 2 * * MON"};
+     * an empty or missing cron turns scheduling off.
+     */
+    @PutMapping("/saved-configurations/{id}/schedule")
+    public ResponseEntity<?> updateSavedReportSchedule(@PathVariable Long id,
+                                                       @RequestBody Map<String, String> body) {
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for scheduling saved report");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            SavedReport savedReport = savedReportRepository.findById(id).orElse(null);
+            if (savedReport == null || !savedReport.getCustomer().getEmail().equals(email)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Collections.singletonMap("message", "Saved report not found"));
+            }
+
+            savedReportScheduler.applySchedule(savedReport, body.get("cron"));
+            SavedReport result = savedReportRepository.save(savedReport);
+            if (result.getScheduleCron() == null) {
+                savedReportScheduler.deleteOutput(result.getId());
+            }
+
+            return ResponseEntity.ok(toSavedReportDTO(result));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .body(Collections.singletonMap("message", e.getReason()));
+        } catch (Exception e) {
+            logger.error("Error scheduling saved report: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Collections.singletonMap("message", "Failed to update report schedule"));
+        }
+    }
+
+    /**
+     * The workbook produced by the last scheduled run of a saved configuration.
+     */
+    @GetMapping("/saved-configurations/{id}/output")
+    public ResponseEntity<?> downloadSavedReportOutput(@PathVariable Long id) {
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for scheduled report download");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        SavedReport savedReport = savedReportRepository.findById(id).orElse(null);
+        if (savedReport == null || !savedReport.getCustomer().getEmail().equals(email)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Collections.singletonMap("message", "Saved report not found"));
+        }
+        if (!savedReportScheduler.hasOutput(savedReport)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Collections.singletonMap("message", "This report has not been generated yet"));
+        }
+
+        StreamingResponseBody body = outputStream -> savedReportScheduler.writeOutput(savedReport.getId(), outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(savedReport.getOutputFileName()).build().toString())
+                .lastModified(savedReport.getLastRunAt().atZone(ZoneId.systemDefault()))
+                .body(body);
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SavedReportDTO toSavedReportDTO(SavedReport report) {
+        SavedReportDTO dto = new SavedReportDTO(
+                report.getId(),
+                report.getReportTitle(),
+                report.getReportType(),
+                report.getConfiguration(),
+                report.getCreatedDate()
+        );
+        dto.setScheduleCron(report.getScheduleCron());
+        dto.setNextRunAt(report.getNextRunAt());
+        dto.setLastRunAt(report.getLastRunAt());
+        dto.setLastRunStatus(report.getLastRunStatus());
+        if (report.getOutputFileName() != null) {
+            dto.setOutputUrl("/api/reports/saved-configurations/" + report.getId() + "/output");
+        }
+        return dto;
+    }
+
     @GetMapping("/insights")
     public ResponseEntity<List<FinancialInsight>> getFinancialInsights(
             @RequestParam(required = false) String period) {
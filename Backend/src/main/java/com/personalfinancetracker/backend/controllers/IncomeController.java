@@ -1,18 +1,30 @@
 package com.personalfinancetracker.backend.controllers;
 
+import com.personalfinancetracker.backend.dto.BatchItemResult;
+import com.personalfinancetracker.backend.dto.IncomeBatchRequest;
 import com.personalfinancetracker.backend.dto.IncomeRequest;
 import com.personalfinancetracker.backend.dto.IncomeResponse;
 import com.personalfinancetracker.backend.dto.IncomeSummary;
 import com.personalfinancetracker.backend.entities.Customer;
 import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
 import com.personalfinancetracker.backend.repository.CustomerRepository;
 import com.personalfinancetracker.backend.repository.IncomeRepository;
+import com.personalfinancetracker.backend.repository.IncomeSpecifications;
+import com.personalfinancetracker.backend.services.DataVersionService;
+import com.personalfinancetracker.backend.services.LedgerBatchService;
+import com.personalfinancetracker.backend.services.MonthlyRollupService;
 import com.personalfinancetracker.backend.utils.JwtUtil;
+import com.personalfinancetracker.backend.utils.KeysetCursor;
+import com.personalfinancetracker.backend.utils.TagUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,18 +39,31 @@ import java.util.stream.Collectors;
 public class IncomeController {
     private static final Logger logger = LoggerFactory.getLogger(IncomeController.class);
 
+    public static final String NEXT_CURSOR_HEADER = ExpenseController.NEXT_CURSOR_HEADER;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final IncomeRepository incomeRepository;
     private final CustomerRepository customerRepository;
     private final JwtUtil jwtUtil;
     private final HttpServletRequest request;
+    private final MonthlyRollupService monthlyRollupService;
+    private final LedgerBatchService ledgerBatchService;
+    private final DataVersionService dataVersionService;
 
     @Autowired
     public IncomeController(IncomeRepository incomeRepository, CustomerRepository customerRepository,
-                            JwtUtil jwtUtil, HttpServletRequest request) {
+                            JwtUtil jwtUtil, HttpServletRequest request,
+                            MonthlyRollupService monthlyRollupService,
+                            LedgerBatchService ledgerBatchService,
+                            DataVersionService dataVersionService) {
         this.incomeRepository = incomeRepository;
         this.customerRepository = customerRepository;
         this.jwtUtil = jwtUtil;
         this.request = request;
+        this.monthlyRollupService = monthlyRollupService;
+        this.ledgerBatchService = ledgerBatchService;
+        this.dataVersionService = dataVersionService;
     }
 
     @PostMapping
@@ -80,6 +105,7 @@ public class IncomeController {
             }
 
             incomeRepository.save(income);
+            dataVersionService.bump(email);
             logger.info("Income added successfully for email: {}", email);
 
             return ResponseEntity.ok(Collections.singletonMap("message", "Income added successfully"));
@@ -90,6 +116,37 @@ public class IncomeController {
         }
     }
 
+    /**
+     * Applies creates, updates and deletes in one transaction and reports each item's
+     * outcome. Invalid or unknown items are skipped; they do not roll back the others.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyIncomeBatch(@RequestBody IncomeBatchRequest batchRequest) {
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for income batch");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Collections.singletonMap("message", "User is not authenticated"));
+        }
+
+        if (batchRequest.size() > LedgerBatchService.MAX_BATCH_ITEMS) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("message",
+                            "A batch may contain at most " + LedgerBatchService.MAX_BATCH_ITEMS + " items"));
+        }
+
+        logger.info("Applying income batch of {} items for email: {}", batchRequest.size(), email);
+
+        try {
+            List<BatchItemResult> results = ledgerBatchService.applyIncomeBatch(email, batchRequest);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            logger.error("Error applying income batch: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Collections.singletonMap("message", "Failed to apply income batch"));
+        }
+    }
+
     @GetMapping
     public ResponseEntity<List<IncomeResponse>> getIncomes() {
         String email = getEmailFromJwtCookie();
@@ -111,6 +168,11 @@ public class IncomeController {
         }
     }
 
+    /**
+     * Incomes matching the filters, newest first. Unbounded unless {@code limit} or a
+     * {@code cursor} is given; then it is paged by keyset like the expense filter, with the
+     * next page's cursor in {@value #NEXT_CURSOR_HEADER}.
+     */
     @GetMapping("/filter")
     public ResponseEntity<List<IncomeResponse>> filterIncomes(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -119,7 +181,9 @@ public class IncomeController {
             @RequestParam(required = false) Double minAmount,
             @RequestParam(required = false) Double maxAmount,
             @RequestParam(required = false) String tags,
-            @RequestParam(required = false) Boolean recurring) {
+            @RequestParam(required = false) Boolean recurring,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
         String email = getEmailFromJwtCookie();
         if (email == null) {
@@ -128,64 +192,64 @@ public class IncomeController {
         }
 
         try {
-            List<Income> incomes = incomeRepository.findByCustomerEmail(email);
+            Specification<Income> spec = IncomeSpecifications.belongsTo(email);
 
-            // Apply filters
             if (startDate != null) {
-                incomes = incomes.stream()
-                        .filter(income -> income.getDate().isAfter(startDate) || income.getDate().isEqual(startDate))
-                        .collect(Collectors.toList());
+                spec = spec.and(IncomeSpecifications.dateOnOrAfter(startDate));
             }
-
             if (endDate != null) {
-                incomes = incomes.stream()
-                        .filter(income -> income.getDate().isBefore(endDate) || income.getDate().isEqual(endDate))
-                        .collect(Collectors.toList());
+                spec = spec.and(IncomeSpecifications.dateOnOrBefore(endDate));
             }
-
             if (source != null && !source.isEmpty()) {
-                incomes = incomes.stream()
-                        .filter(income -> income.getSource().equalsIgnoreCase(source))
-                        .collect(Collectors.toList());
+                spec = spec.and(IncomeSpecifications.hasSource(source));
             }
-
             if (minAmount != null) {
-                incomes = incomes.stream()
-                        .filter(income -> income.getAmount() >= minAmount)
-                        .collect(Collectors.toList());
+                spec = spec.and(IncomeSpecifications.amountAtLeast(minAmount));
             }
-
             if (maxAmount != null) {
-                incomes = incomes.stream()
-                        .filter(income -> income.getAmount() <= maxAmount)
-                        .collect(Collectors.toList());
+                spec = spec.and(IncomeSpecifications.amountAtMost(maxAmount));
             }
-
-            if (tags != null && !tags.isEmpty()) {
-                String[] tagArray = tags.split(",");
-                incomes = incomes.stream()
-                        .filter(income -> {
-                            if (income.getTags() == null) return false;
-                            for (String tag : tagArray) {
-                                if (income.getTags().contains(tag.trim())) {
-                                    return true;
-                                }
-                            }
-                            return false;
-                        })
-                        .collect(Collectors.toList());
+            Set<String> tagSet = TagUtils.parse(tags);
+            if (!tagSet.isEmpty()) {
+                spec = spec.and(IncomeSpecifications.hasAnyTag(tagSet));
             }
-
             if (recurring != null) {
-                incomes = incomes.stream()
-                        .filter(income -> income.isRecurring() == recurring)
-                        .collect(Collectors.toList());
+                spec = spec.and(IncomeSpecifications.isRecurring(recurring));
+            }
+            if (cursor != null && !cursor.isEmpty()) {
+                KeysetCursor position;
+                try {
+                    position = KeysetCursor.decode(cursor);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Invalid income filter cursor: {}", cursor);
+                    return ResponseEntity.badRequest().build();
+                }
+                spec = spec.and(IncomeSpecifications.after(position.date().toLocalDate(), position.id()));
             }
 
-            // Convert to response objects
-            List<IncomeResponse> incomeResponses = mapToIncomeResponses(incomes);
+            Sort newestFirst = Sort.by(Sort.Direction.DESC, "date").and(Sort.by(Sort.Direction.DESC, "id"));
 
-            return ResponseEntity.ok(incomeResponses);
+            // Without limit or cursor every match is returned, as before paging existed
+            if (limit == null && (cursor == null || cursor.isEmpty())) {
+                return ResponseEntity.ok(mapToIncomeResponses(incomeRepository.findAll(spec, newestFirst)));
+            }
+
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+            // Fetch one extra row to learn whether another page exists
+            List<Income> incomes = incomeRepository.findBy(spec, query -> query
+                    .sortBy(newestFirst)
+                    .limit(pageSize + 1)
+                    .all());
+
+            HttpHeaders headers = new HttpHeaders();
+            if (incomes.size() > pageSize) {
+                incomes = incomes.subList(0, pageSize);
+                Income last = incomes.get(pageSize - 1);
+                headers.add(NEXT_CURSOR_HEADER, KeysetCursor.of(last.getDate().atStartOfDay(), last.getId()).encode());
+            }
+
+            return ResponseEntity.ok().headers(headers).body(mapToIncomeResponses(incomes));
         } catch (Exception e) {
             logger.error("Error filtering incomes: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -218,23 +282,13 @@ public class IncomeController {
         }
 
         try {
-            LocalDate startDate = LocalDate.now().minusMonths(11).withDayOfMonth(1);
-            List<Object[]> trends = incomeRepository.getMonthlyIncomeTrend(email, startDate);
+            YearMonth currentMonth = YearMonth.now();
+            Map<YearMonth, Double> totals = monthlyRollupService.getMonthlyTotals(
+                    email, LedgerEntryType.INCOME, currentMonth.minusMonths(11), currentMonth);
 
+            // Keys formatted as yyyy-MM, oldest month first
             Map<String, Number> monthlyTotals = new LinkedHashMap<>();
-
-            LocalDate currentMonthStart = YearMonth.now().atDay(1);
-            for (int i = 11; i >= 0; i--) {
-                LocalDate monthStart = currentMonthStart.minusMonths(i);
-                String monthKey = monthStart.getYear() + "-" + String.format("%02d", monthStart.getMonthValue());
-                monthlyTotals.put(monthKey, 0.0);
-            }
-
-            for (Object[] trend : trends) {
-                String month = (String) trend[0];
-                Double amount = ((Number) trend[1]).doubleValue();
-                monthlyTotals.put(month, amount);
-            }
+            totals.forEach((month, amount) -> monthlyTotals.put(month.toString(), amount));
 
             return ResponseEntity.ok(monthlyTotals);
         } catch (Exception e) {
@@ -275,15 +329,12 @@ public class IncomeController {
         }
 
         try {
-            Income income = incomeRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Income not found"));
-
-            if (!income.getCustomerEmail().equals(email)) {
+            // Loaded and deleted in one read-write transaction, so the row comes from the primary
+            BatchItemResult result = ledgerBatchService.deleteIncome(email, id);
+            if (BatchItemResult.FORBIDDEN.equals(result.getStatus())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Collections.singletonMap("message", "Not authorized to delete this income"));
+                        .body(Collections.singletonMap("message", result.getMessage()));
             }
-
-            incomeRepository.deleteById(id);
             return ResponseEntity.ok(Collections.singletonMap("message", "Income deleted successfully"));
         } catch (Exception e) {
             logger.error("Error deleting income: {}", e.getMessage(), e);
@@ -302,40 +353,12 @@ public class IncomeController {
         }
 
         try {
-            // Verify the income belongs to the authenticated user
-            Income income = incomeRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Income not found"));
-
-            if (!income.getCustomerEmail().equals(email)) {
+            // Loaded and updated in one read-write transaction, so the row comes from the primary
+            BatchItemResult result = ledgerBatchService.updateIncome(email, id, incomeRequest);
+            if (BatchItemResult.FORBIDDEN.equals(result.getStatus())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Collections.singletonMap("message", "Not authorized to update this income"));
-            }
-
-            // Update the income
-            if (incomeRequest.getAmount() > 0) {
-                income.setAmount(incomeRequest.getAmount());
-            }
-
-            if (incomeRequest.getSource() != null && !incomeRequest.getSource().isEmpty()) {
-                income.setSource(incomeRequest.getSource());
+                        .body(Collections.singletonMap("message", result.getMessage()));
             }
-
-            if (incomeRequest.getDescription() != null) {
-                income.setDescription(incomeRequest.getDescription());
-            }
-
-            if (incomeRequest.getIsRecurring() != null) {
-                income.setRecurring(incomeRequest.getIsRecurring());
-                if (incomeRequest.getIsRecurring() && incomeRequest.getRecurringFrequency() != null) {
-                    income.setRecurringFrequency(incomeRequest.getRecurringFrequency());
-                }
-            }
-
-            if (incomeRequest.getTags() != null) {
-                income.setTags(String.join(",", incomeRequest.getTags()));
-            }
-
-            incomeRepository.save(income);
             return ResponseEntity.ok(Collections.singletonMap("message", "Income updated successfully"));
         } catch (Exception e) {
             logger.error("Error updating income: {}", e.getMessage(), e);
@@ -4,9 +4,13 @@ import com.personalfinancetracker.backend.dto.*;
 import com.personalfinancetracker.backend.entities.Customer;
 import com.personalfinancetracker.backend.entities.Expense;
 import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
 import com.personalfinancetracker.backend.repository.CustomerRepository;
 import com.personalfinancetracker.backend.repository.ExpenseRepository;
 import com.personalfinancetracker.backend.repository.IncomeRepository;
+import com.personalfinancetracker.backend.services.MonthlyRollupService;
+import com.personalfinancetracker.backend.services.imports.ImportFormat;
+import com.personalfinancetracker.backend.services.imports.TransactionImportService;
 import com.personalfinancetracker.backend.utils.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -14,9 +18,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
@@ -37,6 +44,8 @@ public class TransactionController {
     private final CustomerRepository customerRepository;
     private final JwtUtil jwtUtil;
     private final HttpServletRequest request;
+    private final MonthlyRollupService monthlyRollupService;
+    private final TransactionImportService transactionImportService;
 
     @Autowired
     public TransactionController(
@@ -44,12 +53,59 @@ public class TransactionController {
             IncomeRepository incomeRepository,
             CustomerRepository customerRepository,
             JwtUtil jwtUtil,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            MonthlyRollupService monthlyRollupService,
+            TransactionImportService transactionImportService) {
         this.expenseRepository = expenseRepository;
         this.incomeRepository = incomeRepository;
         this.customerRepository = customerRepository;
         this.jwtUtil = jwtUtil;
         this.request = request;
+        this.monthlyRollupService = monthlyRollupService;
+        this.transactionImportService = transactionImportService;
+    }
+
+    /**
+     * Bulk import of a CSV or OFX statement. The format is taken from the {@code format}
+     * parameter or the file extension. Rows already imported before are skipped.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importTransactions(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) {
+
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for transaction import");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Collections.singletonMap("message", "User is not authenticated"));
+        }
+
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("message", "No file uploaded"));
+        }
+        if (customerRepository.findByEmail(email).isEmpty()) {
+            logger.error("User not found for email: {}", email);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Collections.singletonMap("message", "User not found"));
+        }
+
+        logger.info("Importing {} ({} bytes) for email: {}", file.getOriginalFilename(), file.getSize(), email);
+
+        try (InputStream input = file.getInputStream()) {
+            ImportFormat importFormat = ImportFormat.resolve(format, file.getOriginalFilename());
+            ImportResult result = transactionImportService.importTransactions(email, input, importFormat);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected import for {}: {}", email, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error importing transactions: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Collections.singletonMap("message", "Import failed"));
+        }
     }
 
     @GetMapping
@@ -156,24 +212,20 @@ public class TransactionController {
         logger.info("Fetching monthly summary for email: {}, months: {}", email, months);
 
         try {
-            LocalDate now = LocalDate.now();
+            YearMonth currentMonth = YearMonth.now();
+            YearMonth firstMonth = currentMonth.minusMonths(Math.max(months, 1) - 1);
             List<Map<String, Object>> monthlySummary = new ArrayList<>();
 
-            // Generate data for each month
-            for (int i = months - 1; i >= 0; i--) {
-                YearMonth yearMonth = YearMonth.from(now.minusMonths(i));
-                LocalDate startOfMonth = yearMonth.atDay(1);
-                LocalDate endOfMonth = yearMonth.atEndOfMonth();
-
-                // Get expense total for the month
-                Double expenseTotal = expenseRepository.getTotalAmountByCategory(
-                        email, null, startOfMonth.atStartOfDay(), endOfMonth.atStartOfDay());
-                if (expenseTotal == null) expenseTotal = 0.0;
+            // Two rollup reads cover every month in the range
+            Map<YearMonth, Double> expenseTotals = monthlyRollupService.getMonthlyTotals(
+                    email, LedgerEntryType.EXPENSE, firstMonth, currentMonth);
+            Map<YearMonth, Double> incomeTotals = monthlyRollupService.getMonthlyTotals(
+                    email, LedgerEntryType.INCOME, firstMonth, currentMonth);
 
-                // Get income total for the month
-                Double incomeTotal = incomeRepository.getTotalIncomeForPeriod(
-                        email, startOfMonth, endOfMonth);
-                if (incomeTotal == null) incomeTotal = 0.0;
+            // Generate data for each month
+            for (YearMonth yearMonth : expenseTotals.keySet()) {
+                double expenseTotal = expenseTotals.get(yearMonth);
+                double incomeTotal = incomeTotals.getOrDefault(yearMonth, 0.0);
 
                 // Calculate net amount
                 double netAmount = incomeTotal - expenseTotal;
@@ -278,23 +330,18 @@ public class TransactionController {
             LocalDate startOfPrevMonth = YearMonth.from(today).minusMonths(1).atDay(1);
             LocalDate endOfPrevMonth = YearMonth.from(today).minusMonths(1).atEndOfMonth();
 
-            // Calculate current month totals
-            Double currentMonthExpenses = expenseRepository.getTotalAmountByCategory(
-                    email, null, startOfMonth.atStartOfDay(), today.atStartOfDay());
-            if (currentMonthExpenses == null) currentMonthExpenses = 0.0;
+            // One grouped query per table covers both months (previous month, then month to date)
+            Map<YearMonth, Double> expensesByMonth = toMonthlyTotals(expenseRepository.sumByMonth(
+                    email, startOfPrevMonth.atStartOfDay(), today.plusDays(1).atStartOfDay()));
+            Map<YearMonth, Double> incomeByMonth = toMonthlyTotals(incomeRepository.sumByMonth(
+                    email, startOfPrevMonth, today));
 
-            Double currentMonthIncome = incomeRepository.getTotalIncomeForPeriod(
-                    email, startOfMonth, today);
-            if (currentMonthIncome == null) currentMonthIncome = 0.0;
-
-            // Calculate previous month totals
-            Double prevMonthExpenses = expenseRepository.getTotalAmountByCategory(
-                    email, null, startOfPrevMonth.atStartOfDay(), endOfPrevMonth.atStartOfDay());
-            if (prevMonthExpenses == null) prevMonthExpenses = 0.0;
-
-            Double prevMonthIncome = incomeRepository.getTotalIncomeForPeriod(
-                    email, startOfPrevMonth, endOfPrevMonth);
-            if (prevMonthIncome == null) prevMonthIncome = 0.0;
+            YearMonth currentMonth = YearMonth.from(startOfMonth);
+            YearMonth prevMonth = YearMonth.from(endOfPrevMonth);
+            double currentMonthExpenses = expensesByMonth.getOrDefault(currentMonth, 0.0);
+            double currentMonthIncome = incomeByMonth.getOrDefault(currentMonth, 0.0);
+            double prevMonthExpenses = expensesByMonth.getOrDefault(prevMonth, 0.0);
+            double prevMonthIncome = incomeByMonth.getOrDefault(prevMonth, 0.0);
 
             // Insight 1: Savings Rate
             double savingsRate = currentMonthIncome > 0
@@ -402,6 +449,16 @@ public class TransactionController {
         }
     }
 
+    // Rows of (year, month, total) from the grouped sumByMonth queries
+    private Map<YearMonth, Double> toMonthlyTotals(List<Object[]> rows) {
+        Map<YearMonth, Double> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            totals.put(month, row[2] != null ? ((Number) row[2]).doubleValue() : 0.0);
+        }
+        return totals;
+    }
+
     private String getEmailFromJwtCookie() {
         String jwt = jwtUtil.getJwtFromCookies(request);
         if (jwt != null) {
@@ -1,15 +1,22 @@
 package com.personalfinancetracker.backend.controllers;
 
+import com.personalfinancetracker.backend.dto.ProfilePhotoContent;
 import com.personalfinancetracker.backend.dto.UserDetailsResponse;
 import com.personalfinancetracker.backend.dto.UserDetailsUpdateRequest;
 import com.personalfinancetracker.backend.entities.Customer;
 import com.personalfinancetracker.backend.repository.CustomerRepository;
+import com.personalfinancetracker.backend.services.ProfilePhotoService;
 import com.personalfinancetracker.backend.utils.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/user")
@@ -32,6 +40,9 @@ public class UserController {
     @Autowired
     private HttpServletRequest request;
 
+    @Autowired
+    private ProfilePhotoService profilePhotoService;
+
     @GetMapping("/details")
     public ResponseEntity<UserDetailsResponse> getUserDetails(Authentication authentication) {
         logger.info("Received request for /api/user/details");
@@ -56,9 +67,8 @@ public class UserController {
             response.setAddress(customer.getAddress());
             response.setGender(customer.getGender());
             response.setAge(customer.getAge());
-            if (customer.getProfilePhoto() != null) {
-                response.setProfilePhoto(Base64.getEncoder().encodeToString(customer.getProfilePhoto()));
-            }
+            response.setProfilePhotoUrl(profilePhotoService.photoUrl(
+                    profilePhotoService.findPhotoHash(email).orElse(null)));
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -114,10 +124,10 @@ public class UserController {
             if (updateRequest.getAddress() != null) customer.setAddress(updateRequest.getAddress());
             if (updateRequest.getGender() != null) customer.setGender(updateRequest.getGender());
             if (updateRequest.getAge() != null) customer.setAge(updateRequest.getAge());
+            byte[] photoBytes = null;
             if (updateRequest.getProfilePhoto() != null && !updateRequest.getProfilePhoto().isEmpty()) {
                 try {
-                    byte[] photoBytes = Base64.getDecoder().decode(updateRequest.getProfilePhoto());
-                    customer.setProfilePhoto(photoBytes);
+                    photoBytes = Base64.getDecoder().decode(updateRequest.getProfilePhoto());
                 } catch (IllegalArgumentException e) {
                     logger.error("Invalid Base64 format for profile photo: {}", e.getMessage());
                     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new UserDetailsResponse());
@@ -125,6 +135,9 @@ public class UserController {
             }
 
             customerRepository.save(customer);
+            String photoHash = photoBytes != null
+                    ? profilePhotoService.savePhoto(email, photoBytes)
+                    : profilePhotoService.findPhotoHash(email).orElse(null);
             logger.info("User details updated successfully for: {}", email);
 
             UserDetailsResponse response = new UserDetailsResponse();
@@ -133,9 +146,7 @@ public class UserController {
             response.setAddress(customer.getAddress());
             response.setGender(customer.getGender());
             response.setAge(customer.getAge());
-            if (customer.getProfilePhoto() != null) {
-                response.setProfilePhoto(Base64.getEncoder().encodeToString(customer.getProfilePhoto()));
-            }
+            response.setProfilePhotoUrl(profilePhotoService.photoUrl(photoHash));
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -144,6 +155,60 @@ public class UserController {
         }
     }
 
+    /**
+     * Serves the profile photo bytes. The response carries the content hash as ETag, so
+     * revalidation is answered with 304 without reading the image; versioned URLs
+     * (?v=hash) can be cached by the browser for a long time.
+     */
+    @GetMapping("/photo")
+    public ResponseEntity<Resource> getProfilePhoto(
+            @RequestParam(value = "v", required = false) String version,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String email = getEmailFromJwtCookie();
+        if (email == null) {
+            logger.warn("No valid JWT token found in cookie for photo request");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            String hash = profilePhotoService.findPhotoHash(email).orElse(null);
+            if (hash == null) {
+                return ResponseEntity.notFound().build();
+            }
+
+            String etag = "\"" + hash + "\"";
+            CacheControl cacheControl = hash.equals(version)
+                    ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate()
+                    : CacheControl.noCache().cachePrivate();
+
+            if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(cacheControl)
+                        .build();
+            }
+
+            ProfilePhotoContent photo = profilePhotoService.findPhoto(email).orElse(null);
+            if (photo == null) {
+                return ResponseEntity.notFound().build();
+            }
+
+            String contentType = photo.getContentType() != null
+                    ? photo.getContentType()
+                    : ProfilePhotoService.detectContentType(photo.getData());
+
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .contentType(MediaType.parseMediaType(contentType))
+                    .contentLength(photo.getData().length)
+                    .body(new ByteArrayResource(photo.getData()));
+        } catch (Exception e) {
+            logger.error("Error fetching profile photo: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     private String getEmailFromJwtCookie() {
         String jwt = jwtUtil.getJwtFromCookies(request);
         if (jwt != null) {
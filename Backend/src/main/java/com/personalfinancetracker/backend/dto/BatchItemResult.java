@@ -0,0 +1,71 @@
+package com.personalfinancetracker.backend.dto;
+
+/**
+ * Outcome of one item of a batch request. {@code index} is the item's position in its
+ * create, update or delete list.
+ */
+public class BatchItemResult {
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String INVALID = "INVALID";
+    // Single-row endpoints only; batches report other users' rows as NOT_FOUND
+    public static final String FORBIDDEN = "FORBIDDEN";
+
+    private String operation;
+    private int index;
+    private Long id;
+    private String status;
+    private String message;
+
+    public BatchItemResult() {}
+
+    public BatchItemResult(String operation, int index, Long id, String status, String message) {
+        this.operation = operation;
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
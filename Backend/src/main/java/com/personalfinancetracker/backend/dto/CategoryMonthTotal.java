@@ -0,0 +1,47 @@
+package com.personalfinancetracker.backend.dto;
+
+public class CategoryMonthTotal {
+    private Integer year;
+    private Integer month;
+    private String category;
+    private Double total;
+
+    public CategoryMonthTotal(Integer year, Integer month, String category, Double total) {
+        this.year = year;
+        this.month = month;
+        this.category = category;
+        this.total = total;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+
+    public Integer getMonth() {
+        return month;
+    }
+
+    public void setMonth(Integer month) {
+        this.month = month;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Double getTotal() {
+        return total;
+    }
+
+    public void setTotal(Double total) {
+        this.total = total;
+    }
+}
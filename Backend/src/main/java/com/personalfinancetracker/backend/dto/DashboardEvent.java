@@ -0,0 +1,140 @@
+package com.personalfinancetracker.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A change pushed to open dashboards over /api/dashboard/events. Only the fields relevant to
+ * the event type are set; the rest are left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardEvent {
+    public static final String TRANSACTION = "transaction";
+    public static final String BUDGET_THRESHOLD = "budget-threshold";
+    public static final String GOAL_MILESTONE = "goal-milestone";
+    // Events were dropped for a slow client, it should reload everything
+    public static final String RESYNC = "resync";
+
+    private String type;
+    private String change;
+    private String entryType;
+    private String category;
+    private String month;
+    private Double amount;
+    private Double previousAmount;
+    private Double budgetAmount;
+    private Double spentAmount;
+    private Integer threshold;
+    private Long goalId;
+    private String goalTitle;
+    private String milestoneTitle;
+
+    public DashboardEvent() {}
+
+    public DashboardEvent(String type) {
+        this.type = type;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getChange() {
+        return change;
+    }
+
+    public void setChange(String change) {
+        this.change = change;
+    }
+
+    public String getEntryType() {
+        return entryType;
+    }
+
+    public void setEntryType(String entryType) {
+        this.entryType = entryType;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public Double getPreviousAmount() {
+        return previousAmount;
+    }
+
+    public void setPreviousAmount(Double previousAmount) {
+        this.previousAmount = previousAmount;
+    }
+
+    public Double getBudgetAmount() {
+        return budgetAmount;
+    }
+
+    public void setBudgetAmount(Double budgetAmount) {
+        this.budgetAmount = budgetAmount;
+    }
+
+    public Double getSpentAmount() {
+        return spentAmount;
+    }
+
+    public void setSpentAmount(Double spentAmount) {
+        this.spentAmount = spentAmount;
+    }
+
+    public Integer getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(Integer threshold) {
+        this.threshold = threshold;
+    }
+
+    public Long getGoalId() {
+        return goalId;
+    }
+
+    public void setGoalId(Long goalId) {
+        this.goalId = goalId;
+    }
+
+    public String getGoalTitle() {
+        return goalTitle;
+    }
+
+    public void setGoalTitle(String goalTitle) {
+        this.goalTitle = goalTitle;
+    }
+
+    public String getMilestoneTitle() {
+        return milestoneTitle;
+    }
+
+    public void setMilestoneTitle(String milestoneTitle) {
+        this.milestoneTitle = milestoneTitle;
+    }
+}
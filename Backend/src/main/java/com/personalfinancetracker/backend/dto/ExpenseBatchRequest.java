@@ -0,0 +1,40 @@
+package com.personalfinancetracker.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExpenseBatchRequest {
+    private List<ExpenseRequest> create = new ArrayList<>();
+    private List<ExpenseBatchUpdate> update = new ArrayList<>();
+    private List<Long> delete = new ArrayList<>();
+
+    public ExpenseBatchRequest() {}
+
+    public List<ExpenseRequest> getCreate() {
+        return create;
+    }
+
+    public void setCreate(List<ExpenseRequest> create) {
+        this.create = create != null ? create : new ArrayList<>();
+    }
+
+    public List<ExpenseBatchUpdate> getUpdate() {
+        return update;
+    }
+
+    public void setUpdate(List<ExpenseBatchUpdate> update) {
+        this.update = update != null ? update : new ArrayList<>();
+    }
+
+    public List<Long> getDelete() {
+        return delete;
+    }
+
+    public void setDelete(List<Long> delete) {
+        this.delete = delete != null ? delete : new ArrayList<>();
+    }
+
+    public int size() {
+        return create.size() + update.size() + delete.size();
+    }
+}
@@ -0,0 +1,19 @@
+package com.personalfinancetracker.backend.dto;
+
+/**
+ * One update inside a batch request: the id of the expense plus the fields to change,
+ * with the same partial-update rules as PUT /api/expenses/{id}.
+ */
+public class ExpenseBatchUpdate extends ExpenseRequest {
+    private Long id;
+
+    public ExpenseBatchUpdate() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
@@ -1,6 +1,7 @@
 package com.personalfinancetracker.backend.dto;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 public class ExpenseResponse {
@@ -24,6 +25,20 @@ public class ExpenseResponse {
         this.customerEmail = customerEmail;
     }
 
+    // Used by the JPQL constructor projection in ExpenseRepository; tags arrive as the stored CSV
+    public ExpenseResponse(Long id, Double amount, String category, LocalDateTime date, String customerEmail,
+                           String tags, String note, Boolean isRecurring, String recurringFrequency) {
+        this(id, amount, category, date, customerEmail);
+        if (tags != null && !tags.isEmpty()) {
+            this.tags = Arrays.asList(tags.split(","));
+        }
+        this.note = note;
+        if (isRecurring != null) {
+            this.isRecurring = isRecurring;
+            this.recurringFrequency = recurringFrequency;
+        }
+    }
+
     // Getters and Setters
 
     public Long getId() {
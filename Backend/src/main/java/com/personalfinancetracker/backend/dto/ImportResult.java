@@ -0,0 +1,76 @@
+package com.personalfinancetracker.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResult {
+    private int importedExpenses;
+    private int importedIncomes;
+    private int duplicates;
+    private int rejected;
+    // First few rejection reasons, the rest are only counted
+    private List<String> errors = new ArrayList<>();
+
+    public ImportResult() {}
+
+    public void addImportedExpense() {
+        importedExpenses++;
+    }
+
+    public void addImportedIncome() {
+        importedIncomes++;
+    }
+
+    public void addDuplicate() {
+        duplicates++;
+    }
+
+    public void addError(String message, int maxReported) {
+        rejected++;
+        if (errors.size() < maxReported) {
+            errors.add(message);
+        }
+    }
+
+    // Getters and Setters
+
+    public int getImportedExpenses() {
+        return importedExpenses;
+    }
+
+    public void setImportedExpenses(int importedExpenses) {
+        this.importedExpenses = importedExpenses;
+    }
+
+    public int getImportedIncomes() {
+        return importedIncomes;
+    }
+
+    public void setImportedIncomes(int importedIncomes) {
+        this.importedIncomes = importedIncomes;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
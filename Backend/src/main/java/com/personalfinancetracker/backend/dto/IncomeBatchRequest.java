@@ -0,0 +1,40 @@
+package com.personalfinancetracker.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IncomeBatchRequest {
+    private List<IncomeRequest> create = new ArrayList<>();
+    private List<IncomeBatchUpdate> update = new ArrayList<>();
+    private List<Long> delete = new ArrayList<>();
+
+    public IncomeBatchRequest() {}
+
+    public List<IncomeRequest> getCreate() {
+        return create;
+    }
+
+    public void setCreate(List<IncomeRequest> create) {
+        this.create = create != null ? create : new ArrayList<>();
+    }
+
+    public List<IncomeBatchUpdate> getUpdate() {
+        return update;
+    }
+
+    public void setUpdate(List<IncomeBatchUpdate> update) {
+        this.update = update != null ? update : new ArrayList<>();
+    }
+
+    public List<Long> getDelete() {
+        return delete;
+    }
+
+    public void setDelete(List<Long> delete) {
+        this.delete = delete != null ? delete : new ArrayList<>();
+    }
+
+    public int size() {
+        return create.size() + update.size() + delete.size();
+    }
+}
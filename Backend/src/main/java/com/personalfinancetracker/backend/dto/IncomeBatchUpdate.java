@@ -0,0 +1,19 @@
+package com.personalfinancetracker.backend.dto;
+
+/**
+ * One update inside a batch request: the id of the income plus the fields to change,
+ * with the same partial-update rules as PUT /api/incomes/{id}.
+ */
+public class IncomeBatchUpdate extends IncomeRequest {
+    private Long id;
+
+    public IncomeBatchUpdate() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
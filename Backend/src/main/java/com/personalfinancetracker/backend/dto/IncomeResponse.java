@@ -1,6 +1,7 @@
 package com.personalfinancetracker.backend.dto;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 
 public class IncomeResponse {
@@ -17,6 +18,22 @@ public class IncomeResponse {
     // Constructors
     public IncomeResponse() {}
 
+    // Used by the JPQL constructor projection in IncomeRepository; tags arrive as the stored CSV
+    public IncomeResponse(Long id, double amount, String source, LocalDate date, String customerEmail,
+                          String description, boolean isRecurring, String recurringFrequency, String tags) {
+        this.id = id;
+        this.amount = amount;
+        this.source = source;
+        this.date = date;
+        this.customerEmail = customerEmail;
+        this.description = description;
+        this.isRecurring = isRecurring;
+        this.recurringFrequency = recurringFrequency;
+        if (tags != null && !tags.isEmpty()) {
+            this.tags = Arrays.asList(tags.split(","));
+        }
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,22 @@
+package com.personalfinancetracker.backend.dto;
+
+/**
+ * Image bytes and media type of a profile photo, read without loading the entity.
+ */
+public class ProfilePhotoContent {
+    private final byte[] data;
+    private final String contentType;
+
+    public ProfilePhotoContent(byte[] data, String contentType) {
+        this.data = data;
+        this.contentType = contentType;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
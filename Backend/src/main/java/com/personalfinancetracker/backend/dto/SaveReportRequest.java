@@ -4,6 +4,8 @@ public class SaveReportRequest {
     private String reportTitle;
     private String reportType;
     private String configuration;
+    // Optional cron schedule, see SavedReportScheduler
+    private String schedule;
 
     // Constructors
     public SaveReportRequest() {}
@@ -32,4 +34,12 @@ public class SaveReportRequest {
     public void setConfiguration(String configuration) {
         this.configuration = configuration;
     }
+
+    public String getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(String schedule) {
+        this.schedule = schedule;
+    }
 }
@@ -8,6 +8,11 @@ public class SavedReportDTO {
     private String reportType;
     private String configuration;
     private LocalDateTime createdDate;
+    private String scheduleCron;
+    private LocalDateTime nextRunAt;
+    private LocalDateTime lastRunAt;
+    private String lastRunStatus;
+    private String outputUrl;
 
     // Constructors
     public SavedReportDTO() {}
@@ -60,4 +65,44 @@ public class SavedReportDTO {
     public void setCreatedDate(LocalDateTime createdDate) {
         this.createdDate = createdDate;
     }
-}
\ No newline at end of file
+
+    public String getScheduleCron() {
+        return scheduleCron;
+    }
+
+    public void setScheduleCron(String scheduleCron) {
+        this.scheduleCron = scheduleCron;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public String getLastRunStatus() {
+        return lastRunStatus;
+    }
+
+    public void setLastRunStatus(String lastRunStatus) {
+        this.lastRunStatus = lastRunStatus;
+    }
+
+    public String getOutputUrl() {
+        return outputUrl;
+    }
+
+    public void setOutputUrl(String outputUrl) {
+        this.outputUrl = outputUrl;
+    }
+}
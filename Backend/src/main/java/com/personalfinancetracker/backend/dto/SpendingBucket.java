@@ -0,0 +1,40 @@
+package com.personalfinancetracker.backend.dto;
+
+/**
+ * Total and count of expenses falling into one bucket (a weekday, an hour, a day of month, ...).
+ */
+public class SpendingBucket {
+    private Integer bucket;
+    private Double total;
+    private Long count;
+
+    public SpendingBucket(Integer bucket, Double total, Long count) {
+        this.bucket = bucket;
+        this.total = total;
+        this.count = count;
+    }
+
+    public Integer getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(Integer bucket) {
+        this.bucket = bucket;
+    }
+
+    public Double getTotal() {
+        return total;
+    }
+
+    public void setTotal(Double total) {
+        this.total = total;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+}
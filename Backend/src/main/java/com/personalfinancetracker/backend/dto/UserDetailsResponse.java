@@ -8,7 +8,7 @@ public class UserDetailsResponse {
     private String address;
     private Gender gender;
     private Integer age;
-    private String profilePhoto;
+    private String profilePhotoUrl;
 
     public UserDetailsResponse() {
     }
@@ -54,11 +54,11 @@ public class UserDetailsResponse {
         this.age = age;
     }
 
-    public String getProfilePhoto() {
-        return profilePhoto;
+    public String getProfilePhotoUrl() {
+        return profilePhotoUrl;
     }
 
-    public void setProfilePhoto(String profilePhoto) {
-        this.profilePhoto = profilePhoto;
+    public void setProfilePhotoUrl(String profilePhotoUrl) {
+        this.profilePhotoUrl = profilePhotoUrl;
     }
 }
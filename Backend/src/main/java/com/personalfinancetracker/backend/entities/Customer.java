@@ -87,9 +87,6 @@ public class Customer {
 
     private Integer age;
 
-    @Lob
-    private byte[] profilePhoto; // Assuming you store the photo as a byte array
-
     // Getters and Setters
 
     // Existing getters and setters
@@ -117,12 +114,4 @@ public class Customer {
     public void setAge(Integer age) {
         this.age = age;
     }
-
-    public byte[] getProfilePhoto() {
-        return profilePhoto;
-    }
-
-    public void setProfilePhoto(byte[] profilePhoto) {
-        this.profilePhoto = profilePhoto;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.personalfinancetracker.backend.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Profile photo kept apart from {@link Customer} so that customer lookups on the
+ * authentication and transaction paths never pull the image bytes. Loading this entity
+ * reads the image as well (there is no bytecode enhancement for lazy attributes), so the
+ * photo is read and written through the repository's projection and update queries.
+ */
+@Entity
+@Table(name = "customer_profile_photo")
+public class CustomerProfilePhoto {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_email", unique = true, nullable = false)
+    private String customerEmail;
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] data;
+
+    private String contentType;
+
+    // Hex SHA-256 of the image bytes, used as the HTTP ETag
+    @Column(length = 64)
+    private String contentHash;
+
+    private LocalDateTime updatedAt;
+
+    public CustomerProfilePhoto() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public void setCustomerEmail(String customerEmail) {
+        this.customerEmail = customerEmail;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,17 +1,31 @@
 package com.personalfinancetracker.backend.entities;
 
+import com.personalfinancetracker.backend.utils.Money;
+import com.personalfinancetracker.backend.utils.TagUtils;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
-public class Expense {
+@EntityListeners(LedgerEntryListener.class)
+public class Expense implements LedgerEntry {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Decimal copy of amountMinor for readers of the old column; written only by setAmount
     private Double amount;
 
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
+
+    @Column(length = 3, nullable = false)
+    private String currency = Money.DEFAULT_CURRENCY;
+
     private String category;
 
     private LocalDateTime date;
@@ -20,9 +34,25 @@ public class Expense {
     @JoinColumn(name = "customer_email", referencedColumnName = "email")
     private Customer customer;
 
+    // Read-only view of the foreign key, so projections can select it without joining customer
+    @Column(name = "customer_email", insertable = false, updatable = false)
+    private String customerEmail;
+
     // New fields
     private String tags;
 
+    // Aggregate-relevant values as last loaded or written, see LedgerEntryListener
+    @Transient
+    private LedgerEntry.Snapshot loadedSnapshot;
+
+    // Normalized copy of tags, one indexed row per tag, kept in sync by setTags
+    @ElementCollection
+    @CollectionTable(
+            name = "expense_tag",
+            joinColumns = @JoinColumn(name = "expense_id"))
+    @Column(name = "tag", length = TagUtils.MAX_TAG_LENGTH, nullable = false)
+    private Set<String> tagSet = new LinkedHashSet<>();
+
     @Column(length = 500)
     private String note;
 
@@ -45,8 +75,21 @@ public class Expense {
         return amount;
     }
 
+    /**
+     * Set the amount in major units, rounded to whole minor units. A null amount is kept as
+     * null with zero minor units.
+     */
     public void setAmount(Double amount) {
-        this.amount = amount;
+        this.amountMinor = amount != null ? Money.toMinor(amount) : 0;
+        this.amount = amount != null ? Money.toMajor(amountMinor) : null;
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public String getCurrency() {
+        return currency;
     }
 
     public String getCategory() {
@@ -79,6 +122,12 @@ public class Expense {
 
     public void setTags(String tags) {
         this.tags = tags;
+        this.tagSet.clear();
+        this.tagSet.addAll(TagUtils.parse(tags));
+    }
+
+    public Set<String> getTagSet() {
+        return Collections.unmodifiableSet(tagSet);
     }
 
     public String getNote() {
@@ -104,4 +153,24 @@ public class Expense {
     public void setRecurringFrequency(String recurringFrequency) {
         this.recurringFrequency = recurringFrequency;
     }
-}
\ No newline at end of file
+
+    @Override
+    public LedgerEntry.Snapshot snapshot() {
+        String email = customer != null ? customer.getEmail() : null;
+        if (email == null || date == null) {
+            return null;
+        }
+        return new LedgerEntry.Snapshot(email, LedgerEntryType.EXPENSE, category != null ? category : "",
+                YearMonth.from(date), amountMinor);
+    }
+
+    @Override
+    public LedgerEntry.Snapshot getLoadedSnapshot() {
+        return loadedSnapshot;
+    }
+
+    @Override
+    public void setLoadedSnapshot(LedgerEntry.Snapshot loadedSnapshot) {
+        this.loadedSnapshot = loadedSnapshot;
+    }
+}
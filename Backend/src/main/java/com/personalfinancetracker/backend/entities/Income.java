@@ -1,14 +1,26 @@
 package com.personalfinancetracker.backend.entities;
 
+import com.personalfinancetracker.backend.utils.Money;
+import com.personalfinancetracker.backend.utils.TagUtils;
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
-public class Income {
+@EntityListeners(LedgerEntryListener.class)
+public class Income implements LedgerEntry {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    // Decimal copy of amountMinor for readers of the old column; written only by setAmount
     private double amount;
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
+    @Column(length = 3, nullable = false)
+    private String currency = Money.DEFAULT_CURRENCY;
     private String source;
     private LocalDate date;
     private String customerEmail;
@@ -19,6 +31,18 @@ public class Income {
     private String recurringFrequency;
     private String tags;
 
+    // Aggregate-relevant values as last loaded or written, see LedgerEntryListener
+    @Transient
+    private LedgerEntry.Snapshot loadedSnapshot;
+
+    // Normalized copy of tags, one indexed row per tag, kept in sync by setTags
+    @ElementCollection
+    @CollectionTable(
+            name = "income_tag",
+            joinColumns = @JoinColumn(name = "income_id"))
+    @Column(name = "tag", length = TagUtils.MAX_TAG_LENGTH, nullable = false)
+    private Set<String> tagSet = new LinkedHashSet<>();
+
 
     public Income() {}
 
@@ -35,8 +59,20 @@ public class Income {
         return amount;
     }
 
+    /**
+     * Set the amount in major units, rounded to whole minor units.
+     */
     public void setAmount(double amount) {
-        this.amount = amount;
+        this.amountMinor = Money.toMinor(amount);
+        this.amount = Money.toMajor(amountMinor);
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public String getCurrency() {
+        return currency;
     }
 
     public String getSource() {
@@ -93,5 +129,31 @@ public class Income {
 
     public void setTags(String tags) {
         this.tags = tags;
+        this.tagSet.clear();
+        this.tagSet.addAll(TagUtils.parse(tags));
+    }
+
+    public Set<String> getTagSet() {
+        return Collections.unmodifiableSet(tagSet);
+    }
+
+    @Override
+    public LedgerEntry.Snapshot snapshot() {
+        String email = customerEmail;
+        if (email == null || date == null) {
+            return null;
+        }
+        return new LedgerEntry.Snapshot(email, LedgerEntryType.INCOME, source != null ? source : "",
+                YearMonth.from(date), amountMinor);
+    }
+
+    @Override
+    public LedgerEntry.Snapshot getLoadedSnapshot() {
+        return loadedSnapshot;
+    }
+
+    @Override
+    public void setLoadedSnapshot(LedgerEntry.Snapshot loadedSnapshot) {
+        this.loadedSnapshot = loadedSnapshot;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package com.personalfinancetracker.backend.entities;
+
+import java.time.YearMonth;
+
+/**
+ * An expense or income as seen by the monthly aggregates: who it belongs to, which month
+ * and category it falls in, and how much it is worth in minor units.
+ */
+public interface LedgerEntry {
+
+    /**
+     * The values that feed the aggregates, or null if the entry cannot be bucketed yet.
+     */
+    Snapshot snapshot();
+
+    Snapshot getLoadedSnapshot();
+
+    void setLoadedSnapshot(Snapshot snapshot);
+
+    record Snapshot(String email, LedgerEntryType type, String category, YearMonth month, long amountMinor) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.personalfinancetracker.backend.entities;
+
+import com.personalfinancetracker.backend.services.LedgerChangeEvent;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Publishes a {@link LedgerChangeEvent} whenever an expense or income is created, changed or
+ * deleted. The state seen at load time is remembered so an update can be expressed as
+ * "remove the old values, add the new ones". Events are published synchronously, inside the
+ * writing transaction.
+ */
+@Component
+public class LedgerEntryListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LedgerEntryListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    public void onLoad(LedgerEntry entry) {
+        entry.setLoadedSnapshot(entry.snapshot());
+    }
+
+    @PostPersist
+    public void onPersist(LedgerEntry entry) {
+        publish(null, entry.snapshot());
+        entry.setLoadedSnapshot(entry.snapshot());
+    }
+
+    @PostUpdate
+    public void onUpdate(LedgerEntry entry) {
+        publish(entry.getLoadedSnapshot(), entry.snapshot());
+        entry.setLoadedSnapshot(entry.snapshot());
+    }
+
+    @PostRemove
+    public void onRemove(LedgerEntry entry) {
+        LedgerEntry.Snapshot previous = entry.getLoadedSnapshot() != null ? entry.getLoadedSnapshot() : entry.snapshot();
+        publish(previous, null);
+        entry.setLoadedSnapshot(null);
+    }
+
+    private void publish(LedgerEntry.Snapshot previous, LedgerEntry.Snapshot current) {
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        eventPublisher.publishEvent(new LedgerChangeEvent(previous, current));
+    }
+}
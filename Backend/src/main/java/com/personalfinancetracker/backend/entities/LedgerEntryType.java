@@ -0,0 +1,6 @@
+package com.personalfinancetracker.backend.entities;
+
+public enum LedgerEntryType {
+    EXPENSE,
+    INCOME
+}
@@ -0,0 +1,79 @@
+package com.personalfinancetracker.backend.entities;
+
+import com.personalfinancetracker.backend.utils.Money;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Per-user, per-month, per-category totals of expenses (by category) and incomes (by source).
+ * Maintained incrementally by {@link LedgerEntryListener} and rebuilt nightly from the raw rows.
+ */
+@Entity
+// The bucket key the incremental upserts rely on, as created by V3
+@Table(name = "monthly_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_monthly_rollup_bucket",
+        columnNames = {"customer_email", "entry_type", "period_start", "category"}))
+public class MonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_email", nullable = false)
+    private String customerEmail;
+
+    // First day of the month
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LedgerEntryType entryType;
+
+    // Expense category or income source
+    @Column(nullable = false)
+    private String category;
+
+    // Decimal copy of totalMinor, kept by the same statements that maintain it
+    @Column(nullable = false)
+    private double total;
+
+    @Column(name = "total_minor", nullable = false)
+    private long totalMinor;
+
+    @Column(nullable = false)
+    private long entryCount;
+
+    public MonthlyRollup() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public LedgerEntryType getEntryType() {
+        return entryType;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public double getTotal() {
+        return Money.toMajor(totalMinor);
+    }
+
+    public long getTotalMinor() {
+        return totalMinor;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+}
@@ -18,6 +18,20 @@ public class SavedReport {
 
     private LocalDateTime createdDate;
 
+    // Spring cron expression (second minute hour day month weekday), null when not scheduled
+    @Column(name = "schedule_cron", length = 120)
+    private String scheduleCron;
+
+    private LocalDateTime nextRunAt;
+
+    private LocalDateTime lastRunAt;
+
+    @Column(length = 20)
+    private String lastRunStatus;
+
+    // Download name of the last successful scheduled output
+    private String outputFileName;
+
     @ManyToOne
     @JoinColumn(name = "customer_email", referencedColumnName = "email")
     private Customer customer;
@@ -73,4 +87,44 @@ public class SavedReport {
     public void setCustomer(Customer customer) {
         this.customer = customer;
     }
+
+    public String getScheduleCron() {
+        return scheduleCron;
+    }
+
+    public void setScheduleCron(String scheduleCron) {
+        this.scheduleCron = scheduleCron;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public String getLastRunStatus() {
+        return lastRunStatus;
+    }
+
+    public void setLastRunStatus(String lastRunStatus) {
+        this.lastRunStatus = lastRunStatus;
+    }
+
+    public String getOutputFileName() {
+        return outputFileName;
+    }
+
+    public void setOutputFileName(String outputFileName) {
+        this.outputFileName = outputFileName;
+    }
 }
\ No newline at end of file
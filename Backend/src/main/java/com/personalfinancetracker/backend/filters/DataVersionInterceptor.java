@@ -0,0 +1,63 @@
+package com.personalfinancetracker.backend.filters;
+
+import com.personalfinancetracker.backend.services.DataVersionService;
+import com.personalfinancetracker.backend.utils.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Conditional GET for the user's data endpoints. Every response carries the user's
+ * {@link DataVersionService#etag weak ETag}; when the browser sends it back in If-None-Match
+ * and nothing has been written since, the request is answered with 304 before the controller
+ * runs, so a polling dashboard costs one version lookup instead of the endpoint's queries.
+ * Versions are stored in the database, so this holds with any number of instances.
+ */
+@Component
+public class DataVersionInterceptor implements HandlerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(DataVersionInterceptor.class);
+
+    private final DataVersionService dataVersionService;
+    private final JwtUtil jwtUtil;
+
+    public DataVersionInterceptor(DataVersionService dataVersionService, JwtUtil jwtUtil) {
+        this.dataVersionService = dataVersionService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String email = getEmailFromJwtCookie(request);
+        if (email == null) {
+            // The controller answers 401
+            return true;
+        }
+
+        // Make the browser revalidate every time instead of reusing a response silently
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        return !new ServletWebRequest(request, response).checkNotModified(dataVersionService.etag(email));
+    }
+
+    private String getEmailFromJwtCookie(HttpServletRequest request) {
+        String jwt = jwtUtil.getJwtFromCookies(request);
+        if (jwt == null) {
+            return null;
+        }
+        try {
+            String email = jwtUtil.extractUsername(jwt);
+            return email != null && !email.isEmpty() ? email : null;
+        } catch (Exception e) {
+            logger.debug("Ignoring unreadable JWT for conditional GET: {}", e.getMessage());
+            return null;
+        }
+    }
+}
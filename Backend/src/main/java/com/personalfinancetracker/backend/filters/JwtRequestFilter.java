@@ -1,7 +1,9 @@
 package com.personalfinancetracker.backend.filters;
 
 import com.personalfinancetracker.backend.services.auth.AuthenticationService;
+import com.personalfinancetracker.backend.services.auth.VerifiedTokenCache;
 import com.personalfinancetracker.backend.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +28,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final AuthenticationService authenticationService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     private static final List<String> EXCLUDE_URLS = List.of(
             "/signup",
@@ -42,9 +45,12 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     );
 
     @Autowired
-    public JwtRequestFilter(JwtUtil jwtUtil, @Lazy AuthenticationService authenticationService) {
+    public JwtRequestFilter(JwtUtil jwtUtil,
+                            @Lazy AuthenticationService authenticationService,
+                            VerifiedTokenCache verifiedTokenCache) {
         this.jwtUtil = jwtUtil;
         this.authenticationService = authenticationService;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -60,53 +66,26 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             return;
         }
 
-        String token = null;
+        // Cookie first, Authorization header for backward compatibility
+        String token = jwtUtil.resolveToken(request);
+        logger.debug("JWT from request: {}", token != null ? "found" : "not found");
 
-        // Try to get token from cookie first
-        token = jwtUtil.getJwtFromCookies(request);
-        logger.debug("JWT from cookies: {}", token != null ? "found" : "not found");
-
-        // If not in cookie, try from Authorization header (backward compatibility)
-        if (token == null) {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring(7);
-                logger.debug("JWT from Authorization header: {}", token != null ? "found" : "not found");
-            }
-        }
-
-        String username = null;
-
-        // Extract username from token
-        if (token != null) {
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                username = jwtUtil.extractUsername(token);
-                logger.info("TOKEN SUBJECT IS: {}", username);
-
-                // If username looks like a numeric ID (Google ID) - log warning but proceed
-                if (username != null && username.matches("\\d+")) {
-                    logger.warn("Username appears to be a numeric ID instead of email: {}", username);
+                UserDetails userDetails = verifiedTokenCache.get(token);
+                if (userDetails == null) {
+                    userDetails = verifyAndLoad(token);
+                } else {
+                    logger.debug("Using cached verification for: {}", userDetails.getUsername());
                 }
-            } catch (Exception e) {
-                logger.error("JWT Token extraction error: {}", e.getMessage());
-            }
-        }
 
-        // Validate token and set authentication if valid
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                UserDetails userDetails = authenticationService.loadUserByUsername(username);
-                logger.debug("Loaded user details for: {}", username);
-
-                if (jwtUtil.validateToken(token, userDetails)) {
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authenticationToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
                     authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                    logger.debug("Authenticated user: {}", username);
-                } else {
-                    logger.warn("Token validation failed for user: {}", username);
+                    logger.debug("Authenticated user: {}", userDetails.getUsername());
                 }
             } catch (Exception e) {
                 logger.error("Authentication error: {}", e.getMessage());
@@ -116,6 +95,37 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Verify the token signature and expiry in a single parse, load the user once
+     * and remember the result until the token expires.
+     */
+    private UserDetails verifyAndLoad(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseVerifiedClaims(token);
+        } catch (Exception e) {
+            logger.error("JWT Token extraction error: {}", e.getMessage());
+            return null;
+        }
+
+        String username = claims.getSubject();
+        logger.debug("Token subject is: {}", username);
+        if (username == null) {
+            logger.warn("Token has no subject");
+            return null;
+        }
+
+        // If username looks like a numeric ID (Google ID) - log warning but proceed
+        if (username.matches("\\d+")) {
+            logger.warn("Username appears to be a numeric ID instead of email: {}", username);
+        }
+
+        UserDetails userDetails = authenticationService.loadUserByUsername(username);
+        logger.debug("Loaded user details for: {}", username);
+        verifiedTokenCache.put(token, userDetails, claims.getExpiration());
+        return userDetails;
+    }
+
     private boolean shouldExclude(String requestPath) {
         for (String excludeUrl : EXCLUDE_URLS) {
             if (requestPath.startsWith(excludeUrl)) {
@@ -0,0 +1,35 @@
+package com.personalfinancetracker.backend.repository;
+
+import com.personalfinancetracker.backend.dto.ProfilePhotoContent;
+import com.personalfinancetracker.backend.entities.CustomerProfilePhoto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface CustomerProfilePhotoRepository extends JpaRepository<CustomerProfilePhoto, Long> {
+
+    // Hash only, so conditional requests can be answered without reading the image
+    @Query("SELECT p.contentHash FROM CustomerProfilePhoto p WHERE p.customerEmail = :email")
+    Optional<String> findContentHashByCustomerEmail(@Param("email") String email);
+
+    // The bytes go straight to the response; no managed entity or dirty-checking copy of them
+    @Query("SELECT new com.personalfinancetracker.backend.dto.ProfilePhotoContent(p.data, p.contentType) " +
+            "FROM CustomerProfilePhoto p WHERE p.customerEmail = :email AND p.data IS NOT NULL")
+    Optional<ProfilePhotoContent> findContentByCustomerEmail(@Param("email") String email);
+
+    /**
+     * Replaces the photo in place, so the old image is never read just to be overwritten.
+     *
+     * @return 0 if the user has no photo row yet
+     */
+    @Modifying
+    @Query("UPDATE CustomerProfilePhoto p SET p.data = :data, p.contentType = :contentType, " +
+            "p.contentHash = :contentHash, p.updatedAt = :updatedAt WHERE p.customerEmail = :email")
+    int replaceContent(@Param("email") String email, @Param("data") byte[] data,
+                       @Param("contentType") String contentType, @Param("contentHash") String contentHash,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+}
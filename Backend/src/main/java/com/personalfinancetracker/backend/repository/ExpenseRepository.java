@@ -1,23 +1,73 @@
 package com.personalfinancetracker.backend.repository;
 
+import com.personalfinancetracker.backend.dto.CategoryMonthTotal;
 import com.personalfinancetracker.backend.dto.ExpenseCategorySummary;
+import com.personalfinancetracker.backend.dto.ExpenseResponse;
+import com.personalfinancetracker.backend.dto.SpendingBucket;
 import com.personalfinancetracker.backend.entities.Expense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+// Declared queries run read-only, so outside a writing transaction they may be served by a read replica
+@Transactional(readOnly = true)
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense> {
 
     List<Expense> findByCustomerEmail(String email);
 
+    // Ownership check for batch writes: only the caller's rows among the given ids
+    List<Expense> findByCustomerEmailAndIdIn(String email, Collection<Long> ids);
+
+    // Response-shaped rows for the expense listing, ordered (date DESC, id DESC). Only the
+    // listed columns are read; no entities, customers or tag collections are loaded.
+
+    String RESPONSE_PROJECTION = "SELECT new com.personalfinancetracker.backend.dto.ExpenseResponse(" +
+            "e.id, e.amount, e.category, e.date, e.customerEmail, e.tags, e.note, e.isRecurring, e.recurringFrequency) " +
+            "FROM Expense e ";
+
+    // Fetch size MIN_VALUE makes Connector/J stream rows instead of buffering the whole result
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query(RESPONSE_PROJECTION + "WHERE e.customerEmail = :email ORDER BY e.date DESC, e.id DESC")
+    Stream<ExpenseResponse> streamResponses(@Param("email") String email);
+
+    // Report rows over the half-open range [startDate, endDate), streamed like the listing
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query(RESPONSE_PROJECTION + "WHERE e.customerEmail = :email AND e.date >= :startDate AND e.date < :endDate " +
+            "ORDER BY e.date DESC, e.id DESC")
+    Stream<ExpenseResponse> streamResponses(
+            @Param("email") String email,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    @Query(RESPONSE_PROJECTION + "WHERE e.customerEmail = :email ORDER BY e.date DESC, e.id DESC")
+    List<ExpenseResponse> findResponses(@Param("email") String email, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "WHERE e.customerEmail = :email " +
+            "AND (e.date < :date OR (e.date = :date AND e.id < :id)) ORDER BY e.date DESC, e.id DESC")
+    List<ExpenseResponse> findResponsesAfter(
+            @Param("email") String email,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable);
+
     @Query("SELECT DISTINCT e.category FROM Expense e")
     List<String> findDistinctCategories();
 
-    @Query("SELECT new com.personalfinancetracker.backend.dto.ExpenseCategorySummary(e.category, SUM(e.amount)) " +
+    // Sums add up whole minor units and turn into decimals once per group, so they are exact
+
+    @Query("SELECT new com.personalfinancetracker.backend.dto.ExpenseCategorySummary(e.category, SUM(e.amountMinor) / 100.0) " +
             "FROM Expense e WHERE e.customer.email = :email GROUP BY e.category")
     List<ExpenseCategorySummary> getExpenseSummaryByCategory(@Param("email") String email);
 
@@ -36,16 +86,89 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT SUM(e.amount) FROM Expense e WHERE e.customer.email = :email AND " +
-            "e.category = :category AND e.date >= :startDate AND e.date <= :endDate")
+    // A null category sums across all categories
+    @Query("SELECT SUM(e.amountMinor) / 100.0 FROM Expense e WHERE e.customer.email = :email AND " +
+            "(:category IS NULL OR e.category = :category) AND e.date >= :startDate AND e.date <= :endDate")
     Double getTotalAmountByCategory(
             @Param("email") String email,
             @Param("category") String category,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    // One row per month: year, month, total. The range is half-open [startDate, endDate)
+    @Query("SELECT YEAR(e.date), MONTH(e.date), SUM(e.amountMinor) / 100.0 FROM Expense e " +
+            "WHERE e.customer.email = :email AND e.date >= :startDate AND e.date < :endDate " +
+            "GROUP BY YEAR(e.date), MONTH(e.date)")
+    List<Object[]> sumByMonth(
+            @Param("email") String email,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    // Recurring spending over the half-open range [startDate, endDate)
+    @Query("SELECT COALESCE(SUM(e.amountMinor), 0) / 100.0 FROM Expense e WHERE e.customerEmail = :email " +
+            "AND e.isRecurring = true AND e.date >= :startDate AND e.date < :endDate")
+    double sumRecurring(
+            @Param("email") String email,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    // Spending-pattern buckets over the half-open range [startDate, endDate)
+
+    @Query("SELECT new com.personalfinancetracker.backend.dto.ExpenseCategorySummary(e.category, SUM(e.amountMinor) / 100.0) " +
+            "FROM Expense e WHERE e.customer.email = :email AND e.date >= :startDate AND e.date < :endDate " +
+            "GROUP BY e.category ORDER BY SUM(e.amountMinor) DESC")
+    List<ExpenseCategorySummary> sumByCategory(
+            @Param("email") String email,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    // Category and total in minor units, over the half-open range [startDate, endDate)
+    @Query("SELECT e.category, SUM(e.amountMinor) FROM Expense e " +
+            "WHERE e.customerEmail = :email AND e.date >= :startDate AND e.date < :endDate GROUP BY e.category")
+    List<Object[]> sumMinorByCategory(
+            @Param("email") String email,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT new com.personalfinancetracker.backend.dto.CategoryMonthTotal(" +
+            "YEAR(e.date), MONTH(e.date), e.category, SUM(e.amountMinor) / 100.0) " +
+            "FROM Expense e WHERE e.customer.email = :email AND e.date >= :startDate AND e.date < :endDate " +
+            "GROUP BY YEAR(e.date), MONTH(e.date), e.category")
+    List<CategoryMonthTotal> sumByMonthAndCategory(
+            @Param("email") String email,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    // Bucket is the SQL day of week: 1 = Sunday ... 7 = Saturday
+    @Query("SELECT new com.personalfinancetracker.backend.dto.SpendingBucket(" +
+            "EXTRACT(DAY OF WEEK FROM e.date), SUM(e.amountMinor) / 100.0, COUNT(e)) " +
+            "FROM Expense e WHERE e.customer.email = :email AND e.date >= :startDate AND e.date < :endDate " +
+            "GROUP BY EXTRACT(DAY OF WEEK FROM e.date)")
+    List<SpendingBucket> sumByDayOfWeek(
+            @Param("email") String email,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT new com.personalfinancetracker.backend.dto.SpendingBucket(" +
+            "DAY(e.date), SUM(e.amountMinor) / 100.0, COUNT(e)) " +
+            "FROM Expense e WHERE e.customer.email = :email AND e.date >= :startDate AND e.date < :endDate " +
+            "GROUP BY DAY(e.date)")
+    List<SpendingBucket> sumByDayOfMonth(
+            @Param("email") String email,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT new com.personalfinancetracker.backend.dto.SpendingBucket(" +
+            "HOUR(e.date), SUM(e.amountMinor) / 100.0, COUNT(e)) " +
+            "FROM Expense e WHERE e.customer.email = :email AND e.date >= :startDate AND e.date < :endDate " +
+            "GROUP BY HOUR(e.date)")
+    List<SpendingBucket> sumByHour(
+            @Param("email") String email,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
     @Query("SELECT MONTH(e.date) as month, YEAR(e.date) as year, " +
-            "e.category, SUM(e.amount) as total FROM Expense e " +
+            "e.category, SUM(e.amountMinor) / 100.0 as total FROM Expense e " +
             "WHERE e.customer.email = :email AND e.date >= :startDate " +
             "GROUP BY YEAR(e.date), MONTH(e.date), e.category " +
             "ORDER BY YEAR(e.date), MONTH(e.date)")
@@ -0,0 +1,61 @@
+package com.personalfinancetracker.backend.repository;
+
+import com.personalfinancetracker.backend.entities.Expense;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Reusable predicates for expense listings, composed into a single SQL WHERE clause.
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {}
+
+    public static Specification<Expense> belongsTo(String email) {
+        return (root, query, cb) -> cb.equal(root.get("customer").get("email"), email);
+    }
+
+    public static Specification<Expense> dateOnOrAfter(LocalDateTime start) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), start);
+    }
+
+    public static Specification<Expense> dateBefore(LocalDateTime end) {
+        return (root, query, cb) -> cb.lessThan(root.get("date"), end);
+    }
+
+    public static Specification<Expense> hasCategory(String category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Expense> amountAtLeast(Double min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    public static Specification<Expense> amountAtMost(Double max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    // Matches if any of the tags is attached to the expense, answered from the indexed expense_tag table
+    public static Specification<Expense> hasAnyTag(Collection<String> tags) {
+        return (root, query, cb) -> {
+            Subquery<Integer> tagged = query.subquery(Integer.class);
+            Root<Expense> expense = tagged.correlate(root);
+            Join<Expense, String> tag = expense.join("tagSet");
+            return cb.exists(tagged.select(cb.literal(1)).where(tag.in(tags)));
+        };
+    }
+
+    /**
+     * Rows that come after the cursor in (date DESC, id DESC) order.
+     */
+    public static Specification<Expense> after(LocalDateTime date, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), date),
+                cb.and(cb.equal(root.get("date"), date), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -1,32 +1,74 @@
 package com.personalfinancetracker.backend.repository;
 
+import com.personalfinancetracker.backend.dto.IncomeResponse;
 import com.personalfinancetracker.backend.dto.IncomeSummary;
 import com.personalfinancetracker.backend.entities.Income;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface IncomeRepository extends JpaRepository<Income, Long> {
+// Declared queries run read-only, so outside a writing transaction they may be served by a read replica
+@Transactional(readOnly = true)
+public interface IncomeRepository extends JpaRepository<Income, Long>, JpaSpecificationExecutor<Income> {
     List<Income> findByCustomerEmail(String email);
 
+    // Ownership check for batch writes: only the caller's rows among the given ids
+    List<Income> findByCustomerEmailAndIdIn(String email, Collection<Long> ids);
+
     List<Income> findByCustomerEmailAndDateBetween(String email, LocalDate startDate, LocalDate endDate);
 
+    // Response-shaped report rows, newest first, both ends inclusive. Fetch size MIN_VALUE makes
+    // Connector/J stream rows instead of buffering the whole result
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.personalfinancetracker.backend.dto.IncomeResponse(" +
+            "i.id, i.amount, i.source, i.date, i.customerEmail, i.description, i.isRecurring, i.recurringFrequency, i.tags) " +
+            "FROM Income i WHERE i.customerEmail = :email AND i.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY i.date DESC, i.id DESC")
+    Stream<IncomeResponse> streamResponses(
+            @Param("email") String email,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Source and total in minor units, both ends inclusive
+    @Query("SELECT i.source, SUM(i.amountMinor) FROM Income i " +
+            "WHERE i.customerEmail = :email AND i.date BETWEEN :startDate AND :endDate GROUP BY i.source")
+    List<Object[]> sumMinorBySource(
+            @Param("email") String email,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     List<Income> findByCustomerEmailAndDateAfter(String email, LocalDate date);
 
     List<Income> findByCustomerEmailAndIsRecurring(String email, boolean isRecurring);
 
-    @Query("SELECT new com.personalfinancetracker.backend.dto.IncomeSummary(i.source, SUM(i.amount)) " +
+    @Query("SELECT new com.personalfinancetracker.backend.dto.IncomeSummary(i.source, SUM(i.amountMinor) / 100.0) " +
             "FROM Income i WHERE i.customerEmail = :email GROUP BY i.source")
     List<IncomeSummary> getIncomeSummaryBySource(@Param("email") String email);
 
-    @Query("SELECT SUM(i.amount) FROM Income i WHERE i.customerEmail = :email AND i.date BETWEEN :startDate AND :endDate")
+    @Query("SELECT SUM(i.amountMinor) / 100.0 FROM Income i WHERE i.customerEmail = :email AND i.date BETWEEN :startDate AND :endDate")
     Double getTotalIncomeForPeriod(@Param("email") String email, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
 
-    @Query("SELECT CONCAT(YEAR(i.date), '-', MONTH(i.date)) as month, SUM(i.amount) as total " +
+    // One row per month: year, month, total. Both ends of the range are inclusive
+    @Query("SELECT YEAR(i.date), MONTH(i.date), SUM(i.amountMinor) / 100.0 FROM Income i " +
+            "WHERE i.customerEmail = :email AND i.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY YEAR(i.date), MONTH(i.date)")
+    List<Object[]> sumByMonth(
+            @Param("email") String email,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT CONCAT(YEAR(i.date), '-', MONTH(i.date)) as month, SUM(i.amountMinor) / 100.0 as total " +
             "FROM Income i WHERE i.customerEmail = :email AND i.date >= :startDate " +
             "GROUP BY YEAR(i.date), MONTH(i.date) ORDER BY YEAR(i.date), MONTH(i.date)")
     List<Object[]> getMonthlyIncomeTrend(@Param("email") String email, @Param("startDate") LocalDate startDate);
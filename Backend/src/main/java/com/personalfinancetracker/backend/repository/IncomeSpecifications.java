@@ -0,0 +1,67 @@
+package com.personalfinancetracker.backend.repository;
+
+import com.personalfinancetracker.backend.entities.Income;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Reusable predicates for income listings, composed into a single SQL WHERE clause.
+ */
+public final class IncomeSpecifications {
+
+    private IncomeSpecifications() {}
+
+    public static Specification<Income> belongsTo(String email) {
+        return (root, query, cb) -> cb.equal(root.get("customerEmail"), email);
+    }
+
+    public static Specification<Income> dateOnOrAfter(LocalDate start) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), start);
+    }
+
+    public static Specification<Income> dateOnOrBefore(LocalDate end) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), end);
+    }
+
+    // Case-insensitive through the column's default collation; a plain comparison keeps
+    // the (customer_email, source) index usable, which LOWER(source) would not
+    public static Specification<Income> hasSource(String source) {
+        return (root, query, cb) -> cb.equal(root.get("source"), source);
+    }
+
+    public static Specification<Income> amountAtLeast(Double min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    public static Specification<Income> amountAtMost(Double max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    public static Specification<Income> isRecurring(boolean recurring) {
+        return (root, query, cb) -> cb.equal(root.get("isRecurring"), recurring);
+    }
+
+    // Matches if any of the tags is attached to the income, answered from the indexed income_tag table
+    public static Specification<Income> hasAnyTag(Collection<String> tags) {
+        return (root, query, cb) -> {
+            Subquery<Integer> tagged = query.subquery(Integer.class);
+            Root<Income> income = tagged.correlate(root);
+            Join<Income, String> tag = income.join("tagSet");
+            return cb.exists(tagged.select(cb.literal(1)).where(tag.in(tags)));
+        };
+    }
+
+    /**
+     * Rows that come after the cursor in (date DESC, id DESC) order.
+     */
+    public static Specification<Income> after(LocalDate date, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), date),
+                cb.and(cb.equal(root.get("date"), date), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.personalfinancetracker.backend.repository;
+
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import com.personalfinancetracker.backend.entities.MonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+
+    List<MonthlyRollup> findByCustomerEmailAndEntryTypeAndPeriodStartBetween(
+            String email, LedgerEntryType entryType, LocalDate from, LocalDate to);
+
+    @Query("SELECT r.periodStart, SUM(r.totalMinor) FROM MonthlyRollup r " +
+            "WHERE r.customerEmail = :email AND r.entryType = :type AND r.periodStart BETWEEN :from AND :to " +
+            "GROUP BY r.periodStart")
+    List<Object[]> sumByMonth(
+            @Param("email") String email,
+            @Param("type") LedgerEntryType type,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+}
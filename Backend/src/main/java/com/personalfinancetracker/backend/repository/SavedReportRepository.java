@@ -2,7 +2,12 @@ package com.personalfinancetracker.backend.repository;
 
 import com.personalfinancetracker.backend.entities.SavedReport;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface SavedReportRepository extends JpaRepository<SavedReport, Long> {
@@ -14,4 +19,25 @@ public interface SavedReportRepository extends JpaRepository<SavedReport, Long>
 
 
     void deleteByCustomerEmail(String email);
-}
\ No newline at end of file
+
+    // Scheduled configurations whose next run is due, oldest first
+    List<SavedReport> findTop20ByScheduleCronIsNotNullAndNextRunAtLessThanEqualOrderByNextRunAtAsc(LocalDateTime now);
+
+    /**
+     * Moves the next run forward only if nobody else did, so a due report is run once even
+     * with several application instances polling.
+     *
+     * @return 1 if this caller claimed the run
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SavedReport r SET r.nextRunAt = :next WHERE r.id = :id AND r.nextRunAt = :expected")
+    int claimRun(@Param("id") Long id, @Param("expected") LocalDateTime expected, @Param("next") LocalDateTime next);
+
+    // Written separately from the entity so a run never overwrites the schedule or a concurrent edit
+    @Transactional
+    @Modifying
+    @Query("UPDATE SavedReport r SET r.lastRunAt = :ranAt, r.lastRunStatus = :status, r.outputFileName = :fileName WHERE r.id = :id")
+    int recordRun(@Param("id") Long id, @Param("ranAt") LocalDateTime ranAt,
+                  @Param("status") String status, @Param("fileName") String fileName);
+}
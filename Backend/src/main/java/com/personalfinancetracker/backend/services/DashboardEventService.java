@@ -0,0 +1,371 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.dto.DashboardEvent;
+import com.personalfinancetracker.backend.entities.Budget;
+import com.personalfinancetracker.backend.entities.LedgerEntry;
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import com.personalfinancetracker.backend.repository.BudgetRepository;
+import com.personalfinancetracker.backend.utils.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes small change notifications to the user's open dashboards over server-sent events,
+ * so the frontend can update in place instead of polling.
+ * <p>
+ * Events are produced after commit from {@link LedgerChangeEvent} and {@link GoalMilestoneEvent},
+ * and only when the user has a dashboard open. Every connection has its own bounded queue,
+ * drained by a small sender pool: a writer never blocks on a slow client, and when a client
+ * falls so far behind that its queue fills up, the backlog is dropped and replaced with a
+ * single {@link DashboardEvent#RESYNC} telling it to reload.
+ */
+@Service
+public class DashboardEventService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardEventService.class);
+
+    // Percent of a category budget at which spending is reported, lowest first
+    private static final int[] BUDGET_THRESHOLDS = {80, 100};
+
+    private final MonthlyRollupService monthlyRollupService;
+    private final BudgetRepository budgetRepository;
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ThreadPoolTaskExecutor senders;
+    private final int queueCapacity;
+    private final int maxPerUser;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+
+    public DashboardEventService(
+            MonthlyRollupService monthlyRollupService,
+            BudgetRepository budgetRepository,
+            @Value("${dashboard.events.senders:2}") int senderCount,
+            @Value("${dashboard.events.queue-capacity:64}") int queueCapacity,
+            @Value("${dashboard.events.max-per-user:5}") int maxPerUser,
+            @Value("${dashboard.events.max-subscribers:2000}") int maxSubscribers,
+            @Value("${dashboard.events.timeout:PT30M}") Duration timeout) {
+        this.monthlyRollupService = monthlyRollupService;
+        this.budgetRepository = budgetRepository;
+        this.queueCapacity = queueCapacity;
+        this.maxPerUser = maxPerUser;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+
+        // Not a bean, so Boot's applicationTaskExecutor stays in place.
+        // A subscriber has at most one drain task queued, so the queue never overflows.
+        this.senders = new ThreadPoolTaskExecutor();
+        this.senders.setThreadNamePrefix("dashboard-events-");
+        this.senders.setCorePoolSize(senderCount);
+        this.senders.setMaxPoolSize(senderCount);
+        this.senders.setQueueCapacity(maxSubscribers);
+        this.senders.initialize();
+    }
+
+    /**
+     * Open an event stream for the user.
+     *
+     * @throws ResponseStatusException 429 when the user already has the maximum number of
+     *                                 streams open, 503 when the server-wide limit is reached
+     */
+    public SseEmitter subscribe(String email) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Live updates are busy, please try again later");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(email, emitter, queueCapacity);
+        AtomicBoolean added = new AtomicBoolean();
+        subscribers.compute(email, (key, userSubscribers) -> {
+            List<Subscriber> list = userSubscribers != null ? userSubscribers : new CopyOnWriteArrayList<>();
+            if (list.size() < maxPerUser) {
+                list.add(subscriber);
+                added.set(true);
+            }
+            return list.isEmpty() ? null : list;
+        });
+        if (!added.get()) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open dashboard streams");
+        }
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        return emitter;
+    }
+
+    public boolean hasSubscribers(String email) {
+        List<Subscriber> userSubscribers = subscribers.get(email);
+        return userSubscribers != null && !userSubscribers.isEmpty();
+    }
+
+    /**
+     * Queue an event for every open stream of the user. Never blocks.
+     */
+    public void publish(String email, DashboardEvent event) {
+        List<Subscriber> userSubscribers = subscribers.get(email);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            if (!subscriber.queue.offer(event)) {
+                subscriber.overflowed = true;
+            }
+            scheduleDrain(subscriber);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLedgerChange(LedgerChangeEvent event) {
+        String email = event.getEmail();
+        if (!hasSubscribers(email)) {
+            return;
+        }
+        LedgerEntry.Snapshot entry = event.current() != null ? event.current() : event.previous();
+
+        DashboardEvent change = new DashboardEvent(DashboardEvent.TRANSACTION);
+        change.setChange(event.previous() == null ? "created" : event.current() == null ? "deleted" : "updated");
+        change.setEntryType(entry.type().name());
+        change.setCategory(entry.category());
+        change.setMonth(entry.month().toString());
+        change.setAmount(event.current() != null ? Money.toMajor(event.current().amountMinor()) : null);
+        change.setPreviousAmount(event.previous() != null ? Money.toMajor(event.previous().amountMinor()) : null);
+        publish(email, change);
+    }
+
+    /**
+     * Collects the current month's expense changes per user and category while the writing
+     * transaction runs, so a batch is checked against the budgets once, after commit, instead
+     * of once per item against a total that already includes the whole batch.
+     */
+    @EventListener
+    public void collectBudgetChange(LedgerChangeEvent event) {
+        String email = event.getEmail();
+        if (!hasSubscribers(email)) {
+            return;
+        }
+        YearMonth month = YearMonth.now();
+        String previousCategory = currentMonthExpenseCategory(event.previous(), month);
+        String currentCategory = currentMonthExpenseCategory(event.current(), month);
+        if (previousCategory == null && currentCategory == null) {
+            return;
+        }
+
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        PendingBudgetChanges pending = inTransaction
+                ? (PendingBudgetChanges) TransactionSynchronizationManager.getResource(this)
+                : null;
+        if (pending == null) {
+            pending = new PendingBudgetChanges();
+            if (inTransaction) {
+                TransactionSynchronizationManager.bindResource(this, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+        }
+        if (previousCategory != null) {
+            pending.add(email, previousCategory, -event.previous().amountMinor());
+        }
+        if (currentCategory != null) {
+            pending.add(email, currentCategory, event.current().amountMinor());
+        }
+        if (!inTransaction) {
+            pending.afterCommit();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGoalMilestone(GoalMilestoneEvent event) {
+        DashboardEvent reached = new DashboardEvent(DashboardEvent.GOAL_MILESTONE);
+        reached.setGoalId(event.goalId());
+        reached.setGoalTitle(event.goalTitle());
+        reached.setMilestoneTitle(event.milestoneTitle());
+        publish(event.email(), reached);
+    }
+
+    /**
+     * Keeps idle connections open through proxies that close silent ones.
+     */
+    @Scheduled(fixedRateString = "${dashboard.events.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        for (List<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.heartbeatDue = true;
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Reports, per category, the highest budget threshold the committed changes pushed the
+     * current month's spending over. Categories whose net change is not an increase (refunds,
+     * deletions, moves to another month) never raise an alert. Costs two queries per user.
+     */
+    private void checkBudgetThresholds(String email, Map<String, Long> deltaMinorByCategory) {
+        if (deltaMinorByCategory.values().stream().noneMatch(delta -> delta > 0)) {
+            return;
+        }
+        YearMonth month = YearMonth.now();
+        Map<String, Double> spentByCategory = null;
+
+        for (Budget budget : budgetRepository.findByCustomerEmail(email)) {
+            Long deltaMinor = deltaMinorByCategory.get(budget.getCategory());
+            if (deltaMinor == null || deltaMinor <= 0 || budget.getAmount() == null || budget.getAmount() <= 0) {
+                continue;
+            }
+            if (spentByCategory == null) {
+                spentByCategory = monthlyRollupService.getCurrentMonthCategoryTotals(email, LedgerEntryType.EXPENSE);
+            }
+            double spent = spentByCategory.getOrDefault(budget.getCategory(), 0.0);
+            double before = spent - Money.toMajor(deltaMinor);
+
+            for (int i = BUDGET_THRESHOLDS.length - 1; i >= 0; i--) {
+                double limit = budget.getAmount() * BUDGET_THRESHOLDS[i] / 100.0;
+                if (before < limit && spent >= limit) {
+                    DashboardEvent crossed = new DashboardEvent(DashboardEvent.BUDGET_THRESHOLD);
+                    crossed.setCategory(budget.getCategory());
+                    crossed.setMonth(month.toString());
+                    crossed.setThreshold(BUDGET_THRESHOLDS[i]);
+                    crossed.setBudgetAmount(budget.getAmount());
+                    crossed.setSpentAmount(spent);
+                    publish(email, crossed);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static String currentMonthExpenseCategory(LedgerEntry.Snapshot entry, YearMonth month) {
+        if (entry == null || entry.type() != LedgerEntryType.EXPENSE || !entry.month().equals(month)) {
+            return null;
+        }
+        return entry.category();
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (TaskRejectedException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.overflowed) {
+                subscriber.overflowed = false;
+                subscriber.queue.clear();
+                subscriber.emitter.send(SseEmitter.event().name(DashboardEvent.RESYNC)
+                        .data(new DashboardEvent(DashboardEvent.RESYNC)));
+            }
+            DashboardEvent event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event().name(event.getType()).data(event));
+            }
+            if (subscriber.heartbeatDue) {
+                subscriber.heartbeatDue = false;
+                subscriber.emitter.send(SseEmitter.event().comment("ping"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event queued after the last poll but before the flag was cleared
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.email, (key, userSubscribers) -> {
+            if (userSubscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        senders.shutdown();
+        for (List<Subscriber> userSubscribers : subscribers.values()) {
+            userSubscribers.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    /**
+     * Net current-month expense change per user and category within one transaction.
+     */
+    private final class PendingBudgetChanges implements TransactionSynchronization {
+        private final Map<String, Map<String, Long>> deltaMinor = new HashMap<>();
+
+        void add(String email, String category, long amountMinor) {
+            deltaMinor.computeIfAbsent(email, key -> new HashMap<>()).merge(category, amountMinor, Long::sum);
+        }
+
+        @Override
+        public void afterCommit() {
+            deltaMinor.forEach((email, byCategory) -> {
+                try {
+                    checkBudgetThresholds(email, byCategory);
+                } catch (Exception e) {
+                    logger.error("Error checking budget thresholds for email: {}: {}", email, e.getMessage(), e);
+                }
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DashboardEventService.this);
+        }
+    }
+
+    private static final class Subscriber {
+        private final String email;
+        private final SseEmitter emitter;
+        private final Queue<DashboardEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile boolean heartbeatDue;
+
+        private Subscriber(String email, SseEmitter emitter, int capacity) {
+            this.email = email;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.personalfinancetracker.backend.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-user version of the financial data, raised with every change to the user's expenses,
+ * incomes, budgets or goals. Anything derived from that data can be cached under the
+ * version and is stale as soon as it moves.
+ * <p>
+ * Versions are kept in the customer_data_version table and raised inside the writing
+ * transaction, so they commit together with the change and every instance sees the same
+ * version. Reading one is a primary-key lookup.
+ * <p>
+ * The same row records when the user's last change committed ({@code changed_at}, database
+ * time), which read-replica routing uses to keep the user on the primary for a while after a
+ * write no matter which instance served it.
+ */
+@Service
+public class DataVersionService {
+    private static final Logger logger = LoggerFactory.getLogger(DataVersionService.class);
+
+    private static final String INCREMENT_SQL =
+            "INSERT INTO customer_data_version (customer_email, version, changed_at) " +
+                    "VALUES (?, 1, CURRENT_TIMESTAMP(6)) " +
+                    "ON DUPLICATE KEY UPDATE version = version + 1, changed_at = CURRENT_TIMESTAMP(6)";
+
+    private static final String TOUCH_SQL =
+            "UPDATE customer_data_version SET changed_at = CURRENT_TIMESTAMP(6) WHERE customer_email = ?";
+
+    // Both timestamps from the database, so instance clocks do not matter
+    private static final String CHANGED_AT_SQL =
+            "SELECT changed_at, CURRENT_TIMESTAMP(6) FROM customer_data_version WHERE customer_email = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate touchTransaction;
+
+    public DataVersionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.touchTransaction = new TransactionTemplate(transactionManager);
+        // Runs after the writing transaction committed, which must not be joined
+        this.touchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long currentVersion(String email) {
+        List<Long> version = jdbcTemplate.queryForList(
+                "SELECT version FROM customer_data_version WHERE customer_email = ?", Long.class, email);
+        return version.isEmpty() ? 0 : version.get(0);
+    }
+
+    /**
+     * Weak ETag for anything the user reads from their data today. The email is hashed in, so
+     * two users who share a browser never see each other's validators match, and the date is
+     * hashed in, so responses relative to "now" (current month, upcoming goals) roll over daily.
+     */
+    public String etag(String email) {
+        String value = email + "\n" + currentVersion(email) + "\n" + LocalDate.now();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Whether the user's data changed within the window, i.e. a read replica may not have
+     * caught up with it yet. Reads through the given template, which must reach the primary:
+     * the replica may not have the change itself yet.
+     */
+    public static boolean changedWithin(JdbcTemplate primary, String email, Duration window) {
+        List<Duration> sinceChange = primary.query(CHANGED_AT_SQL, (rs, rowNum) -> {
+            Timestamp changedAt = rs.getTimestamp(1);
+            return changedAt == null ? null : Duration.between(changedAt.toInstant(), rs.getTimestamp(2).toInstant());
+        }, email);
+        return !sinceChange.isEmpty() && sinceChange.get(0) != null && sinceChange.get(0).compareTo(window) < 0;
+    }
+
+    /**
+     * Raise the user's version. Inside a transaction the new version commits or rolls back
+     * with the change, so readers never cache data from before the change under it.
+     */
+    public void bump(String email) {
+        jdbcTemplate.update(INCREMENT_SQL, email);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        // The pin window has to start at commit, not at the write, or a long transaction
+        // would use it up before anyone can read the change
+        CommittedChanges committed = (CommittedChanges) TransactionSynchronizationManager.getResource(this);
+        if (committed == null) {
+            committed = new CommittedChanges();
+            TransactionSynchronizationManager.bindResource(this, committed);
+            TransactionSynchronizationManager.registerSynchronization(committed);
+        }
+        committed.emails.add(email);
+    }
+
+    /**
+     * Runs inside the writing transaction, like the monthly rollup update.
+     */
+    @EventListener
+    public void onLedgerChange(LedgerChangeEvent event) {
+        bump(event.getEmail());
+    }
+
+    private final class CommittedChanges implements TransactionSynchronization {
+        private final Set<String> emails = new HashSet<>();
+
+        @Override
+        public void afterCommit() {
+            try {
+                touchTransaction.executeWithoutResult(status -> emails.forEach(email -> jdbcTemplate.update(TOUCH_SQL, email)));
+            } catch (Exception e) {
+                // The change is committed; the pin still counts from the write itself
+                logger.error("Error recording change time for {}: {}", emails, e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DataVersionService.this);
+        }
+    }
+}
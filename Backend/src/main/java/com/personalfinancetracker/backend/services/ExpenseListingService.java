@@ -0,0 +1,86 @@
+package com.personalfinancetracker.backend.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personalfinancetracker.backend.dto.ExpenseResponse;
+import com.personalfinancetracker.backend.repository.ExpenseRepository;
+import com.personalfinancetracker.backend.utils.KeysetCursor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read path for the expense listing. Rows are selected straight into {@link ExpenseResponse}
+ * and written with Jackson's streaming generator, so neither the persistence context nor the
+ * response body ever holds the whole list.
+ */
+@Service
+public class ExpenseListingService {
+
+    private final ExpenseRepository expenseRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExpenseListingService(ExpenseRepository expenseRepository,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.expenseRepository = expenseRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Up to {@code rows} expenses, newest first, starting after {@code after} when given.
+     */
+    public List<ExpenseResponse> loadPage(String email, KeysetCursor after, int rows) {
+        PageRequest page = PageRequest.ofSize(rows);
+        if (after == null) {
+            return expenseRepository.findResponses(email, page);
+        }
+        return expenseRepository.findResponsesAfter(email, after.date(), after.id(), page);
+    }
+
+    /**
+     * Writes every expense of the user as a JSON array, newest first, reading the rows
+     * from a database cursor inside a read-only transaction.
+     */
+    public void writeAll(String email, OutputStream outputStream) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ExpenseResponse> rows = expenseRepository.streamResponses(email)) {
+                    writeArray(rows.iterator(), outputStream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public void writeRows(List<ExpenseResponse> rows, OutputStream outputStream) throws IOException {
+        writeArray(rows.iterator(), outputStream);
+    }
+
+    private void writeArray(Iterator<ExpenseResponse> rows, OutputStream outputStream) throws IOException {
+        // The generator uses the application's mapper, so dates serialize as in every other response
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            while (rows.hasNext()) {
+                generator.writeObject(rows.next());
+            }
+            generator.writeEndArray();
+        }
+    }
+}
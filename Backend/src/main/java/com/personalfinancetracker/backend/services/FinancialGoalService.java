@@ -9,6 +9,7 @@ import com.personalfinancetracker.backend.repository.CustomerRepository;
 import com.personalfinancetracker.backend.repository.FinancialGoalRepository;
 import com.personalfinancetracker.backend.repository.GoalMilestoneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,14 +24,20 @@ public class FinancialGoalService {
     private final FinancialGoalRepository financialGoalRepository;
     private final GoalMilestoneRepository milestoneRepository;
     private final CustomerRepository customerRepository;
+    private final DataVersionService dataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public FinancialGoalService(FinancialGoalRepository financialGoalRepository,
                                 GoalMilestoneRepository milestoneRepository,
-                                CustomerRepository customerRepository) {
+                                CustomerRepository customerRepository,
+                                DataVersionService dataVersionService,
+                                ApplicationEventPublisher eventPublisher) {
         this.financialGoalRepository = financialGoalRepository;
         this.milestoneRepository = milestoneRepository;
         this.customerRepository = customerRepository;
+        this.dataVersionService = dataVersionService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<FinancialGoalDTO> getAllGoalsForUser(String email) {
@@ -91,6 +98,7 @@ public class FinancialGoalService {
 
         // Save again with milestones and achievements
         savedGoal = financialGoalRepository.save(savedGoal);
+        dataVersionService.bump(email);
 
         return convertToDTO(savedGoal);
     }
@@ -160,6 +168,7 @@ public class FinancialGoalService {
 
         // Save the updated goal
         FinancialGoal updatedGoal = financialGoalRepository.save(goal);
+        dataVersionService.bump(email);
         return convertToDTO(updatedGoal);
     }
 
@@ -174,6 +183,7 @@ public class FinancialGoalService {
         }
 
         financialGoalRepository.delete(goal);
+        dataVersionService.bump(email);
     }
 
     public List<FinancialGoalDTO> getActiveGoals(String email) {
@@ -241,6 +251,7 @@ public class FinancialGoalService {
         if (newAmount >= goal.getTargetAmount() && !"COMPLETED".equals(goal.getStatus())) {
             goal.setStatus("COMPLETED");
             goal.addAchievement("Goal Completed");
+            eventPublisher.publishEvent(new GoalMilestoneEvent(email, goal.getId(), goal.getTitle(), null));
         }
 
         // Check for milestone completions
@@ -249,10 +260,12 @@ public class FinancialGoalService {
                 milestone.setCompleted(true);
                 milestone.setCompletedDate(LocalDate.now());
                 goal.addAchievement("Milestone Completed: " + milestone.getTitle());
+                eventPublisher.publishEvent(new GoalMilestoneEvent(email, goal.getId(), goal.getTitle(), milestone.getTitle()));
             }
         }
 
         FinancialGoal updatedGoal = financialGoalRepository.save(goal);
+        dataVersionService.bump(email);
         return convertToDTO(updatedGoal);
     }
 
@@ -279,9 +292,11 @@ public class FinancialGoalService {
             milestone.setCompleted(true);
             milestone.setCompletedDate(LocalDate.now());
             goal.addAchievement("Milestone Completed: " + milestone.getTitle());
+            eventPublisher.publishEvent(new GoalMilestoneEvent(email, goal.getId(), goal.getTitle(), milestone.getTitle()));
         }
 
         FinancialGoal updatedGoal = financialGoalRepository.save(goal);
+        dataVersionService.bump(email);
         return convertToDTO(updatedGoal);
     }
 
@@ -6,6 +6,7 @@ import com.personalfinancetracker.backend.entities.Customer;
 import com.personalfinancetracker.backend.entities.PasswordResetToken;
 import com.personalfinancetracker.backend.repository.CustomerRepository;
 import com.personalfinancetracker.backend.repository.PasswordResetTokenRepository;
+import com.personalfinancetracker.backend.services.auth.VerifiedTokenCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,16 +27,19 @@ public class ForgotPasswordService {
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final OtpService otpService;
     private final PasswordEncoder passwordEncoder;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Autowired
     public ForgotPasswordService(CustomerRepository customerRepository,
                                  PasswordResetTokenRepository passwordResetTokenRepository,
                                  OtpService otpService,
-                                 PasswordEncoder passwordEncoder) {
+                                 PasswordEncoder passwordEncoder,
+                                 VerifiedTokenCache verifiedTokenCache) {
         this.customerRepository = customerRepository;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.otpService = otpService;
         this.passwordEncoder = passwordEncoder;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     public void processForgotPassword(ForgotPasswordRequest request) {
@@ -97,6 +101,9 @@ public class ForgotPasswordService {
             customerRepository.save(customer);
             logger.info("Updated password for: {}", request.getEmail());
 
+            // Sessions opened with the old password must be verified again
+            verifiedTokenCache.invalidateUser(customer.getEmail());
+
             // Remove OTP entry after successful password reset
             passwordResetTokenRepository.deleteByEmail(customer.getEmail());
             logger.info("Deleted password reset token after successful reset for: {}", request.getEmail());
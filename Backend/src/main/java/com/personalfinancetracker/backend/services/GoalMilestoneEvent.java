@@ -0,0 +1,7 @@
+package com.personalfinancetracker.backend.services;
+
+/**
+ * A goal milestone was reached, or the goal itself was completed ({@code milestoneTitle} null).
+ */
+public record GoalMilestoneEvent(String email, Long goalId, String goalTitle, String milestoneTitle) {
+}
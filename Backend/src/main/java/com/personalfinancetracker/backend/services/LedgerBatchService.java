@@ -0,0 +1,325 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.dto.*;
+import com.personalfinancetracker.backend.entities.Customer;
+import com.personalfinancetracker.backend.entities.Expense;
+import com.personalfinancetracker.backend.entities.ExpenseCategoryEnum;
+import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.repository.CustomerRepository;
+import com.personalfinancetracker.backend.repository.ExpenseRepository;
+import com.personalfinancetracker.backend.repository.IncomeRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Applies a mixed list of creates, updates and deletes for one user in a single
+ * transaction. Ownership of every referenced row is checked with one
+ * {@code id IN (...)} query; rows that do not exist or belong to someone else are
+ * reported as NOT_FOUND without touching the rest of the batch. The changes are
+ * flushed together at commit, where Hibernate groups the statements into JDBC batches.
+ * <p>
+ * The single-row update and delete endpoints go through here too, so the row is loaded in
+ * the same read-write transaction that changes it: a read-only load could be served by a
+ * read replica, and a stale row would corrupt the monthly rollup delta.
+ */
+@Service
+public class LedgerBatchService {
+
+    public static final int MAX_BATCH_ITEMS = 1000;
+
+    private static final String CREATE = "create";
+    private static final String UPDATE = "update";
+    private static final String DELETE = "delete";
+
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+    private final CustomerRepository customerRepository;
+    private final DataVersionService dataVersionService;
+
+    public LedgerBatchService(ExpenseRepository expenseRepository,
+                              IncomeRepository incomeRepository,
+                              CustomerRepository customerRepository,
+                              DataVersionService dataVersionService) {
+        this.expenseRepository = expenseRepository;
+        this.incomeRepository = incomeRepository;
+        this.customerRepository = customerRepository;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Transactional
+    public List<BatchItemResult> applyExpenseBatch(String email, ExpenseBatchRequest batch) {
+        List<BatchItemResult> results = new ArrayList<>(batch.size());
+
+        Map<Long, Expense> owned = loadOwned(
+                batch.getUpdate().stream().map(ExpenseBatchUpdate::getId),
+                batch.getDelete(),
+                ids -> expenseRepository.findByCustomerEmailAndIdIn(email, ids),
+                Expense::getId);
+
+        if (!batch.getCreate().isEmpty()) {
+            Customer customer = customerRepository.findByEmail(email)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            List<Expense> created = new ArrayList<>();
+            List<Integer> createdIndexes = new ArrayList<>();
+            for (int i = 0; i < batch.getCreate().size(); i++) {
+                ExpenseRequest item = batch.getCreate().get(i);
+                String error = item.getAmount() == null || item.getAmount() <= 0
+                        ? "Amount must be positive"
+                        : validateCategory(item.getCategory(), true);
+                if (error != null) {
+                    results.add(new BatchItemResult(CREATE, i, null, BatchItemResult.INVALID, error));
+                    continue;
+                }
+                Expense expense = new Expense();
+                expense.setDate(LocalDateTime.now());
+                expense.setCustomer(customer);
+                applyExpenseFields(expense, item);
+                created.add(expense);
+                createdIndexes.add(i);
+            }
+            expenseRepository.saveAll(created);
+            for (int i = 0; i < created.size(); i++) {
+                results.add(new BatchItemResult(CREATE, createdIndexes.get(i), created.get(i).getId(),
+                        BatchItemResult.CREATED, null));
+            }
+        }
+
+        for (int i = 0; i < batch.getUpdate().size(); i++) {
+            ExpenseBatchUpdate item = batch.getUpdate().get(i);
+            Expense expense = item.getId() != null ? owned.get(item.getId()) : null;
+            if (expense == null) {
+                results.add(new BatchItemResult(UPDATE, i, item.getId(), BatchItemResult.NOT_FOUND, "Expense not found"));
+                continue;
+            }
+            String error = validateCategory(item.getCategory(), false);
+            if (error != null) {
+                results.add(new BatchItemResult(UPDATE, i, item.getId(), BatchItemResult.INVALID, error));
+                continue;
+            }
+            // Managed entity, written at flush
+            applyExpenseFields(expense, item);
+            results.add(new BatchItemResult(UPDATE, i, item.getId(), BatchItemResult.UPDATED, null));
+        }
+
+        List<Expense> deleted = new ArrayList<>();
+        for (int i = 0; i < batch.getDelete().size(); i++) {
+            Long id = batch.getDelete().get(i);
+            Expense expense = id != null ? owned.remove(id) : null;
+            if (expense == null) {
+                results.add(new BatchItemResult(DELETE, i, id, BatchItemResult.NOT_FOUND, "Expense not found"));
+                continue;
+            }
+            deleted.add(expense);
+            results.add(new BatchItemResult(DELETE, i, id, BatchItemResult.DELETED, null));
+        }
+        expenseRepository.deleteAll(deleted);
+        // Deferred to commit; also covers edits the ledger events ignore, such as notes and tags
+        dataVersionService.bump(email);
+
+        return results;
+    }
+
+    @Transactional
+    public List<BatchItemResult> applyIncomeBatch(String email, IncomeBatchRequest batch) {
+        List<BatchItemResult> results = new ArrayList<>(batch.size());
+
+        Map<Long, Income> owned = loadOwned(
+                batch.getUpdate().stream().map(IncomeBatchUpdate::getId),
+                batch.getDelete(),
+                ids -> incomeRepository.findByCustomerEmailAndIdIn(email, ids),
+                Income::getId);
+
+        List<Income> created = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        for (int i = 0; i < batch.getCreate().size(); i++) {
+            IncomeRequest item = batch.getCreate().get(i);
+            if (item.getAmount() <= 0) {
+                results.add(new BatchItemResult(CREATE, i, null, BatchItemResult.INVALID, "Amount must be positive"));
+                continue;
+            }
+            if (item.getSource() == null || item.getSource().isBlank()) {
+                results.add(new BatchItemResult(CREATE, i, null, BatchItemResult.INVALID, "Source is required"));
+                continue;
+            }
+            Income income = new Income();
+            income.setDate(LocalDate.now());
+            income.setCustomerEmail(email);
+            applyIncomeFields(income, item);
+            created.add(income);
+            createdIndexes.add(i);
+        }
+        incomeRepository.saveAll(created);
+        for (int i = 0; i < created.size(); i++) {
+            results.add(new BatchItemResult(CREATE, createdIndexes.get(i), created.get(i).getId(),
+                    BatchItemResult.CREATED, null));
+        }
+
+        for (int i = 0; i < batch.getUpdate().size(); i++) {
+            IncomeBatchUpdate item = batch.getUpdate().get(i);
+            Income income = item.getId() != null ? owned.get(item.getId()) : null;
+            if (income == null) {
+                results.add(new BatchItemResult(UPDATE, i, item.getId(), BatchItemResult.NOT_FOUND, "Income not found"));
+                continue;
+            }
+            applyIncomeFields(income, item);
+            results.add(new BatchItemResult(UPDATE, i, item.getId(), BatchItemResult.UPDATED, null));
+        }
+
+        List<Income> deleted = new ArrayList<>();
+        for (int i = 0; i < batch.getDelete().size(); i++) {
+            Long id = batch.getDelete().get(i);
+            Income income = id != null ? owned.remove(id) : null;
+            if (income == null) {
+                results.add(new BatchItemResult(DELETE, i, id, BatchItemResult.NOT_FOUND, "Income not found"));
+                continue;
+            }
+            deleted.add(income);
+            results.add(new BatchItemResult(DELETE, i, id, BatchItemResult.DELETED, null));
+        }
+        incomeRepository.deleteAll(deleted);
+        // Deferred to commit; also covers edits the ledger events ignore, such as notes and tags
+        dataVersionService.bump(email);
+
+        return results;
+    }
+
+    /**
+     * @throws RuntimeException if the expense does not exist
+     */
+    @Transactional
+    public BatchItemResult updateExpense(String email, Long id, ExpenseRequest request) {
+        Expense expense = expenseRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Expense not found"));
+        if (!expense.getCustomer().getEmail().equals(email)) {
+            return new BatchItemResult(UPDATE, 0, id, BatchItemResult.FORBIDDEN, "Not authorized to update this expense");
+        }
+        String error = validateCategory(request.getCategory(), false);
+        if (error != null) {
+            return new BatchItemResult(UPDATE, 0, id, BatchItemResult.INVALID, error);
+        }
+        applyExpenseFields(expense, request);
+        dataVersionService.bump(email);
+        return new BatchItemResult(UPDATE, 0, id, BatchItemResult.UPDATED, null);
+    }
+
+    /**
+     * @throws RuntimeException if the expense does not exist
+     */
+    @Transactional
+    public BatchItemResult deleteExpense(String email, Long id) {
+        Expense expense = expenseRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Expense not found"));
+        if (!expense.getCustomer().getEmail().equals(email)) {
+            return new BatchItemResult(DELETE, 0, id, BatchItemResult.FORBIDDEN, "Not authorized to delete this expense");
+        }
+        expenseRepository.delete(expense);
+        dataVersionService.bump(email);
+        return new BatchItemResult(DELETE, 0, id, BatchItemResult.DELETED, null);
+    }
+
+    /**
+     * @throws RuntimeException if the income does not exist
+     */
+    @Transactional
+    public BatchItemResult updateIncome(String email, Long id, IncomeRequest request) {
+        Income income = incomeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Income not found"));
+        if (!income.getCustomerEmail().equals(email)) {
+            return new BatchItemResult(UPDATE, 0, id, BatchItemResult.FORBIDDEN, "Not authorized to update this income");
+        }
+        applyIncomeFields(income, request);
+        dataVersionService.bump(email);
+        return new BatchItemResult(UPDATE, 0, id, BatchItemResult.UPDATED, null);
+    }
+
+    /**
+     * @throws RuntimeException if the income does not exist
+     */
+    @Transactional
+    public BatchItemResult deleteIncome(String email, Long id) {
+        Income income = incomeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Income not found"));
+        if (!income.getCustomerEmail().equals(email)) {
+            return new BatchItemResult(DELETE, 0, id, BatchItemResult.FORBIDDEN, "Not authorized to delete this income");
+        }
+        incomeRepository.delete(income);
+        dataVersionService.bump(email);
+        return new BatchItemResult(DELETE, 0, id, BatchItemResult.DELETED, null);
+    }
+
+    // One query for every id referenced by the batch, restricted to the caller's rows
+    private static <T> Map<Long, T> loadOwned(Stream<Long> updateIds,
+                                              List<Long> deleteIds,
+                                              Function<Set<Long>, List<T>> finder,
+                                              Function<T, Long> idOf) {
+        Set<Long> ids = new HashSet<>();
+        updateIds.filter(Objects::nonNull).forEach(ids::add);
+        deleteIds.stream().filter(Objects::nonNull).forEach(ids::add);
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return finder.apply(ids).stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+
+    private static String validateCategory(String category, boolean required) {
+        if (category == null || category.isEmpty()) {
+            return required ? "Category is required" : null;
+        }
+        try {
+            ExpenseCategoryEnum.valueOf(category.toUpperCase());
+            return null;
+        } catch (IllegalArgumentException e) {
+            return "Invalid expense category";
+        }
+    }
+
+    // Same partial-update rules as the single-row endpoints: absent fields are left unchanged
+    private static void applyExpenseFields(Expense expense, ExpenseRequest request) {
+        if (request.getAmount() != null) {
+            expense.setAmount(request.getAmount());
+        }
+        if (request.getCategory() != null && !request.getCategory().isEmpty()) {
+            expense.setCategory(ExpenseCategoryEnum.valueOf(request.getCategory().toUpperCase()).name());
+        }
+        if (request.getTags() != null) {
+            expense.setTags(String.join(",", request.getTags()));
+        }
+        if (request.getNote() != null) {
+            expense.setNote(request.getNote());
+        }
+        if (request.getIsRecurring() != null) {
+            expense.setIsRecurring(request.getIsRecurring());
+            if (request.getRecurringFrequency() != null) {
+                expense.setRecurringFrequency(request.getRecurringFrequency());
+            }
+        }
+    }
+
+    private static void applyIncomeFields(Income income, IncomeRequest request) {
+        if (request.getAmount() > 0) {
+            income.setAmount(request.getAmount());
+        }
+        if (request.getSource() != null && !request.getSource().isEmpty()) {
+            income.setSource(request.getSource());
+        }
+        if (request.getDescription() != null) {
+            income.setDescription(request.getDescription());
+        }
+        if (request.getIsRecurring() != null) {
+            income.setRecurring(request.getIsRecurring());
+            if (request.getIsRecurring() && request.getRecurringFrequency() != null) {
+                income.setRecurringFrequency(request.getRecurringFrequency());
+            }
+        }
+        if (request.getTags() != null) {
+            income.setTags(String.join(",", request.getTags()));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.entities.LedgerEntry;
+
+/**
+ * An expense or income changed. {@code previous} is null for a new entry and
+ * {@code current} is null for a deleted one.
+ */
+public record LedgerChangeEvent(LedgerEntry.Snapshot previous, LedgerEntry.Snapshot current) {
+
+    public String getEmail() {
+        return current != null ? current.email() : previous.email();
+    }
+}
@@ -0,0 +1,244 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.entities.LedgerEntry;
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import com.personalfinancetracker.backend.entities.MonthlyRollup;
+import com.personalfinancetracker.backend.repository.MonthlyRollupRepository;
+import com.personalfinancetracker.backend.utils.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains and reads the monthly_rollup table, so trend and summary endpoints cost
+ * one row per month and category instead of one row per transaction.
+ */
+@Service
+public class MonthlyRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyRollupService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO monthly_rollup (customer_email, period_start, entry_type, category, total_minor, total, entry_count) " +
+                    "VALUES (?, ?, ?, ?, ?, ? / 100, ?) " +
+                    // Assignments run in order, so total is derived from the updated total_minor
+                    "ON DUPLICATE KEY UPDATE total_minor = total_minor + VALUES(total_minor), " +
+                    "total = total_minor / 100, entry_count = entry_count + VALUES(entry_count)";
+
+    private static final String REBUILD_EXPENSES_SQL =
+            "INSERT INTO monthly_rollup (customer_email, period_start, entry_type, category, total_minor, total, entry_count) " +
+                    "SELECT customer_email, DATE_FORMAT(date, '%Y-%m-01'), 'EXPENSE', COALESCE(category, ''), " +
+                    "COALESCE(SUM(amount_minor), 0), COALESCE(SUM(amount_minor), 0) / 100, COUNT(*) FROM expense " +
+                    "WHERE customer_email = ? AND date IS NOT NULL " +
+                    "GROUP BY customer_email, DATE_FORMAT(date, '%Y-%m-01'), COALESCE(category, '')";
+
+    private static final String REBUILD_INCOMES_SQL =
+            "INSERT INTO monthly_rollup (customer_email, period_start, entry_type, category, total_minor, total, entry_count) " +
+                    "SELECT customer_email, DATE_FORMAT(date, '%Y-%m-01'), 'INCOME', COALESCE(source, ''), " +
+                    "SUM(amount_minor), SUM(amount_minor) / 100, COUNT(*) FROM income " +
+                    "WHERE customer_email = ? AND date IS NOT NULL " +
+                    "GROUP BY customer_email, DATE_FORMAT(date, '%Y-%m-01'), COALESCE(source, '')";
+
+    // Current-month variants of the rebuild
+    private static final String RECONCILE_EXPENSES_SQL =
+            "INSERT INTO monthly_rollup (customer_email, period_start, entry_type, category, total_minor, total, entry_count) " +
+                    "SELECT customer_email, ?, 'EXPENSE', COALESCE(category, ''), " +
+                    "COALESCE(SUM(amount_minor), 0), COALESCE(SUM(amount_minor), 0) / 100, COUNT(*) FROM expense " +
+                    "WHERE customer_email = ? AND date >= ? AND date < ? " +
+                    "GROUP BY customer_email, COALESCE(category, '')";
+
+    private static final String RECONCILE_INCOMES_SQL =
+            "INSERT INTO monthly_rollup (customer_email, period_start, entry_type, category, total_minor, total, entry_count) " +
+                    "SELECT customer_email, ?, 'INCOME', COALESCE(source, ''), " +
+                    "SUM(amount_minor), SUM(amount_minor) / 100, COUNT(*) FROM income " +
+                    "WHERE customer_email = ? AND date >= ? AND date < ? " +
+                    "GROUP BY customer_email, COALESCE(source, '')";
+
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public MonthlyRollupService(MonthlyRollupRepository monthlyRollupRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager) {
+        this.monthlyRollupRepository = monthlyRollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Apply a single expense or income change. Runs inside the writing transaction,
+     * so the rollup commits or rolls back together with the row itself.
+     */
+    @EventListener
+    public void onLedgerChange(LedgerChangeEvent event) {
+        if (event.previous() != null) {
+            apply(event.previous(), -event.previous().amountMinor(), -1);
+        }
+        if (event.current() != null) {
+            apply(event.current(), event.current().amountMinor(), 1);
+        }
+    }
+
+    private void apply(LedgerEntry.Snapshot entry, long amountMinorDelta, long countDelta) {
+        jdbcTemplate.update(UPSERT_SQL,
+                entry.email(),
+                Date.valueOf(entry.month().atDay(1)),
+                entry.type().name(),
+                entry.category(),
+                amountMinorDelta,
+                amountMinorDelta,
+                countDelta);
+    }
+
+    /**
+     * Recompute all rollup rows of one user from the raw expense and income rows.
+     */
+    public void rebuildCustomer(String email) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM monthly_rollup WHERE customer_email = ?", email);
+            jdbcTemplate.update(REBUILD_EXPENSES_SQL, email);
+            jdbcTemplate.update(REBUILD_INCOMES_SQL, email);
+        });
+    }
+
+    /**
+     * Nightly full rebuild, one short transaction per user. Corrects any drift from
+     * writes that bypassed JPA.
+     */
+    @Scheduled(cron = "${rollup.rebuild.cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        List<String> emails = jdbcTemplate.queryForList(
+                "SELECT customer_email FROM expense WHERE customer_email IS NOT NULL " +
+                        "UNION SELECT customer_email FROM income WHERE customer_email IS NOT NULL " +
+                        "UNION SELECT customer_email FROM monthly_rollup",
+                String.class);
+
+        int failures = 0;
+        for (String email : emails) {
+            try {
+                rebuildCustomer(email);
+            } catch (Exception e) {
+                failures++;
+                logger.error("Error rebuilding monthly rollup for {}: {}", email, e.getMessage(), e);
+            }
+        }
+        logger.info("Rebuilt monthly rollup for {} user(s), {} failure(s)", emails.size(), failures);
+    }
+
+    /**
+     * Hourly reconcile of the current month, the period read by budget status, so
+     * month-to-date counters never drift for longer than an hour even if a write bypassed
+     * the entity listeners. Like the nightly rebuild it runs one short transaction per user,
+     * so it only ever locks one user's rows for the month.
+     */
+    @Scheduled(cron = "${rollup.reconcile.cron:0 15 * * * *}")
+    public void reconcileCurrentMonth() {
+        YearMonth month = YearMonth.now();
+        Date periodStart = Date.valueOf(month.atDay(1));
+        Date nextPeriodStart = Date.valueOf(month.plusMonths(1).atDay(1));
+        List<String> emails = jdbcTemplate.queryForList(
+                "SELECT customer_email FROM expense WHERE customer_email IS NOT NULL AND date >= ? AND date < ? " +
+                        "UNION SELECT customer_email FROM income WHERE customer_email IS NOT NULL AND date >= ? AND date < ? " +
+                        "UNION SELECT customer_email FROM monthly_rollup WHERE period_start = ?",
+                String.class, periodStart, nextPeriodStart, periodStart, nextPeriodStart, periodStart);
+
+        int failures = 0;
+        for (String email : emails) {
+            try {
+                reconcileCustomer(email, periodStart, nextPeriodStart);
+            } catch (Exception e) {
+                failures++;
+                logger.error("Error reconciling monthly rollup for {} in {}: {}", email, month, e.getMessage(), e);
+            }
+        }
+        logger.info("Reconciled monthly rollup for {} user(s) in {}, {} failure(s)", emails.size(), month, failures);
+    }
+
+    private void reconcileCustomer(String email, Date periodStart, Date nextPeriodStart) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM monthly_rollup WHERE customer_email = ? AND period_start = ?",
+                    email, periodStart);
+            jdbcTemplate.update(RECONCILE_EXPENSES_SQL, periodStart, email, periodStart, nextPeriodStart);
+            jdbcTemplate.update(RECONCILE_INCOMES_SQL, periodStart, email, periodStart, nextPeriodStart);
+        });
+    }
+
+    /**
+     * Backfill on first start after the rollup table was introduced.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (monthlyRollupRepository.count() == 0) {
+                logger.info("Monthly rollup is empty, backfilling from transactions");
+                rebuildAll();
+            }
+        } catch (Exception e) {
+            logger.error("Error backfilling monthly rollup: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Total per month for the inclusive range, with zero for months without entries. Oldest month first.
+     */
+    public Map<YearMonth, Double> getMonthlyTotals(String email, LedgerEntryType type, YearMonth from, YearMonth to) {
+        Map<YearMonth, Double> totals = new LinkedHashMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            totals.put(month, 0.0);
+        }
+
+        for (Object[] row : monthlyRollupRepository.sumByMonth(email, type, from.atDay(1), to.atDay(1))) {
+            totals.put(YearMonth.from((LocalDate) row[0]), Money.toMajor(((Number) row[1]).longValue()));
+        }
+        return totals;
+    }
+
+    /**
+     * Month-to-date totals per category (or income source), read from the current month's
+     * rollup rows. Categories without entries are absent.
+     */
+    public Map<String, Double> getCurrentMonthCategoryTotals(String email, LedgerEntryType type) {
+        YearMonth month = YearMonth.now();
+        return getMonthlyCategoryTotals(email, type, month, month).getOrDefault(month, new LinkedHashMap<>());
+    }
+
+    /**
+     * Totals per month and category (or income source) for the inclusive range. Oldest month first;
+     * months without entries are absent.
+     */
+    public Map<YearMonth, Map<String, Double>> getMonthlyCategoryTotals(
+            String email, LedgerEntryType type, YearMonth from, YearMonth to) {
+        List<MonthlyRollup> rows = monthlyRollupRepository.findByCustomerEmailAndEntryTypeAndPeriodStartBetween(
+                email, type, from.atDay(1), to.atDay(1));
+
+        // Summed in minor units and converted once, so rows of one category add up exactly
+        Map<YearMonth, Map<String, Long>> totalsMinor = new LinkedHashMap<>();
+        rows.stream()
+                .filter(row -> row.getEntryCount() > 0)
+                .sorted((a, b) -> a.getPeriodStart().compareTo(b.getPeriodStart()))
+                .forEach(row -> totalsMinor
+                        .computeIfAbsent(YearMonth.from(row.getPeriodStart()), month -> new LinkedHashMap<>())
+                        .merge(row.getCategory(), row.getTotalMinor(), Math::addExact));
+
+        Map<YearMonth, Map<String, Double>> totals = new LinkedHashMap<>();
+        totalsMinor.forEach((month, byCategory) -> {
+            Map<String, Double> monthTotals = new LinkedHashMap<>();
+            byCategory.forEach((category, minor) -> monthTotals.put(category, Money.toMajor(minor)));
+            totals.put(month, monthTotals);
+        });
+        return totals;
+    }
+}
@@ -0,0 +1,94 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.dto.ProfilePhotoContent;
+import com.personalfinancetracker.backend.entities.CustomerProfilePhoto;
+import com.personalfinancetracker.backend.repository.CustomerProfilePhotoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+@Service
+public class ProfilePhotoService {
+    private static final Logger logger = LoggerFactory.getLogger(ProfilePhotoService.class);
+
+    public static final String PHOTO_PATH = "/api/user/photo";
+
+    private final CustomerProfilePhotoRepository profilePhotoRepository;
+
+    public ProfilePhotoService(CustomerProfilePhotoRepository profilePhotoRepository) {
+        this.profilePhotoRepository = profilePhotoRepository;
+    }
+
+    @Transactional
+    public String savePhoto(String email, byte[] photoBytes) {
+        String hash = sha256Hex(photoBytes);
+
+        if (hash.equals(profilePhotoRepository.findContentHashByCustomerEmail(email).orElse(null))) {
+            logger.debug("Profile photo unchanged for: {}", email);
+            return hash;
+        }
+
+        String contentType = detectContentType(photoBytes);
+        LocalDateTime now = LocalDateTime.now();
+        if (profilePhotoRepository.replaceContent(email, photoBytes, contentType, hash, now) == 0) {
+            CustomerProfilePhoto photo = new CustomerProfilePhoto();
+            photo.setCustomerEmail(email);
+            photo.setData(photoBytes);
+            photo.setContentType(contentType);
+            photo.setContentHash(hash);
+            photo.setUpdatedAt(now);
+            profilePhotoRepository.save(photo);
+        }
+        logger.info("Stored profile photo for: {} ({} bytes)", email, photoBytes.length);
+        return hash;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> findPhotoHash(String email) {
+        return profilePhotoRepository.findContentHashByCustomerEmail(email);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ProfilePhotoContent> findPhoto(String email) {
+        return profilePhotoRepository.findContentByCustomerEmail(email);
+    }
+
+    /**
+     * Versioned URL of the photo; the hash changes whenever the image does, so clients can cache it.
+     */
+    public String photoUrl(String hash) {
+        return hash != null ? PHOTO_PATH + "?v=" + hash : null;
+    }
+
+    public static String detectContentType(byte[] bytes) {
+        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xFF && (bytes[1] & 0xFF) == 0xD8 && (bytes[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (bytes.length >= 8 && (bytes[0] & 0xFF) == 0x89 && bytes[1] == 'P' && bytes[2] == 'N' && bytes[3] == 'G') {
+            return "image/png";
+        }
+        if (bytes.length >= 6 && bytes[0] == 'G' && bytes[1] == 'I' && bytes[2] == 'F') {
+            return "image/gif";
+        }
+        if (bytes.length >= 12 && bytes[0] == 'R' && bytes[1] == 'I' && bytes[2] == 'F' && bytes[3] == 'F'
+                && bytes[8] == 'W' && bytes[9] == 'E' && bytes[10] == 'B' && bytes[11] == 'P') {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.personalfinancetracker.backend.services;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs independent reads in parallel with structured-concurrency semantics: subtasks are
+ * forked inside a scope, {@link Scope#join()} waits for all of them in completion order, and
+ * the first failure or the timeout cancels whatever is still running. A request then takes as long as its
+ * slowest query rather than the sum of them.
+ * <pre>
+ * try (QueryFanOut.Scope scope = queryFanOut.open()) {
+ *     Future&lt;List&lt;Expense&gt;&gt; expenses = scope.fork(() -&gt; expenseRepository.find...(...));
+ *     Future&lt;List&lt;Income&gt;&gt; incomes = scope.fork(() -&gt; incomeRepository.find...(...));
+ *     scope.join();
+ *     ... expenses.resultNow(), incomes.resultNow()
+ * }
+ * </pre>
+ * Subtasks run on a bounded executor of their own, so dashboard bursts and async jobs cannot
+ * starve each other, with the caller's security context and each in its own read-only
+ * transaction. That holds even when a saturated pool runs a subtask on the request thread: the
+ * transaction is always a new one, never the caller's. Subtasks therefore do not see the
+ * caller's uncommitted writes; use this only for reads.
+ */
+@Component
+public class QueryFanOut implements DisposableBean {
+
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration timeout;
+
+    public QueryFanOut(PlatformTransactionManager transactionManager,
+                       @Value("${query.fanout.max-concurrency:16}") int maxConcurrency,
+                       @Value("${query.fanout.queue-capacity:200}") int queueCapacity,
+                       @Value("${query.fanout.timeout:PT15S}") Duration timeout,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.executor = virtualThreads
+                ? virtualThreadExecutor(maxConcurrency)
+                : threadPoolExecutor(maxConcurrency, queueCapacity);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Otherwise a subtask run by CallerRunsPolicy would join the caller's transaction
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.timeout = timeout;
+    }
+
+    // Not a bean: an extra Executor bean would switch off Boot's applicationTaskExecutor
+    private static AsyncTaskExecutor threadPoolExecutor(int maxConcurrency, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("query-");
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        // When saturated the request thread runs the query itself instead of failing
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // No pool to size with virtual threads, the concurrency limit alone bounds the queries
+    private static AsyncTaskExecutor virtualThreadExecutor(int maxConcurrency) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("query-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxConcurrency);
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    public Scope open() {
+        return new Scope();
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final List<Future<?>> subtasks = new ArrayList<>();
+        // Hands back subtasks as they finish, so a failure is seen without waiting on earlier forks
+        private final CompletionService<Object> completed = new ExecutorCompletionService<>(executor);
+        private int pending;
+
+        private Scope() {}
+
+        @SuppressWarnings("unchecked")
+        public <T> Future<T> fork(Callable<T> query) {
+            Callable<T> transactional = () -> readOnlyTransaction.execute(status -> {
+                try {
+                    return query.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+            Future<T> subtask = (Future<T>) completed.submit(
+                    (Callable<Object>) new DelegatingSecurityContextCallable<>(transactional));
+            subtasks.add(subtask);
+            pending++;
+            return subtask;
+        }
+
+        /**
+         * Waits until every forked subtask has completed. As soon as one fails, or when the
+         * fan-out timeout expires, the remaining subtasks are cancelled and the failure is
+         * rethrown, whatever the order they were forked in.
+         */
+        public void join() {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            try {
+                for (; pending > 0; pending--) {
+                    Future<?> subtask = completed.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (subtask == null) {
+                        throw new TimeoutException();
+                    }
+                    subtask.get();
+                }
+            } catch (CancellationException e) {
+                cancelAll();
+                throw e;
+            } catch (ExecutionException e) {
+                cancelAll();
+                Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                        ? e.getCause().getCause()
+                        : e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new RuntimeException(cause);
+            } catch (TimeoutException e) {
+                cancelAll();
+                throw new RuntimeException("Parallel queries did not finish within " + timeout, e);
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for parallel queries", e);
+            }
+        }
+
+        private void cancelAll() {
+            for (Future<?> subtask : subtasks) {
+                subtask.cancel(true);
+            }
+        }
+
+        // Leaving the scope early, e.g. on an exception before join, must not leave queries running
+        @Override
+        public void close() {
+            cancelAll();
+        }
+    }
+}
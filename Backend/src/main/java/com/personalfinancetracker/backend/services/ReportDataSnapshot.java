@@ -0,0 +1,146 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.entities.Budget;
+import com.personalfinancetracker.backend.entities.Expense;
+import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.utils.AmountGrid;
+import com.personalfinancetracker.backend.utils.Money;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Immutable aggregates of one report period: totals, category and source sums, and the
+ * budgets. It holds no transaction rows; the sheet builders stream those from the database,
+ * so the snapshot's size depends on the number of categories, not of transactions.
+ */
+public final class ReportDataSnapshot {
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final List<Budget> budgets;
+
+    private final double totalExpense;
+    private final double totalIncome;
+    private final Map<String, Double> expensesByCategory;
+    private final Map<String, Double> incomesBySource;
+    private final Map<LocalDate, Double> expensesByDay;
+
+    private ReportDataSnapshot(
+            LocalDate startDate,
+            LocalDate endDate,
+            AmountGrid byCategory,
+            AmountGrid bySource,
+            Map<LocalDate, Double> expensesByDay,
+            List<Budget> budgets) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.budgets = budgets != null ? List.copyOf(budgets) : List.of();
+
+        long expenseSum = 0;
+        for (int row = 0; row < byCategory.rows(); row++) {
+            expenseSum += byCategory.sumMinor(row, 0);
+        }
+        long incomeSum = 0;
+        for (int row = 0; row < bySource.rows(); row++) {
+            incomeSum += bySource.sumMinor(row, 0);
+        }
+
+        this.totalExpense = Money.toMajor(expenseSum);
+        this.totalIncome = Money.toMajor(incomeSum);
+        this.expensesByCategory = byCategory.toSortedMap(0);
+        this.incomesBySource = bySource.toSortedMap(0);
+        this.expensesByDay = Collections.unmodifiableMap(expensesByDay);
+    }
+
+    /**
+     * Snapshot of per-group totals already summed by the database, as {@code [key, minor units]}
+     * rows. Daily totals are not part of it.
+     */
+    public static ReportDataSnapshot fromTotals(
+            LocalDate startDate,
+            LocalDate endDate,
+            List<Object[]> expenseMinorByCategory,
+            List<Object[]> incomeMinorBySource,
+            List<Budget> budgets) {
+        AmountGrid byCategory = new AmountGrid(1);
+        for (Object[] row : expenseMinorByCategory) {
+            byCategory.add((String) row[0], 0, ((Number) row[1]).longValue());
+        }
+        AmountGrid bySource = new AmountGrid(1);
+        for (Object[] row : incomeMinorBySource) {
+            bySource.add((String) row[0], 0, ((Number) row[1]).longValue());
+        }
+        return new ReportDataSnapshot(startDate, endDate, byCategory, bySource, Map.of(), budgets);
+    }
+
+    /**
+     * Snapshot of rows the caller already holds, aggregated in a single pass over minor units.
+     */
+    public static ReportDataSnapshot fromRows(
+            LocalDate startDate,
+            LocalDate endDate,
+            List<Expense> expenses,
+            List<Income> incomes,
+            List<Budget> budgets) {
+        AmountGrid byCategory = new AmountGrid(1);
+        Map<LocalDate, Long> byDayMinor = new HashMap<>();
+        for (Expense expense : expenses) {
+            long amount = expense.getAmountMinor();
+            byCategory.add(expense.getCategory(), 0, amount);
+            byDayMinor.merge(expense.getDate().toLocalDate(), amount, Long::sum);
+        }
+
+        AmountGrid bySource = new AmountGrid(1);
+        for (Income income : incomes) {
+            bySource.add(income.getSource(), 0, income.getAmountMinor());
+        }
+
+        Map<LocalDate, Double> expensesByDay = new HashMap<>();
+        byDayMinor.forEach((day, amount) -> expensesByDay.put(day, Money.toMajor(amount)));
+        return new ReportDataSnapshot(startDate, endDate, byCategory, bySource, expensesByDay, budgets);
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public List<Budget> getBudgets() {
+        return budgets;
+    }
+
+    public double getTotalExpense() {
+        return totalExpense;
+    }
+
+    public double getTotalIncome() {
+        return totalIncome;
+    }
+
+    public double getNetSavings() {
+        return totalIncome - totalExpense;
+    }
+
+    public double getSavingsRate() {
+        return totalIncome > 0 ? (getNetSavings() / totalIncome) * 100 : 0;
+    }
+
+    /** Expense totals per category, largest first. */
+    public Map<String, Double> getExpensesByCategory() {
+        return expensesByCategory;
+    }
+
+    /** Income totals per source, largest first. */
+    public Map<String, Double> getIncomesBySource() {
+        return incomesBySource;
+    }
+
+    /** Expense totals per day; only filled by {@link #fromRows}. */
+    public Map<LocalDate, Double> getExpensesByDay() {
+        return expensesByDay;
+    }
+}
@@ -1,23 +1,29 @@
 package com.personalfinancetracker.backend.services;
 
+import com.personalfinancetracker.backend.dto.ExpenseResponse;
 import com.personalfinancetracker.backend.dto.FinancialInsight;
+import com.personalfinancetracker.backend.dto.IncomeResponse;
 import com.personalfinancetracker.backend.dto.MonthlySummary;
 import com.personalfinancetracker.backend.entities.Budget;
 import com.personalfinancetracker.backend.entities.Expense;
 import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
 import com.personalfinancetracker.backend.repository.BudgetRepository;
 import com.personalfinancetracker.backend.repository.ExpenseRepository;
 import com.personalfinancetracker.backend.repository.IncomeRepository;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.YearMonth;
@@ -25,23 +31,37 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReportGenerationService {
     private static final Logger logger = LoggerFactory.getLogger(ReportGenerationService.class);
 
+    // Number of rows per sheet kept in memory while streaming a workbook
+    private static final int ROW_ACCESS_WINDOW = 100;
+
+    // Column widths are in units of 1/256th of a character, capped by Excel at 255 characters
+    private static final int MAX_COLUMN_WIDTH = 255 * 256;
+
     private final ExpenseRepository expenseRepository;
     private final IncomeRepository incomeRepository;
     private final BudgetRepository budgetRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final TransactionTemplate readOnlyTransaction;
 
     @Autowired
     public ReportGenerationService(
             ExpenseRepository expenseRepository,
             IncomeRepository incomeRepository,
-            BudgetRepository budgetRepository) {
+            BudgetRepository budgetRepository,
+            MonthlyRollupService monthlyRollupService,
+            PlatformTransactionManager transactionManager) {
         this.expenseRepository = expenseRepository;
         this.incomeRepository = incomeRepository;
         this.budgetRepository = budgetRepository;
+        this.monthlyRollupService = monthlyRollupService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
 
@@ -53,10 +73,53 @@ public class ReportGenerationService {
             Boolean includeExpenses,
             Boolean includeIncomes,
             Boolean includeBudgets) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeExcelReport(email, startDate, endDate, reportTitle,
+                includeExpenses, includeIncomes, includeBudgets, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Stream the Excel report straight into the given output stream.
+     * Transaction rows are read from a database cursor as DTOs, newest first, and written
+     * through an SXSSF window, so only the last {@link #ROW_ACCESS_WINDOW} rows of a sheet
+     * are held on the heap; the summaries come from SQL aggregates. Heap use depends on the
+     * number of categories and sources, not of transactions.
+     */
+    public void writeExcelReport(
+            String email,
+            LocalDate startDate,
+            LocalDate endDate,
+            String reportTitle,
+            Boolean includeExpenses,
+            Boolean includeIncomes,
+            Boolean includeBudgets,
+            OutputStream outputStream) throws IOException {
+        writeExcelReport(email, startDate, endDate, reportTitle,
+                includeExpenses, includeIncomes, includeBudgets, outputStream, ReportProgress.NONE);
+    }
+
+    /**
+     * Same as {@link #writeExcelReport(String, LocalDate, LocalDate, String, Boolean, Boolean, Boolean, OutputStream)},
+     * reporting each step to {@code progress}.
+     */
+    public void writeExcelReport(
+            String email,
+            LocalDate startDate,
+            LocalDate endDate,
+            String reportTitle,
+            Boolean includeExpenses,
+            Boolean includeIncomes,
+            Boolean includeBudgets,
+            OutputStream outputStream,
+            ReportProgress progress) throws IOException {
         logger.info("Generating Excel report for email: {}, period: {} to {}", email, startDate, endDate);
 
-        // Create workbook
-        try (Workbook workbook = new XSSFWorkbook()) {
+        boolean withBudgets = includeBudgets != null && includeBudgets;
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             // Create styles
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle subHeaderStyle = createSubHeaderStyle(workbook);
@@ -66,90 +129,107 @@ public class ReportGenerationService {
             CellStyle titleStyle = createTitleStyle(workbook);
             CellStyle summaryStyle = createSummaryStyle(workbook);
 
-            // Create Summary Sheet
-            Sheet summarySheet = workbook.createSheet("Summary");
-            createSummarySheet(
-                    summarySheet,
-                    email,
-                    startDate,
-                    endDate,
-                    reportTitle,
-                    titleStyle,
-                    headerStyle,
-                    summaryStyle,
-                    currencyStyle
-            );
-
-            // Create Expenses Sheet if included
-            if (includeExpenses != null && includeExpenses) {
-                Sheet expenseSheet = workbook.createSheet("Expenses");
-                createExpenseSheet(
-                        expenseSheet,
-                        email,
-                        startDate,
-                        endDate,
+            // One read-only transaction, so the totals and the streamed rows come from the same
+            // snapshot (and from the read replica when one is configured). A streaming result
+            // holds its connection, so each cursor is closed before the next query runs.
+            readOnlyTransaction.executeWithoutResult(status -> {
+                progress.update(5, "Loading totals");
+                ReportDataSnapshot data = loadReportTotals(email, startDate, endDate, withBudgets);
+
+                progress.update(20, "Building summary");
+                // Create Summary Sheet
+                Sheet summarySheet = workbook.createSheet("Summary");
+                createSummarySheet(
+                        summarySheet,
+                        data,
+                        reportTitle,
                         titleStyle,
                         headerStyle,
-                        dataStyle,
-                        currencyStyle,
-                        dateStyle
+                        summaryStyle,
+                        currencyStyle
                 );
-            }
 
-            // Create Incomes Sheet if included
-            if (includeIncomes != null && includeIncomes) {
-                Sheet incomeSheet = workbook.createSheet("Incomes");
-                createIncomeSheet(
-                        incomeSheet,
-                        email,
-                        startDate,
-                        endDate,
-                        titleStyle,
-                        headerStyle,
-                        dataStyle,
-                        currencyStyle,
-                        dateStyle
-                );
-            }
+                progress.update(35, "Building expenses sheet");
+                // Create Expenses Sheet if included
+                if (includeExpenses != null && includeExpenses) {
+                    Sheet expenseSheet = workbook.createSheet("Expenses");
+                    try (Stream<ExpenseResponse> expenses = expenseRepository.streamResponses(
+                            email, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay())) {
+                        createExpenseSheet(
+                                expenseSheet,
+                                data,
+                                expenses.iterator(),
+                                titleStyle,
+                                headerStyle,
+                                dataStyle,
+                                currencyStyle,
+                                dateStyle
+                        );
+                    }
+                }
 
-            // Create Budget Analysis Sheet if included
-            if (includeBudgets != null && includeBudgets) {
-                Sheet budgetSheet = workbook.createSheet("Budget Analysis");
-                createBudgetAnalysisSheet(
-                        budgetSheet,
-                        email,
-                        startDate,
-                        endDate,
-                        titleStyle,
-                        headerStyle,
-                        dataStyle,
-                        currencyStyle
-                );
-            }
+                progress.update(60, "Building incomes sheet");
+                // Create Incomes Sheet if included
+                if (includeIncomes != null && includeIncomes) {
+                    Sheet incomeSheet = workbook.createSheet("Incomes");
+                    try (Stream<IncomeResponse> incomes = incomeRepository.streamResponses(email, startDate, endDate)) {
+                        createIncomeSheet(
+                                incomeSheet,
+                                data,
+                                incomes.iterator(),
+                                titleStyle,
+                                headerStyle,
+                                dataStyle,
+                                currencyStyle,
+                                dateStyle
+                        );
+                    }
+                }
 
-            // Auto-size columns in all sheets
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                Sheet sheet = workbook.getSheetAt(i);
-                for (int j = 0; j < 10; j++) {  // Adjust column count based on your needs
-                    sheet.autoSizeColumn(j);
+                progress.update(80, "Building budget analysis");
+                // Create Budget Analysis Sheet if included
+                if (withBudgets) {
+                    Sheet budgetSheet = workbook.createSheet("Budget Analysis");
+                    createBudgetAnalysisSheet(
+                            budgetSheet,
+                            data,
+                            titleStyle,
+                            headerStyle,
+                            dataStyle,
+                            currencyStyle
+                    );
                 }
-            }
+            });
 
-            // Write to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            progress.update(90, "Writing workbook");
             workbook.write(outputStream);
-            return outputStream.toByteArray();
+            outputStream.flush();
+        } finally {
+            // Remove the temporary sheet files backing the row windows
+            workbook.dispose();
+            workbook.close();
         }
     }
 
+    /**
+     * Totals per expense category and income source, summed in minor units by the database,
+     * both ends of the period inclusive. Budgets are only fetched when the budget sheet is
+     * requested. Runs in the caller's transaction.
+     */
+    private ReportDataSnapshot loadReportTotals(String email, LocalDate startDate, LocalDate endDate, boolean includeBudgets) {
+        List<Object[]> expenseTotals = expenseRepository.sumMinorByCategory(
+                email, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+        List<Object[]> incomeTotals = incomeRepository.sumMinorBySource(email, startDate, endDate);
+        List<Budget> budgets = includeBudgets ? budgetRepository.findByCustomerEmail(email) : List.of();
+        return ReportDataSnapshot.fromTotals(startDate, endDate, expenseTotals, incomeTotals, budgets);
+    }
+
     /**
      * Create the summary sheet with overall financial metrics
      */
     private void createSummarySheet(
             Sheet sheet,
-            String email,
-            LocalDate startDate,
-            LocalDate endDate,
+            ReportDataSnapshot data,
             String reportTitle,
             CellStyle titleStyle,
             CellStyle headerStyle,
@@ -178,19 +258,17 @@ public class ReportGenerationService {
 
         Cell dateValue = dateRow.createCell(1);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
-        dateValue.setCellValue(startDate.format(formatter) + " - " + endDate.format(formatter));
+        String period = data.getStartDate().format(formatter) + " - " + data.getEndDate().format(formatter);
+        dateValue.setCellValue(period);
         dateValue.setCellStyle(summaryStyle);
+        fitColumnWidth(sheet, 1, period.length());
 
         rowNum++;
 
-        // Get financial data for the period
-        List<Expense> expenses = expenseRepository.findByCustomerEmailAndDateBetween(email, startDate, endDate);
-        List<Income> incomes = incomeRepository.findByCustomerEmailAndDateBetween(email, startDate, endDate);
-
-        double totalExpense = expenses.stream().mapToDouble(Expense::getAmount).sum();
-        double totalIncome = incomes.stream().mapToDouble(Income::getAmount).sum();
-        double netSavings = totalIncome - totalExpense;
-        double savingsRate = totalIncome > 0 ? (netSavings / totalIncome) * 100 : 0;
+        double totalExpense = data.getTotalExpense();
+        double totalIncome = data.getTotalIncome();
+        double netSavings = data.getNetSavings();
+        double savingsRate = data.getSavingsRate();
 
         // Create financial summary section
         Row headerRow = sheet.createRow(rowNum++);
@@ -242,24 +320,16 @@ public class ReportGenerationService {
         rowNum += 2;
 
         // Top Expense Categories
-        if (!expenses.isEmpty()) {
+        if (!data.getExpensesByCategory().isEmpty()) {
             Row topExpensesHeader = sheet.createRow(rowNum++);
             Cell topExpensesHeaderCell = topExpensesHeader.createCell(0);
             topExpensesHeaderCell.setCellValue("Top Expense Categories");
             topExpensesHeaderCell.setCellStyle(headerStyle);
             sheet.addMergedRegion(new CellRangeAddress(rowNum-1, rowNum-1, 0, 1));
 
-            // Group expenses by category
-            Map<String, Double> expensesByCategory = expenses.stream()
-                    .collect(Collectors.groupingBy(
-                            Expense::getCategory,
-                            Collectors.summingDouble(Expense::getAmount)
-                    ));
-
-            // Sort by amount (descending)
-            List<Map.Entry<String, Double>> sortedExpenses = expensesByCategory.entrySet()
+            // Categories are already sorted by amount (descending)
+            List<Map.Entry<String, Double>> sortedExpenses = data.getExpensesByCategory().entrySet()
                     .stream()
-                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
                     .limit(5)  // Top 5 categories
                     .collect(Collectors.toList());
 
@@ -268,6 +338,7 @@ public class ReportGenerationService {
                 Cell categoryLabel = categoryRow.createCell(0);
                 categoryLabel.setCellValue(entry.getKey());
                 categoryLabel.setCellStyle(summaryStyle);
+                fitColumnWidth(sheet, 0, length(entry.getKey()));
 
                 Cell categoryValue = categoryRow.createCell(1);
                 categoryValue.setCellValue(entry.getValue());
@@ -278,31 +349,20 @@ public class ReportGenerationService {
         rowNum += 2;
 
         // Income Sources
-        if (!incomes.isEmpty()) {
+        if (!data.getIncomesBySource().isEmpty()) {
             Row incomeSourcesHeader = sheet.createRow(rowNum++);
             Cell incomeSourcesHeaderCell = incomeSourcesHeader.createCell(0);
             incomeSourcesHeaderCell.setCellValue("Income Sources");
             incomeSourcesHeaderCell.setCellStyle(headerStyle);
             sheet.addMergedRegion(new CellRangeAddress(rowNum-1, rowNum-1, 0, 1));
 
-            // Group incomes by source
-            Map<String, Double> incomesBySource = incomes.stream()
-                    .collect(Collectors.groupingBy(
-                            Income::getSource,
-                            Collectors.summingDouble(Income::getAmount)
-                    ));
-
-            // Sort by amount (descending)
-            List<Map.Entry<String, Double>> sortedIncomes = incomesBySource.entrySet()
-                    .stream()
-                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                    .collect(Collectors.toList());
-
-            for (Map.Entry<String, Double> entry : sortedIncomes) {
+            // Sources are already sorted by amount (descending)
+            for (Map.Entry<String, Double> entry : data.getIncomesBySource().entrySet()) {
                 Row sourceRow = sheet.createRow(rowNum++);
                 Cell sourceLabel = sourceRow.createCell(0);
                 sourceLabel.setCellValue(entry.getKey());
                 sourceLabel.setCellStyle(summaryStyle);
+                fitColumnWidth(sheet, 0, length(entry.getKey()));
 
                 Cell sourceValue = sourceRow.createCell(1);
                 sourceValue.setCellValue(entry.getValue());
@@ -314,9 +374,8 @@ public class ReportGenerationService {
 
     private void createExpenseSheet(
             Sheet sheet,
-            String email,
-            LocalDate startDate,
-            LocalDate endDate,
+            ReportDataSnapshot data,
+            Iterator<ExpenseResponse> expenses,
             CellStyle titleStyle,
             CellStyle headerStyle,
             CellStyle dataStyle,
@@ -344,7 +403,7 @@ public class ReportGenerationService {
         Row dateRow = sheet.createRow(rowNum++);
         Cell dateRangeCell = dateRow.createCell(0);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
-        dateRangeCell.setCellValue("Period: " + startDate.format(formatter) + " - " + endDate.format(formatter));
+        dateRangeCell.setCellValue("Period: " + data.getStartDate().format(formatter) + " - " + data.getEndDate().format(formatter));
         dateRangeCell.setCellStyle(headerStyle);
         sheet.addMergedRegion(new CellRangeAddress(rowNum-1, rowNum-1, 0, 4));
 
@@ -360,14 +419,13 @@ public class ReportGenerationService {
             cell.setCellStyle(headerStyle);
         }
 
-        // Get expense data
-        List<Expense> expenses = expenseRepository.findByCustomerEmailAndDateBetween(email, startDate, endDate);
-
-        // Sort by date (newest first)
-        expenses.sort(Comparator.comparing(Expense::getDate).reversed());
+        // Track the longest text per column so widths can be set without autoSizeColumn
+        int[] maxChars = new int[columns.length];
 
-        // Add expense rows
-        for (Expense expense : expenses) {
+        // Add expense rows, streamed newest first
+        while (expenses.hasNext()) {
+            ExpenseResponse expense = expenses.next();
+            String tags = expense.getTags() != null ? String.join(",", expense.getTags()) : "";
             Row row = sheet.createRow(rowNum++);
 
             // Date
@@ -392,8 +450,16 @@ public class ReportGenerationService {
 
             // Tags
             Cell tagsCell = row.createCell(4);
-            tagsCell.setCellValue(expense.getTags() != null ? expense.getTags() : "");
+            tagsCell.setCellValue(tags);
             tagsCell.setCellStyle(dataStyle);
+
+            maxChars[1] = Math.max(maxChars[1], length(expense.getCategory()));
+            maxChars[3] = Math.max(maxChars[3], length(expense.getNote()));
+            maxChars[4] = Math.max(maxChars[4], tags.length());
+        }
+
+        for (int i = 0; i < maxChars.length; i++) {
+            fitColumnWidth(sheet, i, maxChars[i]);
         }
 
         rowNum += 2;
@@ -414,21 +480,8 @@ public class ReportGenerationService {
         amountHeaderCell.setCellValue("Total Amount");
         amountHeaderCell.setCellStyle(headerStyle);
 
-        // Group expenses by category
-        Map<String, Double> expensesByCategory = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getCategory,
-                        Collectors.summingDouble(Expense::getAmount)
-                ));
-
-        // Sort by amount (descending)
-        List<Map.Entry<String, Double>> sortedExpenses = expensesByCategory.entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .collect(Collectors.toList());
-
-        // Add category summary rows
-        for (Map.Entry<String, Double> entry : sortedExpenses) {
+        // Add category summary rows, largest first
+        for (Map.Entry<String, Double> entry : data.getExpensesByCategory().entrySet()) {
             Row row = sheet.createRow(rowNum++);
 
             Cell categoryCell = row.createCell(0);
@@ -447,17 +500,15 @@ public class ReportGenerationService {
         totalLabel.setCellStyle(headerStyle);
 
         Cell totalValue = totalRow.createCell(1);
-        double total = sortedExpenses.stream().mapToDouble(Map.Entry::getValue).sum();
-        totalValue.setCellValue(total);
+        totalValue.setCellValue(data.getTotalExpense());
         totalValue.setCellStyle(currencyStyle);
     }
 
 
     private void createIncomeSheet(
             Sheet sheet,
-            String email,
-            LocalDate startDate,
-            LocalDate endDate,
+            ReportDataSnapshot data,
+            Iterator<IncomeResponse> incomes,
             CellStyle titleStyle,
             CellStyle headerStyle,
             CellStyle dataStyle,
@@ -485,7 +536,7 @@ public class ReportGenerationService {
         Row dateRow = sheet.createRow(rowNum++);
         Cell dateRangeCell = dateRow.createCell(0);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
-        dateRangeCell.setCellValue("Period: " + startDate.format(formatter) + " - " + endDate.format(formatter));
+        dateRangeCell.setCellValue("Period: " + data.getStartDate().format(formatter) + " - " + data.getEndDate().format(formatter));
         dateRangeCell.setCellStyle(headerStyle);
         sheet.addMergedRegion(new CellRangeAddress(rowNum-1, rowNum-1, 0, 4));
 
@@ -501,14 +552,13 @@ public class ReportGenerationService {
             cell.setCellStyle(headerStyle);
         }
 
-        // Get income data
-        List<Income> incomes = incomeRepository.findByCustomerEmailAndDateBetween(email, startDate, endDate);
-
-        // Sort by date (newest first)
-        incomes.sort(Comparator.comparing(Income::getDate).reversed());
+        // Track the longest text per column so widths can be set without autoSizeColumn
+        int[] maxChars = new int[columns.length];
 
-        // Add income rows
-        for (Income income : incomes) {
+        // Add income rows, streamed newest first
+        while (incomes.hasNext()) {
+            IncomeResponse income = incomes.next();
+            String tags = income.getTags() != null ? String.join(",", income.getTags()) : "";
             Row row = sheet.createRow(rowNum++);
 
             // Date
@@ -533,8 +583,16 @@ public class ReportGenerationService {
 
             // Tags
             Cell tagsCell = row.createCell(4);
-            tagsCell.setCellValue(income.getTags() != null ? income.getTags() : "");
+            tagsCell.setCellValue(tags);
             tagsCell.setCellStyle(dataStyle);
+
+            maxChars[1] = Math.max(maxChars[1], length(income.getSource()));
+            maxChars[3] = Math.max(maxChars[3], length(income.getDescription()));
+            maxChars[4] = Math.max(maxChars[4], tags.length());
+        }
+
+        for (int i = 0; i < maxChars.length; i++) {
+            fitColumnWidth(sheet, i, maxChars[i]);
         }
 
         rowNum += 2;
@@ -555,21 +613,8 @@ public class ReportGenerationService {
         amountHeaderCell.setCellValue("Total Amount");
         amountHeaderCell.setCellStyle(headerStyle);
 
-        // Group incomes by source
-        Map<String, Double> incomesBySource = incomes.stream()
-                .collect(Collectors.groupingBy(
-                        Income::getSource,
-                        Collectors.summingDouble(Income::getAmount)
-                ));
-
-        // Sort by amount (descending)
-        List<Map.Entry<String, Double>> sortedIncomes = incomesBySource.entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .collect(Collectors.toList());
-
-        // Add source summary rows
-        for (Map.Entry<String, Double> entry : sortedIncomes) {
+        // Add source summary rows, largest first
+        for (Map.Entry<String, Double> entry : data.getIncomesBySource().entrySet()) {
             Row row = sheet.createRow(rowNum++);
 
             Cell sourceCell = row.createCell(0);
@@ -588,16 +633,13 @@ public class ReportGenerationService {
         totalLabel.setCellStyle(headerStyle);
 
         Cell totalValue = totalRow.createCell(1);
-        double total = sortedIncomes.stream().mapToDouble(Map.Entry::getValue).sum();
-        totalValue.setCellValue(total);
+        totalValue.setCellValue(data.getTotalIncome());
         totalValue.setCellStyle(currencyStyle);
     }
 
     private void createBudgetAnalysisSheet(
             Sheet sheet,
-            String email,
-            LocalDate startDate,
-            LocalDate endDate,
+            ReportDataSnapshot data,
             CellStyle titleStyle,
             CellStyle headerStyle,
             CellStyle dataStyle,
@@ -624,7 +666,7 @@ public class ReportGenerationService {
         Row dateRow = sheet.createRow(rowNum++);
         Cell dateRangeCell = dateRow.createCell(0);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
-        dateRangeCell.setCellValue("Period: " + startDate.format(formatter) + " - " + endDate.format(formatter));
+        dateRangeCell.setCellValue("Period: " + data.getStartDate().format(formatter) + " - " + data.getEndDate().format(formatter));
         dateRangeCell.setCellStyle(headerStyle);
         sheet.addMergedRegion(new CellRangeAddress(rowNum-1, rowNum-1, 0, 4));
 
@@ -640,27 +682,17 @@ public class ReportGenerationService {
             cell.setCellStyle(headerStyle);
         }
 
-        // Get budget data
-        List<Budget> budgets = budgetRepository.findByCustomerEmail(email);
-
-        // Get actual expenses
-        List<Expense> expenses = expenseRepository.findByCustomerEmailAndDateBetween(email, startDate, endDate);
-
-        // Calculate actual expenses by category
-        Map<String, Double> actualExpensesByCategory = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getCategory,
-                        Collectors.summingDouble(Expense::getAmount)
-                ));
+        Map<String, Double> actualExpensesByCategory = data.getExpensesByCategory();
 
         // Create comparison rows
-        for (Budget budget : budgets) {
+        for (Budget budget : data.getBudgets()) {
             Row row = sheet.createRow(rowNum++);
 
             // Category
             Cell categoryCell = row.createCell(0);
             categoryCell.setCellValue(budget.getCategory());
             categoryCell.setCellStyle(dataStyle);
+            fitColumnWidth(sheet, 0, length(budget.getCategory()));
 
             // Budget Amount
             Cell budgetCell = row.createCell(1);
@@ -704,11 +736,12 @@ public class ReportGenerationService {
             return insights;
         }
 
-        // Calculate totals
-        double totalIncome = incomes.stream().mapToDouble(Income::getAmount).sum();
-        double totalExpense = expenses.stream().mapToDouble(Expense::getAmount).sum();
-        double netSavings = totalIncome - totalExpense;
-        double savingsRate = totalIncome > 0 ? (netSavings / totalIncome) * 100 : 0;
+        // Aggregate everything in one pass
+        List<Budget> budgets = budgetRepository.findByCustomerEmail(email);
+        ReportDataSnapshot data = ReportDataSnapshot.fromRows(startDate, endDate, expenses, incomes, budgets);
+
+        double totalExpense = data.getTotalExpense();
+        double savingsRate = data.getSavingsRate();
 
         // 1. Savings Rate Insight
         FinancialInsight savingsInsight = new FinancialInsight();
@@ -735,16 +768,10 @@ public class ReportGenerationService {
 
         // 2. Top Spending Category Insight
         if (!expenses.isEmpty()) {
-            Map<String, Double> expensesByCategory = expenses.stream()
-                    .collect(Collectors.groupingBy(
-                            Expense::getCategory,
-                            Collectors.summingDouble(Expense::getAmount)
-                    ));
-
-            // Find the top category
-            Map.Entry<String, Double> topCategory = expensesByCategory.entrySet()
+            // Categories are sorted by amount, so the first one is the top category
+            Map.Entry<String, Double> topCategory = data.getExpensesByCategory().entrySet()
                     .stream()
-                    .max(Map.Entry.comparingByValue())
+                    .findFirst()
                     .orElse(null);
 
             if (topCategory != null) {
@@ -773,13 +800,8 @@ public class ReportGenerationService {
         }
 
         // 3. Budget Adherence Insight
-        List<Budget> budgets = budgetRepository.findByCustomerEmail(email);
         if (!budgets.isEmpty() && !expenses.isEmpty()) {
-            Map<String, Double> actualExpensesByCategory = expenses.stream()
-                    .collect(Collectors.groupingBy(
-                            Expense::getCategory,
-                            Collectors.summingDouble(Expense::getAmount)
-                    ));
+            Map<String, Double> actualExpensesByCategory = data.getExpensesByCategory();
 
             int overBudgetCount = 0;
             String overBudgetCategory = null;
@@ -826,23 +848,12 @@ public class ReportGenerationService {
 
         // 4. Day-to-day spending insights
         if (!expenses.isEmpty()) {
-            // Sort expenses by date
-            List<Expense> sortedExpenses = new ArrayList<>(expenses);
-            sortedExpenses.sort(Comparator.comparing(expense -> expense.getDate()));
-
             // Calculate average daily spending
             long daysBetween = ChronoUnit.DAYS.between(startDate, endDate) + 1;
             double avgDailySpending = totalExpense / daysBetween;
 
-            // Group expenses by day to find peak spending days
-            Map<LocalDate, Double> expensesByDay = expenses.stream()
-                    .collect(Collectors.groupingBy(
-                            expense -> expense.getDate().toLocalDate(),
-                            Collectors.summingDouble(Expense::getAmount)
-                    ));
-
             // Find the day with highest spending
-            Map.Entry<LocalDate, Double> peakDay = expensesByDay.entrySet()
+            Map.Entry<LocalDate, Double> peakDay = data.getExpensesByDay().entrySet()
                     .stream()
                     .max(Map.Entry.comparingByValue())
                     .orElse(null);
@@ -868,34 +879,19 @@ public class ReportGenerationService {
     public List<MonthlySummary> generateMonthlySummary(String email, int months) {
         List<MonthlySummary> summary = new ArrayList<>();
 
-        // Calculate date range
-        LocalDate now = LocalDate.now();
-        LocalDate startDate = now.minusMonths(months - 1).withDayOfMonth(1);
-
-        // Get all expenses and incomes in the range
-        List<Expense> expenses = expenseRepository.findByCustomerEmailAndDateAfter(
-                email, startDate.atStartOfDay());
-
-        List<Income> incomes = incomeRepository.findByCustomerEmailAndDateAfter(
-                email, startDate);
+        // Calculate month range
+        YearMonth currentMonth = YearMonth.now();
+        YearMonth firstMonth = currentMonth.minusMonths(Math.max(months, 1) - 1);
 
-        // Generate data for each month
-        for (int i = 0; i < months; i++) {
-            YearMonth yearMonth = YearMonth.from(now.minusMonths(i));
-            LocalDate monthStart = yearMonth.atDay(1);
-            LocalDate monthEnd = yearMonth.atEndOfMonth();
+        // Monthly totals come from the rollup, oldest month first
+        Map<YearMonth, Double> expenseTotals = monthlyRollupService.getMonthlyTotals(
+                email, LedgerEntryType.EXPENSE, firstMonth, currentMonth);
+        Map<YearMonth, Double> incomeTotals = monthlyRollupService.getMonthlyTotals(
+                email, LedgerEntryType.INCOME, firstMonth, currentMonth);
 
-            // Filter expenses for this month
-            double monthlyExpense = expenses.stream()
-                    .filter(e -> isDateInRange(e.getDate().toLocalDate(), monthStart, monthEnd))
-                    .mapToDouble(Expense::getAmount)
-                    .sum();
-
-            // Filter incomes for this month
-            double monthlyIncome = incomes.stream()
-                    .filter(inc -> isDateInRange(inc.getDate(), monthStart, monthEnd))
-                    .mapToDouble(Income::getAmount)
-                    .sum();
+        for (YearMonth yearMonth : expenseTotals.keySet()) {
+            double monthlyExpense = expenseTotals.get(yearMonth);
+            double monthlyIncome = incomeTotals.getOrDefault(yearMonth, 0.0);
 
             // Calculate net amount and savings rate
             double netAmount = monthlyIncome - monthlyExpense;
@@ -912,21 +908,29 @@ public class ReportGenerationService {
             summary.add(monthlySummary);
         }
 
-        // Sort by month (oldest first)
-        summary.sort(Comparator.comparing(s -> YearMonth.parse(s.getMonth(),
-                DateTimeFormatter.ofPattern("MMM yyyy"))));
-
         return summary;
     }
 
-    private boolean isDateInRange(LocalDate date, LocalDate start, LocalDate end) {
-        return !date.isBefore(start) && !date.isAfter(end);
-    }
-
     private String formatCurrency(double amount) {
         return String.format("₹%.2f", amount);
     }
 
+    /**
+     * Widen a column to fit the longest value written to it. The width is derived
+     * from the character count instead of measuring every cell like autoSizeColumn,
+     * which would need all rows in memory.
+     */
+    private void fitColumnWidth(Sheet sheet, int column, int maxChars) {
+        int width = Math.min((maxChars + 2) * 256, MAX_COLUMN_WIDTH);
+        if (width > sheet.getColumnWidth(column)) {
+            sheet.setColumnWidth(column, width);
+        }
+    }
+
+    private int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
     private CellStyle createHeaderStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         Font font = workbook.createFont();
@@ -0,0 +1,118 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.dto.ReportJobStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory state of one asynchronous report build. Written by the worker thread and read
+ * by status requests, so every mutable field is volatile.
+ */
+public class ReportJob {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    private final String id;
+    private final String email;
+    private final String fileName;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    // Clients following the job over server-sent events
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile State state = State.QUEUED;
+    private volatile int progress;
+    private volatile String stage = "Queued";
+    private volatile String message;
+    private volatile Path file;
+    private volatile LocalDateTime completedAt;
+
+    public ReportJob(String id, String email, String fileName) {
+        this.id = id;
+        this.email = email;
+        this.fileName = fileName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public List<SseEmitter> getSubscribers() {
+        return subscribers;
+    }
+
+    void started() {
+        state = State.RUNNING;
+    }
+
+    void progressed(int percent, String stage) {
+        this.progress = percent;
+        this.stage = stage;
+    }
+
+    void completed(Path file) {
+        this.file = file;
+        this.progress = 100;
+        this.stage = "Completed";
+        this.completedAt = LocalDateTime.now();
+        this.state = State.COMPLETED;
+    }
+
+    void failed(String message) {
+        this.message = message;
+        this.stage = "Failed";
+        this.completedAt = LocalDateTime.now();
+        this.state = State.FAILED;
+    }
+
+    public ReportJobStatus toStatus(Duration ttl) {
+        ReportJobStatus status = new ReportJobStatus();
+        status.setJobId(id);
+        status.setStatus(state.name());
+        status.setProgress(progress);
+        status.setStage(stage);
+        status.setMessage(message);
+        status.setCreatedAt(createdAt);
+        status.setCompletedAt(completedAt);
+        if (completedAt != null) {
+            status.setExpiresAt(completedAt.plus(ttl));
+        }
+        if (state == State.COMPLETED) {
+            status.setDownloadUrl("/api/reports/jobs/" + id + "/download");
+        }
+        return status;
+    }
+}
@@ -0,0 +1,214 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.dto.ReportJobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds Excel reports in the background. Jobs run on a small dedicated worker pool, so
+ * heavy exports never occupy request threads, and each user may only have a few jobs
+ * queued or running at once. Finished workbooks are kept in a local directory until
+ * their time to live expires. Job state is held in memory; files left over from a
+ * previous run are removed on startup.
+ */
+@Service
+public class ReportJobService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    private final ReportGenerationService reportGenerationService;
+    private final ThreadPoolTaskExecutor workers;
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Path directory;
+    private final Duration ttl;
+    private final int maxActivePerUser;
+    private final long subscriptionTimeoutMillis;
+
+    public ReportJobService(
+            ReportGenerationService reportGenerationService,
+            @Value("${report.jobs.directory:${java.io.tmpdir}/fintrack-reports}") String directory,
+            @Value("${report.jobs.workers:2}") int workerCount,
+            @Value("${report.jobs.queue-capacity:50}") int queueCapacity,
+            @Value("${report.jobs.max-active-per-user:2}") int maxActivePerUser,
+            @Value("${report.jobs.ttl:PT1H}") Duration ttl,
+            @Value("${report.jobs.subscription-timeout:PT10M}") Duration subscriptionTimeout) throws IOException {
+        this.reportGenerationService = reportGenerationService;
+        this.directory = Paths.get(directory);
+        this.ttl = ttl;
+        this.maxActivePerUser = maxActivePerUser;
+        this.subscriptionTimeoutMillis = subscriptionTimeout.toMillis();
+
+        Files.createDirectories(this.directory);
+        deleteLeftoverFiles();
+
+        // Not a bean, so Boot's applicationTaskExecutor stays in place
+        this.workers = new ThreadPoolTaskExecutor();
+        this.workers.setThreadNamePrefix("report-");
+        this.workers.setCorePoolSize(workerCount);
+        this.workers.setMaxPoolSize(workerCount);
+        this.workers.setQueueCapacity(queueCapacity);
+        this.workers.initialize();
+    }
+
+    /**
+     * Queue a report build for the user.
+     *
+     * @throws ResponseStatusException 429 when the user already has the maximum number of
+     *                                 active jobs, 503 when the worker queue is full
+     */
+    public ReportJob submit(String email, LocalDate startDate, LocalDate endDate, String reportTitle,
+                            boolean includeExpenses, boolean includeIncomes, boolean includeBudgets) {
+        String id = UUID.randomUUID().toString();
+        ReportJob job = new ReportJob(id, email, "financial_report_" + startDate + "_to_" + endDate + ".xlsx");
+
+        // Check and register under one lock so concurrent submits cannot both pass the limit
+        synchronized (jobs) {
+            long active = jobs.values().stream()
+                    .filter(existing -> existing.getEmail().equals(email) && !existing.getState().isFinished())
+                    .count();
+            if (active >= maxActivePerUser) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "You already have " + active + " reports in progress");
+            }
+            jobs.put(id, job);
+        }
+
+        try {
+            workers.execute(() -> run(job, startDate, endDate, reportTitle,
+                    includeExpenses, includeIncomes, includeBudgets));
+        } catch (TaskRejectedException e) {
+            jobs.remove(id);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Report generation is busy, please try again later");
+        }
+        logger.info("Queued report job {} for email: {}", id, email);
+        return job;
+    }
+
+    /**
+     * The job with this id if it belongs to the user, otherwise null.
+     */
+    public ReportJob find(String email, String id) {
+        ReportJob job = jobs.get(id);
+        return job != null && job.getEmail().equals(email) ? job : null;
+    }
+
+    public ReportJobStatus status(ReportJob job) {
+        return job.toStatus(ttl);
+    }
+
+    /**
+     * Server-sent event stream of the job's progress. The current status is sent right away;
+     * the stream completes after the final status.
+     */
+    public SseEmitter subscribe(ReportJob job) {
+        SseEmitter emitter = new SseEmitter(subscriptionTimeoutMillis);
+        emitter.onCompletion(() -> job.getSubscribers().remove(emitter));
+        emitter.onTimeout(() -> job.getSubscribers().remove(emitter));
+        emitter.onError(error -> job.getSubscribers().remove(emitter));
+        job.getSubscribers().add(emitter);
+        // Covers a job that finished between the lookup and the subscription
+        publish(job);
+        return emitter;
+    }
+
+    private void run(ReportJob job, LocalDate startDate, LocalDate endDate, String reportTitle,
+                     boolean includeExpenses, boolean includeIncomes, boolean includeBudgets) {
+        job.started();
+        publish(job);
+
+        Path file = directory.resolve(job.getId() + ".xlsx");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                reportGenerationService.writeExcelReport(
+                        job.getEmail(), startDate, endDate, reportTitle,
+                        includeExpenses, includeIncomes, includeBudgets, out,
+                        (percent, stage) -> {
+                            job.progressed(percent, stage);
+                            publish(job);
+                        });
+            }
+            job.completed(file);
+            logger.info("Report job {} completed", job.getId());
+        } catch (Exception e) {
+            logger.error("Report job {} failed: {}", job.getId(), e.getMessage(), e);
+            deleteQuietly(file);
+            job.failed("Report generation failed");
+        }
+        publish(job);
+    }
+
+    private void publish(ReportJob job) {
+        ReportJobStatus status = job.toStatus(ttl);
+        boolean finished = job.getState().isFinished();
+        for (SseEmitter emitter : job.getSubscribers()) {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(status));
+                if (finished) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                job.getSubscribers().remove(emitter);
+            }
+        }
+    }
+
+    /**
+     * Drop finished jobs and their files once the time to live has passed.
+     */
+    @Scheduled(fixedRateString = "${report.jobs.cleanup-interval-ms:300000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.getState().isFinished() && job.getCompletedAt().isBefore(cutoff);
+            if (expired && job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            return expired;
+        });
+    }
+
+    private void deleteLeftoverFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.xlsx")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete report file {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,184 @@
+package com.personalfinancetracker.backend.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generated Excel reports, addressed by a hash of the report parameters and the user's
+ * {@link DataVersionService data version}. Any change to the user's data moves the version,
+ * so entries never need invalidating; old ones simply stop being asked for and age out.
+ * <p>
+ * Every entry is kept as a file, and small ones are also held in memory. Both tiers are
+ * bounded in bytes and evict the least recently used entry first. Files from a previous run
+ * are removed on startup because their versions can no longer come up.
+ */
+@Service
+public class ReportOutputCache {
+    private static final Logger logger = LoggerFactory.getLogger(ReportOutputCache.class);
+
+    private final DataVersionService dataVersionService;
+    private final Path directory;
+    private final long maxDiskBytes;
+    private final long maxMemoryBytes;
+    private final long maxMemoryEntryBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry. Guarded by this.
+    private final LinkedHashMap<String, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, byte[]> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskBytes;
+    private long memoryBytes;
+
+    public ReportOutputCache(
+            DataVersionService dataVersionService,
+            @Value("${report.cache.directory:${java.io.tmpdir}/fintrack-report-cache}") String directory,
+            @Value("${report.cache.max-disk-size:512MB}") DataSize maxDiskSize,
+            @Value("${report.cache.max-memory-size:32MB}") DataSize maxMemorySize,
+            @Value("${report.cache.max-memory-entry-size:2MB}") DataSize maxMemoryEntrySize) throws IOException {
+        this.dataVersionService = dataVersionService;
+        this.directory = Paths.get(directory);
+        this.maxDiskBytes = maxDiskSize.toBytes();
+        this.maxMemoryBytes = maxMemorySize.toBytes();
+        this.maxMemoryEntryBytes = maxMemoryEntrySize.toBytes();
+
+        Files.createDirectories(this.directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * A report, either in memory ({@code bytes}) or on disk ({@code file}). A {@code temporary}
+     * file was too large to cache; the caller owns it and deletes it once it has been sent.
+     */
+    public record Entry(String key, byte[] bytes, Path file, boolean temporary) {
+    }
+
+    /**
+     * The cache key of a report for the user's current data, also usable as its ETag value.
+     */
+    public String key(String email, LocalDate startDate, LocalDate endDate, String reportTitle,
+                      Boolean includeExpenses, Boolean includeIncomes, Boolean includeBudgets) {
+        String parameters = String.join("\n",
+                email,
+                String.valueOf(startDate),
+                String.valueOf(endDate),
+                String.valueOf(reportTitle),
+                String.valueOf(includeExpenses),
+                String.valueOf(includeIncomes),
+                String.valueOf(includeBudgets),
+                String.valueOf(dataVersionService.currentVersion(email)));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(parameters.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The cached report for the key, or null.
+     */
+    public synchronized Entry get(String key) {
+        byte[] bytes = memoryEntries.get(key);
+        if (bytes != null) {
+            diskEntries.get(key); // keep the file tier's order in step
+            return new Entry(key, bytes, null, false);
+        }
+        if (diskEntries.get(key) == null) {
+            return null;
+        }
+        Path file = fileFor(key);
+        if (!Files.isRegularFile(file)) {
+            diskEntries.remove(key);
+            return null;
+        }
+        return new Entry(key, null, file, false);
+    }
+
+    /**
+     * A file to write a new report to before handing it to {@link #put}.
+     */
+    public Path newTempFile() throws IOException {
+        return Files.createTempFile(directory, "report-", ".part");
+    }
+
+    /**
+     * Take ownership of a finished report file and cache it under the key. A file larger than
+     * the whole cache is handed back as a {@link Entry#temporary() temporary} entry instead.
+     */
+    public Entry put(String key, Path finishedFile) throws IOException {
+        long size = Files.size(finishedFile);
+        if (size > maxDiskBytes) {
+            return new Entry(key, null, finishedFile, true);
+        }
+        Path file = fileFor(key);
+        Files.move(finishedFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        byte[] bytes = size <= maxMemoryEntryBytes ? Files.readAllBytes(file) : null;
+
+        synchronized (this) {
+            Long previous = diskEntries.put(key, size);
+            diskBytes += size - (previous != null ? previous : 0);
+            if (bytes != null) {
+                byte[] replaced = memoryEntries.put(key, bytes);
+                memoryBytes += bytes.length - (replaced != null ? replaced.length : 0);
+            }
+            evict(key);
+        }
+        return new Entry(key, bytes, file, false);
+    }
+
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, byte[]>> memory = memoryEntries.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && memory.hasNext()) {
+            Map.Entry<String, byte[]> eldest = memory.next();
+            if (!eldest.getKey().equals(keep)) {
+                memoryBytes -= eldest.getValue().length;
+                memory.remove();
+            }
+        }
+
+        Iterator<Map.Entry<String, Long>> disk = diskEntries.entrySet().iterator();
+        while (diskBytes > maxDiskBytes && disk.hasNext()) {
+            Map.Entry<String, Long> eldest = disk.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            diskBytes -= eldest.getValue();
+            disk.remove();
+            byte[] bytes = memoryEntries.remove(eldest.getKey());
+            if (bytes != null) {
+                memoryBytes -= bytes.length;
+            }
+            // Readers that already opened the file keep their handle on POSIX file systems
+            try {
+                Files.deleteIfExists(fileFor(eldest.getKey()));
+            } catch (IOException e) {
+                logger.warn("Could not delete cached report {}: {}", eldest.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private Path fileFor(String key) {
+        return directory.resolve(key + ".xlsx");
+    }
+}
@@ -0,0 +1,16 @@
+package com.personalfinancetracker.backend.services;
+
+/**
+ * Receives progress while a report is being built.
+ */
+@FunctionalInterface
+public interface ReportProgress {
+
+    ReportProgress NONE = (percent, stage) -> { };
+
+    /**
+     * @param percent 0 to 100
+     * @param stage   short description of the current step
+     */
+    void update(int percent, String stage);
+}
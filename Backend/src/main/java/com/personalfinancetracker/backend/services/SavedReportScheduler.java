@@ -0,0 +1,291 @@
+package com.personalfinancetracker.backend.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personalfinancetracker.backend.entities.SavedReport;
+import com.personalfinancetracker.backend.repository.SavedReportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs saved report configurations on their cron schedule and keeps the latest workbook of
+ * each, so large exports are built ahead of time. Workbooks are spooled to a local file and
+ * then stored in the database (saved_report_output, in 1MB chunks to stay under the
+ * server's packet limit), so every instance can serve them and they survive restarts.
+ * <p>
+ * Runs are held back to an off-peak window: a schedule that fires outside the window is
+ * moved to the next window start. Due reports are claimed with a conditional update of
+ * next_run_at, so each run happens once even with several instances polling, and a
+ * schedule missed while the application was down runs once rather than catching up.
+ * <p>
+ * The configuration is a JSON object with either {@code startDate}/{@code endDate}
+ * (yyyy-MM-dd) or a relative {@code period} (see {@link Period}), plus the optional
+ * {@code includeExpenses}, {@code includeIncomes} and {@code includeBudgets} flags.
+ */
+@Service
+public class SavedReportScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(SavedReportScheduler.class);
+
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * Report ranges relative to the day of the run.
+     */
+    public enum Period {
+        CURRENT_MONTH, PREVIOUS_MONTH, LAST_3_MONTHS, LAST_6_MONTHS, LAST_12_MONTHS, YEAR_TO_DATE
+    }
+
+    private final SavedReportRepository savedReportRepository;
+    private final ReportGenerationService reportGenerationService;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final boolean offPeakOnly;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+
+    public SavedReportScheduler(
+            SavedReportRepository savedReportRepository,
+            ReportGenerationService reportGenerationService,
+            ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${report.schedule.directory:${java.io.tmpdir}/fintrack-scheduled-reports}") String directory,
+            @Value("${report.schedule.off-peak-only:true}") boolean offPeakOnly,
+            @Value("${report.schedule.window-start:01:00}") LocalTime windowStart,
+            @Value("${report.schedule.window-end:05:00}") LocalTime windowEnd) throws IOException {
+        this.savedReportRepository = savedReportRepository;
+        this.reportGenerationService = reportGenerationService;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.directory = Paths.get(directory);
+        this.offPeakOnly = offPeakOnly;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+
+        Files.createDirectories(this.directory);
+    }
+
+    /**
+     * Set or clear (null or blank cron) the schedule of a saved report. The caller saves the entity.
+     *
+     * @throws ResponseStatusException 400 when the cron expression is invalid or the
+     *                                 configuration does not describe a date range
+     */
+    public void applySchedule(SavedReport report, String cron) {
+        if (cron == null || cron.isBlank()) {
+            report.setScheduleCron(null);
+            report.setNextRunAt(null);
+            return;
+        }
+        if (!CronExpression.isValidExpression(cron.trim())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Invalid schedule, expected a cron expression such as '0 0 2 * * MON'");
+        }
+        resolveRange(report.getConfiguration(), LocalDate.now());
+
+        report.setScheduleCron(cron.trim());
+        report.setNextRunAt(nextRun(report.getScheduleCron(), LocalDateTime.now()));
+    }
+
+    /**
+     * Whether the report has a successful output to download.
+     */
+    public boolean hasOutput(SavedReport report) {
+        return report.getOutputFileName() != null && !jdbcTemplate.queryForList(
+                "SELECT generated_at FROM saved_report_output WHERE saved_report_id = ? AND seq = 0",
+                Timestamp.class, report.getId()).isEmpty();
+    }
+
+    /**
+     * Copies the last successful output of the report to {@code out}, one chunk at a time, so
+     * neither the workbook nor a connection is held for the whole download.
+     *
+     * @throws IOException if there is no output, or a new run replaced it mid-download
+     */
+    public void writeOutput(Long reportId, OutputStream out) throws IOException {
+        Timestamp generatedAt = null;
+        for (int seq = 0; ; seq++) {
+            List<Map<String, Object>> chunk = jdbcTemplate.queryForList(
+                    "SELECT generated_at, content FROM saved_report_output WHERE saved_report_id = ? AND seq = ?",
+                    reportId, seq);
+            if (chunk.isEmpty()) {
+                if (seq == 0) {
+                    throw new IOException("Scheduled report " + reportId + " has no output");
+                }
+                return;
+            }
+            Timestamp chunkGeneratedAt = (Timestamp) chunk.get(0).get("generated_at");
+            if (generatedAt == null) {
+                generatedAt = chunkGeneratedAt;
+            } else if (!generatedAt.equals(chunkGeneratedAt)) {
+                throw new IOException("Scheduled report " + reportId + " was regenerated during the download");
+            }
+            out.write((byte[]) chunk.get(0).get("content"));
+        }
+    }
+
+    public void deleteOutput(Long reportId) {
+        jdbcTemplate.update("DELETE FROM saved_report_output WHERE saved_report_id = ?", reportId);
+    }
+
+    @Scheduled(fixedDelayString = "${report.schedule.poll-interval-ms:300000}", initialDelay = 60000)
+    public void runDueReports() {
+        LocalDateTime now = LocalDateTime.now();
+        if (offPeakOnly && !inWindow(now.toLocalTime())) {
+            return;
+        }
+
+        List<SavedReport> due = savedReportRepository
+                .findTop20ByScheduleCronIsNotNullAndNextRunAtLessThanEqualOrderByNextRunAtAsc(now);
+        for (SavedReport report : due) {
+            LocalDateTime next = nextRun(report.getScheduleCron(), now);
+            if (savedReportRepository.claimRun(report.getId(), report.getNextRunAt(), next) == 1) {
+                run(report);
+            }
+        }
+    }
+
+    private void run(SavedReport report) {
+        String email = report.getCustomer().getEmail();
+        LocalDate today = LocalDate.now();
+        Path partial = directory.resolve("saved-" + report.getId() + ".xlsx.part");
+        try {
+            JsonNode config = parse(report.getConfiguration());
+            LocalDate[] range = resolveRange(report.getConfiguration(), today);
+            String title = report.getReportTitle() != null ? report.getReportTitle() : "Financial Report";
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                reportGenerationService.writeExcelReport(email, range[0], range[1], title,
+                        config.path("includeExpenses").asBoolean(true),
+                        config.path("includeIncomes").asBoolean(true),
+                        config.path("includeBudgets").asBoolean(true),
+                        out);
+            }
+
+            String fileName = title.replaceAll("[^A-Za-z0-9._-]+", "_") + "_" + today + ".xlsx";
+            LocalDateTime ranAt = LocalDateTime.now();
+            // Downloads in progress keep reading the previous output until this commits
+            transactionTemplate.executeWithoutResult(status -> {
+                storeOutput(report.getId(), partial, ranAt);
+                savedReportRepository.recordRun(report.getId(), ranAt, STATUS_COMPLETED, fileName);
+            });
+            logger.info("Scheduled report {} generated for email: {}", report.getId(), email);
+        } catch (Exception e) {
+            logger.error("Scheduled report {} failed: {}", report.getId(), e.getMessage(), e);
+            // The previous output, if any, stays available
+            savedReportRepository.recordRun(report.getId(), LocalDateTime.now(), STATUS_FAILED,
+                    report.getOutputFileName());
+        } finally {
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // Overwritten by the next run
+            }
+        }
+    }
+
+    private void storeOutput(Long reportId, Path file, LocalDateTime generatedAt) {
+        deleteOutput(reportId);
+        Timestamp timestamp = Timestamp.valueOf(generatedAt);
+        byte[] buffer = new byte[CHUNK_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int seq = 0;
+            int length;
+            while ((length = in.readNBytes(buffer, 0, CHUNK_SIZE)) > 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO saved_report_output (saved_report_id, seq, generated_at, content) VALUES (?, ?, ?, ?)",
+                        reportId, seq++, timestamp, length == CHUNK_SIZE ? buffer : Arrays.copyOf(buffer, length));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The next time the cron expression fires after {@code from}, moved to the start of the
+     * off-peak window when it falls outside it.
+     */
+    LocalDateTime nextRun(String cron, LocalDateTime from) {
+        LocalDateTime next = CronExpression.parse(cron).next(from);
+        if (next == null || !offPeakOnly || inWindow(next.toLocalTime())) {
+            return next;
+        }
+        LocalDateTime sameDay = next.toLocalDate().atTime(windowStart);
+        return sameDay.isAfter(next) ? sameDay : sameDay.plusDays(1);
+    }
+
+    private boolean inWindow(LocalTime time) {
+        if (windowStart.isBefore(windowEnd)) {
+            return !time.isBefore(windowStart) && time.isBefore(windowEnd);
+        }
+        // Window wraps past midnight, e.g. 22:00-04:00
+        return !time.isBefore(windowStart) || time.isBefore(windowEnd);
+    }
+
+    private LocalDate[] resolveRange(String configuration, LocalDate today) {
+        JsonNode config = parse(configuration);
+        try {
+            if (config.hasNonNull("startDate") && config.hasNonNull("endDate")) {
+                return new LocalDate[]{
+                        LocalDate.parse(config.get("startDate").asText()),
+                        LocalDate.parse(config.get("endDate").asText())};
+            }
+            Period period = Period.valueOf(config.path("period").asText(Period.CURRENT_MONTH.name()));
+            LocalDate monthStart = today.withDayOfMonth(1);
+            return switch (period) {
+                case CURRENT_MONTH -> new LocalDate[]{monthStart, today};
+                case PREVIOUS_MONTH -> new LocalDate[]{monthStart.minusMonths(1), monthStart.minusDays(1)};
+                case LAST_3_MONTHS -> new LocalDate[]{monthStart.minusMonths(2), today};
+                case LAST_6_MONTHS -> new LocalDate[]{monthStart.minusMonths(5), today};
+                case LAST_12_MONTHS -> new LocalDate[]{monthStart.minusMonths(11), today};
+                case YEAR_TO_DATE -> new LocalDate[]{today.withDayOfYear(1), today};
+            };
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Report configuration needs startDate/endDate (yyyy-MM-dd) or a valid period");
+        }
+    }
+
+    private JsonNode parse(String configuration) {
+        if (configuration == null || configuration.isBlank()) {
+            return objectMapper.createObjectNode();
+        }
+        try {
+            return objectMapper.readTree(configuration);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Report configuration is not valid JSON");
+        }
+    }
+}
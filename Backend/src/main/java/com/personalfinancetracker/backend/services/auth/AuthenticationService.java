@@ -3,6 +3,7 @@ package com.personalfinancetracker.backend.services.auth;
 import com.personalfinancetracker.backend.entities.Customer;
 import com.personalfinancetracker.backend.repository.CustomerRepository;
 import com.personalfinancetracker.backend.utils.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,15 +25,18 @@ public class AuthenticationService implements UserDetailsService {
     private final CustomerRepository customerRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Autowired
     public AuthenticationService(
             CustomerRepository customerRepository,
             @Lazy PasswordEncoder passwordEncoder,
-            JwtUtil jwtUtil) {
+            JwtUtil jwtUtil,
+            VerifiedTokenCache verifiedTokenCache) {
         this.customerRepository = customerRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -73,6 +77,11 @@ public class AuthenticationService implements UserDetailsService {
         logger.info("Added token cookie for: {}", username);
     }
 
+    // Forget the cached verification of the token sent with this request
+    public void revokeToken(HttpServletRequest request) {
+        verifiedTokenCache.invalidate(jwtUtil.resolveToken(request));
+    }
+
     public void clearTokenCookie(HttpServletResponse response) {
         logger.debug("Clearing token cookie");
         jwtUtil.clearJwtCookie(response);
@@ -0,0 +1,113 @@
+package com.personalfinancetracker.backend.services.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers JWTs that have already been verified together with the user they belong to,
+ * so repeat requests with the same token skip both signature parsing and the customer lookup.
+ * Entries are keyed by a SHA-256 of the token and never outlive the token's own expiry.
+ */
+@Service
+public class VerifiedTokenCache {
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxEntries;
+
+    // A full cache is purged at most this often; scanning it on every miss costs more than the lookup it saves
+    private static final long FULL_PURGE_INTERVAL_MILLIS = 1000;
+    private volatile long lastFullPurge;
+
+    private record CachedToken(UserDetails userDetails, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+
+    /**
+     * Returns the cached user for this token, or null when the token has not been
+     * verified yet, has expired or was invalidated.
+     */
+    public UserDetails get(String token) {
+        String key = hash(token);
+        CachedToken cached = tokens.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            tokens.remove(key, cached);
+            return null;
+        }
+        return cached.userDetails();
+    }
+
+    public void put(String token, UserDetails userDetails, Date expiration) {
+        if (expiration == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        if (tokens.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            if (now - lastFullPurge >= FULL_PURGE_INTERVAL_MILLIS) {
+                lastFullPurge = now;
+                purgeExpired();
+            }
+            if (tokens.size() >= maxEntries) {
+                logger.debug("Verified token cache is full ({} entries), not caching", tokens.size());
+                return;
+            }
+        }
+        // Keep only what the security context needs; the password hash stays in the database
+        UserDetails principal = new User(userDetails.getUsername(), "", userDetails.getAuthorities());
+        tokens.put(hash(token), new CachedToken(principal, expiration.getTime()));
+    }
+
+    public void invalidate(String token) {
+        if (token != null && tokens.remove(hash(token)) != null) {
+            logger.debug("Invalidated cached token");
+        }
+    }
+
+    /**
+     * Drops every cached token of a user, e.g. after a password change.
+     */
+    public void invalidateUser(String email) {
+        if (email == null) {
+            return;
+        }
+        int before = tokens.size();
+        tokens.values().removeIf(cached -> email.equals(cached.userDetails().getUsername()));
+        logger.debug("Invalidated {} cached token(s) for: {}", before - tokens.size(), email);
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        tokens.values().removeIf(cached -> cached.isExpired(now));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
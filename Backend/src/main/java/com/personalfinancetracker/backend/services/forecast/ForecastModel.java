@@ -0,0 +1,33 @@
+package com.personalfinancetracker.backend.services.forecast;
+
+/**
+ * Fitted exponential smoothing state of a monthly series. Projecting from it is plain arithmetic.
+ *
+ * @param seasonals        additive seasonal offsets, one per month of the cycle; empty when the
+ *                         model has no seasonality
+ * @param nextSeasonIndex  index into {@code seasonals} of the first month after the history
+ */
+public record ForecastModel(String method, double level, double trend, double damping,
+                            double[] seasonals, int nextSeasonIndex) {
+
+    public static final String AVERAGE = "average";
+    public static final String HOLT = "holt";
+    public static final String HOLT_WINTERS = "holt-winters";
+
+    /**
+     * Projected value {@code horizon} months after the last month of the history (1 = the next month).
+     */
+    public double forecast(int horizon) {
+        double dampedSteps = 0;
+        double factor = 1;
+        for (int step = 1; step <= horizon; step++) {
+            factor *= damping;
+            dampedSteps += factor;
+        }
+        double value = level + dampedSteps * trend;
+        if (seasonals.length > 0) {
+            value += seasonals[(nextSeasonIndex + horizon - 1) % seasonals.length];
+        }
+        return value;
+    }
+}
@@ -0,0 +1,134 @@
+package com.personalfinancetracker.backend.services.forecast;
+
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import com.personalfinancetracker.backend.repository.ExpenseRepository;
+import com.personalfinancetracker.backend.services.DataVersionService;
+import com.personalfinancetracker.backend.services.MonthlyRollupService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Income and expense forecasts per user. Models are fitted on the monthly totals kept in the
+ * monthly rollup, which writes already maintain incrementally, using completed months only.
+ * The fitted models are cached under the user's {@link DataVersionService data version} and
+ * the current day, so a repeated forecast costs no queries until the user's data changes.
+ */
+@Service
+public class ForecastService {
+
+    // Months of history behind the "average" figures, as before the models were introduced
+    private static final int AVERAGE_MONTHS = 6;
+
+    private final MonthlyRollupService monthlyRollupService;
+    private final ExpenseRepository expenseRepository;
+    private final DataVersionService dataVersionService;
+    private final int historyMonths;
+    private final Map<String, CachedForecast> cache;
+
+    public ForecastService(MonthlyRollupService monthlyRollupService,
+                           ExpenseRepository expenseRepository,
+                           DataVersionService dataVersionService,
+                           @Value("${forecast.history-months:36}") int historyMonths,
+                           @Value("${forecast.cache.max-entries:10000}") int maxEntries) {
+        this.monthlyRollupService = monthlyRollupService;
+        this.expenseRepository = expenseRepository;
+        this.dataVersionService = dataVersionService;
+        this.historyMonths = historyMonths;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedForecast> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Fitted models and the current-month figures for the user.
+     *
+     * @param income                 model of monthly income; horizon 1 is the current month
+     * @param expense                model of monthly expenses; horizon 1 is the current month
+     * @param avgMonthlyIncome       average over the recent months that had income
+     * @param avgMonthlyExpense      average over the recent months that had expenses
+     * @param recurringExpenses      recurring expenses recorded so far this month
+     * @param currentMonthSavings    income minus expenses so far this month
+     */
+    public record Forecast(ForecastModel income, ForecastModel expense,
+                           double avgMonthlyIncome, double avgMonthlyExpense,
+                           double recurringExpenses, double currentMonthSavings) {
+    }
+
+    private record CachedForecast(long version, LocalDate day, Forecast forecast) {
+    }
+
+    public Forecast getForecast(String email) {
+        long version = dataVersionService.currentVersion(email);
+        LocalDate today = LocalDate.now();
+        synchronized (cache) {
+            CachedForecast cached = cache.get(email);
+            if (cached != null && cached.version() == version && cached.day().equals(today)) {
+                return cached.forecast();
+            }
+        }
+
+        Forecast forecast = build(email, today);
+        synchronized (cache) {
+            cache.put(email, new CachedForecast(version, today, forecast));
+        }
+        return forecast;
+    }
+
+    private Forecast build(String email, LocalDate today) {
+        YearMonth current = YearMonth.from(today);
+        YearMonth from = current.minusMonths(historyMonths);
+        double[] incomes = toArray(monthlyRollupService.getMonthlyTotals(email, LedgerEntryType.INCOME, from, current));
+        double[] expenses = toArray(monthlyRollupService.getMonthlyTotals(email, LedgerEntryType.EXPENSE, from, current));
+
+        // Months before the first entry are not zero spending, they are before the user started
+        int first = 0;
+        while (first < incomes.length - 1 && incomes[first] == 0 && expenses[first] == 0) {
+            first++;
+        }
+        int last = incomes.length - 1;
+        // Without a completed month, the current one is the best there is
+        int end = last > first ? last : last + 1;
+
+        double recurring = expenseRepository.sumRecurring(email,
+                current.atDay(1).atStartOfDay(), today.plusDays(1).atStartOfDay());
+
+        return new Forecast(
+                SeriesForecaster.fit(slice(incomes, first, end)),
+                SeriesForecaster.fit(slice(expenses, first, end)),
+                averageOfActiveMonths(incomes, last - AVERAGE_MONTHS),
+                averageOfActiveMonths(expenses, last - AVERAGE_MONTHS),
+                recurring,
+                incomes[last] - expenses[last]);
+    }
+
+    private static double[] toArray(Map<YearMonth, Double> totals) {
+        return totals.values().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    // Months [from, to); callers leave out the current month, which is still partial
+    private static double[] slice(double[] values, int from, int to) {
+        double[] result = new double[Math.max(0, to - from)];
+        System.arraycopy(values, from, result, 0, result.length);
+        return result;
+    }
+
+    private static double averageOfActiveMonths(double[] values, int from) {
+        double sum = 0;
+        int count = 0;
+        for (int i = Math.max(0, from); i < values.length; i++) {
+            if (values[i] != 0) {
+                sum += values[i];
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : 0;
+    }
+}
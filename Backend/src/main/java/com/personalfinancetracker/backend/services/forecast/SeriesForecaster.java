@@ -0,0 +1,110 @@
+package com.personalfinancetracker.backend.services.forecast;
+
+/**
+ * Fits exponential smoothing models to monthly totals, picking the smoothing factors with the
+ * lowest one-step-ahead squared error from a small grid. Two full years of history get
+ * additive Holt-Winters with a yearly season, shorter histories a damped Holt trend, and
+ * fewer than three months a plain average.
+ */
+public final class SeriesForecaster {
+
+    public static final int SEASON_LENGTH = 12;
+
+    // Damped trend, so a few steep months are not extrapolated indefinitely
+    private static final double DAMPING = 0.9;
+
+    private static final double[] ALPHAS = {0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9};
+    private static final double[] BETAS = {0.05, 0.1, 0.2, 0.3};
+    private static final double[] GAMMAS = {0.05, 0.1, 0.2, 0.4};
+
+    private SeriesForecaster() {
+    }
+
+    /**
+     * Fit a model to the series, oldest month first, with zero for months without entries.
+     */
+    public static ForecastModel fit(double[] history) {
+        if (history.length >= 2 * SEASON_LENGTH) {
+            return fitHoltWinters(history);
+        }
+        if (history.length >= 3) {
+            return fitHolt(history);
+        }
+        double sum = 0;
+        for (double value : history) {
+            sum += value;
+        }
+        double mean = history.length > 0 ? sum / history.length : 0;
+        return new ForecastModel(ForecastModel.AVERAGE, mean, 0, 1, new double[0], 0);
+    }
+
+    private static ForecastModel fitHolt(double[] y) {
+        ForecastModel best = null;
+        double bestError = Double.MAX_VALUE;
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                double level = y[0];
+                double trend = y[1] - y[0];
+                double error = 0;
+                for (int t = 1; t < y.length; t++) {
+                    double predicted = level + DAMPING * trend;
+                    error += (y[t] - predicted) * (y[t] - predicted);
+                    double previousLevel = level;
+                    level = alpha * y[t] + (1 - alpha) * predicted;
+                    trend = beta * (level - previousLevel) + (1 - beta) * DAMPING * trend;
+                }
+                if (error < bestError) {
+                    bestError = error;
+                    best = new ForecastModel(ForecastModel.HOLT, level, trend, DAMPING, new double[0], 0);
+                }
+            }
+        }
+        return best;
+    }
+
+    private static ForecastModel fitHoltWinters(double[] y) {
+        int m = SEASON_LENGTH;
+        double firstSeason = mean(y, 0, m);
+        double initialTrend = (mean(y, m, 2 * m) - firstSeason) / m;
+
+        ForecastModel best = null;
+        double bestError = Double.MAX_VALUE;
+        double[] seasonals = new double[m];
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                for (double gamma : GAMMAS) {
+                    double level = firstSeason;
+                    double trend = initialTrend;
+                    for (int i = 0; i < m; i++) {
+                        seasonals[i] = y[i] - firstSeason;
+                    }
+
+                    double error = 0;
+                    for (int t = m; t < y.length; t++) {
+                        int season = t % m;
+                        double predicted = level + DAMPING * trend + seasonals[season];
+                        error += (y[t] - predicted) * (y[t] - predicted);
+                        double previousLevel = level;
+                        level = alpha * (y[t] - seasonals[season]) + (1 - alpha) * (level + DAMPING * trend);
+                        trend = beta * (level - previousLevel) + (1 - beta) * DAMPING * trend;
+                        seasonals[season] = gamma * (y[t] - level) + (1 - gamma) * seasonals[season];
+                    }
+                    if (error < bestError) {
+                        bestError = error;
+                        best = new ForecastModel(ForecastModel.HOLT_WINTERS, level, trend, DAMPING,
+                                seasonals.clone(), y.length % m);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+}
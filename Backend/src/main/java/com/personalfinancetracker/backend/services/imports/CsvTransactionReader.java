@@ -0,0 +1,182 @@
+package com.personalfinancetracker.backend.services.imports;
+
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 CSV with a header row. Recognised columns (case-insensitive):
+ * {@code date} and {@code amount} (required), {@code type}, {@code category},
+ * {@code source}, {@code description} or {@code note}, and {@code id}.
+ * <p>
+ * Dates are ISO ({@code 2024-03-01} or {@code 2024-03-01T18:30:00}). Without a
+ * {@code type} column a negative amount is an expense and a positive one an income.
+ */
+public class CsvTransactionReader implements TransactionReader {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int lineNumber;
+
+    public CsvTransactionReader(Reader in) throws IOException {
+        this.reader = new BufferedReader(in);
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            // Tolerate a UTF-8 byte order mark in front of the first column name
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+        if (!columns.containsKey("date") || !columns.containsKey("amount")) {
+            throw new IllegalArgumentException("The CSV header must contain 'date' and 'amount' columns");
+        }
+    }
+
+    @Override
+    public ImportedTransaction next() throws IOException {
+        List<String> record = readRecord();
+        while (record != null && record.size() == 1 && record.get(0).isBlank()) {
+            record = readRecord();
+        }
+        if (record == null) {
+            return null;
+        }
+
+        String dateValue = column(record, "date");
+        String amountValue = column(record, "amount");
+        if (dateValue == null || amountValue == null) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": date and amount are required");
+        }
+
+        LocalDateTime date;
+        BigDecimal amount;
+        try {
+            date = parseDate(dateValue);
+            amount = new BigDecimal(amountValue.replace(" ", ""));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": unreadable date or amount");
+        }
+
+        LedgerEntryType type = parseType(column(record, "type"), amount);
+        String label = type == LedgerEntryType.INCOME && column(record, "source") != null
+                ? column(record, "source")
+                : column(record, "category");
+        String description = column(record, "description") != null
+                ? column(record, "description")
+                : column(record, "note");
+
+        return new ImportedTransaction(type, date, amount.abs(), label, description, column(record, "id"));
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String column(List<String> record, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private LedgerEntryType parseType(String value, BigDecimal amount) {
+        if (value == null) {
+            return amount.signum() < 0 ? LedgerEntryType.EXPENSE : LedgerEntryType.INCOME;
+        }
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "expense":
+            case "debit":
+                return LedgerEntryType.EXPENSE;
+            case "income":
+            case "credit":
+                return LedgerEntryType.INCOME;
+            default:
+                throw new IllegalArgumentException("Line " + lineNumber + ": unknown type '" + value + "'");
+        }
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (value.length() <= 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        return LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+
+    /**
+     * Reads one record, following quoted fields across line breaks.
+     *
+     * @return the fields, or null at the end of the input
+     */
+    private List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // A quoted field continues on the next physical line
+                String continuation = reader.readLine();
+                if (continuation == null) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": unterminated quoted field");
+                }
+                lineNumber++;
+                field.append('\n');
+                line = continuation;
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,20 @@
+package com.personalfinancetracker.backend.services.imports;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV,
+    OFX;
+
+    /**
+     * Resolves the format from an explicit name, falling back to the file extension
+     * (.ofx and .qfx are OFX, anything else is read as CSV).
+     */
+    public static ImportFormat resolve(String name, String filename) {
+        if (name != null && !name.isBlank()) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+        String lower = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".ofx") || lower.endsWith(".qfx") ? OFX : CSV;
+    }
+}
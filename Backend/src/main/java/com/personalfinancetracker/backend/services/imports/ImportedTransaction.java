@@ -0,0 +1,22 @@
+package com.personalfinancetracker.backend.services.imports;
+
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One parsed row of an uploaded statement, before it is mapped onto the expense or income table.
+ *
+ * @param amount      always positive, the direction is given by {@code type}
+ * @param label       expense category or income source as written in the file, may be null
+ * @param externalId  bank-assigned transaction id (OFX FITID) when the file has one
+ */
+public record ImportedTransaction(
+        LedgerEntryType type,
+        LocalDateTime date,
+        BigDecimal amount,
+        String label,
+        String description,
+        String externalId) {
+}
@@ -0,0 +1,115 @@
+package com.personalfinancetracker.backend.services.imports;
+
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Scanner;
+
+/**
+ * Reads the {@code <STMTTRN>} blocks of an OFX 1.x (SGML) or 2.x (XML) statement. The
+ * input is tokenized on {@code '<'}, so unclosed SGML elements and XML alike are handled
+ * without building a document tree. Negative amounts are expenses, positive ones incomes.
+ */
+public class OfxTransactionReader implements TransactionReader {
+
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter OFX_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final Scanner scanner;
+    private int transactionNumber;
+
+    public OfxTransactionReader(Reader in) {
+        this.scanner = new Scanner(in).useDelimiter("<");
+    }
+
+    @Override
+    public ImportedTransaction next() throws IOException {
+        String posted = null;
+        String amount = null;
+        String name = null;
+        String memo = null;
+        String fitId = null;
+        boolean inTransaction = false;
+
+        while (scanner.hasNext()) {
+            String token = scanner.next();
+            int close = token.indexOf('>');
+            if (close < 0) {
+                continue;
+            }
+            String tag = token.substring(0, close).trim().toUpperCase();
+            String value = token.substring(close + 1).trim();
+
+            if (tag.equals("STMTTRN")) {
+                inTransaction = true;
+                transactionNumber++;
+            } else if (!inTransaction) {
+                continue;
+            } else if (tag.equals("/STMTTRN")) {
+                return toTransaction(posted, amount, name, memo, fitId);
+            } else if (tag.equals("DTPOSTED")) {
+                posted = value;
+            } else if (tag.equals("TRNAMT")) {
+                amount = value;
+            } else if (tag.equals("NAME")) {
+                name = unescape(value);
+            } else if (tag.equals("MEMO")) {
+                memo = unescape(value);
+            } else if (tag.equals("FITID")) {
+                fitId = value;
+            }
+        }
+        if (scanner.ioException() != null) {
+            throw scanner.ioException();
+        }
+        return null;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return transactionNumber;
+    }
+
+    @Override
+    public void close() {
+        scanner.close();
+    }
+
+    private ImportedTransaction toTransaction(String posted, String amount, String name, String memo, String fitId) {
+        if (posted == null || amount == null) {
+            throw new IllegalArgumentException("Transaction " + transactionNumber + ": DTPOSTED and TRNAMT are required");
+        }
+        LocalDateTime date;
+        BigDecimal value;
+        try {
+            date = parseDate(posted);
+            // Some banks write a decimal comma
+            value = new BigDecimal(amount.replace(',', '.'));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Transaction " + transactionNumber + ": unreadable date or amount");
+        }
+        LedgerEntryType type = value.signum() < 0 ? LedgerEntryType.EXPENSE : LedgerEntryType.INCOME;
+        String description = memo != null && name != null && !memo.equals(name) ? name + " - " + memo
+                : name != null ? name : memo;
+        return new ImportedTransaction(type, date, value.abs(), null, description, fitId);
+    }
+
+    // YYYYMMDD[HHMMSS[.XXX]][[offset:TZ]], the time zone suffix is ignored
+    private static LocalDateTime parseDate(String value) {
+        String digits = value.length() >= 14 && Character.isDigit(value.charAt(13)) ? value.substring(0, 14) : null;
+        if (digits != null) {
+            return LocalDateTime.parse(digits, OFX_DATE_TIME);
+        }
+        return LocalDate.parse(value.substring(0, Math.min(8, value.length())), OFX_DATE).atStartOfDay();
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,230 @@
+package com.personalfinancetracker.backend.services.imports;
+
+import com.personalfinancetracker.backend.dto.DashboardEvent;
+import com.personalfinancetracker.backend.dto.ImportResult;
+import com.personalfinancetracker.backend.entities.ExpenseCategoryEnum;
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import com.personalfinancetracker.backend.services.DashboardEventService;
+import com.personalfinancetracker.backend.services.DataVersionService;
+import com.personalfinancetracker.backend.services.MonthlyRollupService;
+import com.personalfinancetracker.backend.utils.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Bulk import of bank statements. The upload is parsed row by row, every row gets a
+ * fingerprint, and new rows are written with batched JDBC inserts (rewritten into
+ * multi-row INSERTs by the driver) instead of one entity save per transaction.
+ * <p>
+ * A fingerprint is the SHA-256 of the row's content plus how many identical rows came
+ * before it in the same file, or of the bank's transaction id when the file has one.
+ * Re-importing a file, or an overlapping statement, therefore skips the rows already
+ * stored, while two genuinely identical purchases in one statement are both kept.
+ */
+@Service
+public class TransactionImportService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionImportService.class);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final String DEFAULT_INCOME_SOURCE = "Imported";
+
+    // The unique (customer_email, fingerprint) key turns a concurrent duplicate into a no-op
+    private static final String INSERT_EXPENSE_SQL =
+            "INSERT INTO expense (amount_minor, amount, category, date, customer_email, note, is_recurring, fingerprint) " +
+            "VALUES (?, ? / 100, ?, ?, ?, ?, 0, ?) ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String INSERT_INCOME_SQL =
+            "INSERT INTO income (amount_minor, amount, source, date, customer_email, description, is_recurring, fingerprint) " +
+            "VALUES (?, ? / 100, ?, ?, ?, ?, 0, ?) ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MonthlyRollupService monthlyRollupService;
+    private final DataVersionService dataVersionService;
+    private final DashboardEventService dashboardEventService;
+
+    public TransactionImportService(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    MonthlyRollupService monthlyRollupService,
+                                    DataVersionService dataVersionService,
+                                    DashboardEventService dashboardEventService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthlyRollupService = monthlyRollupService;
+        this.dataVersionService = dataVersionService;
+        this.dashboardEventService = dashboardEventService;
+    }
+
+    /**
+     * Imports every readable row of the statement for the given user in one transaction.
+     * Malformed rows are skipped and reported; they do not abort the import.
+     *
+     * @throws IllegalArgumentException if the file cannot be read as the given format at all
+     */
+    public ImportResult importTransactions(String email, InputStream input, ImportFormat format) throws IOException {
+        InputStreamReader text = new InputStreamReader(input, StandardCharsets.UTF_8);
+        ImportResult result = new ImportResult();
+
+        try (TransactionReader reader = format == ImportFormat.OFX
+                ? new OfxTransactionReader(text)
+                : new CsvTransactionReader(text)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    importRows(email, reader, result);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (result.getImportedExpenses() + result.getImportedIncomes() > 0) {
+            // Batched JDBC writes bypass the entity listeners that keep the rollup current
+            monthlyRollupService.rebuildCustomer(email);
+            dataVersionService.bump(email);
+            // Too many rows for individual events, open dashboards reload instead
+            dashboardEventService.publish(email, new DashboardEvent(DashboardEvent.RESYNC));
+        }
+        logger.info("Imported {} expenses and {} incomes for {} ({} duplicates, {} rejected)",
+                result.getImportedExpenses(), result.getImportedIncomes(), email,
+                result.getDuplicates(), result.getRejected());
+        return result;
+    }
+
+    private void importRows(String email, TransactionReader reader, ImportResult result) throws IOException {
+        Set<String> knownExpenses = loadFingerprints("expense", email);
+        Set<String> knownIncomes = loadFingerprints("income", email);
+        Map<String, Integer> occurrences = new HashMap<>();
+        MessageDigest digest = sha256();
+
+        List<Object[]> expenseBatch = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> incomeBatch = new ArrayList<>(BATCH_SIZE);
+
+        while (true) {
+            ImportedTransaction row;
+            try {
+                row = reader.next();
+            } catch (IllegalArgumentException e) {
+                result.addError(e.getMessage(), MAX_REPORTED_ERRORS);
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+
+            long amountMinor;
+            try {
+                amountMinor = Money.toMinor(row.amount());
+            } catch (ArithmeticException e) {
+                result.addError("Amount out of range: " + row.amount().toPlainString(), MAX_REPORTED_ERRORS);
+                continue;
+            }
+
+            boolean isExpense = row.type() == LedgerEntryType.EXPENSE;
+            String fingerprint = fingerprint(digest, row, occurrences);
+            if (!(isExpense ? knownExpenses : knownIncomes).add(fingerprint)) {
+                result.addDuplicate();
+                continue;
+            }
+
+            if (isExpense) {
+                expenseBatch.add(new Object[]{
+                        amountMinor,
+                        amountMinor,
+                        toExpenseCategory(row.label()),
+                        Timestamp.valueOf(row.date()),
+                        email,
+                        truncate(row.description(), 500),
+                        fingerprint});
+                result.addImportedExpense();
+                if (expenseBatch.size() == BATCH_SIZE) {
+                    flush(INSERT_EXPENSE_SQL, expenseBatch);
+                }
+            } else {
+                incomeBatch.add(new Object[]{
+                        amountMinor,
+                        amountMinor,
+                        row.label() != null ? truncate(row.label(), 255) : DEFAULT_INCOME_SOURCE,
+                        Date.valueOf(row.date().toLocalDate()),
+                        email,
+                        truncate(row.description(), 255),
+                        fingerprint});
+                result.addImportedIncome();
+                if (incomeBatch.size() == BATCH_SIZE) {
+                    flush(INSERT_INCOME_SQL, incomeBatch);
+                }
+            }
+        }
+
+        flush(INSERT_EXPENSE_SQL, expenseBatch);
+        flush(INSERT_INCOME_SQL, incomeBatch);
+    }
+
+    private Set<String> loadFingerprints(String table, String email) {
+        // Answered from the (customer_email, fingerprint) unique index alone
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT fingerprint FROM " + table + " WHERE customer_email = ? AND fingerprint IS NOT NULL",
+                String.class, email));
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    static String fingerprint(MessageDigest digest, ImportedTransaction row, Map<String, Integer> occurrences) {
+        String content;
+        if (row.externalId() != null) {
+            content = row.type() + "|id|" + row.externalId();
+        } else {
+            String base = row.type() + "|" + row.date() + "|" + row.amount().stripTrailingZeros().toPlainString()
+                    + "|" + Objects.toString(row.label(), "") + "|" + Objects.toString(row.description(), "");
+            int occurrence = occurrences.merge(base, 1, Integer::sum);
+            content = base + "#" + occurrence;
+        }
+        return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String toExpenseCategory(String label) {
+        if (label != null) {
+            String normalized = label.trim().toUpperCase(Locale.ROOT).replace(' ', '_');
+            for (ExpenseCategoryEnum category : ExpenseCategoryEnum.values()) {
+                if (category.name().equals(normalized)) {
+                    return category.name();
+                }
+            }
+        }
+        return ExpenseCategoryEnum.OTHERS.name();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.personalfinancetracker.backend.services.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull parser over an uploaded statement. Rows are produced one at a time so an import
+ * never holds more than the current row of the file in memory.
+ */
+public interface TransactionReader extends Closeable {
+
+    /**
+     * @return the next transaction, or null at the end of the file
+     * @throws IllegalArgumentException if the current row is malformed; the reader has
+     *                                  already moved past it, so the caller may continue
+     */
+    ImportedTransaction next() throws IOException;
+
+    /** Position of the last row returned or rejected, for error messages. */
+    int getLineNumber();
+}
@@ -0,0 +1,124 @@
+package com.personalfinancetracker.backend.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sums and counts of amounts in a grid of keyed rows (categories, income sources) by a fixed
+ * number of columns (periods, days, hours). Keys are interned to row numbers on first sight,
+ * and sums are kept as minor units in flat {@code long[]} arrays, so adding an amount is exact,
+ * and neither boxes it nor allocates anything once the key is known.
+ * <p>
+ * Not thread-safe; meant to be filled and read within one request.
+ */
+public final class AmountGrid {
+
+    private final int columns;
+    private final Map<String, Integer> rowIds = new HashMap<>();
+    private String[] keys = new String[16];
+    private long[] sums;
+    private long[] counts;
+
+    public AmountGrid(int columns) {
+        if (columns < 1) {
+            throw new IllegalArgumentException("columns must be positive");
+        }
+        this.columns = columns;
+        this.sums = new long[keys.length * columns];
+        this.counts = new long[keys.length * columns];
+    }
+
+    /**
+     * Row number of the key, adding a row if the key is new. A null key is kept as its own row.
+     */
+    public int row(String key) {
+        Integer id = rowIds.get(key);
+        if (id != null) {
+            return id;
+        }
+        int row = rowIds.size();
+        if (row == keys.length) {
+            keys = Arrays.copyOf(keys, row * 2);
+            sums = Arrays.copyOf(sums, keys.length * columns);
+            counts = Arrays.copyOf(counts, keys.length * columns);
+        }
+        keys[row] = key;
+        rowIds.put(key, row);
+        return row;
+    }
+
+    public void add(String key, int column, long amountMinor) {
+        add(row(key), column, amountMinor);
+    }
+
+    public void add(int row, int column, long amountMinor) {
+        int cell = row * columns + column;
+        sums[cell] += amountMinor;
+        counts[cell]++;
+    }
+
+    public int rows() {
+        return rowIds.size();
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public String key(int row) {
+        return keys[row];
+    }
+
+    public long sumMinor(int row, int column) {
+        return sums[row * columns + column];
+    }
+
+    public double sum(int row, int column) {
+        return Money.toMajor(sumMinor(row, column));
+    }
+
+    public long count(int row, int column) {
+        return counts[row * columns + column];
+    }
+
+    /**
+     * Sum of the key in the column, zero if the key was never added.
+     */
+    public double sum(String key, int column) {
+        Integer row = rowIds.get(key);
+        return row != null ? sum(row, column) : 0;
+    }
+
+    /**
+     * Row with the largest sum in the column, or -1 when the grid is empty.
+     */
+    public int maxRow(int column) {
+        int best = -1;
+        for (int row = 0; row < rows(); row++) {
+            if (best < 0 || sumMinor(row, column) > sumMinor(best, column)) {
+                best = row;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One column as an unmodifiable key to sum map, largest sum first.
+     */
+    public Map<String, Double> toSortedMap(int column) {
+        Integer[] order = new Integer[rows()];
+        for (int row = 0; row < order.length; row++) {
+            order[row] = row;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(sumMinor(b, column), sumMinor(a, column)));
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int row : order) {
+            result.put(keys[row], sum(row, column));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -86,6 +86,13 @@ public class JwtUtil {
                 .getBody();
     }
 
+    /**
+     * Parse and verify the token once. Throws if the signature is invalid or the token has expired.
+     */
+    public Claims parseVerifiedClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -131,6 +138,18 @@ public class JwtUtil {
                 .compact();
     }
 
+    // Get JWT from Cookie, falling back to the Authorization header
+    public String resolveToken(HttpServletRequest request) {
+        String token = getJwtFromCookies(request);
+        if (token == null) {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                token = authHeader.substring(7);
+            }
+        }
+        return token;
+    }
+
     // Get JWT from Cookie
     public String getJwtFromCookies(HttpServletRequest request) {
         Cookie cookie = WebUtils.getCookie(request, jwtCookieName);
@@ -0,0 +1,56 @@
+package com.personalfinancetracker.backend.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between the decimal amounts the API speaks and the minor units (paise, cents)
+ * the ledger stores. Stored amounts are whole numbers of minor units, so sums and differences
+ * are exact {@code long} arithmetic; doubles only appear at the edges.
+ */
+public final class Money {
+
+    // Currency of every stored amount, matching the frontend's display currency
+    public static final String DEFAULT_CURRENCY = "INR";
+
+    // Minor units per major unit for the stored currency
+    public static final int MINOR_PER_MAJOR = 100;
+
+    private static final int SCALE = 2;
+
+    // Scale of the DECIMAL(30, 10) the migration casts stored floats through before rounding
+    private static final int BACKFILL_SCALE = 10;
+
+    private Money() {}
+
+    /**
+     * Minor units of a decimal amount, rounded half away from zero like the migration's ROUND.
+     * The amount is taken at its shortest decimal representation, so 0.1 becomes 10 rather
+     * than a rounding of the 10.000000000000000555 its binary value stands for. Like the
+     * migration's cast, it is first rounded to 10 decimals, so an amount such as
+     * 0.00499999999995 gets the same 1 paisa the backfilled rows got.
+     *
+     * @throws ArithmeticException if the amount is not finite or does not fit in a long
+     */
+    public static long toMinor(double amount) {
+        if (!Double.isFinite(amount)) {
+            throw new ArithmeticException("Amount is not a finite number: " + amount);
+        }
+        return toMinor(BigDecimal.valueOf(amount).setScale(BACKFILL_SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Decimal amount of the minor units, for responses and reports. Exact as long as the value
+     * is below 2^53 minor units, which no ledger amount comes near.
+     */
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_PER_MAJOR;
+    }
+}
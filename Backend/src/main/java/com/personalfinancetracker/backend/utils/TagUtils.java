@@ -0,0 +1,34 @@
+package com.personalfinancetracker.backend.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public final class TagUtils {
+
+    // Matches the tag column length of the expense_tag and income_tag tables
+    public static final int MAX_TAG_LENGTH = 100;
+
+    private TagUtils() {}
+
+    /**
+     * Split a comma-separated tag string into trimmed, non-empty tags, keeping their order.
+     * Duplicates are dropped case-insensitively, matching the tag column's collation.
+     */
+    public static Set<String> parse(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return Collections.emptySet();
+        }
+        Map<String, String> distinct = new LinkedHashMap<>();
+        Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .map(tag -> tag.length() > MAX_TAG_LENGTH ? tag.substring(0, MAX_TAG_LENGTH) : tag)
+                .forEach(tag -> distinct.putIfAbsent(tag.toLowerCase(Locale.ROOT), tag));
+        return new LinkedHashSet<>(distinct.values());
+    }
+}
@@ -0,0 +1,161 @@
+-- Baseline schema, matching what ddl-auto=update produced for the JPA entities.
+-- IF NOT EXISTS lets this run against databases that were created by Hibernate
+-- before migrations were introduced (they are baselined at version 0).
+
+CREATE TABLE IF NOT EXISTS customer (
+    id bigint NOT NULL AUTO_INCREMENT,
+    name varchar(255),
+    email varchar(255),
+    password varchar(255),
+    verified bit NOT NULL,
+    provider varchar(255),
+    provider_id varchar(255),
+    address varchar(255),
+    gender enum ('FEMALE','MALE'),
+    age integer,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_customer_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS customer_profile_photo (
+    id bigint NOT NULL AUTO_INCREMENT,
+    customer_email varchar(255) NOT NULL,
+    data longblob,
+    content_type varchar(255),
+    content_hash varchar(64),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_customer_profile_photo_email UNIQUE (customer_email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS expense (
+    id bigint NOT NULL AUTO_INCREMENT,
+    amount float(53),
+    category varchar(255),
+    date datetime(6),
+    customer_email varchar(255),
+    tags varchar(255),
+    note varchar(500),
+    is_recurring bit,
+    recurring_frequency varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_expense_customer FOREIGN KEY (customer_email) REFERENCES customer (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS expense_tag (
+    expense_id bigint NOT NULL,
+    tag varchar(100) NOT NULL,
+    PRIMARY KEY (expense_id, tag),
+    CONSTRAINT fk_expense_tag_expense FOREIGN KEY (expense_id) REFERENCES expense (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS expense_category (
+    id bigint NOT NULL AUTO_INCREMENT,
+    expense_category enum ('CLOTHING','DEBT_PAYMENTS','ENTERTAINMENT','GROCERY','HEALTH_CARE','HOME_MAINTENANCE','HOUSING','INSURANCE','MEMBERSHIPS_AND_SUBSCRIPTIONS','OTHERS','PERSONAL_CARE','TAXES','UTILITIES') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_expense_category UNIQUE (expense_category)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS income (
+    id bigint NOT NULL AUTO_INCREMENT,
+    amount float(53) NOT NULL,
+    source varchar(255),
+    date date,
+    customer_email varchar(255),
+    description varchar(255),
+    is_recurring bit NOT NULL,
+    recurring_frequency varchar(255),
+    tags varchar(255),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS income_tag (
+    income_id bigint NOT NULL,
+    tag varchar(100) NOT NULL,
+    PRIMARY KEY (income_id, tag),
+    CONSTRAINT fk_income_tag_income FOREIGN KEY (income_id) REFERENCES income (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS budget (
+    id bigint NOT NULL AUTO_INCREMENT,
+    category varchar(255),
+    amount float(53),
+    customer_email varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_budget_customer FOREIGN KEY (customer_email) REFERENCES customer (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS savings_goal (
+    id bigint NOT NULL AUTO_INCREMENT,
+    amount float(53),
+    customer_email varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_savings_goal_customer UNIQUE (customer_email),
+    CONSTRAINT fk_savings_goal_customer FOREIGN KEY (customer_email) REFERENCES customer (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS financial_goal (
+    id bigint NOT NULL AUTO_INCREMENT,
+    title varchar(255),
+    description varchar(255),
+    category varchar(255),
+    target_amount float(53),
+    current_amount float(53),
+    start_date date,
+    target_date date,
+    status varchar(255),
+    priority varchar(255),
+    icon varchar(255),
+    color varchar(255),
+    customer_email varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_financial_goal_customer FOREIGN KEY (customer_email) REFERENCES customer (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS goal_achievements (
+    goal_id bigint NOT NULL,
+    achievement varchar(255),
+    CONSTRAINT fk_goal_achievements_goal FOREIGN KEY (goal_id) REFERENCES financial_goal (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS goal_milestone (
+    id bigint NOT NULL AUTO_INCREMENT,
+    title varchar(255),
+    description varchar(255),
+    target_amount float(53),
+    target_date date,
+    completed bit,
+    completed_date date,
+    goal_id bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_goal_milestone_goal FOREIGN KEY (goal_id) REFERENCES financial_goal (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS saved_report (
+    id bigint NOT NULL AUTO_INCREMENT,
+    report_title varchar(255),
+    report_type varchar(255),
+    configuration TEXT,
+    created_date datetime(6),
+    customer_email varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_saved_report_customer FOREIGN KEY (customer_email) REFERENCES customer (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS otp_verification (
+    id bigint NOT NULL AUTO_INCREMENT,
+    name varchar(255),
+    email varchar(255),
+    password varchar(255),
+    otp varchar(255),
+    expiration_time datetime(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS password_reset_token (
+    id bigint NOT NULL AUTO_INCREMENT,
+    email varchar(255),
+    otp varchar(255),
+    expiration_time datetime(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,40 @@
+-- Composite indexes for the per-user queries. Every hot query filters on
+-- customer_email first, then on date, category or source.
+-- Indexes are created only when missing, since databases that ran with
+-- ddl-auto=update may already have some of them.
+
+DROP PROCEDURE IF EXISTS create_index_if_missing;
+
+DELIMITER //
+CREATE PROCEDURE create_index_if_missing(IN p_table VARCHAR(64), IN p_index VARCHAR(64), IN p_columns VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('CREATE INDEX ', p_index, ' ON ', p_table, ' (', p_columns, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+DELIMITER ;
+
+-- Date ranges, monthly rollups and keyset pagination on (date DESC, id DESC)
+CALL create_index_if_missing('expense', 'idx_expense_customer_date_id', 'customer_email, date, id');
+-- Per-category totals and budget checks within a period
+CALL create_index_if_missing('expense', 'idx_expense_customer_category_date', 'customer_email, category, date');
+
+CALL create_index_if_missing('income', 'idx_income_customer_date', 'customer_email, date');
+CALL create_index_if_missing('income', 'idx_income_customer_source', 'customer_email, source');
+
+-- Tag lookups go from the tag to the owning row
+CALL create_index_if_missing('expense_tag', 'idx_expense_tag_tag', 'tag, expense_id');
+CALL create_index_if_missing('income_tag', 'idx_income_tag_tag', 'tag, income_id');
+
+CALL create_index_if_missing('budget', 'idx_budget_customer_category', 'customer_email, category');
+CALL create_index_if_missing('financial_goal', 'idx_financial_goal_customer_status', 'customer_email, status');
+CALL create_index_if_missing('saved_report', 'idx_saved_report_customer_created', 'customer_email, created_date');
+
+CALL create_index_if_missing('otp_verification', 'idx_otp_verification_email', 'email');
+CALL create_index_if_missing('password_reset_token', 'idx_password_reset_token_email', 'email');
+
+DROP PROCEDURE create_index_if_missing;
@@ -0,0 +1,14 @@
+-- Materialized per-user, per-month totals by expense category and income source.
+-- Filled by the application on startup (backfill) and kept current on every write.
+
+CREATE TABLE monthly_rollup (
+    id bigint NOT NULL AUTO_INCREMENT,
+    customer_email varchar(255) NOT NULL,
+    period_start date NOT NULL,
+    entry_type enum ('EXPENSE','INCOME') NOT NULL,
+    category varchar(255) NOT NULL,
+    total float(53) NOT NULL,
+    entry_count bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_monthly_rollup_bucket UNIQUE (customer_email, entry_type, period_start, category)
+) ENGINE=InnoDB;
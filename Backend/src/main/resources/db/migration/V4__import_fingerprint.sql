@@ -0,0 +1,9 @@
+-- Content fingerprint of rows created by the statement import, so the same
+-- statement can be uploaded again without duplicating transactions.
+-- Rows entered by hand keep a NULL fingerprint, which the unique key ignores.
+
+ALTER TABLE expense ADD COLUMN fingerprint varchar(64);
+ALTER TABLE expense ADD CONSTRAINT uk_expense_customer_fingerprint UNIQUE (customer_email, fingerprint);
+
+ALTER TABLE income ADD COLUMN fingerprint varchar(64);
+ALTER TABLE income ADD CONSTRAINT uk_income_customer_fingerprint UNIQUE (customer_email, fingerprint);
@@ -0,0 +1,11 @@
+-- Optional cron schedule for saved report configurations and the state of
+-- their last scheduled run. The scheduler scans for due rows by next_run_at.
+
+ALTER TABLE saved_report
+    ADD COLUMN schedule_cron varchar(120),
+    ADD COLUMN next_run_at datetime(6),
+    ADD COLUMN last_run_at datetime(6),
+    ADD COLUMN last_run_status varchar(20),
+    ADD COLUMN output_file_name varchar(255);
+
+CREATE INDEX idx_saved_report_next_run ON saved_report (next_run_at);
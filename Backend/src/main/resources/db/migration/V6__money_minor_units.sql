@@ -0,0 +1,18 @@
+-- Amounts as whole minor units (paise) plus a currency code. The existing float
+-- columns stay and are written alongside, derived from the minor units, for
+-- anything that still reads them; sums and the monthly rollup use the new ones.
+-- Floats are converted through DECIMAL so 0.1 becomes 10, not a rounding of
+-- 10.000000000000000555.
+
+ALTER TABLE expense
+    ADD COLUMN amount_minor bigint NOT NULL DEFAULT 0,
+    ADD COLUMN currency varchar(3) NOT NULL DEFAULT 'INR';
+UPDATE expense SET amount_minor = ROUND(CAST(amount AS DECIMAL(30, 10)) * 100) WHERE amount IS NOT NULL;
+
+ALTER TABLE income
+    ADD COLUMN amount_minor bigint NOT NULL DEFAULT 0,
+    ADD COLUMN currency varchar(3) NOT NULL DEFAULT 'INR';
+UPDATE income SET amount_minor = ROUND(CAST(amount AS DECIMAL(30, 10)) * 100);
+
+ALTER TABLE monthly_rollup ADD COLUMN total_minor bigint NOT NULL DEFAULT 0;
+UPDATE monthly_rollup SET total_minor = ROUND(CAST(total AS DECIMAL(30, 10)) * 100);
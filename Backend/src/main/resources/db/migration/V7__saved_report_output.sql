@@ -0,0 +1,14 @@
+-- Outputs of scheduled saved reports, stored in the database so any instance can
+-- serve them and they survive restarts. A workbook is split into chunks of up to
+-- 1MB (seq 0, 1, ...) to stay below max_allowed_packet; all chunks of one run
+-- share its generated_at. Outputs previously kept on local disk are regenerated
+-- by the next scheduled run.
+
+CREATE TABLE saved_report_output (
+    saved_report_id bigint NOT NULL,
+    seq int NOT NULL,
+    generated_at datetime(6) NOT NULL,
+    content mediumblob NOT NULL,
+    PRIMARY KEY (saved_report_id, seq),
+    CONSTRAINT fk_saved_report_output_report FOREIGN KEY (saved_report_id) REFERENCES saved_report (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
@@ -0,0 +1,12 @@
+-- Per-user data version, raised in the same transaction as every change to the
+-- user's expenses, incomes, budgets or goals, so all instances hand out the same
+-- ETags and cache keys. Kept out of the customer table: inserting an expense
+-- takes a shared lock on its customer row, and raising a version there would
+-- need an exclusive one, so two concurrent writes for one user could deadlock.
+-- Users without a row are at version 0.
+
+CREATE TABLE customer_data_version (
+    customer_email varchar(255) NOT NULL,
+    version bigint NOT NULL,
+    PRIMARY KEY (customer_email)
+) ENGINE=InnoDB;
@@ -0,0 +1,6 @@
+-- When each user's last change committed, in database time. Read-replica routing
+-- reads it from the primary to keep a user who just wrote on the primary until the
+-- replica has caught up, whichever instance took the write. Null until the next
+-- change.
+
+ALTER TABLE customer_data_version ADD COLUMN changed_at timestamp(6) NULL;
@@ -0,0 +1,149 @@
+package com.personalfinancetracker.backend.configuration;
+
+import com.personalfinancetracker.backend.services.DataVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances, each with its own pools and routing, over one primary and one
+ * replica database (two in-memory H2 databases that each know their own name). A user who
+ * wrote through one instance reads the primary through the other until the pin expires.
+ */
+class ReadReplicaRoutingTest {
+
+    private static final String WRITER = "writer@example.com";
+    private static final String OTHER = "other@example.com";
+    private static final Duration PIN_AFTER_WRITE = Duration.ofMinutes(1);
+
+    private final DataSource primaryDatabase = database("primary");
+    private final DataSource replicaDatabase = database("replica");
+    private Instance instanceA;
+    private Instance instanceB;
+
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("primary", "replica")) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate("primary".equals(name) ? primaryDatabase : replicaDatabase);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS server_name (name varchar(16) NOT NULL)");
+            jdbcTemplate.update("DELETE FROM server_name");
+            jdbcTemplate.update("INSERT INTO server_name (name) VALUES (?)", name);
+            // Created by the V8 and V9 migrations
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS customer_data_version " +
+                    "(customer_email varchar(255) NOT NULL PRIMARY KEY, version bigint NOT NULL, changed_at timestamp(6) NULL)");
+            jdbcTemplate.update("DELETE FROM customer_data_version");
+        }
+        instanceA = new Instance();
+        instanceB = new Instance();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(instanceA.readOnly(WRITER)).isEqualTo("replica");
+        assertThat(instanceB.readOnly(null)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsInAWritingTransactionGoToThePrimary() {
+        String server = instanceA.readWrite.execute(status -> instanceA.jdbcTemplate.queryForObject(
+                "SELECT name FROM server_name", String.class));
+
+        assertThat(server).isEqualTo("primary");
+    }
+
+    @Test
+    void writerReadsThePrimaryThroughEveryInstance() {
+        instanceA.readWrite.executeWithoutResult(status -> instanceA.dataVersionService.bump(WRITER));
+
+        assertThat(instanceA.readOnly(WRITER)).isEqualTo("primary");
+        assertThat(instanceB.readOnly(WRITER)).isEqualTo("primary");
+        // Only the writer is pinned
+        assertThat(instanceB.readOnly(OTHER)).isEqualTo("replica");
+    }
+
+    @Test
+    void pinExpiresAfterTheWindow() {
+        instanceA.readWrite.executeWithoutResult(status -> instanceA.dataVersionService.bump(WRITER));
+        new JdbcTemplate(primaryDatabase).update("UPDATE customer_data_version SET changed_at = ? WHERE customer_email = ?",
+                LocalDateTime.now().minus(PIN_AFTER_WRITE).minusSeconds(1), WRITER);
+
+        assertThat(instanceB.readOnly(WRITER)).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPin() {
+        instanceA.readWrite.executeWithoutResult(status -> {
+            instanceA.dataVersionService.bump(WRITER);
+            status.setRollbackOnly();
+        });
+
+        assertThat(instanceB.readOnly(WRITER)).isEqualTo("replica");
+    }
+
+    @Test
+    void replicaOutOfRotationIsNotRead() {
+        instanceB.lagMonitor.markUnavailable(new IllegalStateException("lagging"));
+
+        assertThat(instanceB.readOnly(OTHER)).isEqualTo("primary");
+        assertThat(instanceA.readOnly(OTHER)).isEqualTo("replica");
+    }
+
+    private static DataSource database(String name) {
+        return new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:" + name + "-routing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    /**
+     * What ReadReplicaDataSourceConfiguration builds for one instance, on its own data source
+     * objects so nothing is shared with the other instance except the databases.
+     */
+    private final class Instance {
+        private final ReplicaLagMonitor lagMonitor;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readWrite;
+        private final TransactionTemplate readOnly;
+        private final DataVersionService dataVersionService;
+
+        Instance() {
+            lagMonitor = new ReplicaLagMonitor(replicaDatabase, Duration.ofSeconds(2), false);
+            lagMonitor.check();
+            ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(
+                    primaryDatabase, replicaDatabase, lagMonitor, PIN_AFTER_WRITE);
+            routing.afterPropertiesSet();
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            readWrite = new TransactionTemplate(transactionManager);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            dataVersionService = new DataVersionService(jdbcTemplate, transactionManager);
+        }
+
+        // Name of the database a read-only transaction of the user reads from
+        String readOnly(String email) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    email == null ? null : new UsernamePasswordAuthenticationToken(email, null, List.of()));
+            return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM server_name", String.class));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.personalfinancetracker.backend.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Backfill of the tag tables from the comma-separated column, for rows written before the
+ * tables existed. The rows are inserted with SQL so no tag rows exist yet.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TagMigration.class)
+class TagMigrationTest {
+
+    @Autowired
+    private TagMigration tagMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void copiesCsvTagsOnceAndSkipsRowsAlreadyNormalized() {
+        jdbcTemplate.update("INSERT INTO customer (email, name, verified) VALUES ('user@example.com', 'User', TRUE)");
+        long travel = expense(" travel , work,,Travel ");
+        long untagged = expense("");
+        long income = income("side");
+        long normalized = income("bonus,side");
+        jdbcTemplate.update("INSERT INTO income_tag (income_id, tag) VALUES (?, 'bonus')", normalized);
+
+        tagMigration.migrateCsvTags();
+        tagMigration.migrateCsvTags();
+
+        // Trimmed, empty entries and case-insensitive duplicates dropped
+        assertThat(tags("expense_tag", "expense_id", travel)).containsExactlyInAnyOrder("travel", "work");
+        assertThat(tags("expense_tag", "expense_id", untagged)).isEmpty();
+        assertThat(tags("income_tag", "income_id", income)).containsExactly("side");
+        // Already had tag rows, so left as it was
+        assertThat(tags("income_tag", "income_id", normalized)).containsExactly("bonus");
+    }
+
+    @Test
+    void largeBackfillsAreWrittenInBatches() {
+        jdbcTemplate.update("INSERT INTO customer (email, name, verified) VALUES ('user@example.com', 'User', TRUE)");
+        // More tag rows than one batch holds
+        for (int i = 0; i < 300; i++) {
+            income("a" + i + ",b" + i);
+        }
+
+        tagMigration.migrateCsvTags();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM income_tag", Integer.class)).isEqualTo(600);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT income_id) FROM income_tag", Integer.class))
+                .isEqualTo(300);
+    }
+
+    private long expense(String tags) {
+        jdbcTemplate.update("INSERT INTO expense (amount, amount_minor, currency, category, date, customer_email, tags, is_recurring) " +
+                "VALUES (10, 1000, 'INR', 'FOOD', TIMESTAMP '2024-06-01 12:00:00', 'user@example.com', ?, FALSE)", tags);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM expense", Long.class);
+    }
+
+    private long income(String tags) {
+        jdbcTemplate.update("INSERT INTO income (amount, amount_minor, currency, source, date, customer_email, tags, is_recurring) " +
+                "VALUES (100, 10000, 'INR', 'Salary', DATE '2024-06-01', 'user@example.com', ?, FALSE)", tags);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM income", Long.class);
+    }
+
+    private List<String> tags(String table, String idColumn, long id) {
+        return jdbcTemplate.queryForList("SELECT tag FROM " + table + " WHERE " + idColumn + " = ?", String.class, id);
+    }
+}
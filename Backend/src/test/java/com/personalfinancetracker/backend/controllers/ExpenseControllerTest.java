@@ -0,0 +1,161 @@
+package com.personalfinancetracker.backend.controllers;
+
+import com.personalfinancetracker.backend.dto.ExpenseResponse;
+import com.personalfinancetracker.backend.entities.Customer;
+import com.personalfinancetracker.backend.entities.Expense;
+import com.personalfinancetracker.backend.repository.BudgetRepository;
+import com.personalfinancetracker.backend.repository.CustomerRepository;
+import com.personalfinancetracker.backend.repository.ExpenseRepository;
+import com.personalfinancetracker.backend.utils.JwtUtil;
+import com.personalfinancetracker.backend.utils.KeysetCursor;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The expense filter: unbounded without {@code limit} or {@code cursor}, keyset-paged with
+ * them, and no row skipped or repeated when several share a date.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ExpenseControllerTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    private ExpenseController controller;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(jwtUtil.getJwtFromCookies(request)).thenReturn("token");
+        when(jwtUtil.extractUsername("token")).thenReturn(EMAIL);
+
+        controller = new ExpenseController(expenseRepository, customerRepository, budgetRepository,
+                jwtUtil, request, null, null, null, null);
+
+        customer = new Customer();
+        customer.setEmail(EMAIL);
+        customer.setName("User");
+        entityManager.persist(customer);
+    }
+
+    @Test
+    void filterWithoutLimitOrCursorReturnsEveryMatch() {
+        // More than the default page size
+        for (int i = 0; i < 60; i++) {
+            expense("FOOD", LocalDateTime.of(2024, 6, 1, 0, 0).plusHours(i));
+        }
+        expense("RENT", LocalDateTime.of(2024, 6, 1, 0, 0));
+
+        ResponseEntity<List<ExpenseResponse>> response = filter("food", null, null);
+
+        assertThat(response.getBody()).hasSize(60);
+        assertThat(response.getBody().get(0).getDate()).isEqualTo(LocalDateTime.of(2024, 6, 3, 11, 0));
+        assertThat(response.getHeaders().containsKey(ExpenseController.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void pagesWalkRowsOnTheSameDateByIdWithoutGapsOrRepeats() {
+        LocalDateTime sameTime = LocalDateTime.of(2024, 6, 2, 12, 0);
+        List<Long> expected = new ArrayList<>();
+        expected.add(expense("FOOD", LocalDateTime.of(2024, 6, 3, 8, 0)));
+        List<Long> tied = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tied.add(expense("FOOD", sameTime));
+        }
+        // Ties go by id, highest first
+        expected.addAll(tied.reversed());
+        expected.add(expense("FOOD", LocalDateTime.of(2024, 6, 1, 8, 0)));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ResponseEntity<List<ExpenseResponse>> response = filter(null, cursor, 2);
+            assertThat(response.getBody()).hasSizeLessThanOrEqualTo(2);
+            response.getBody().forEach(row -> seen.add(row.getId()));
+            cursor = response.getHeaders().getFirst(ExpenseController.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void fullLastPageHasNoNextCursor() {
+        for (int i = 0; i < 4; i++) {
+            expense("FOOD", LocalDateTime.of(2024, 6, 1, 9, 0).plusDays(i));
+        }
+
+        ResponseEntity<List<ExpenseResponse>> first = filter(null, null, 2);
+        String cursor = first.getHeaders().getFirst(ExpenseController.NEXT_CURSOR_HEADER);
+        ResponseEntity<List<ExpenseResponse>> second = filter(null, cursor, 2);
+
+        assertThat(first.getBody()).hasSize(2);
+        assertThat(cursor).isNotNull();
+        assertThat(second.getBody()).hasSize(2);
+        assertThat(second.getHeaders().containsKey(ExpenseController.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void cursorAloneUsesTheDefaultPageSize() {
+        for (int i = 0; i < 55; i++) {
+            expense("FOOD", LocalDateTime.of(2024, 6, 1, 0, 0).plusHours(i));
+        }
+        String start = KeysetCursor.of(LocalDateTime.of(2024, 7, 1, 0, 0), Long.MAX_VALUE).encode();
+
+        ResponseEntity<List<ExpenseResponse>> response = filter(null, start, null);
+
+        assertThat(response.getBody()).hasSize(50);
+        assertThat(response.getHeaders().getFirst(ExpenseController.NEXT_CURSOR_HEADER)).isNotNull();
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        assertThat(filter(null, "not-a-cursor", 2).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private ResponseEntity<List<ExpenseResponse>> filter(String category, String cursor, Integer limit) {
+        return controller.filterExpenses(null, null, category, null, null, null, cursor, limit);
+    }
+
+    private Long expense(String category, LocalDateTime date) {
+        Expense expense = new Expense();
+        expense.setCustomer(customer);
+        expense.setCategory(category);
+        expense.setAmount(10.0);
+        expense.setDate(date);
+        return entityManager.persist(expense).getId();
+    }
+}
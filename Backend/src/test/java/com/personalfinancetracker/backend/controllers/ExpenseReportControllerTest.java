@@ -0,0 +1,112 @@
+package com.personalfinancetracker.backend.controllers;
+
+import com.personalfinancetracker.backend.dto.ReportRequest;
+import com.personalfinancetracker.backend.services.DataVersionService;
+import com.personalfinancetracker.backend.services.ReportGenerationService;
+import com.personalfinancetracker.backend.services.ReportOutputCache;
+import com.personalfinancetracker.backend.utils.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Excel export through the report cache, including reports too large to cache, which are
+ * streamed from a temporary file that must outlive the handler method.
+ */
+class ExpenseReportControllerTest {
+
+    private static final byte[] WORKBOOK = new byte[4096];
+
+    static {
+        Arrays.fill(WORKBOOK, (byte) 7);
+    }
+
+    @TempDir
+    private Path cacheDirectory;
+
+    private final ReportGenerationService reportGenerationService = mock(ReportGenerationService.class);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        doAnswer(invocation -> {
+            invocation.getArgument(7, OutputStream.class).write(WORKBOOK);
+            return null;
+        }).when(reportGenerationService).writeExcelReport(anyString(), any(), any(), any(),
+                anyBoolean(), anyBoolean(), anyBoolean(), any(OutputStream.class));
+    }
+
+    @Test
+    void reportLargerThanTheCacheIsStreamedFromFileAndDeletedAfterwards() throws IOException {
+        ExpenseReportController controller = controller(DataSize.ofBytes(1024));
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportExpensesToExcel(reportRequest());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(WORKBOOK.length);
+        // The file must still be there when the body is written after the handler returned
+        assertThat(cacheDirectory).isNotEmptyDirectory();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        assertThat(out.toByteArray()).isEqualTo(WORKBOOK);
+        assertThat(cacheDirectory).isEmptyDirectory();
+    }
+
+    @Test
+    void cachedReportIsServedAgainWithoutRebuilding() throws IOException {
+        ExpenseReportController controller = controller(DataSize.ofMegabytes(1));
+
+        ResponseEntity<StreamingResponseBody> first = controller.exportExpensesToExcel(reportRequest());
+        first.getBody().writeTo(OutputStream.nullOutputStream());
+        ResponseEntity<StreamingResponseBody> second = controller.exportExpensesToExcel(reportRequest());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        second.getBody().writeTo(out);
+        assertThat(out.toByteArray()).isEqualTo(WORKBOOK);
+        assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+        verify(reportGenerationService, times(1)).writeExcelReport(anyString(), any(), any(), any(),
+                anyBoolean(), anyBoolean(), anyBoolean(), any(OutputStream.class));
+        // Kept on disk for the next request
+        assertThat(cacheDirectory).isNotEmptyDirectory();
+    }
+
+    private ExpenseReportController controller(DataSize maxDiskSize) throws IOException {
+        ReportOutputCache cache = new ReportOutputCache(mock(DataVersionService.class), cacheDirectory.toString(),
+                maxDiskSize, DataSize.ofBytes(0), DataSize.ofBytes(0));
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(jwtUtil.getJwtFromCookies(request)).thenReturn("token");
+        when(jwtUtil.extractUsername("token")).thenReturn("user@example.com");
+        return new ExpenseReportController(null, null, null, null, reportGenerationService, null, null,
+                cache, jwtUtil, request);
+    }
+
+    private static ReportRequest reportRequest() {
+        ReportRequest reportRequest = new ReportRequest();
+        reportRequest.setStartDate("2024-01-01");
+        reportRequest.setEndDate("2024-03-31");
+        reportRequest.setReportTitle("Quarter");
+        return reportRequest;
+    }
+}
@@ -0,0 +1,129 @@
+package com.personalfinancetracker.backend.controllers;
+
+import com.personalfinancetracker.backend.dto.IncomeResponse;
+import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.repository.CustomerRepository;
+import com.personalfinancetracker.backend.repository.IncomeRepository;
+import com.personalfinancetracker.backend.utils.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The income filter pages by keyset like the expense filter. Income dates have no time, so
+ * ties on a date are the common case.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class IncomeControllerTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private IncomeController controller;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(jwtUtil.getJwtFromCookies(request)).thenReturn("token");
+        when(jwtUtil.extractUsername("token")).thenReturn(EMAIL);
+
+        controller = new IncomeController(incomeRepository, customerRepository, jwtUtil, request, null, null, null);
+    }
+
+    @Test
+    void filterWithoutLimitOrCursorReturnsEveryMatch() {
+        for (int i = 0; i < 60; i++) {
+            income("Salary", LocalDate.of(2024, 1, 1).plusDays(i), null);
+        }
+        income("Gift", LocalDate.of(2024, 1, 1), null);
+
+        ResponseEntity<List<IncomeResponse>> response = filter("Salary", null, null, null);
+
+        assertThat(response.getBody()).hasSize(60);
+        assertThat(response.getBody().get(0).getDate()).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(response.getHeaders().containsKey(IncomeController.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void pagesWalkIncomesOfOneDayByIdWithoutGapsOrRepeats() {
+        List<Long> expected = new ArrayList<>();
+        expected.add(income("Salary", LocalDate.of(2024, 6, 3), null));
+        List<Long> tied = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tied.add(income("Freelance", LocalDate.of(2024, 6, 2), null));
+        }
+        expected.addAll(tied.reversed());
+        expected.add(income("Salary", LocalDate.of(2024, 6, 1), null));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<List<IncomeResponse>> response = filter(null, null, cursor, 3);
+            assertThat(response.getBody()).hasSizeLessThanOrEqualTo(3);
+            response.getBody().forEach(row -> seen.add(row.getId()));
+            cursor = response.getHeaders().getFirst(IncomeController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void pagingAppliesToTheFilteredRows() {
+        Long first = income("Salary", LocalDate.of(2024, 6, 3), "bonus");
+        income("Salary", LocalDate.of(2024, 6, 2), "side");
+        Long second = income("Salary", LocalDate.of(2024, 6, 1), "bonus");
+
+        ResponseEntity<List<IncomeResponse>> page = filter(null, "bonus", null, 1);
+        String cursor = page.getHeaders().getFirst(IncomeController.NEXT_CURSOR_HEADER);
+        ResponseEntity<List<IncomeResponse>> next = filter(null, "bonus", cursor, 1);
+
+        assertThat(page.getBody()).extracting(IncomeResponse::getId).containsExactly(first);
+        assertThat(next.getBody()).extracting(IncomeResponse::getId).containsExactly(second);
+        assertThat(next.getHeaders().containsKey(IncomeController.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        assertThat(filter(null, null, "not-a-cursor", 2).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private ResponseEntity<List<IncomeResponse>> filter(String source, String tags, String cursor, Integer limit) {
+        return controller.filterIncomes(null, null, source, null, null, tags, null, cursor, limit);
+    }
+
+    private Long income(String source, LocalDate date, String tags) {
+        Income income = new Income();
+        income.setCustomerEmail(EMAIL);
+        income.setSource(source);
+        income.setAmount(100.0);
+        income.setDate(date);
+        income.setTags(tags);
+        return entityManager.persist(income).getId();
+    }
+}
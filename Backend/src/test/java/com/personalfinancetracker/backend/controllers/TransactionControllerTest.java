@@ -0,0 +1,121 @@
+package com.personalfinancetracker.backend.controllers;
+
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import com.personalfinancetracker.backend.repository.CustomerRepository;
+import com.personalfinancetracker.backend.repository.ExpenseRepository;
+import com.personalfinancetracker.backend.repository.IncomeRepository;
+import com.personalfinancetracker.backend.services.MonthlyRollupService;
+import com.personalfinancetracker.backend.utils.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Query-count regression test for the monthly summary: the number of statements must not
+ * grow with the number of months requested.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MonthlyRollupService.class)
+class TransactionControllerTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionController controller;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(jwtUtil.getJwtFromCookies(request)).thenReturn("token");
+        when(jwtUtil.extractUsername("token")).thenReturn(EMAIL);
+
+        controller = new TransactionController(expenseRepository, incomeRepository, customerRepository,
+                jwtUtil, request, monthlyRollupService, null);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void monthlySummaryForTwentyFourMonthsRunsTwoQueries() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i < 24; i++) {
+            rollup(current.minusMonths(i), LedgerEntryType.EXPENSE, "FOOD", 10_000 + i);
+            rollup(current.minusMonths(i), LedgerEntryType.EXPENSE, "RENT", 50_000);
+            rollup(current.minusMonths(i), LedgerEntryType.INCOME, "Salary", 100_000);
+        }
+
+        statistics.clear();
+        ResponseEntity<List<Map<String, Object>>> response = controller.getMonthlySummary(24);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        List<Map<String, Object>> months = response.getBody();
+        assertThat(months).hasSize(24);
+        // Oldest month first, category rows summed per month
+        assertThat(months.get(0).get("expense")).isEqualTo(600.23);
+        assertThat(months.get(23).get("expense")).isEqualTo(600.0);
+        assertThat(months.get(23).get("income")).isEqualTo(1000.0);
+        assertThat(months.get(23).get("net")).isEqualTo(400.0);
+    }
+
+    @Test
+    void queryCountDoesNotDependOnMonths() {
+        rollup(YearMonth.now(), LedgerEntryType.EXPENSE, "FOOD", 2_500);
+
+        statistics.clear();
+        controller.getMonthlySummary(6);
+        long sixMonths = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        controller.getMonthlySummary(60);
+        long sixtyMonths = statistics.getPrepareStatementCount();
+
+        assertThat(sixMonths).isEqualTo(2);
+        assertThat(sixtyMonths).isEqualTo(sixMonths);
+    }
+
+    private void rollup(YearMonth month, LedgerEntryType type, String category, long totalMinor) {
+        jdbcTemplate.update("INSERT INTO monthly_rollup " +
+                        "(customer_email, period_start, entry_type, category, total_minor, total, entry_count) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, 1)",
+                EMAIL, Date.valueOf(month.atDay(1)), type.name(), category, totalMinor, totalMinor / 100.0);
+    }
+}
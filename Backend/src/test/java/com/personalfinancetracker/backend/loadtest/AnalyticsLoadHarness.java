@@ -0,0 +1,167 @@
+package com.personalfinancetracker.backend.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load generator for comparing the default thread-per-request mode with
+ * the {@code virtual-threads} profile. It drives an already running backend, so it needs
+ * nothing but the URL and a session cookie; it is a plain program, not a test.
+ * <p>
+ * Each of {@code --concurrency} clients sends requests back to back for {@code --duration},
+ * cycling through the given paths, after an unmeasured {@code --warmup}. The run prints
+ * throughput, latency percentiles and the number of failed (non-2xx) requests.
+ * <p>
+ * To compare the two modes, start the backend against the same database once as usual and
+ * once with {@code --spring.profiles.active=virtual-threads}, log in to get a
+ * {@code fintrack_jwt} cookie, and run against each:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.personalfinancetracker.backend.loadtest.AnalyticsLoadHarness \
+ *   -Dexec.args="--base-url http://localhost:8080 --cookie fintrack_jwt=... --concurrency 400 \
+ *                --paths /api/analytics/insights,/api/analytics/periodic-comparison"
+ * </pre>
+ * Run it at a few concurrency levels around the Tomcat thread limit (200 by default): below
+ * it the modes should match, above it the platform-thread mode queues requests in Tomcat and
+ * its p99 grows with concurrency, while the virtual-thread mode is limited by the connection
+ * pool instead.
+ */
+public class AnalyticsLoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        String cookie = options.get("cookie");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT60S"));
+        List<URI> uris = Arrays.stream(options.getOrDefault("paths", "/api/analytics/insights").split(","))
+                .map(path -> URI.create(baseUrl + path.trim()))
+                .toList();
+
+        System.out.printf("%d clients, %s warmup, %s measured, paths %s%n", concurrency, warmup, duration, uris);
+        Result result = run(uris, cookie, concurrency, warmup, duration);
+        System.out.println(result.summary());
+    }
+
+    static Result run(List<URI> uris, String cookie, int concurrency, Duration warmup, Duration duration)
+            throws Exception {
+        // Virtual threads on the client side, so the generator itself never runs out of threads
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(clients)
+                     .build()) {
+            long start = System.nanoTime();
+            long measureFrom = start + warmup.toNanos();
+            long end = measureFrom + duration.toNanos();
+
+            List<Future<Recorder>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                int offset = i;
+                futures.add(clients.submit(() -> {
+                    Recorder recorder = new Recorder();
+                    for (int n = offset; System.nanoTime() < end; n++) {
+                        HttpRequest.Builder builder = HttpRequest.newBuilder(uris.get(n % uris.size()))
+                                .timeout(Duration.ofSeconds(60))
+                                .GET();
+                        if (cookie != null) {
+                            builder.header("Cookie", cookie);
+                        }
+                        long sent = System.nanoTime();
+                        boolean ok;
+                        try {
+                            int status = httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding())
+                                    .statusCode();
+                            ok = status >= 200 && status < 300;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long received = System.nanoTime();
+                        if (sent >= measureFrom && received <= end) {
+                            recorder.record(received - sent, ok);
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+
+            Recorder total = new Recorder();
+            for (Future<Recorder> future : futures) {
+                total.add(future.get());
+            }
+            return total.result(duration);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got " + Arrays.toString(args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    /** Latencies of one client, merged into the total at the end of the run. */
+    static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int failures;
+
+        void record(long latencyNanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!ok) {
+                failures++;
+            }
+        }
+
+        void add(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            failures += other.failures;
+        }
+
+        Result result(Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            double seconds = duration.toNanos() / 1e9;
+            return new Result(count, failures, count / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), count == 0 ? 0 : sorted[count - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double fraction) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(fraction * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    record Result(int requests, int failures, double throughput, double p50Millis, double p99Millis, double maxMillis) {
+
+        String summary() {
+            return String.format("%d requests (%d failed), %.1f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    requests, failures, throughput, p50Millis, p99Millis, maxMillis);
+        }
+    }
+}
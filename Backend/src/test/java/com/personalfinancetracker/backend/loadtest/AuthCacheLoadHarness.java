@@ -0,0 +1,178 @@
+package com.personalfinancetracker.backend.loadtest;
+
+import ch.qos.logback.classic.Level;
+import com.personalfinancetracker.backend.filters.JwtRequestFilter;
+import com.personalfinancetracker.backend.services.auth.AuthenticationService;
+import com.personalfinancetracker.backend.services.auth.VerifiedTokenCache;
+import com.personalfinancetracker.backend.utils.JwtUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for the authentication path alone: {@link JwtRequestFilter}
+ * with the {@link VerifiedTokenCache} enabled, and with it disabled
+ * ({@code jwt.cache.max-entries=0}), so every request parses the token signature and looks
+ * the user up again. It runs the filter in-process on mock requests, so it needs no backend
+ * or database; the user lookup is a stub that waits {@code --lookup-latency} to stand in for
+ * the customer query.
+ * <p>
+ * Each of {@code --concurrency} clients authenticates requests back to back for
+ * {@code --duration}, cycling through the tokens of {@code --users} users, after an
+ * unmeasured {@code --warmup}. Both modes are run one after the other and each prints
+ * throughput, latency percentiles and the number of user lookups:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.personalfinancetracker.backend.loadtest.AuthCacheLoadHarness \
+ *   -Dexec.args="--concurrency 64 --users 1000 --lookup-latency PT0.002S"
+ * </pre>
+ * With the cache on there is one lookup per user for the whole run, and throughput is
+ * bounded by the SHA-256 of the cache key; with it off every request pays the signature
+ * check and the lookup. For the same comparison end to end, start the backend once with
+ * {@code --jwt.cache.max-entries=0} and run {@link AnalyticsLoadHarness} against both.
+ */
+public class AuthCacheLoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        Duration lookupLatency = Duration.parse(options.getOrDefault("lookup-latency", "PT0.002S"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT5S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT20S"));
+
+        // Debug logging of every request would measure the console instead of the filter
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        System.out.printf("%d clients, %d users, %s lookup latency, %s warmup, %s measured%n",
+                concurrency, users, lookupLatency, warmup, duration);
+        for (boolean cacheEnabled : new boolean[]{false, true}) {
+            AtomicLong lookups = new AtomicLong();
+            JwtUtil jwtUtil = jwtUtil();
+            List<String> tokens = new ArrayList<>(users);
+            for (int i = 0; i < users; i++) {
+                tokens.add(jwtUtil.generateToken("user" + i + "@example.com"));
+            }
+            JwtRequestFilter filter = new JwtRequestFilter(jwtUtil,
+                    new StubAuthenticationService(lookupLatency, lookups), tokenCache(cacheEnabled ? 10000 : 0));
+
+            AnalyticsLoadHarness.Result result = run(filter, tokens, concurrency, warmup, duration);
+            System.out.printf("cache %s: %s, %d user lookups%n", cacheEnabled ? "on " : "off", result.summary(),
+                    lookups.get());
+        }
+    }
+
+    static AnalyticsLoadHarness.Result run(JwtRequestFilter filter, List<String> tokens, int concurrency,
+                                           Duration warmup, Duration duration) throws Exception {
+        FilterChain chain = (request, response) -> {
+        };
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            long measureFrom = start + warmup.toNanos();
+            long end = measureFrom + duration.toNanos();
+
+            List<Future<AnalyticsLoadHarness.Recorder>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                // Spread over the tokens, so clients do not all miss on the same new token at once
+                int offset = (int) ((long) i * tokens.size() / concurrency);
+                futures.add(clients.submit(() -> {
+                    AnalyticsLoadHarness.Recorder recorder = new AnalyticsLoadHarness.Recorder();
+                    for (int n = offset; System.nanoTime() < end; n++) {
+                        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expense");
+                        request.setCookies(new Cookie("fintrack_jwt", tokens.get(n % tokens.size())));
+                        long sent = System.nanoTime();
+                        boolean ok;
+                        try {
+                            filter.doFilter(request, new MockHttpServletResponse(), chain);
+                            ok = SecurityContextHolder.getContext().getAuthentication() != null;
+                        } catch (Exception e) {
+                            ok = false;
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                        }
+                        long received = System.nanoTime();
+                        if (sent >= measureFrom && received <= end) {
+                            recorder.record(received - sent, ok);
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+
+            AnalyticsLoadHarness.Recorder total = new AnalyticsLoadHarness.Recorder();
+            for (Future<AnalyticsLoadHarness.Recorder> future : futures) {
+                total.add(future.get());
+            }
+            return total.result(duration);
+        }
+    }
+
+    // The @Value defaults the application runs with
+    private static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretString",
+                "fintrack_secure_jwt_secret_key_with_minimum_256_bits_length_for_maximum_security");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "jwtCookieName", "fintrack_jwt");
+        ReflectionTestUtils.setField(jwtUtil, "domain", "localhost");
+        return jwtUtil;
+    }
+
+    // Zero entries turns the cache off: nothing is ever stored, so every get misses
+    private static VerifiedTokenCache tokenCache(int maxEntries) {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", maxEntries);
+        return cache;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got " + Arrays.toString(args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    /** Customer lookup that takes as long as the database round trip it replaces. */
+    private static final class StubAuthenticationService extends AuthenticationService {
+        private final Duration latency;
+        private final AtomicLong lookups;
+
+        StubAuthenticationService(Duration latency, AtomicLong lookups) {
+            super(null, null, null, null);
+            this.latency = latency;
+            this.lookups = lookups;
+        }
+
+        @Override
+        public UserDetails loadUserByUsername(String email) {
+            lookups.incrementAndGet();
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new User(email, "", List.of());
+        }
+    }
+}
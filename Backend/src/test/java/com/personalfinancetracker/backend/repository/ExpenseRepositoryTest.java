@@ -0,0 +1,94 @@
+package com.personalfinancetracker.backend.repository;
+
+import com.personalfinancetracker.backend.dto.SpendingBucket;
+import com.personalfinancetracker.backend.entities.Customer;
+import com.personalfinancetracker.backend.entities.Expense;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots every repository, so Spring Data parses all declared queries, and runs the
+ * spending-pattern aggregations against an in-memory database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ExpenseRepositoryTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer();
+        customer.setEmail(EMAIL);
+        customer.setName("User");
+        entityManager.persist(customer);
+    }
+
+    @Test
+    void sumByDayOfWeekNumbersDaysFromSunday() {
+        // 2024-06-02 is a Sunday, 2024-06-08 a Saturday
+        expense(10.0, LocalDateTime.of(2024, 6, 2, 9, 0));
+        expense(15.5, LocalDateTime.of(2024, 6, 2, 18, 0));
+        expense(7.25, LocalDateTime.of(2024, 6, 8, 12, 0));
+        entityManager.flush();
+
+        List<SpendingBucket> buckets = expenseRepository.sumByDayOfWeek(
+                EMAIL, LocalDateTime.of(2024, 6, 1, 0, 0), LocalDateTime.of(2024, 7, 1, 0, 0));
+
+        Map<Integer, SpendingBucket> byDay = buckets.stream()
+                .collect(Collectors.toMap(SpendingBucket::getBucket, bucket -> bucket));
+        assertThat(byDay).containsOnlyKeys(1, 7);
+        assertThat(byDay.get(1).getTotal()).isEqualTo(25.5);
+        assertThat(byDay.get(1).getCount()).isEqualTo(2);
+        assertThat(byDay.get(7).getTotal()).isEqualTo(7.25);
+    }
+
+    @Test
+    void sumByHourAndDayOfMonthGroupExpenses() {
+        expense(20.0, LocalDateTime.of(2024, 6, 3, 9, 15));
+        expense(5.0, LocalDateTime.of(2024, 6, 17, 9, 45));
+        entityManager.flush();
+        LocalDateTime start = LocalDateTime.of(2024, 6, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 7, 1, 0, 0);
+
+        assertThat(expenseRepository.sumByHour(EMAIL, start, end))
+                .singleElement()
+                .satisfies(bucket -> {
+                    assertThat(bucket.getBucket()).isEqualTo(9);
+                    assertThat(bucket.getTotal()).isEqualTo(25.0);
+                });
+        assertThat(expenseRepository.sumByDayOfMonth(EMAIL, start, end))
+                .extracting(SpendingBucket::getBucket)
+                .containsExactlyInAnyOrder(3, 17);
+    }
+
+    private void expense(double amount, LocalDateTime date) {
+        Expense expense = new Expense();
+        expense.setCustomer(customer);
+        expense.setCategory("FOOD");
+        expense.setAmount(amount);
+        expense.setDate(date);
+        entityManager.persist(expense);
+    }
+}
@@ -0,0 +1,120 @@
+package com.personalfinancetracker.backend.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The per-user queries must be answered from the V2 composite indexes. H2 cannot run the
+ * migration itself (it creates the indexes through a MySQL stored procedure), so the
+ * indexes are read from its CALL lines and created on the schema generated from the
+ * entities; the plans come from H2's EXPLAIN, not MySQL's.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// A database of its own, so the indexes do not leak into the other tests
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:hot-query-indexes;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class HotQueryIndexTest {
+
+    private static final Pattern CREATE_INDEX =
+            Pattern.compile("CALL create_index_if_missing\\('(\\w+)', '(\\w+)', '([\\w, ]+)'\\);");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String migration = new ClassPathResource("db/migration/V2__hot_query_indexes.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        Matcher call = CREATE_INDEX.matcher(migration);
+        int indexes = 0;
+        while (call.find()) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + call.group(2) + " ON " + call.group(1) + " (" + call.group(3) + ")");
+            indexes++;
+        }
+        assertThat(indexes).as("indexes in V2").isEqualTo(11);
+
+        // DDL and ANALYZE commit, so the rows outlive the first test; the database is this class's own
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Integer.class) > 0) {
+            return;
+        }
+        // Enough rows of a few users that a scan is never the cheaper plan
+        jdbcTemplate.update("INSERT INTO customer (email, name, verified) " +
+                "SELECT 'user' || \"X\" || '@example.com', 'User', TRUE FROM SYSTEM_RANGE(1, 20)");
+        jdbcTemplate.update("INSERT INTO expense (amount, amount_minor, currency, category, date, customer_email, is_recurring) " +
+                "SELECT 1, 100, 'INR', 'CATEGORY_' || MOD(\"X\", 12), DATEADD('HOUR', \"X\", TIMESTAMP '2024-01-01 00:00:00'), " +
+                "'user' || MOD(\"X\", 20) + 1 || '@example.com', FALSE FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.update("INSERT INTO income (amount, amount_minor, currency, source, date, customer_email, is_recurring) " +
+                "SELECT 1, 100, 'INR', 'SOURCE_' || MOD(\"X\", 4), DATEADD('DAY', MOD(\"X\", 366), DATE '2024-01-01'), " +
+                "'user' || MOD(\"X\", 20) + 1 || '@example.com', FALSE FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.update("INSERT INTO expense_tag (expense_id, tag) SELECT id, 'tag' || MOD(id, 50) FROM expense");
+        jdbcTemplate.update("INSERT INTO income_tag (income_id, tag) SELECT id, 'tag' || MOD(id, 50) FROM income");
+        jdbcTemplate.update("INSERT INTO budget (category, amount, customer_email) " +
+                "SELECT 'CATEGORY_' || MOD(\"X\", 12), 100, 'user' || MOD(\"X\", 20) + 1 || '@example.com' FROM SYSTEM_RANGE(1, 240)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void expensePeriodAndKeysetQueriesUseTheDateIndex() {
+        // ExpenseRepository.streamResponses and the date filters
+        assertThat(plan("SELECT id, amount_minor FROM expense WHERE customer_email = 'user1@example.com' " +
+                "AND date >= TIMESTAMP '2024-02-01 00:00:00' AND date < TIMESTAMP '2024-03-01 00:00:00' ORDER BY date DESC, id DESC"))
+                .contains("idx_expense_customer_date_id");
+        // Keyset paging after (date, id)
+        assertThat(plan("SELECT id FROM expense WHERE customer_email = 'user1@example.com' " +
+                "AND (date < TIMESTAMP '2024-02-01 00:00:00' OR (date = TIMESTAMP '2024-02-01 00:00:00' AND id < 500)) " +
+                "ORDER BY date DESC, id DESC LIMIT 51"))
+                .contains("idx_expense_customer_date_id");
+    }
+
+    @Test
+    void categoryTotalsUseTheCategoryIndex() {
+        // ExpenseRepository.getTotalAmountByCategory and the budget checks
+        assertThat(plan("SELECT SUM(amount_minor) FROM expense WHERE customer_email = 'user1@example.com' " +
+                "AND category = 'CATEGORY_1' AND date >= TIMESTAMP '2024-02-01 00:00:00' AND date < TIMESTAMP '2024-03-01 00:00:00'"))
+                .contains("idx_expense_customer_category_date");
+    }
+
+    @Test
+    void incomeQueriesUseTheirIndexes() {
+        assertThat(plan("SELECT id FROM income WHERE customer_email = 'user1@example.com' " +
+                "AND date BETWEEN DATE '2024-02-01' AND DATE '2024-02-29'"))
+                .contains("idx_income_customer_date");
+        assertThat(plan("SELECT SUM(amount_minor) FROM income WHERE customer_email = 'user1@example.com' AND source = 'SOURCE_1'"))
+                .contains("idx_income_customer_source");
+    }
+
+    @Test
+    void tagFiltersGoFromTheTagToTheRow() {
+        // ExpenseSpecifications.hasAnyTag and IncomeSpecifications.hasAnyTag
+        assertThat(plan("SELECT expense_id FROM expense_tag WHERE tag IN ('tag1', 'tag2')"))
+                .contains("idx_expense_tag_tag");
+        assertThat(plan("SELECT income_id FROM income_tag WHERE tag IN ('tag1', 'tag2')"))
+                .contains("idx_income_tag_tag");
+    }
+
+    @Test
+    void budgetLookupUsesTheCustomerCategoryIndex() {
+        // BudgetRepository.findByCustomerEmailAndCategory
+        assertThat(plan("SELECT id FROM budget WHERE customer_email = 'user1@example.com' AND category = 'CATEGORY_1'"))
+                .contains("idx_budget_customer_category");
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,72 @@
+package com.personalfinancetracker.backend.repository;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The streaming queries ask for fetch size {@link Integer#MIN_VALUE}, which is how Connector/J
+ * is told to stream rows and which H2 rejects. Import this into an H2 test that runs them: it
+ * drops negative fetch sizes and leaves everything else to the driver.
+ */
+@TestConfiguration
+public class StreamingFetchSizeSupport {
+
+    @Bean
+    static BeanPostProcessor ignoreStreamingFetchSize() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return proxy(Connection.class, super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return proxy(Connection.class, super.getConnection(username, password));
+            }
+        };
+    }
+
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if ("setFetchSize".equals(method.getName()) && (int) args[0] < 0) {
+                return null;
+            }
+            try {
+                Object result = method.invoke(target, args);
+                // Statements come from the connection and must be wrapped as well
+                if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                    return proxy(method.getReturnType(), statement);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(StreamingFetchSizeSupport.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object proxy(Class<?> type, Statement target) {
+        return proxy((Class<Object>) type, (Object) target);
+    }
+}
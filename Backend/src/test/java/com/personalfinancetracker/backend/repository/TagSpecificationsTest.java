@@ -0,0 +1,122 @@
+package com.personalfinancetracker.backend.repository;
+
+import com.personalfinancetracker.backend.entities.Customer;
+import com.personalfinancetracker.backend.entities.Expense;
+import com.personalfinancetracker.backend.entities.Income;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The tag filters are EXISTS subqueries on the normalized tag tables: a row matching several
+ * of the tags comes back once, and other users' rows never match.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TagSpecificationsTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String OTHER = "other@example.com";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    private Customer customer;
+    private Customer other;
+
+    @BeforeEach
+    void setUp() {
+        customer = customer(EMAIL);
+        other = customer(OTHER);
+    }
+
+    @Test
+    void expensesMatchAnyOfTheTagsOnce() {
+        Long both = expense(customer, "travel, work");
+        Long travel = expense(customer, "travel");
+        expense(customer, "home");
+        expense(customer, null);
+        expense(other, "travel");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Expense> matches = expenseRepository.findAll(ExpenseSpecifications.belongsTo(EMAIL)
+                .and(ExpenseSpecifications.hasAnyTag(Set.of("travel", "work"))));
+
+        assertThat(matches).extracting(Expense::getId).containsExactlyInAnyOrder(both, travel);
+    }
+
+    @Test
+    void incomesMatchAnyOfTheTagsOnce() {
+        Long both = income(EMAIL, "side, bonus");
+        Long bonus = income(EMAIL, "bonus");
+        income(EMAIL, "salary");
+        income(EMAIL, "");
+        income(OTHER, "bonus");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Income> matches = incomeRepository.findAll(IncomeSpecifications.belongsTo(EMAIL)
+                .and(IncomeSpecifications.hasAnyTag(Set.of("side", "bonus"))));
+
+        assertThat(matches).extracting(Income::getId).containsExactlyInAnyOrder(both, bonus);
+    }
+
+    @Test
+    void retaggingReplacesTheTagRows() {
+        Long id = income(EMAIL, "side");
+        entityManager.flush();
+        entityManager.find(Income.class, id).setTags("bonus");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(incomeRepository.findAll(IncomeSpecifications.hasAnyTag(Set.of("side")))).isEmpty();
+        assertThat(incomeRepository.findAll(IncomeSpecifications.hasAnyTag(Set.of("bonus"))))
+                .extracting(Income::getId).containsExactly(id);
+    }
+
+    private Customer customer(String email) {
+        Customer customer = new Customer();
+        customer.setEmail(email);
+        customer.setName(email);
+        return entityManager.persist(customer);
+    }
+
+    private Long expense(Customer owner, String tags) {
+        Expense expense = new Expense();
+        expense.setCustomer(owner);
+        expense.setCategory("FOOD");
+        expense.setAmount(10.0);
+        expense.setDate(LocalDateTime.of(2024, 6, 1, 12, 0));
+        expense.setTags(tags);
+        return entityManager.persist(expense).getId();
+    }
+
+    private Long income(String email, String tags) {
+        Income income = new Income();
+        income.setCustomerEmail(email);
+        income.setSource("Salary");
+        income.setAmount(100.0);
+        income.setDate(LocalDate.of(2024, 6, 1));
+        income.setTags(tags);
+        return entityManager.persist(income).getId();
+    }
+}
@@ -0,0 +1,130 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.dto.DashboardEvent;
+import com.personalfinancetracker.backend.entities.Budget;
+import com.personalfinancetracker.backend.entities.LedgerEntry;
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import com.personalfinancetracker.backend.repository.BudgetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Budget alerts are checked once per transaction, against the net change of each category.
+ */
+class DashboardEventServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private final MonthlyRollupService monthlyRollupService = mock(MonthlyRollupService.class);
+    private final BudgetRepository budgetRepository = mock(BudgetRepository.class);
+    private final List<DashboardEvent> published = new ArrayList<>();
+    private DashboardEventService service;
+
+    @BeforeEach
+    void setUp() {
+        Budget food = new Budget();
+        food.setCategory("FOOD");
+        food.setAmount(100.0);
+        when(budgetRepository.findByCustomerEmail(EMAIL)).thenReturn(List.of(food));
+
+        service = new DashboardEventService(monthlyRollupService, budgetRepository, 1, 16, 5, 10, Duration.ofMinutes(1)) {
+            @Override
+            public boolean hasSubscribers(String email) {
+                return true;
+            }
+
+            @Override
+            public void publish(String email, DashboardEvent event) {
+                published.add(event);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.destroy();
+    }
+
+    @Test
+    void batchCrossingTheBudgetAlertsOnce() {
+        when(monthlyRollupService.getCurrentMonthCategoryTotals(EMAIL, LedgerEntryType.EXPENSE))
+                .thenReturn(Map.of("FOOD", 100.0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.collectBudgetChange(new LedgerChangeEvent(null, expense("FOOD", 5_000)));
+        service.collectBudgetChange(new LedgerChangeEvent(null, expense("FOOD", 5_000)));
+        assertThat(published).isEmpty();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(published).singleElement().satisfies(event -> {
+            assertThat(event.getType()).isEqualTo(DashboardEvent.BUDGET_THRESHOLD);
+            assertThat(event.getThreshold()).isEqualTo(100);
+            assertThat(event.getSpentAmount()).isEqualTo(100.0);
+        });
+        verify(budgetRepository, times(1)).findByCustomerEmail(EMAIL);
+        verify(monthlyRollupService, times(1)).getCurrentMonthCategoryTotals(EMAIL, LedgerEntryType.EXPENSE);
+    }
+
+    @Test
+    void netDecreaseWithinTheTransactionDoesNotAlert() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.collectBudgetChange(new LedgerChangeEvent(null, expense("FOOD", 9_000)));
+        service.collectBudgetChange(new LedgerChangeEvent(expense("FOOD", 9_000), null));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(published).isEmpty();
+        verify(budgetRepository, never()).findByCustomerEmail(EMAIL);
+    }
+
+    @Test
+    void rolledBackChangesAreDiscarded() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.collectBudgetChange(new LedgerChangeEvent(null, expense("FOOD", 10_000)));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(published).isEmpty();
+        assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+    }
+
+    @Test
+    void changeOutsideATransactionIsCheckedImmediately() {
+        when(monthlyRollupService.getCurrentMonthCategoryTotals(EMAIL, LedgerEntryType.EXPENSE))
+                .thenReturn(Map.of("FOOD", 85.0));
+
+        service.collectBudgetChange(new LedgerChangeEvent(null, expense("FOOD", 1_000)));
+
+        assertThat(published).extracting(DashboardEvent::getThreshold).containsExactly(80);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static LedgerEntry.Snapshot expense(String category, long amountMinor) {
+        return new LedgerEntry.Snapshot(EMAIL, LedgerEntryType.EXPENSE, category, YearMonth.now(), amountMinor);
+    }
+}
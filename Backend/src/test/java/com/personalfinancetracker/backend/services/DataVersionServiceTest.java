@@ -0,0 +1,115 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.entities.Customer;
+import com.personalfinancetracker.backend.entities.Expense;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataVersionService.class)
+class DataVersionServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void createVersionTable() {
+        // Created by the V8 and V9 migrations; the test schema comes from the entities
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS customer_data_version " +
+                "(customer_email varchar(255) NOT NULL PRIMARY KEY, version bigint NOT NULL, changed_at timestamp(6) NULL)");
+        jdbcTemplate.update("DELETE FROM customer_data_version");
+    }
+
+    @Test
+    void versionIsSharedBetweenInstances() {
+        DataVersionService otherInstance = new DataVersionService(jdbcTemplate, transactionManager);
+        String etag = otherInstance.etag(EMAIL);
+        assertThat(dataVersionService.etag(EMAIL)).isEqualTo(etag);
+
+        dataVersionService.bump(EMAIL);
+
+        assertThat(otherInstance.currentVersion(EMAIL)).isEqualTo(1);
+        assertThat(otherInstance.etag(EMAIL)).isNotEqualTo(etag).isEqualTo(dataVersionService.etag(EMAIL));
+        assertThat(otherInstance.etag("other@example.com")).isNotEqualTo(otherInstance.etag(EMAIL));
+    }
+
+    @Test
+    void bumpRollsBackWithTheWritingTransaction() {
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        newTransaction.executeWithoutResult(status -> {
+            dataVersionService.bump(EMAIL);
+            status.setRollbackOnly();
+        });
+        assertThat(dataVersionService.currentVersion(EMAIL)).isZero();
+
+        newTransaction.executeWithoutResult(status -> dataVersionService.bump(EMAIL));
+        assertThat(dataVersionService.currentVersion(EMAIL)).isEqualTo(1);
+    }
+
+    @Test
+    void changeTimeIsSharedBetweenInstancesAndSetAtCommit() {
+        // Committed for real, so kept apart from the other tests' user
+        String committer = "committer@example.com";
+        assertThat(DataVersionService.changedWithin(jdbcTemplate, committer, Duration.ofMinutes(1))).isFalse();
+
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        newTransaction.executeWithoutResult(status -> {
+            dataVersionService.bump(committer);
+            jdbcTemplate.update("UPDATE customer_data_version SET changed_at = ? WHERE customer_email = ?",
+                    LocalDateTime.now().minusHours(1), committer);
+        });
+
+        // Refreshed after commit, so a long transaction does not use up the window
+        assertThat(DataVersionService.changedWithin(jdbcTemplate, committer, Duration.ofMinutes(1))).isTrue();
+        assertThat(DataVersionService.changedWithin(jdbcTemplate, committer, Duration.ZERO)).isFalse();
+        assertThat(DataVersionService.changedWithin(jdbcTemplate, "other@example.com", Duration.ofMinutes(1))).isFalse();
+    }
+
+    @Test
+    void ledgerChangesRaiseTheVersion() {
+        Customer customer = new Customer();
+        customer.setEmail(EMAIL);
+        customer.setName("User");
+        entityManager.persist(customer);
+
+        Expense expense = new Expense();
+        expense.setCustomer(customer);
+        expense.setCategory("FOOD");
+        expense.setAmount(12.5);
+        expense.setDate(LocalDateTime.of(2024, 6, 2, 9, 0));
+        entityManager.persistAndFlush(expense);
+
+        assertThat(dataVersionService.currentVersion(EMAIL)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,143 @@
+package com.personalfinancetracker.backend.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personalfinancetracker.backend.dto.ExpenseResponse;
+import com.personalfinancetracker.backend.entities.Customer;
+import com.personalfinancetracker.backend.entities.Expense;
+import com.personalfinancetracker.backend.repository.StreamingFetchSizeSupport;
+import com.personalfinancetracker.backend.utils.KeysetCursor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The listing is read as response-shaped rows, never as entities, and written as one JSON
+ * array with the application's ObjectMapper.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ExpenseListingService.class, StreamingFetchSizeSupport.class})
+class ExpenseListingServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Autowired
+    private ExpenseListingService expenseListingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Customer customer;
+    private Customer other;
+
+    @BeforeEach
+    void setUp() {
+        customer = customer(EMAIL);
+        other = customer("other@example.com");
+    }
+
+    @Test
+    void writeAllStreamsTheUsersRowsNewestFirst() throws IOException {
+        Long older = expense(customer, 10.0, NOON.minusDays(1), "travel,work");
+        Long newer = expense(customer, 20.0, NOON, null);
+        expense(other, 30.0, NOON.plusDays(1), null);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        expenseListingService.writeAll(EMAIL, out);
+
+        JsonNode rows = objectMapper.readTree(out.toByteArray());
+        assertThat(rows).extracting(row -> row.get("id").asLong()).containsExactly(newer, older);
+        JsonNode first = rows.get(1);
+        assertThat(first.get("amount").asDouble()).isEqualTo(10.0);
+        assertThat(first.get("customerEmail").asText()).isEqualTo(EMAIL);
+        assertThat(first.get("tags")).extracting(JsonNode::asText).containsExactly("travel", "work");
+        assertThat(first.get("date").asText()).isEqualTo("2024-05-31T12:00:00");
+        // Neither the expenses nor their customer were loaded as entities
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void emptyListingIsAnEmptyArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        expenseListingService.writeAll(EMAIL, out);
+
+        assertThat(out.toString()).isEqualTo("[]");
+    }
+
+    @Test
+    void pagesFollowEachOtherAcrossRowsWithTheSameDate() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(expense(customer, 1.0 + i, NOON, null));
+        }
+        ids.add(expense(customer, 9.0, NOON.minusHours(1), null));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        KeysetCursor position = null;
+        List<ExpenseResponse> page;
+        do {
+            page = expenseListingService.loadPage(EMAIL, position, 2);
+            page.forEach(row -> seen.add(row.getId()));
+            if (!page.isEmpty()) {
+                ExpenseResponse last = page.get(page.size() - 1);
+                position = KeysetCursor.of(last.getDate(), last.getId());
+            }
+        } while (page.size() == 2);
+
+        // Same date broken by id, descending; the hour-earlier row last
+        List<Long> expected = new ArrayList<>(ids.subList(0, 5).reversed());
+        expected.add(ids.get(5));
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    private Customer customer(String email) {
+        Customer customer = new Customer();
+        customer.setEmail(email);
+        customer.setName(email);
+        return entityManager.persist(customer);
+    }
+
+    private Long expense(Customer owner, double amount, LocalDateTime date, String tags) {
+        Expense expense = new Expense();
+        expense.setCustomer(owner);
+        expense.setCategory("GROCERY");
+        expense.setAmount(amount);
+        expense.setDate(date);
+        expense.setTags(tags);
+        return entityManager.persist(expense).getId();
+    }
+}
@@ -0,0 +1,353 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.controllers.ExpenseController;
+import com.personalfinancetracker.backend.dto.BatchItemResult;
+import com.personalfinancetracker.backend.dto.ExpenseBatchRequest;
+import com.personalfinancetracker.backend.dto.ExpenseBatchUpdate;
+import com.personalfinancetracker.backend.dto.ExpenseRequest;
+import com.personalfinancetracker.backend.dto.IncomeBatchRequest;
+import com.personalfinancetracker.backend.dto.IncomeBatchUpdate;
+import com.personalfinancetracker.backend.dto.IncomeRequest;
+import com.personalfinancetracker.backend.entities.Customer;
+import com.personalfinancetracker.backend.entities.Expense;
+import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.repository.ExpenseRepository;
+import com.personalfinancetracker.backend.repository.IncomeRepository;
+import com.personalfinancetracker.backend.utils.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({LedgerBatchService.class, DataVersionService.class})
+class LedgerBatchServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String OTHER = "other@example.com";
+
+    @Autowired
+    private LedgerBatchService ledgerBatchService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private IncomeRepository incomeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Customer customer;
+    private Customer other;
+
+    @BeforeEach
+    void setUp() {
+        // Created by the V8 and V9 migrations
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS customer_data_version " +
+                "(customer_email varchar(255) NOT NULL PRIMARY KEY, version bigint NOT NULL, changed_at timestamp(6) NULL)");
+        customer = customer(EMAIL);
+        other = customer(OTHER);
+    }
+
+    @Test
+    void mixedExpenseBatchAppliesEveryItem() {
+        Long kept = expense(customer, 10.0);
+        Long removed = expense(customer, 20.0);
+        entityManager.flush();
+        entityManager.clear();
+
+        ExpenseBatchRequest batch = new ExpenseBatchRequest();
+        batch.setCreate(List.of(new ExpenseRequest(5.0, "grocery"), new ExpenseRequest(7.5, "UTILITIES")));
+        batch.setUpdate(List.of(expenseUpdate(kept, 12.0, null)));
+        batch.setDelete(List.of(removed));
+        // The version table outlives this test's transaction, so compare against the start
+        long versionBefore = version(EMAIL);
+
+        List<BatchItemResult> results = ledgerBatchService.applyExpenseBatch(EMAIL, batch);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(results).extracting(BatchItemResult::getOperation, BatchItemResult::getIndex, BatchItemResult::getStatus)
+                .containsExactly(
+                        tuple("create", 0, BatchItemResult.CREATED),
+                        tuple("create", 1, BatchItemResult.CREATED),
+                        tuple("update", 0, BatchItemResult.UPDATED),
+                        tuple("delete", 0, BatchItemResult.DELETED));
+        assertThat(expenseRepository.findById(kept)).get().extracting(Expense::getAmount).isEqualTo(12.0);
+        assertThat(expenseRepository.findById(removed)).isEmpty();
+        assertThat(expenseRepository.findById(results.get(0).getId())).get()
+                .extracting(Expense::getCategory).isEqualTo("GROCERY");
+        assertThat(version(EMAIL)).isGreaterThan(versionBefore);
+    }
+
+    @Test
+    void ownershipOfAllReferencedRowsIsCheckedWithOneQuery() {
+        List<Long> ids = List.of(expense(customer, 1.0), expense(customer, 2.0), expense(customer, 3.0),
+                expense(customer, 4.0));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ExpenseBatchRequest batch = new ExpenseBatchRequest();
+        batch.setUpdate(List.of(expenseUpdate(ids.get(0), 9.0, null), expenseUpdate(ids.get(1), 9.0, null)));
+        batch.setDelete(List.of(ids.get(2), ids.get(3)));
+        ledgerBatchService.applyExpenseBatch(EMAIL, batch);
+
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void anotherUsersRowsAreNotFoundAndLeftAlone() {
+        Long theirs = expense(other, 50.0);
+        Long gone = expense(customer, 1.0);
+        entityManager.remove(entityManager.find(Expense.class, gone));
+        entityManager.flush();
+        entityManager.clear();
+
+        ExpenseBatchRequest batch = new ExpenseBatchRequest();
+        batch.setUpdate(List.of(expenseUpdate(theirs, 1.0, null), expenseUpdate(null, 1.0, null)));
+        batch.setDelete(List.of(theirs, gone));
+
+        List<BatchItemResult> results = ledgerBatchService.applyExpenseBatch(EMAIL, batch);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(results).extracting(BatchItemResult::getStatus).containsOnly(BatchItemResult.NOT_FOUND);
+        assertThat(expenseRepository.findById(theirs)).get().extracting(Expense::getAmount).isEqualTo(50.0);
+    }
+
+    @Test
+    void invalidItemsAreReportedWithoutStoppingTheRest() {
+        Long id = expense(customer, 10.0);
+        entityManager.flush();
+        entityManager.clear();
+
+        ExpenseBatchRequest batch = new ExpenseBatchRequest();
+        batch.setCreate(List.of(new ExpenseRequest(-1.0, "GROCERY"), new ExpenseRequest(5.0, "NOT_A_CATEGORY"),
+                new ExpenseRequest(5.0, null), new ExpenseRequest(5.0, "GROCERY")));
+        batch.setUpdate(List.of(expenseUpdate(id, 11.0, "NOT_A_CATEGORY")));
+
+        List<BatchItemResult> results = ledgerBatchService.applyExpenseBatch(EMAIL, batch);
+
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemResult.INVALID, BatchItemResult.INVALID, BatchItemResult.INVALID,
+                BatchItemResult.CREATED, BatchItemResult.INVALID);
+        assertThat(results).extracting(BatchItemResult::getMessage).containsExactly(
+                "Amount must be positive", "Invalid expense category", "Category is required", null,
+                "Invalid expense category");
+    }
+
+    @Test
+    void mixedIncomeBatchAppliesEveryItem() {
+        Long kept = income(EMAIL, 100.0);
+        Long removed = income(EMAIL, 200.0);
+        Long theirs = income(OTHER, 300.0);
+        entityManager.flush();
+        entityManager.clear();
+
+        IncomeRequest blankSource = incomeRequest(10.0, " ");
+        IncomeBatchUpdate update = new IncomeBatchUpdate();
+        update.setId(kept);
+        update.setAmount(150.0);
+        IncomeBatchRequest batch = new IncomeBatchRequest();
+        batch.setCreate(List.of(incomeRequest(50.0, "Gift"), blankSource, incomeRequest(0, "Gift")));
+        batch.setUpdate(List.of(update));
+        batch.setDelete(List.of(removed, theirs));
+
+        List<BatchItemResult> results = ledgerBatchService.applyIncomeBatch(EMAIL, batch);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemResult.INVALID, BatchItemResult.INVALID, BatchItemResult.CREATED,
+                BatchItemResult.UPDATED, BatchItemResult.DELETED, BatchItemResult.NOT_FOUND);
+        assertThat(incomeRepository.findById(kept)).get().extracting(Income::getAmount).isEqualTo(150.0);
+        assertThat(incomeRepository.findById(removed)).isEmpty();
+        assertThat(incomeRepository.findById(theirs)).isPresent();
+    }
+
+    @Test
+    void singleRowEditsCheckTheOwner() {
+        Long mine = expense(customer, 10.0);
+        Long theirs = expense(other, 20.0);
+        Long myIncome = income(EMAIL, 100.0);
+        Long theirIncome = income(OTHER, 100.0);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(ledgerBatchService.updateExpense(EMAIL, mine, new ExpenseRequest(15.0, "housing")).getStatus())
+                .isEqualTo(BatchItemResult.UPDATED);
+        assertThat(ledgerBatchService.updateExpense(EMAIL, mine, new ExpenseRequest(15.0, "bogus")).getStatus())
+                .isEqualTo(BatchItemResult.INVALID);
+        assertThat(ledgerBatchService.updateExpense(EMAIL, theirs, new ExpenseRequest(1.0, null)).getStatus())
+                .isEqualTo(BatchItemResult.FORBIDDEN);
+        assertThat(ledgerBatchService.deleteExpense(EMAIL, theirs).getStatus()).isEqualTo(BatchItemResult.FORBIDDEN);
+        assertThat(ledgerBatchService.updateIncome(EMAIL, theirIncome, incomeRequest(1.0, null)).getStatus())
+                .isEqualTo(BatchItemResult.FORBIDDEN);
+        assertThat(ledgerBatchService.deleteIncome(EMAIL, theirIncome).getStatus()).isEqualTo(BatchItemResult.FORBIDDEN);
+        assertThat(ledgerBatchService.updateIncome(EMAIL, myIncome, incomeRequest(120.0, null)).getStatus())
+                .isEqualTo(BatchItemResult.UPDATED);
+        assertThat(ledgerBatchService.deleteIncome(EMAIL, myIncome).getStatus()).isEqualTo(BatchItemResult.DELETED);
+        entityManager.flush();
+        entityManager.clear();
+
+        Expense updated = expenseRepository.findById(mine).orElseThrow();
+        assertThat(updated.getAmount()).isEqualTo(15.0);
+        assertThat(updated.getCategory()).isEqualTo("HOUSING");
+        assertThat(expenseRepository.findById(theirs)).get().extracting(Expense::getAmount).isEqualTo(20.0);
+        assertThat(incomeRepository.findById(myIncome)).isEmpty();
+        assertThat(incomeRepository.findById(theirIncome)).get().extracting(Income::getAmount).isEqualTo(100.0);
+
+        assertThat(ledgerBatchService.deleteExpense(EMAIL, mine).getStatus()).isEqualTo(BatchItemResult.DELETED);
+        entityManager.flush();
+        assertThatThrownBy(() -> ledgerBatchService.deleteExpense(EMAIL, mine)).hasMessage("Expense not found");
+        assertThatThrownBy(() -> ledgerBatchService.updateIncome(EMAIL, myIncome, incomeRequest(1.0, null)))
+                .hasMessage("Income not found");
+    }
+
+    @Test
+    void failedBatchRollsBackItemsAlreadyWritten() {
+        // Seeded and checked in transactions of their own, so the batch commits or rolls back for real
+        String email = "rollback@example.com";
+        TransactionTemplate separate = new TransactionTemplate(transactionManager);
+        separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long existing = separate.execute(status -> {
+            jdbcTemplate.update("INSERT INTO customer (email, name, verified) VALUES (?, 'Rollback', TRUE)", email);
+            jdbcTemplate.update("INSERT INTO expense (amount, amount_minor, currency, category, date, customer_email, is_recurring) " +
+                    "VALUES (10, 1000, 'INR', 'FOOD', TIMESTAMP '2024-06-01 12:00:00', ?, FALSE)", email);
+            return jdbcTemplate.queryForObject("SELECT id FROM expense WHERE customer_email = ?", Long.class, email);
+        });
+        try {
+            ExpenseRequest tooLong = new ExpenseRequest(5.0, "GROCERY");
+            tooLong.setNote("x".repeat(501));
+            ExpenseBatchRequest batch = new ExpenseBatchRequest();
+            batch.setCreate(List.of(new ExpenseRequest(1.0, "GROCERY"), tooLong));
+            batch.setDelete(List.of(existing));
+
+            assertThatThrownBy(() -> separate.executeWithoutResult(
+                    status -> ledgerBatchService.applyExpenseBatch(email, batch))).isInstanceOf(RuntimeException.class);
+
+            separate.executeWithoutResult(status -> {
+                assertThat(jdbcTemplate.queryForList("SELECT amount FROM expense WHERE customer_email = ?",
+                        Double.class, email)).containsExactly(10.0);
+                assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer_data_version " +
+                        "WHERE customer_email = ?", Integer.class, email)).isZero();
+            });
+        } finally {
+            separate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM expense WHERE customer_email = ?", email);
+                jdbcTemplate.update("DELETE FROM customer WHERE email = ?", email);
+            });
+        }
+    }
+
+    @Test
+    void batchesOverTheLimitAreRejectedBeforeAnythingIsWritten() {
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(jwtUtil.getJwtFromCookies(request)).thenReturn("token");
+        when(jwtUtil.extractUsername("token")).thenReturn(EMAIL);
+        ExpenseController controller = new ExpenseController(expenseRepository, null, null, jwtUtil, request,
+                null, null, ledgerBatchService, null);
+
+        // The limit counts creates, updates and deletes together
+        ExpenseBatchRequest atLimit = new ExpenseBatchRequest();
+        atLimit.setCreate(Collections.nCopies(400, new ExpenseRequest(1.0, "GROCERY")));
+        atLimit.setUpdate(Collections.nCopies(400, expenseUpdate(-1L, 1.0, null)));
+        atLimit.setDelete(Collections.nCopies(LedgerBatchService.MAX_BATCH_ITEMS - 800, -1L));
+        ExpenseBatchRequest overLimit = new ExpenseBatchRequest();
+        overLimit.setCreate(Collections.nCopies(LedgerBatchService.MAX_BATCH_ITEMS - 1, new ExpenseRequest(1.0, "GROCERY")));
+        overLimit.setDelete(List.of(-1L, -2L));
+
+        assertThat(controller.applyExpenseBatch(overLimit).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(expenseRepository.count()).isZero();
+
+        ResponseEntity<?> accepted = controller.applyExpenseBatch(atLimit);
+        assertThat(accepted.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((List<?>) accepted.getBody()).hasSize(LedgerBatchService.MAX_BATCH_ITEMS);
+        assertThat(expenseRepository.count()).isEqualTo(400);
+    }
+
+    private long version(String email) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(version), 0) FROM customer_data_version " +
+                "WHERE customer_email = ?", Long.class, email);
+    }
+
+    private Customer customer(String email) {
+        Customer customer = new Customer();
+        customer.setEmail(email);
+        customer.setName(email);
+        return entityManager.persist(customer);
+    }
+
+    private Long expense(Customer owner, double amount) {
+        Expense expense = new Expense();
+        expense.setCustomer(owner);
+        expense.setCategory("FOOD");
+        expense.setAmount(amount);
+        expense.setDate(LocalDateTime.of(2024, 6, 1, 12, 0));
+        return entityManager.persist(expense).getId();
+    }
+
+    private Long income(String email, double amount) {
+        Income income = new Income();
+        income.setCustomerEmail(email);
+        income.setSource("Salary");
+        income.setAmount(amount);
+        income.setDate(LocalDate.of(2024, 6, 1));
+        return entityManager.persist(income).getId();
+    }
+
+    private static ExpenseBatchUpdate expenseUpdate(Long id, Double amount, String category) {
+        ExpenseBatchUpdate update = new ExpenseBatchUpdate();
+        update.setId(id);
+        update.setAmount(amount);
+        update.setCategory(category);
+        return update;
+    }
+
+    private static IncomeRequest incomeRequest(double amount, String source) {
+        IncomeRequest request = new IncomeRequest();
+        request.setAmount(amount);
+        request.setSource(source);
+        return request;
+    }
+}
@@ -0,0 +1,160 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.entities.Customer;
+import com.personalfinancetracker.backend.entities.Expense;
+import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MonthlyRollupService.class)
+class MonthlyRollupServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reconcileCorrectsDriftedCurrentMonthRowsPerUser() {
+        YearMonth month = YearMonth.now();
+        Customer alice = customer("alice@example.com");
+        Customer bob = customer("bob@example.com");
+        expense(alice, "FOOD", 12.50, month.atDay(1).atTime(9, 0));
+        expense(alice, "FOOD", 7.50, month.atDay(1).atTime(18, 0));
+        expense(bob, "RENT", 300.0, month.atDay(1).atTime(10, 0));
+        expense(bob, "RENT", 280.0, month.minusMonths(1).atDay(1).atTime(10, 0));
+        entityManager.flush();
+
+        // Simulate writes that bypassed the entity listeners
+        jdbcTemplate.update("UPDATE monthly_rollup SET total_minor = 1, total = 0.01 WHERE customer_email = ?",
+                "alice@example.com");
+        jdbcTemplate.update("INSERT INTO monthly_rollup " +
+                        "(customer_email, period_start, entry_type, category, total_minor, total, entry_count) " +
+                        "VALUES (?, ?, 'EXPENSE', 'TRAVEL', 5000, 50, 1)",
+                "carol@example.com", Date.valueOf(month.atDay(1)));
+
+        monthlyRollupService.reconcileCurrentMonth();
+
+        assertThat(monthlyRollupService.getCurrentMonthCategoryTotals("alice@example.com", LedgerEntryType.EXPENSE))
+                .containsExactly(Map.entry("FOOD", 20.0));
+        assertThat(monthlyRollupService.getCurrentMonthCategoryTotals("bob@example.com", LedgerEntryType.EXPENSE))
+                .containsExactly(Map.entry("RENT", 300.0));
+        // A user without current-month transactions loses the stale rows
+        assertThat(monthlyRollupService.getCurrentMonthCategoryTotals("carol@example.com", LedgerEntryType.EXPENSE))
+                .isEmpty();
+        // Earlier months are left alone
+        assertThat(monthlyRollupService.getMonthlyTotals("bob@example.com", LedgerEntryType.EXPENSE,
+                month.minusMonths(1), month.minusMonths(1)))
+                .containsEntry(month.minusMonths(1), 280.0);
+    }
+
+    @Test
+    void categoryTotalsAreReadFromMinorUnits() {
+        YearMonth month = YearMonth.of(2024, 3);
+        // 0.10 + 0.20 as accumulated in the double column; the minor units are exact
+        jdbcTemplate.update("INSERT INTO monthly_rollup " +
+                        "(customer_email, period_start, entry_type, category, total_minor, total, entry_count) " +
+                        "VALUES (?, ?, 'EXPENSE', 'FOOD', 30, ?, 2)",
+                "dave@example.com", Date.valueOf(month.atDay(1)), 0.1 + 0.2);
+
+        assertThat(monthlyRollupService.getMonthlyCategoryTotals("dave@example.com", LedgerEntryType.EXPENSE, month, month))
+                .containsExactly(Map.entry(month, Map.of("FOOD", 0.3)));
+    }
+
+    @Test
+    void ledgerChangesKeepTheRollupCurrent() {
+        YearMonth march = YearMonth.of(2024, 3);
+        YearMonth april = march.plusMonths(1);
+        Customer customer = customer("erin@example.com");
+        Long lunch = expense(customer, "FOOD", 12.50, march.atDay(5).atTime(12, 0)).getId();
+        Long rent = expense(customer, "RENT", 300.0, march.atDay(1).atTime(9, 0)).getId();
+        // Cleared after every write: the rollup is updated in SQL, behind loaded MonthlyRollup entities
+        flushAndClear();
+
+        assertThat(monthlyRollupService.getMonthlyCategoryTotals("erin@example.com", LedgerEntryType.EXPENSE, march, april))
+                .containsExactly(Map.entry(march, Map.of("FOOD", 12.5, "RENT", 300.0)));
+
+        // An edit of a loaded row moves the amount out of the old bucket and into the new one
+        Expense edited = entityManager.find(Expense.class, lunch);
+        edited.setAmount(15.0);
+        edited.setDate(april.atDay(2).atTime(12, 0));
+        flushAndClear();
+        assertThat(monthlyRollupService.getMonthlyCategoryTotals("erin@example.com", LedgerEntryType.EXPENSE, march, april))
+                .containsExactly(Map.entry(march, Map.of("RENT", 300.0)), Map.entry(april, Map.of("FOOD", 15.0)));
+
+        entityManager.remove(entityManager.find(Expense.class, rent));
+        flushAndClear();
+        assertThat(monthlyRollupService.getMonthlyTotals("erin@example.com", LedgerEntryType.EXPENSE, march, april))
+                .containsExactly(Map.entry(march, 0.0), Map.entry(april, 15.0));
+    }
+
+    @Test
+    void incomesRollUpBySource() {
+        YearMonth month = YearMonth.of(2024, 3);
+        Long salary = income("frank@example.com", "Salary", 1000.0, month.atDay(1)).getId();
+        income("frank@example.com", "Salary", 1000.0, month.atEndOfMonth());
+        income("frank@example.com", "Gift", 50.0, month.atDay(10));
+        flushAndClear();
+
+        entityManager.find(Income.class, salary).setSource("Bonus");
+        flushAndClear();
+
+        assertThat(monthlyRollupService.getMonthlyCategoryTotals("frank@example.com", LedgerEntryType.INCOME, month, month))
+                .containsExactly(Map.entry(month, Map.of("Salary", 1000.0, "Bonus", 1000.0, "Gift", 50.0)));
+        // Expenses and incomes are kept apart
+        assertThat(monthlyRollupService.getMonthlyTotals("frank@example.com", LedgerEntryType.EXPENSE, month, month))
+                .containsExactly(Map.entry(month, 0.0));
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Customer customer(String email) {
+        Customer customer = new Customer();
+        customer.setEmail(email);
+        customer.setName(email);
+        return entityManager.persist(customer);
+    }
+
+    private Expense expense(Customer customer, String category, double amount, LocalDateTime date) {
+        Expense expense = new Expense();
+        expense.setCustomer(customer);
+        expense.setCategory(category);
+        expense.setAmount(amount);
+        expense.setDate(date);
+        return entityManager.persist(expense);
+    }
+
+    private Income income(String email, String source, double amount, LocalDate date) {
+        Income income = new Income();
+        income.setCustomerEmail(email);
+        income.setSource(source);
+        income.setAmount(amount);
+        income.setDate(date);
+        return entityManager.persist(income);
+    }
+}
@@ -0,0 +1,111 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.dto.ProfilePhotoContent;
+import com.personalfinancetracker.backend.entities.CustomerProfilePhoto;
+import com.personalfinancetracker.backend.repository.CustomerProfilePhotoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Photos are read and replaced through projection and update queries; no
+ * {@link CustomerProfilePhoto} entity, and so no copy of the image, is loaded on either path.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProfilePhotoService.class)
+class ProfilePhotoServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 1, 2, 3};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 4, 5, 6};
+
+    @Autowired
+    private ProfilePhotoService profilePhotoService;
+
+    @Autowired
+    private CustomerProfilePhotoRepository profilePhotoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void photoIsServedFromAProjection() {
+        String hash = profilePhotoService.savePhoto(EMAIL, PNG);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        ProfilePhotoContent photo = profilePhotoService.findPhoto(EMAIL).orElseThrow();
+
+        assertThat(photo.getData()).isEqualTo(PNG);
+        assertThat(photo.getContentType()).isEqualTo("image/png");
+        assertThat(profilePhotoService.findPhotoHash(EMAIL)).contains(hash);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void newPhotoReplacesTheOldOneInPlace() {
+        profilePhotoService.savePhoto(EMAIL, PNG);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        String hash = profilePhotoService.savePhoto(EMAIL, JPEG);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(profilePhotoRepository.count()).isEqualTo(1);
+        assertThat(profilePhotoService.findPhotoHash(EMAIL)).contains(hash);
+        ProfilePhotoContent photo = profilePhotoService.findPhoto(EMAIL).orElseThrow();
+        assertThat(photo.getData()).isEqualTo(JPEG);
+        assertThat(photo.getContentType()).isEqualTo("image/jpeg");
+    }
+
+    @Test
+    void unchangedPhotoIsNotWrittenAgain() {
+        String hash = profilePhotoService.savePhoto(EMAIL, PNG);
+        entityManager.flush();
+        entityManager.clear();
+        LocalDateTime storedAt = profilePhotoRepository.findAll().get(0).getUpdatedAt();
+        entityManager.clear();
+        statistics.clear();
+
+        assertThat(profilePhotoService.savePhoto(EMAIL, PNG.clone())).isEqualTo(hash);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(profilePhotoRepository.findAll().get(0).getUpdatedAt()).isEqualTo(storedAt);
+    }
+
+    @Test
+    void userWithoutPhotoHasNone() {
+        assertThat(profilePhotoService.findPhoto(EMAIL)).isEmpty();
+        assertThat(profilePhotoService.findPhotoHash(EMAIL)).isEmpty();
+    }
+}
@@ -0,0 +1,151 @@
+package com.personalfinancetracker.backend.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryFanOutTest {
+
+    private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(
+            new SimpleDriverDataSource(new org.h2.Driver(), "jdbc:h2:mem:fanout;DB_CLOSE_DELAY=-1", "sa", ""));
+    private QueryFanOut queryFanOut;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        queryFanOut.destroy();
+    }
+
+    @Test
+    void resultsAreAvailableAfterJoin() {
+        queryFanOut = fanOut(4, Duration.ofSeconds(5));
+
+        try (QueryFanOut.Scope scope = queryFanOut.open()) {
+            Future<Integer> slow = scope.fork(() -> {
+                Thread.sleep(100);
+                return 1;
+            });
+            Future<Integer> fast = scope.fork(() -> 2);
+            scope.join();
+
+            assertThat(slow.resultNow() + fast.resultNow()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void firstFailureCancelsTheRestWithoutWaitingForEarlierForks() throws InterruptedException {
+        queryFanOut = fanOut(4, Duration.ofSeconds(30));
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        long started = System.nanoTime();
+        try (QueryFanOut.Scope scope = queryFanOut.open()) {
+            // Forked first and would run for the whole timeout
+            Future<Object> slow = scope.fork(() -> sleepUntilInterrupted(interrupted));
+            scope.fork(() -> {
+                throw new IllegalStateException("query failed");
+            });
+
+            assertThatThrownBy(scope::join).isInstanceOf(IllegalStateException.class).hasMessage("query failed");
+            assertThat(slow.isCancelled()).isTrue();
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(10));
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void timeoutCancelsRunningSubtasks() throws InterruptedException {
+        queryFanOut = fanOut(4, Duration.ofMillis(200));
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try (QueryFanOut.Scope scope = queryFanOut.open()) {
+            Future<Integer> fast = scope.fork(() -> 1);
+            Future<Object> slow = scope.fork(() -> sleepUntilInterrupted(interrupted));
+
+            assertThatThrownBy(scope::join).hasMessageContaining("did not finish within");
+            assertThat(fast.resultNow()).isEqualTo(1);
+            assertThat(slow.isCancelled()).isTrue();
+        }
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void subtasksRunWithTheCallersSecurityContext() {
+        queryFanOut = fanOut(2, Duration.ofSeconds(5));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@example.com", null, List.of()));
+
+        try (QueryFanOut.Scope scope = queryFanOut.open()) {
+            Future<String> user = scope.fork(() -> SecurityContextHolder.getContext().getAuthentication().getName());
+            Future<String> thread = scope.fork(() -> Thread.currentThread().getName());
+            scope.join();
+
+            assertThat(user.resultNow()).isEqualTo("user@example.com");
+            assertThat(thread.resultNow()).startsWith("query-");
+        }
+    }
+
+    @Test
+    void subtaskRunOnTheCallerThreadGetsItsOwnReadOnlyTransaction() throws InterruptedException {
+        // One worker and no queue, so a second subtask is run by the caller
+        queryFanOut = new QueryFanOut(transactionManager, 1, 0, Duration.ofSeconds(5), false);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(1);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        readWrite.executeWithoutResult(status -> {
+            Object callerConnection = TransactionSynchronizationManager.getResource(transactionManager.getDataSource());
+            try (QueryFanOut.Scope scope = queryFanOut.open()) {
+                scope.fork(() -> {
+                    busy.countDown();
+                    return release.await(5, TimeUnit.SECONDS);
+                });
+                await(busy);
+                Future<Boolean> onCaller = scope.fork(() -> Thread.currentThread().getName().startsWith("query-")
+                        || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                        || TransactionSynchronizationManager.getResource(transactionManager.getDataSource()) == callerConnection);
+                release.countDown();
+                scope.join();
+
+                assertThat(onCaller.resultNow()).as("ran on a worker or in the caller's transaction").isFalse();
+            }
+            assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isFalse();
+        });
+    }
+
+    private QueryFanOut fanOut(int maxConcurrency, Duration timeout) {
+        return new QueryFanOut(transactionManager, maxConcurrency, 10, timeout, false);
+    }
+
+    private static Object sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(60_000);
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return null;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.entities.Budget;
+import com.personalfinancetracker.backend.entities.Expense;
+import com.personalfinancetracker.backend.entities.Income;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportDataSnapshotTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 6, 1);
+    private static final LocalDate END = LocalDate.of(2024, 6, 30);
+
+    @Test
+    void rowsAreAggregatedInOnePassOverMinorUnits() {
+        List<Expense> expenses = List.of(
+                expense("FOOD", 0.10, LocalDateTime.of(2024, 6, 2, 9, 0)),
+                expense("FOOD", 0.20, LocalDateTime.of(2024, 6, 2, 19, 0)),
+                expense("RENT", 300.0, LocalDateTime.of(2024, 6, 1, 8, 0)));
+        List<Income> incomes = List.of(income("Salary", 1000.0), income("Gift", 50.0), income("Salary", 0.5));
+
+        ReportDataSnapshot snapshot = ReportDataSnapshot.fromRows(START, END, expenses, incomes, null);
+
+        assertThat(snapshot.getTotalExpense()).isEqualTo(300.3);
+        assertThat(snapshot.getTotalIncome()).isEqualTo(1050.5);
+        // Exact, where 0.10 + 0.20 as doubles is 0.30000000000000004
+        assertThat(snapshot.getExpensesByCategory()).containsExactly(Map.entry("RENT", 300.0), Map.entry("FOOD", 0.3));
+        assertThat(snapshot.getIncomesBySource()).containsExactly(Map.entry("Salary", 1000.5), Map.entry("Gift", 50.0));
+        assertThat(snapshot.getExpensesByDay()).containsOnly(
+                Map.entry(LocalDate.of(2024, 6, 1), 300.0), Map.entry(LocalDate.of(2024, 6, 2), 0.3));
+        assertThat(snapshot.getBudgets()).isEmpty();
+    }
+
+    @Test
+    void totalsFromTheDatabaseGiveTheSameAggregates() {
+        List<Object[]> byCategory = List.of(new Object[]{"FOOD", 30L}, new Object[]{"RENT", 30000L});
+        // SUM comes back as BigDecimal from some drivers
+        List<Object[]> bySource = List.<Object[]>of(new Object[]{"Salary", new BigDecimal("100050")});
+
+        ReportDataSnapshot snapshot = ReportDataSnapshot.fromTotals(START, END, byCategory, bySource, List.of());
+
+        assertThat(snapshot.getTotalExpense()).isEqualTo(300.3);
+        assertThat(snapshot.getTotalIncome()).isEqualTo(1000.5);
+        assertThat(snapshot.getExpensesByCategory()).containsExactly(Map.entry("RENT", 300.0), Map.entry("FOOD", 0.3));
+        assertThat(snapshot.getIncomesBySource()).containsExactly(Map.entry("Salary", 1000.5));
+        // Daily totals need the rows
+        assertThat(snapshot.getExpensesByDay()).isEmpty();
+    }
+
+    @Test
+    void savingsFollowFromTheTotals() {
+        ReportDataSnapshot snapshot = ReportDataSnapshot.fromTotals(START, END,
+                List.<Object[]>of(new Object[]{"RENT", 25000L}), List.<Object[]>of(new Object[]{"Salary", 100000L}), List.of());
+
+        assertThat(snapshot.getNetSavings()).isEqualTo(750.0);
+        assertThat(snapshot.getSavingsRate()).isEqualTo(75.0);
+        // No income, no rate rather than a division by zero
+        assertThat(ReportDataSnapshot.fromTotals(START, END, List.of(), List.of(), List.of()).getSavingsRate()).isZero();
+    }
+
+    @Test
+    void snapshotIsNotChangedByItsInputs() {
+        List<Budget> budgets = new ArrayList<>(List.of(new Budget("FOOD", 100.0, null)));
+        ReportDataSnapshot snapshot = ReportDataSnapshot.fromRows(START, END, List.of(), List.of(), budgets);
+
+        budgets.clear();
+
+        assertThat(snapshot.getBudgets()).hasSize(1);
+        assertThatThrownBy(() -> snapshot.getBudgets().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.getExpensesByCategory().put("FOOD", 1.0))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.getExpensesByDay().put(START, 1.0))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static Expense expense(String category, double amount, LocalDateTime date) {
+        Expense expense = new Expense();
+        expense.setCategory(category);
+        expense.setAmount(amount);
+        expense.setDate(date);
+        return expense;
+    }
+
+    private static Income income(String source, double amount) {
+        Income income = new Income();
+        income.setSource(source);
+        income.setAmount(amount);
+        income.setDate(START);
+        return income;
+    }
+}
@@ -0,0 +1,148 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.entities.Expense;
+import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.repository.StreamingFetchSizeSupport;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Excel export of one user's year with 10k, 100k and 1M expense rows (and a tenth as many
+ * incomes) in in-memory H2. {@code streamingReport} is the whole export as it runs now: SQL
+ * aggregates plus rows streamed into the SXSSF window. {@code loadEntities} is only the load
+ * step of the export it replaced, every row of the period as a managed entity, so it is a
+ * lower bound for that path. Run with the GC profiler and a fixed heap, which the H2
+ * database shares; with 1 GB the entity load runs out of heap at 1M rows while the export
+ * completes, and at 100k rows most of the entity load's time is spent in GC:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main \
+ *   -Dexec.args="ReportGenerationBenchmark -prof gc -jvmArgsAppend -Xmx1g"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ReportGenerationBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ReportGenerationService reportGenerationService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ReportContext.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:h2:mem:report-bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        reportGenerationService = context.getBean(ReportGenerationService.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        // Spread over the year, a handful of categories and sources, like a real ledger
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO customer (email, name, verified) VALUES (?, 'Bench', TRUE)", EMAIL);
+        jdbcTemplate.update("INSERT INTO expense (amount, amount_minor, currency, category, date, customer_email, note, is_recurring) " +
+                "SELECT (n % 50000 + 100) / 100.0, n % 50000 + 100, 'INR', 'CATEGORY_' || (n % 12), " +
+                "DATEADD('MINUTE', n % 525600, TIMESTAMP '2024-01-01 00:00:00'), ?, 'note ' || n, FALSE " +
+                "FROM (SELECT \"X\" AS n FROM SYSTEM_RANGE(1, ?))", EMAIL, rows);
+        jdbcTemplate.update("INSERT INTO income (amount, amount_minor, currency, source, date, customer_email, is_recurring) " +
+                "SELECT (n % 500000 + 100) / 100.0, n % 500000 + 100, 'INR', 'SOURCE_' || (n % 4), " +
+                "DATEADD('DAY', n % 366, DATE '2024-01-01'), ?, FALSE " +
+                "FROM (SELECT \"X\" AS n FROM SYSTEM_RANGE(1, ?))", EMAIL, rows / 10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).execute("DROP ALL OBJECTS");
+        context.close();
+    }
+
+    @Benchmark
+    public void streamingReport() throws IOException {
+        reportGenerationService.writeExcelReport(EMAIL, START, END, "Benchmark", true, true, false,
+                OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public ReportDataSnapshot loadEntities() {
+        return readOnly.execute(status -> {
+            List<Expense> expenses = entityManager.createQuery(
+                            "FROM Expense e WHERE e.customerEmail = :email AND e.date >= :start AND e.date < :end", Expense.class)
+                    .setParameter("email", EMAIL)
+                    .setParameter("start", START.atStartOfDay())
+                    .setParameter("end", END.plusDays(1).atStartOfDay())
+                    .getResultList();
+            List<Income> incomes = entityManager.createQuery(
+                            "FROM Income i WHERE i.customerEmail = :email AND i.date BETWEEN :start AND :end", Income.class)
+                    .setParameter("email", EMAIL)
+                    .setParameter("start", START)
+                    .setParameter("end", END)
+                    .getResultList();
+            ReportDataSnapshot snapshot = ReportDataSnapshot.fromRows(START, END, expenses, incomes, List.of());
+            entityManager.clear();
+            return snapshot;
+        });
+    }
+
+    // Just the JPA slice the export needs, on the test profile's H2 database
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+            DataSourceAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EntityScan("com.personalfinancetracker.backend.entities")
+    @EnableJpaRepositories("com.personalfinancetracker.backend.repository")
+    @Import({ReportGenerationService.class, MonthlyRollupService.class, StreamingFetchSizeSupport.class})
+    static class ReportContext {
+    }
+}
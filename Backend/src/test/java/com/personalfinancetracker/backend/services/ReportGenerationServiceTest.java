@@ -0,0 +1,152 @@
+package com.personalfinancetracker.backend.services;
+
+import com.personalfinancetracker.backend.entities.Budget;
+import com.personalfinancetracker.backend.entities.Customer;
+import com.personalfinancetracker.backend.entities.Expense;
+import com.personalfinancetracker.backend.entities.Income;
+import com.personalfinancetracker.backend.repository.StreamingFetchSizeSupport;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The Excel export streams rows from the database and takes its summaries from SQL
+ * aggregates; the workbook must still read the same as one built from loaded entities.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReportGenerationService.class, MonthlyRollupService.class, StreamingFetchSizeSupport.class})
+class ReportGenerationServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final LocalDate START = LocalDate.of(2024, 6, 1);
+    private static final LocalDate END = LocalDate.of(2024, 6, 30);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReportGenerationService reportGenerationService;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer();
+        customer.setEmail(EMAIL);
+        customer.setName("User");
+        entityManager.persist(customer);
+    }
+
+    @Test
+    void sheetsListRowsNewestFirstWithTotalsFromTheDatabase() throws IOException {
+        expense("FOOD", 12.50, LocalDateTime.of(2024, 6, 2, 9, 0), "lunch");
+        expense("RENT", 300.00, LocalDateTime.of(2024, 6, 1, 8, 0), null);
+        // Late on the last day still counts
+        expense("FOOD", 7.25, LocalDateTime.of(2024, 6, 30, 23, 30), null);
+        // Outside the period
+        expense("FOOD", 99.0, LocalDateTime.of(2024, 7, 1, 0, 0), null);
+        income("Salary", 1000.0, LocalDate.of(2024, 6, 1));
+        income("Freelance", 250.5, LocalDate.of(2024, 6, 30));
+        income("Salary", 1000.0, LocalDate.of(2024, 5, 31));
+        entityManager.persist(new Budget("FOOD", 15.0, customer));
+        entityManager.flush();
+        entityManager.clear();
+
+        try (XSSFWorkbook workbook = report()) {
+            Sheet summary = workbook.getSheet("Summary");
+            assertThat(valueNextTo(summary, "Total Income")).isEqualTo(1250.5);
+            assertThat(valueNextTo(summary, "Total Expenses")).isEqualTo(319.75);
+
+            Sheet expenses = workbook.getSheet("Expenses");
+            assertThat(column(expenses, 2, 5, 3)).containsExactly(7.25, 12.50, 300.00);
+            assertThat(expenses.getRow(6).getCell(3).getStringCellValue()).isEqualTo("lunch");
+            // Category summary, largest first
+            assertThat(valueNextTo(expenses, "RENT")).isEqualTo(300.0);
+            assertThat(valueNextTo(expenses, "FOOD")).isEqualTo(19.75);
+
+            Sheet incomes = workbook.getSheet("Incomes");
+            assertThat(column(incomes, 2, 5, 2)).containsExactly(250.5, 1000.0);
+            assertThat(incomes.getRow(5).getCell(4).getStringCellValue()).isEqualTo("side");
+
+            Sheet budgets = workbook.getSheet("Budget Analysis");
+            assertThat(budgets.getRow(5).getCell(2).getNumericCellValue()).isEqualTo(19.75);
+        }
+    }
+
+    @Test
+    void emptyPeriodWritesHeadersOnly() throws IOException {
+        try (XSSFWorkbook workbook = report()) {
+            assertThat(valueNextTo(workbook.getSheet("Summary"), "Total Expenses")).isZero();
+            assertThat(workbook.getSheet("Expenses").getRow(7).getCell(0).getStringCellValue())
+                    .isEqualTo("Expense Summary by Category");
+        }
+    }
+
+    private XSSFWorkbook report() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportGenerationService.writeExcelReport(EMAIL, START, END, "June", true, true, true, out);
+        return new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static double valueNextTo(Sheet sheet, String label) {
+        for (Row row : sheet) {
+            Cell cell = row.getCell(0);
+            if (cell != null && cell.getCellType() == CellType.STRING && label.equals(cell.getStringCellValue())) {
+                return row.getCell(1).getNumericCellValue();
+            }
+        }
+        throw new AssertionError("No row labelled " + label);
+    }
+
+    private static List<Double> column(Sheet sheet, int column, int firstRow, int rows) {
+        List<Double> values = new ArrayList<>();
+        for (int i = firstRow; i < firstRow + rows; i++) {
+            values.add(sheet.getRow(i).getCell(column).getNumericCellValue());
+        }
+        return values;
+    }
+
+    private void expense(String category, double amount, LocalDateTime date, String note) {
+        Expense expense = new Expense();
+        expense.setCustomer(customer);
+        expense.setCategory(category);
+        expense.setAmount(amount);
+        expense.setDate(date);
+        expense.setNote(note);
+        entityManager.persist(expense);
+    }
+
+    private void income(String source, double amount, LocalDate date) {
+        Income income = new Income();
+        income.setCustomerEmail(EMAIL);
+        income.setSource(source);
+        income.setAmount(amount);
+        income.setDate(date);
+        if ("Freelance".equals(source)) {
+            income.setTags("side");
+        }
+        entityManager.persist(income);
+    }
+}
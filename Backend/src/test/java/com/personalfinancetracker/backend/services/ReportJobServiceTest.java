@@ -0,0 +1,240 @@
+package com.personalfinancetracker.backend.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Report jobs against a stub generator that writes a few bytes once released, so tests
+ * decide when jobs are running and when they finish.
+ */
+class ReportJobServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final LocalDate START = LocalDate.of(2024, 6, 1);
+    private static final LocalDate END = LocalDate.of(2024, 6, 30);
+
+    @TempDir
+    Path directory;
+
+    private final ReportGenerationService reportGenerationService = mock(ReportGenerationService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<ReportJobService> services = new ArrayList<>();
+    private final List<ReportJob> submitted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        doAnswer(invocation -> {
+            ReportProgress progress = invocation.getArgument(8);
+            progress.update(50, "Expenses");
+            assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            invocation.<OutputStream>getArgument(7).write(new byte[]{'P', 'K'});
+            return null;
+        }).when(reportGenerationService).writeExcelReport(anyString(), any(), any(), any(),
+                anyBoolean(), anyBoolean(), anyBoolean(), any(OutputStream.class), any(ReportProgress.class));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        // Jobs still running would write into the directory while it is being deleted
+        for (ReportJob job : submitted) {
+            awaitFinished(job);
+        }
+        services.forEach(ReportJobService::destroy);
+    }
+
+    @Test
+    void userWithTooManyActiveJobsGets429() throws IOException {
+        ReportJobService service = service(4, 10, 2, Duration.ofHours(1));
+        submit(service, EMAIL);
+        submit(service, EMAIL);
+
+        assertThatThrownBy(() -> submit(service, EMAIL))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        // The limit is per user
+        assertThat(submit(service, "other@example.com")).isNotNull();
+    }
+
+    @Test
+    void finishedJobsNoLongerCountTowardsTheLimit() throws Exception {
+        ReportJobService service = service(1, 10, 1, Duration.ofHours(1));
+        ReportJob first = submit(service, EMAIL);
+        release.countDown();
+        awaitFinished(first);
+
+        assertThat(first.getState()).isEqualTo(ReportJob.State.COMPLETED);
+        assertThat(submit(service, EMAIL)).isNotNull();
+    }
+
+    @Test
+    void fullQueueGets503AndForgetsTheJob() throws IOException {
+        // One running, one queued, then no room
+        ReportJobService service = service(1, 1, 10, Duration.ofHours(1));
+        submit(service, EMAIL);
+        submit(service, EMAIL);
+
+        assertThatThrownBy(() -> submit(service, EMAIL))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    void rejectedJobDoesNotHoldAUserSlot() throws IOException {
+        ReportJobService service = service(1, 0, 2, Duration.ofHours(1));
+        submit(service, "busy@example.com");
+
+        // Rejected because the only worker is busy, not because of the user's limit
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> submit(service, EMAIL))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+    }
+
+    @Test
+    void purgeDropsFinishedJobsAndFilesAfterTheirTimeToLive() throws Exception {
+        ReportJobService expiring = service(1, 10, 2, Duration.ofMillis(50));
+        ReportJobService keeping = service(1, 10, 2, Duration.ofHours(1));
+        release.countDown();
+        ReportJob expired = submit(expiring, EMAIL);
+        ReportJob kept = submit(keeping, EMAIL);
+        awaitFinished(expired);
+        awaitFinished(kept);
+        assertThat(expired.getFile()).exists();
+
+        Thread.sleep(100);
+        expiring.purgeExpired();
+        keeping.purgeExpired();
+
+        assertThat(expiring.find(EMAIL, expired.getId())).isNull();
+        assertThat(expired.getFile()).doesNotExist();
+        assertThat(keeping.find(EMAIL, kept.getId())).isSameAs(kept);
+        assertThat(kept.getFile()).exists();
+    }
+
+    @Test
+    void purgeKeepsRunningJobs() throws IOException {
+        ReportJobService service = service(1, 10, 2, Duration.ZERO);
+        ReportJob running = submit(service, EMAIL);
+
+        service.purgeExpired();
+
+        assertThat(service.find(EMAIL, running.getId())).isSameAs(running);
+    }
+
+    @Test
+    void jobsAreOnlyFoundByTheirOwner() throws IOException {
+        ReportJobService service = service(1, 10, 2, Duration.ofHours(1));
+        ReportJob job = submit(service, EMAIL);
+
+        assertThat(service.find(EMAIL, job.getId())).isSameAs(job);
+        assertThat(service.find("other@example.com", job.getId())).isNull();
+    }
+
+    @Test
+    void subscriptionCompletesAfterTheFinalStatus() throws Exception {
+        ReportJobService service = service(1, 10, 2, Duration.ofHours(1));
+        ReportJob job = submit(service, EMAIL);
+        SseEmitter emitter = service.subscribe(job);
+
+        // Still open while the job runs
+        emitter.send("ping");
+        assertThat(job.getSubscribers()).containsExactly(emitter);
+
+        release.countDown();
+        awaitFinished(job);
+
+        // The final status is published right after the state changes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (isOpen(emitter)) {
+            assertThat(System.nanoTime()).as("stream completed in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void subscribingToAFinishedJobCompletesRightAway() throws Exception {
+        ReportJobService service = service(1, 10, 2, Duration.ofHours(1));
+        release.countDown();
+        ReportJob job = submit(service, EMAIL);
+        awaitFinished(job);
+
+        SseEmitter emitter = service.subscribe(job);
+
+        assertThatThrownBy(() -> emitter.send("ping")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void failedBuildLeavesNoFile() throws Exception {
+        doAnswer(invocation -> {
+            throw new IOException("disk full");
+        }).when(reportGenerationService).writeExcelReport(anyString(), any(), any(), any(),
+                anyBoolean(), anyBoolean(), anyBoolean(), any(OutputStream.class), any(ReportProgress.class));
+        ReportJobService service = service(1, 10, 2, Duration.ofHours(1));
+
+        ReportJob job = submit(service, EMAIL);
+        awaitFinished(job);
+
+        assertThat(job.getState()).isEqualTo(ReportJob.State.FAILED);
+        try (var files = Files.list(directory.resolve("jobs-0"))) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private ReportJobService service(int workers, int queueCapacity, int maxActivePerUser, Duration ttl)
+            throws IOException {
+        ReportJobService service = new ReportJobService(reportGenerationService,
+                directory.resolve("jobs-" + services.size()).toString(),
+                workers, queueCapacity, maxActivePerUser, ttl, Duration.ofMinutes(1));
+        services.add(service);
+        return service;
+    }
+
+    private ReportJob submit(ReportJobService service, String email) {
+        ReportJob job = service.submit(email, START, END, "June", true, true, true);
+        submitted.add(job);
+        return job;
+    }
+
+    private static boolean isOpen(SseEmitter emitter) throws IOException {
+        try {
+            emitter.send("ping");
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private static void awaitFinished(ReportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!job.getState().isFinished()) {
+            assertThat(System.nanoTime()).as("job finished in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
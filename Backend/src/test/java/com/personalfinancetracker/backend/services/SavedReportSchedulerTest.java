@@ -0,0 +1,151 @@
+package com.personalfinancetracker.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personalfinancetracker.backend.entities.Customer;
+import com.personalfinancetracker.backend.entities.SavedReport;
+import com.personalfinancetracker.backend.repository.SavedReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Scheduled outputs are stored in the database, so an instance other than the one that ran
+ * the report can serve them.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SavedReportSchedulerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SavedReportRepository savedReportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path spool;
+
+    private final ReportGenerationService reportGenerationService = mock(ReportGenerationService.class);
+
+    @BeforeEach
+    void createOutputTable() {
+        // Created by the V7 migration; the test schema comes from the entities
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS saved_report_output (saved_report_id bigint NOT NULL, " +
+                "seq int NOT NULL, generated_at timestamp(6) NOT NULL, content mediumblob NOT NULL, " +
+                "PRIMARY KEY (saved_report_id, seq))");
+    }
+
+    @Test
+    void outputIsStoredInChunksAndServedByAnyInstance() throws IOException {
+        // Two full chunks and a partial one
+        byte[] workbook = new byte[2 * 1024 * 1024 + 12_345];
+        new Random(42).nextBytes(workbook);
+        generates(workbook);
+        SavedReport report = dueReport();
+
+        scheduler(spool.resolve("a")).runDueReports();
+
+        entityManager.clear();
+        SavedReport stored = savedReportRepository.findById(report.getId()).orElseThrow();
+        assertThat(stored.getLastRunStatus()).isEqualTo(SavedReportScheduler.STATUS_COMPLETED);
+        assertThat(stored.getOutputFileName()).endsWith(".xlsx");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM saved_report_output WHERE saved_report_id = ?", Integer.class, report.getId()))
+                .isEqualTo(3);
+
+        // Another instance, with its own spool directory, serves the same bytes
+        SavedReportScheduler other = scheduler(spool.resolve("b"));
+        assertThat(other.hasOutput(stored)).isTrue();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        other.writeOutput(report.getId(), out);
+        assertThat(out.toByteArray()).isEqualTo(workbook);
+        // The spooled file is gone once stored
+        assertThat(spool.resolve("a")).isEmptyDirectory();
+    }
+
+    @Test
+    void rerunReplacesThePreviousOutput() throws IOException {
+        SavedReport report = dueReport();
+        SavedReportScheduler scheduler = scheduler(spool);
+        generates(new byte[3 * 1024 * 1024]);
+        scheduler.runDueReports();
+
+        jdbcTemplate.update("UPDATE saved_report SET next_run_at = ? WHERE id = ?",
+                LocalDateTime.now().minusMinutes(1), report.getId());
+        entityManager.clear();
+        generates(new byte[]{1, 2, 3});
+        scheduler.runDueReports();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        scheduler.writeOutput(report.getId(), out);
+        assertThat(out.toByteArray()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void missingOutputIsReported() throws IOException {
+        SavedReport report = dueReport();
+        SavedReportScheduler scheduler = scheduler(spool);
+
+        assertThat(scheduler.hasOutput(report)).isFalse();
+        assertThatThrownBy(() -> scheduler.writeOutput(report.getId(), OutputStream.nullOutputStream()))
+                .isInstanceOf(IOException.class);
+    }
+
+    private SavedReportScheduler scheduler(Path directory) throws IOException {
+        return new SavedReportScheduler(savedReportRepository, reportGenerationService, new ObjectMapper(),
+                jdbcTemplate, transactionManager, directory.toString(), false, LocalTime.of(1, 0), LocalTime.of(5, 0));
+    }
+
+    private void generates(byte[] workbook) throws IOException {
+        doAnswer(invocation -> {
+            invocation.getArgument(7, OutputStream.class).write(workbook);
+            return null;
+        }).when(reportGenerationService).writeExcelReport(anyString(), any(), any(), anyString(),
+                anyBoolean(), anyBoolean(), anyBoolean(), any(OutputStream.class));
+    }
+
+    private SavedReport dueReport() {
+        Customer customer = new Customer();
+        customer.setEmail("user@example.com");
+        customer.setName("User");
+        entityManager.persist(customer);
+
+        SavedReport report = new SavedReport();
+        report.setCustomer(customer);
+        report.setReportTitle("Monthly summary");
+        report.setConfiguration("{\"period\": \"PREVIOUS_MONTH\"}");
+        report.setScheduleCron("0 0 2 * * *");
+        report.setNextRunAt(LocalDateTime.now().minusMinutes(1));
+        return entityManager.persistFlushFind(report);
+    }
+}
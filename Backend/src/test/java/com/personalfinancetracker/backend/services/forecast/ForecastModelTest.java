@@ -0,0 +1,49 @@
+package com.personalfinancetracker.backend.services.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ForecastModelTest {
+
+    @Test
+    void dampedTrendConvergesToAFiniteLimit() {
+        ForecastModel model = new ForecastModel(ForecastModel.HOLT, 100, 10, 0.9, new double[0], 0);
+
+        assertThat(model.forecast(1)).isCloseTo(109, within(1e-9));
+        assertThat(model.forecast(2)).isCloseTo(117.1, within(1e-9));
+        // level + trend * damping / (1 - damping)
+        double limit = 100 + 10 * 0.9 / (1 - 0.9);
+        double previous = 100;
+        for (int horizon = 1; horizon <= 240; horizon++) {
+            double value = model.forecast(horizon);
+            assertThat(value).isGreaterThan(previous).isLessThan(limit);
+            previous = value;
+        }
+        assertThat(model.forecast(240)).isCloseTo(limit, within(1e-6));
+    }
+
+    @Test
+    void undampedTrendIsLinear() {
+        ForecastModel model = new ForecastModel(ForecastModel.HOLT, 100, 10, 1, new double[0], 0);
+
+        assertThat(model.forecast(1)).isEqualTo(110.0);
+        assertThat(model.forecast(12)).isEqualTo(220.0);
+    }
+
+    @Test
+    void seasonalIndexStartsAtNextSeasonIndexAndWraps() {
+        double[] seasonals = new double[12];
+        for (int i = 0; i < seasonals.length; i++) {
+            seasonals[i] = i;
+        }
+        ForecastModel model = new ForecastModel(ForecastModel.HOLT_WINTERS, 0, 0, 0.9, seasonals, 10);
+
+        assertThat(model.forecast(1)).isEqualTo(10.0);
+        assertThat(model.forecast(2)).isEqualTo(11.0);
+        assertThat(model.forecast(3)).isEqualTo(0.0);
+        assertThat(model.forecast(14)).isEqualTo(11.0);
+        assertThat(model.forecast(15)).isEqualTo(0.0);
+    }
+}
@@ -0,0 +1,72 @@
+package com.personalfinancetracker.backend.services.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SeriesForecasterTest {
+
+    @Test
+    void fewerThanThreeMonthsAreAveraged() {
+        ForecastModel empty = SeriesForecaster.fit(new double[0]);
+        assertThat(empty.method()).isEqualTo(ForecastModel.AVERAGE);
+        assertThat(empty.forecast(1)).isZero();
+
+        ForecastModel twoMonths = SeriesForecaster.fit(new double[]{10, 20});
+        assertThat(twoMonths.method()).isEqualTo(ForecastModel.AVERAGE);
+        assertThat(twoMonths.forecast(1)).isEqualTo(15.0);
+        assertThat(twoMonths.forecast(12)).isEqualTo(15.0);
+    }
+
+    @Test
+    void threeToTwentyThreeMonthsUseDampedHolt() {
+        assertThat(SeriesForecaster.fit(series(3, t -> 100)).method()).isEqualTo(ForecastModel.HOLT);
+        assertThat(SeriesForecaster.fit(series(23, t -> 100)).method()).isEqualTo(ForecastModel.HOLT);
+
+        ForecastModel model = SeriesForecaster.fit(series(12, t -> 100));
+        assertThat(model.seasonals()).isEmpty();
+        assertThat(model.forecast(1)).isCloseTo(100, within(1e-9));
+        assertThat(model.forecast(24)).isCloseTo(100, within(1e-9));
+    }
+
+    @Test
+    void holtFollowsALinearTrend() {
+        // 100, 110, ..., 210: the next month would be 220 on a straight line
+        ForecastModel model = SeriesForecaster.fit(series(12, t -> 100 + 10 * t));
+
+        assertThat(model.forecast(1)).isCloseTo(220, within(10.0));
+        assertThat(model.forecast(2)).isGreaterThan(model.forecast(1));
+    }
+
+    @Test
+    void twoFullYearsUseHoltWinters() {
+        ForecastModel model = SeriesForecaster.fit(series(24, t -> 100));
+
+        assertThat(model.method()).isEqualTo(ForecastModel.HOLT_WINTERS);
+        assertThat(model.seasonals()).hasSize(SeriesForecaster.SEASON_LENGTH);
+        assertThat(model.nextSeasonIndex()).isZero();
+    }
+
+    @Test
+    void seasonalPeakIsProjectedIntoTheRightMonth() {
+        // A spike every twelfth month (index 11, 23); 30 months end mid-cycle at index 29
+        double[] history = series(30, t -> t % 12 == 11 ? 150 : 100);
+
+        ForecastModel model = SeriesForecaster.fit(history);
+
+        assertThat(model.nextSeasonIndex()).isEqualTo(6);
+        // Index 35 is the next spike, six months after the history
+        assertThat(model.forecast(6)).isCloseTo(150, within(1e-6));
+        assertThat(model.forecast(5)).isCloseTo(100, within(1e-6));
+        assertThat(model.forecast(7)).isCloseTo(100, within(1e-6));
+        assertThat(model.forecast(18)).isCloseTo(150, within(1e-6));
+    }
+
+    private static double[] series(int months, IntToDoubleFunction value) {
+        return IntStream.range(0, months).mapToDouble(value).toArray();
+    }
+}
@@ -0,0 +1,103 @@
+package com.personalfinancetracker.backend.services.imports;
+
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvTransactionReaderTest {
+
+    @Test
+    void readsQuotedFieldsWithCommasEscapedQuotesAndLineBreaks() throws IOException {
+        CsvTransactionReader reader = reader(
+                "date,amount,category,description\n" +
+                "2024-03-01,-12.50,FOOD,\"Lunch, with \"\"friends\"\"\"\n" +
+                "2024-03-02,-4.00,TRANSPORT,\"Bus\nreturn ticket\"\n" +
+                "2024-03-03,-1.00,FOOD,Coffee\n");
+
+        ImportedTransaction lunch = reader.next();
+        assertThat(lunch.type()).isEqualTo(LedgerEntryType.EXPENSE);
+        assertThat(lunch.amount()).isEqualByComparingTo("12.50");
+        assertThat(lunch.label()).isEqualTo("FOOD");
+        assertThat(lunch.description()).isEqualTo("Lunch, with \"friends\"");
+
+        ImportedTransaction bus = reader.next();
+        assertThat(bus.description()).isEqualTo("Bus\nreturn ticket");
+        assertThat(reader.getLineNumber()).isEqualTo(4);
+
+        assertThat(reader.next().description()).isEqualTo("Coffee");
+        assertThat(reader.getLineNumber()).isEqualTo(5);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void unterminatedQuoteIsRejectedAtEndOfInput() throws IOException {
+        CsvTransactionReader reader = reader(
+                "date,amount,description\n" +
+                "2024-03-01,-5,\"never closed\n" +
+                "2024-03-02,-6,next row\n");
+
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unterminated quoted field");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void malformedRowsAreRejectedAndReadingContinues() throws IOException {
+        CsvTransactionReader reader = reader(
+                "date,amount,type\n" +
+                "2024-03-01,abc,expense\n" +
+                "2024-03-02,,expense\n" +
+                "not-a-date,10,expense\n" +
+                "2024-03-04,10,transfer\n" +
+                "\n" +
+                "2024-03-06,10,income\n");
+
+        assertThatThrownBy(reader::next).hasMessageStartingWith("Line 2:");
+        assertThatThrownBy(reader::next).hasMessageStartingWith("Line 3:");
+        assertThatThrownBy(reader::next).hasMessageStartingWith("Line 4:");
+        assertThatThrownBy(reader::next).hasMessageContaining("unknown type 'transfer'");
+
+        // The blank line is skipped, not rejected
+        ImportedTransaction income = reader.next();
+        assertThat(income.type()).isEqualTo(LedgerEntryType.INCOME);
+        assertThat(income.date()).isEqualTo(LocalDateTime.of(2024, 3, 6, 0, 0));
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void headerIsCaseInsensitiveAndToleratesByteOrderMark() throws IOException {
+        CsvTransactionReader reader = reader(
+                "\uFEFFDate, AMOUNT ,Source,Note,ID\n" +
+                "2024-03-01 18:30:00,2500,Salary,March,abc-1\n");
+
+        ImportedTransaction row = reader.next();
+        assertThat(row.type()).isEqualTo(LedgerEntryType.INCOME);
+        assertThat(row.date()).isEqualTo(LocalDateTime.of(2024, 3, 1, 18, 30));
+        assertThat(row.amount()).isEqualTo(new BigDecimal("2500"));
+        assertThat(row.label()).isEqualTo("Salary");
+        assertThat(row.description()).isEqualTo("March");
+        assertThat(row.externalId()).isEqualTo("abc-1");
+    }
+
+    @Test
+    void headerWithoutDateOrAmountIsRejected() {
+        assertThatThrownBy(() -> reader("when,how much\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'date' and 'amount'");
+        assertThatThrownBy(() -> reader(""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The file is empty");
+    }
+
+    private static CsvTransactionReader reader(String content) throws IOException {
+        return new CsvTransactionReader(new StringReader(content));
+    }
+}
@@ -0,0 +1,79 @@
+package com.personalfinancetracker.backend.services.imports;
+
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OfxTransactionReaderTest {
+
+    @Test
+    void readsSgmlStatementWithoutClosingTags() throws IOException {
+        OfxTransactionReader reader = reader(
+                "OFXHEADER:100\nDATA:OFXSGML\nVERSION:102\n\n" +
+                "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n" +
+                "<DTSTART>20240301\n" +
+                "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20240305120000.000[-5:EST]\n<TRNAMT>-42,10\n" +
+                "<FITID>T1\n<NAME>Grocer &amp; Sons\n<MEMO>Card 1234\n</STMTTRN>\n" +
+                "<STMTTRN>\n<TRNTYPE>CREDIT\n<DTPOSTED>20240310\n<TRNAMT>1500.00\n" +
+                "<FITID>T2\n<NAME>Payroll\n<MEMO>Payroll\n</STMTTRN>\n" +
+                "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n");
+
+        ImportedTransaction grocer = reader.next();
+        assertThat(grocer.type()).isEqualTo(LedgerEntryType.EXPENSE);
+        assertThat(grocer.date()).isEqualTo(LocalDateTime.of(2024, 3, 5, 12, 0));
+        assertThat(grocer.amount()).isEqualByComparingTo("42.10");
+        assertThat(grocer.description()).isEqualTo("Grocer & Sons - Card 1234");
+        assertThat(grocer.externalId()).isEqualTo("T1");
+        assertThat(grocer.label()).isNull();
+
+        ImportedTransaction payroll = reader.next();
+        assertThat(payroll.type()).isEqualTo(LedgerEntryType.INCOME);
+        assertThat(payroll.date()).isEqualTo(LocalDateTime.of(2024, 3, 10, 0, 0));
+        // Identical name and memo are not repeated
+        assertThat(payroll.description()).isEqualTo("Payroll");
+        assertThat(reader.getLineNumber()).isEqualTo(2);
+
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void readsXmlStatement() throws IOException {
+        OfxTransactionReader reader = reader(
+                "<?xml version=\"1.0\"?><OFX><BANKTRANLIST>" +
+                "<STMTTRN><DTPOSTED>20240301</DTPOSTED><TRNAMT>-9.99</TRNAMT>" +
+                "<MEMO>Streaming</MEMO></STMTTRN>" +
+                "</BANKTRANLIST></OFX>");
+
+        ImportedTransaction row = reader.next();
+        assertThat(row.amount()).isEqualByComparingTo("9.99");
+        assertThat(row.description()).isEqualTo("Streaming");
+        assertThat(row.externalId()).isNull();
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void malformedTransactionIsRejectedAndReadingContinues() throws IOException {
+        OfxTransactionReader reader = reader(
+                "<STMTTRN><TRNAMT>-1.00</STMTTRN>" +
+                "<STMTTRN><DTPOSTED>2024XX01<TRNAMT>-1.00</STMTTRN>" +
+                "<STMTTRN><DTPOSTED>20240302<TRNAMT>-2.00</STMTTRN>");
+
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Transaction 1: DTPOSTED and TRNAMT are required");
+        assertThatThrownBy(reader::next)
+                .hasMessage("Transaction 2: unreadable date or amount");
+        assertThat(reader.next().amount()).isEqualByComparingTo("2.00");
+        assertThat(reader.next()).isNull();
+    }
+
+    private static OfxTransactionReader reader(String content) {
+        return new OfxTransactionReader(new StringReader(content));
+    }
+}
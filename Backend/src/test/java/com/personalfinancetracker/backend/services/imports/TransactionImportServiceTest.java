@@ -0,0 +1,73 @@
+package com.personalfinancetracker.backend.services.imports;
+
+import com.personalfinancetracker.backend.entities.LedgerEntryType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fingerprints decide which rows of a re-imported statement are duplicates.
+ */
+class TransactionImportServiceTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    private final MessageDigest digest = TransactionImportService.sha256();
+
+    @Test
+    void identicalRowsInOneFileGetDistinctFingerprints() {
+        Map<String, Integer> occurrences = new HashMap<>();
+        ImportedTransaction coffee = expense("3.50", "Coffee", null);
+
+        String first = TransactionImportService.fingerprint(digest, coffee, occurrences);
+        String second = TransactionImportService.fingerprint(digest, coffee, occurrences);
+
+        assertThat(first).isNotEqualTo(second).hasSize(64);
+    }
+
+    @Test
+    void reimportingTheSameFileReproducesTheFingerprints() {
+        ImportedTransaction coffee = expense("3.50", "Coffee", null);
+        ImportedTransaction lunch = expense("12.00", "Lunch", null);
+
+        Map<String, Integer> firstImport = new HashMap<>();
+        String coffee1 = TransactionImportService.fingerprint(digest, coffee, firstImport);
+        String lunch1 = TransactionImportService.fingerprint(digest, lunch, firstImport);
+        String coffee2 = TransactionImportService.fingerprint(digest, coffee, firstImport);
+
+        // Occurrences are counted per distinct row, so interleaving does not matter
+        Map<String, Integer> secondImport = new HashMap<>();
+        assertThat(TransactionImportService.fingerprint(digest, coffee, secondImport)).isEqualTo(coffee1);
+        assertThat(TransactionImportService.fingerprint(digest, coffee, secondImport)).isEqualTo(coffee2);
+        assertThat(TransactionImportService.fingerprint(digest, lunch, secondImport)).isEqualTo(lunch1);
+    }
+
+    @Test
+    void amountScaleDoesNotChangeTheFingerprint() {
+        String plain = TransactionImportService.fingerprint(digest, expense("3.5", "Coffee", null), new HashMap<>());
+        String padded = TransactionImportService.fingerprint(digest, expense("3.50", "Coffee", null), new HashMap<>());
+
+        assertThat(plain).isEqualTo(padded);
+    }
+
+    @Test
+    void bankTransactionIdIsUsedWithoutOccurrenceCounting() {
+        Map<String, Integer> occurrences = new HashMap<>();
+        String first = TransactionImportService.fingerprint(digest, expense("3.50", "Coffee", "T1"), occurrences);
+        // Same id, different content: the bank's id wins
+        String second = TransactionImportService.fingerprint(digest, expense("4.00", "Tea", "T1"), occurrences);
+
+        assertThat(first).isEqualTo(second);
+        assertThat(occurrences).isEmpty();
+    }
+
+    private static ImportedTransaction expense(String amount, String description, String externalId) {
+        return new ImportedTransaction(LedgerEntryType.EXPENSE, DATE, new BigDecimal(amount), "FOOD", description, externalId);
+    }
+}
@@ -0,0 +1,98 @@
+package com.personalfinancetracker.backend.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The /periodic-comparison aggregation, expenses by category for two periods, with
+ * {@link AmountGrid} against the boxed {@code Map<String, Double>} per period it replaced.
+ * Run with the GC profiler to see the allocation rate next to the latency:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main \
+ *   -Dexec.args="AmountGridBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmountGridBenchmark {
+
+    private static final String[] CATEGORIES = {
+            "FOOD", "RENT", "TRANSPORTATION", "UTILITIES", "ENTERTAINMENT", "HEALTHCARE",
+            "EDUCATION", "SHOPPING", "TRAVEL", "INSURANCE", "SAVINGS", "OTHERS"};
+
+    @Param({"1000", "100000"})
+    public int expenses;
+
+    private String[] categories;
+    private int[] periods;
+    private double[] amounts;
+    private long[] amountsMinor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        categories = new String[expenses];
+        periods = new int[expenses];
+        amounts = new double[expenses];
+        amountsMinor = new long[expenses];
+        for (int i = 0; i < expenses; i++) {
+            // Fresh strings, as read from a result set, so keys are hashed and compared by content
+            categories[i] = new String(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            periods[i] = random.nextInt(2);
+            amountsMinor[i] = 100 + random.nextInt(500_000);
+            amounts[i] = Money.toMajor(amountsMinor[i]);
+        }
+    }
+
+    @Benchmark
+    public double boxedMaps() {
+        Map<String, Double> period1 = new HashMap<>();
+        Map<String, Double> period2 = new HashMap<>();
+        for (int i = 0; i < expenses; i++) {
+            Map<String, Double> totals = periods[i] == 0 ? period1 : period2;
+            totals.put(categories[i], totals.getOrDefault(categories[i], 0.0) + amounts[i]);
+        }
+        Set<String> allCategories = new HashSet<>(period1.keySet());
+        allCategories.addAll(period2.keySet());
+
+        double change = 0;
+        for (String category : allCategories) {
+            change += period1.getOrDefault(category, 0.0) - period2.getOrDefault(category, 0.0);
+        }
+        return change;
+    }
+
+    @Benchmark
+    public double amountGrid() {
+        AmountGrid grid = new AmountGrid(2);
+        for (int i = 0; i < expenses; i++) {
+            grid.add(categories[i], periods[i], amountsMinor[i]);
+        }
+
+        double change = 0;
+        for (int row = 0; row < grid.rows(); row++) {
+            change += grid.sum(row, 0) - grid.sum(row, 1);
+        }
+        return change;
+    }
+}
@@ -0,0 +1,85 @@
+package com.personalfinancetracker.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AmountGridTest {
+
+    @Test
+    void rowsGrowPastTheInitialCapacityWithoutLosingSums() {
+        AmountGrid grid = new AmountGrid(3);
+        for (int i = 0; i < 40; i++) {
+            grid.add("key-" + i, i % 3, 100L * i);
+        }
+        // Added again after two resizes
+        grid.add("key-0", 0, 5);
+        grid.add("key-15", 0, 7);
+
+        assertThat(grid.rows()).isEqualTo(40);
+        assertThat(grid.row("key-17")).isEqualTo(17);
+        assertThat(grid.key(39)).isEqualTo("key-39");
+        assertThat(grid.sumMinor(0, 0)).isEqualTo(5);
+        assertThat(grid.count(0, 0)).isEqualTo(2);
+        assertThat(grid.sumMinor(15, 0)).isEqualTo(1507);
+        assertThat(grid.sum("key-39", 0)).isEqualTo(39.0);
+        assertThat(grid.sum("key-39", 1)).isZero();
+    }
+
+    @Test
+    void maxRowOfAnEmptyGridIsMinusOne() {
+        AmountGrid grid = new AmountGrid(2);
+
+        assertThat(grid.maxRow(0)).isEqualTo(-1);
+        assertThat(grid.toSortedMap(0)).isEmpty();
+        assertThat(grid.sum("missing", 0)).isZero();
+    }
+
+    @Test
+    void maxRowPicksTheLargestSumInTheColumn() {
+        AmountGrid grid = new AmountGrid(2);
+        grid.add("FOOD", 0, 1_000);
+        grid.add("RENT", 0, 50_000);
+        grid.add("FOOD", 1, 9_000);
+
+        assertThat(grid.key(grid.maxRow(0))).isEqualTo("RENT");
+        assertThat(grid.key(grid.maxRow(1))).isEqualTo("FOOD");
+    }
+
+    @Test
+    void toSortedMapOrdersByLargestSumAndKeepsInsertionOrderForTies() {
+        AmountGrid grid = new AmountGrid(1);
+        grid.add("SMALL", 0, 100);
+        grid.add("TIE_FIRST", 0, 500);
+        grid.add("LARGE", 0, 2_000);
+        grid.add("TIE_SECOND", 0, 500);
+        grid.add(null, 0, 300);
+
+        assertThat(grid.toSortedMap(0)).containsExactly(
+                Map.entry("LARGE", 20.0),
+                Map.entry("TIE_FIRST", 5.0),
+                Map.entry("TIE_SECOND", 5.0),
+                new AbstractMap.SimpleEntry<>(null, 3.0),
+                Map.entry("SMALL", 1.0));
+    }
+
+    @Test
+    void sumsAreExactInMinorUnits() {
+        AmountGrid grid = new AmountGrid(1);
+        for (int i = 0; i < 10; i++) {
+            grid.add("FOOD", 0, Money.toMinor(0.1));
+        }
+
+        assertThat(grid.sumMinor(0, 0)).isEqualTo(100);
+        assertThat(grid.sum(0, 0)).isEqualTo(1.0);
+    }
+
+    @Test
+    void columnsMustBePositive() {
+        assertThatThrownBy(() -> new AmountGrid(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
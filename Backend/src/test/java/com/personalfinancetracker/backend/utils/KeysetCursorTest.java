@@ -0,0 +1,44 @@
+package com.personalfinancetracker.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        KeysetCursor cursor = KeysetCursor.of(LocalDateTime.of(2024, 6, 2, 9, 30, 15, 123_456_000), 42L);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+        // Midnight prints without seconds and must still parse
+        KeysetCursor midnight = KeysetCursor.of(LocalDateTime.of(2024, 6, 1, 0, 0), Long.MAX_VALUE);
+        assertThat(KeysetCursor.decode(midnight.encode())).isEqualTo(midnight);
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String token = KeysetCursor.of(LocalDateTime.of(2024, 12, 31, 23, 59, 59), 1L).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        for (String token : new String[]{"", "not base64!", encode("2024-06-01T00:00"), encode("yesterday|1"),
+                encode("2024-06-01T00:00|one")}) {
+            assertThatThrownBy(() -> KeysetCursor.decode(token))
+                    .as(token)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
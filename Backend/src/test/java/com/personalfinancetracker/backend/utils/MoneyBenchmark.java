@@ -0,0 +1,90 @@
+package com.personalfinancetracker.backend.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing ledger amounts as long minor units, as BigDecimal and as the doubles they replaced,
+ * plus the cost of {@link Money#toMinor(double)} at the API edge. Run with the GC profiler to
+ * see the allocation rate next to the latency:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main \
+ *   -Dexec.args="MoneyBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"10000"})
+    public int amounts;
+
+    private double[] doubles;
+    private BigDecimal[] decimals;
+    private long[] minors;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        doubles = new double[amounts];
+        decimals = new BigDecimal[amounts];
+        minors = new long[amounts];
+        for (int i = 0; i < amounts; i++) {
+            minors[i] = 100 + random.nextInt(500_000);
+            doubles[i] = Money.toMajor(minors[i]);
+            decimals[i] = BigDecimal.valueOf(minors[i], 2);
+        }
+    }
+
+    @Benchmark
+    public double sumDoubles() {
+        double total = 0;
+        for (double amount : doubles) {
+            total += amount;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimals() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimals) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long sumMinorUnits() {
+        long total = 0;
+        for (long amount : minors) {
+            total = Math.addExact(total, amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void toMinor(Blackhole blackhole) {
+        for (double amount : doubles) {
+            blackhole.consume(Money.toMinor(amount));
+        }
+    }
+}
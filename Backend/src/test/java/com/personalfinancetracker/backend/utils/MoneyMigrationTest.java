@@ -0,0 +1,49 @@
+package com.personalfinancetracker.backend.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Amounts written by the application must get the same minor units the V6 backfill gave the
+ * rows that were already there, or the rollup totals would drift from the rows they sum.
+ */
+@JdbcTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MoneyMigrationTest {
+
+    // The conversion in V6__money_minor_units.sql
+    private static final String BACKFILL_SQL = "SELECT ROUND(CAST(CAST(? AS DOUBLE) AS DECIMAL(30, 10)) * 100)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void toMinorAgreesWithTheBackfill() {
+        List<Double> amounts = new ArrayList<>(List.of(0.0, 0.005, 1.005, 2.675, 0.1, 0.1 + 0.2, 19.99,
+                -0.005, -1.005, 1e15, 0.00499999999995, 123.456789012345));
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            // Entered amounts, half of them exactly on a half paisa
+            long thousandths = random.nextInt(100_000_000) * 10L + (random.nextBoolean() ? 5 : random.nextInt(10));
+            amounts.add((random.nextBoolean() ? thousandths : -thousandths) / 1000.0);
+            // Computed amounts, with every digit a double has
+            amounts.add((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12)));
+        }
+
+        for (double amount : amounts) {
+            Long backfilled = jdbcTemplate.queryForObject(BACKFILL_SQL, Long.class, amount);
+            assertThat(Money.toMinor(amount)).as("minor units of %s", amount).isEqualTo(backfilled);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.personalfinancetracker.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void halfAMinorUnitRoundsAwayFromZero() {
+        assertThat(Money.toMinor(0.005)).isEqualTo(1);
+        assertThat(Money.toMinor(1.005)).isEqualTo(101);
+        assertThat(Money.toMinor(2.675)).isEqualTo(268);
+        assertThat(Money.toMinor(0.0049)).isZero();
+        // Rounded to 10 decimals first, like the V6 backfill
+        assertThat(Money.toMinor(0.00499999999995)).isEqualTo(1);
+        assertThat(Money.toMinor(new BigDecimal("10.125"))).isEqualTo(1013);
+        assertThat(Money.toMinor(new BigDecimal("10.12499999"))).isEqualTo(1012);
+    }
+
+    @Test
+    void amountsAreTakenAtTheirShortestDecimal() {
+        // 0.1 + 0.2 is 0.30000000000000004, which is still 30 paise
+        assertThat(Money.toMinor(0.1)).isEqualTo(10);
+        assertThat(Money.toMinor(0.1 + 0.2)).isEqualTo(30);
+        assertThat(Money.toMinor(19.99)).isEqualTo(1999);
+        assertThat(Money.toMinor(1e15)).isEqualTo(100_000_000_000_000_000L);
+    }
+
+    @Test
+    void negativeAmountsRoundSymmetrically() {
+        assertThat(Money.toMinor(-0.005)).isEqualTo(-1);
+        assertThat(Money.toMinor(-1.005)).isEqualTo(-101);
+        assertThat(Money.toMinor(-0.0049)).isZero();
+        assertThat(Money.toMinor(-19.99)).isEqualTo(-1999);
+        assertThat(Money.toMajor(-1999)).isEqualTo(-19.99);
+    }
+
+    @Test
+    void nonFiniteAmountsAreRejected() {
+        assertThatThrownBy(() -> Money.toMinor(Double.NaN)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.toMinor(Double.POSITIVE_INFINITY)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.toMinor(Double.NEGATIVE_INFINITY)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void amountsBeyondALongAreRejected() {
+        BigDecimal largest = BigDecimal.valueOf(Long.MAX_VALUE).movePointLeft(2);
+        assertThat(Money.toMinor(largest)).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> Money.toMinor(largest.add(new BigDecimal("0.01"))))
+                .isInstanceOf(ArithmeticException.class);
+        assertThat(Money.toMinor(largest.negate().subtract(new BigDecimal("0.01")))).isEqualTo(Long.MIN_VALUE);
+        assertThatThrownBy(() -> Money.toMinor(1e17)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.toMinor(-Double.MAX_VALUE)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void minorUnitsConvertBackExactly() {
+        assertThat(Money.toMajor(0)).isZero();
+        assertThat(Money.toMajor(1)).isEqualTo(0.01);
+        assertThat(Money.toMajor(123_456_789)).isEqualTo(1_234_567.89);
+        for (long minor = -10_000; minor <= 10_000; minor++) {
+            assertThat(Money.toMinor(Money.toMajor(minor))).isEqualTo(minor);
+        }
+    }
+}
@@ -73,8 +73,8 @@ export class ProfileComponent implements OnInit {
             gender: data.gender || '',
             age: data.age || '',
           });
-          if (data.profilePhoto) {
-            this.profilePhotoUrl = 'data:image/jpeg;base64,' + data.profilePhoto;
+          if (data.profilePhotoUrl) {
+            this.profilePhotoUrl = this.userService.resolvePhotoUrl(data.profilePhotoUrl);
             console.log('Profile photo loaded');
           }
         }
@@ -139,7 +139,7 @@ export class ProfileComponent implements OnInit {
           if (response) {
             console.log('User details updated successfully:', response);
             this.showSuccess('User details updated successfully!');
-            this.profilePhotoUrl = response.profilePhoto ? 'data:image/jpeg;base64,' + response.profilePhoto : this.profilePhotoUrl;
+            this.profilePhotoUrl = this.userService.resolvePhotoUrl(response.profilePhotoUrl) ?? this.profilePhotoUrl;
           }
         });
     } else {
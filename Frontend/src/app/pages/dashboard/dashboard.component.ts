@@ -43,7 +43,7 @@ interface Income {
 interface UserDetails {
   name?: string;
   email?: string;
-  profilePhoto?: string;
+  profilePhotoUrl?: string;
 }
 
 interface ExpenseTrend {
@@ -179,7 +179,7 @@ export class DashboardComponent implements OnInit {
       incomes: this.incomeService.getIncomes().pipe(catchError(() => of([]))),
       trends: this.expenseService.getExpenseTrends().pipe(catchError(() => of([]))),
       summary: this.expenseService.getExpenseSummary().pipe(catchError(() => of([]))),
-      user: this.userService.getUserDetails().pipe(catchError(() => of({ name: 'User', email: '', profilePhoto: null }))),
+      user: this.userService.getUserDetails().pipe(catchError(() => of({ name: 'User', email: '', profilePhotoUrl: null }))),
     }).subscribe({
       next: (results) => {
         this.budgetCategories = results.categories;
@@ -189,7 +189,7 @@ export class DashboardComponent implements OnInit {
 
         this.userName = results.user.name || 'User';
         this.userEmail = results.user.email || '';
-        this.profilePhotoUrl = results.user.profilePhoto ? 'data:image/jpeg;base64,' + results.user.profilePhoto : null;
+        this.profilePhotoUrl = this.userService.resolvePhotoUrl(results.user.profilePhotoUrl);
 
         // Load expenses
         const now = new Date();
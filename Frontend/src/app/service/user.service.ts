@@ -10,7 +10,7 @@ export interface UserDetailsResponse {
   address: string;
   gender: string;
   age: number;
-  profilePhoto?: string; 
+  profilePhotoUrl?: string;
 }
 
 export interface UserDetailsUpdateResponse {
@@ -33,6 +33,11 @@ export class UserService {
     return this.http.put(`${BASE_URL}/api/user/details`, updateRequest, { withCredentials: true });
   }
 
+  // The photo is served by its own cacheable endpoint; details only carry its relative URL
+  resolvePhotoUrl(path?: string | null): string | null {
+    return path ? `${BASE_URL}${path}` : null;
+  }
+
   private handleError(error: HttpErrorResponse) {
     console.error('API Error:', error);
     